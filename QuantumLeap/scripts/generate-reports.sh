@@ -48,26 +48,86 @@ create_directories() {
 }
 
 # Function to clean old reports
+# Delegates to the Java retention manager, which archives old text artifacts and evicts
+# the least recently used files beyond the age limit and the byte budget in config.properties
 clean_old_reports() {
     local days=${1:-7}  # Default to 7 days
-    log_info "Cleaning reports older than $days days..."
+    log_info "Applying artifact retention (max age $days days)..."
     
-    if [ -d "$REPORTS_DIR" ]; then
-        find "$REPORTS_DIR" -name "*.html" -mtime +$days -delete 2>/dev/null || true
-        find "$REPORTS_DIR" -name "*.xml" -mtime +$days -delete 2>/dev/null || true
-        find "$REPORTS_DIR" -name "*.json" -mtime +$days -delete 2>/dev/null || true
+    cd "$PROJECT_DIR"
+    if ! mvn -q -B test-compile; then
+        log_warning "Artifact retention skipped: compilation failed"
+        return 0
+    fi
+    if mvn -q -B exec:java -Dexec.classpathScope=test \
+        -Dexec.mainClass=com.quantumleap.framework.retention.ArtifactRetentionManager \
+        -Dexec.args="--max-age-days $days"; then
+        log_success "Old reports cleaned successfully"
+    else
+        log_warning "Artifact retention failed"
     fi
+}
+
+# Function to merge report shards written by parallel forks or machines
+# (report.shard.enabled=true) into one static, lazy or Extent report
+merge_report_shards() {
+    local format=${1:-static}
+    shift || true
+    log_info "Merging report shards ($format)..."
     
-    if [ -d "$SCREENSHOTS_DIR" ]; then
-        find "$SCREENSHOTS_DIR" -name "*.png" -mtime +$days -delete 2>/dev/null || true
-        find "$SCREENSHOTS_DIR" -name "*.jpg" -mtime +$days -delete 2>/dev/null || true
+    cd "$PROJECT_DIR"
+    mvn -q -B exec:java -Dexec.classpathScope=test \
+        -Dexec.mainClass=com.quantumleap.framework.reporting.ReportMerger \
+        -Dexec.args="--format $format $*" || { log_error "Report merge failed"; return 1; }
+    
+    log_success "Report shards merged"
+}
+
+# Function to render a report from the event log of an earlier run
+# (report.eventlog.enabled=true) without rerunning tests
+regenerate_report() {
+    if [ -z "$1" ]; then
+        log_error "Usage: regenerate <events.jsonl> [--format static|lazy|extent] [--status FAIL,SKIP] [--name regex]"
+        return 1
     fi
+    log_info "Regenerating report from $1..."
+    
+    cd "$PROJECT_DIR"
+    mvn -q -B exec:java -Dexec.classpathScope=test \
+        -Dexec.mainClass=com.quantumleap.framework.reporting.ReportRegenerator \
+        -Dexec.args="$*" || { log_error "Report regeneration failed"; return 1; }
     
-    if [ -d "$LOGS_DIR" ]; then
-        find "$LOGS_DIR" -name "*.log" -mtime +$days -delete 2>/dev/null || true
+    log_success "Report regenerated"
+}
+
+# Function to query the results history (history.enabled=true): pass-rate trend,
+# slowest or flakiest tests, or the statistics of one test over the last runs
+query_results_history() {
+    cd "$PROJECT_DIR"
+    mvn -q -B exec:java -Dexec.classpathScope=test \
+        -Dexec.mainClass=com.quantumleap.framework.history.ResultsQuery \
+        -Dexec.args="${*:-trend}" || { log_error "Results history query failed"; return 1; }
+}
+
+# Function to merge the execution timelines (timeline.enabled=true) of several forks into
+# one worker utilisation page
+merge_timelines() {
+    cd "$PROJECT_DIR"
+    local timelines=("$@")
+    if [ ${#timelines[@]} -eq 0 ]; then
+        mapfile -t timelines < <(find "$REPORTS_DIR" -name "*_timeline.json" 2>/dev/null | sort)
     fi
+    if [ ${#timelines[@]} -eq 0 ]; then
+        log_warning "No execution timelines found in $REPORTS_DIR"
+        return 1
+    fi
+    log_info "Rendering timeline of ${#timelines[@]} run(s)..."
+    
+    mvn -q -B exec:java -Dexec.classpathScope=test \
+        -Dexec.mainClass=com.quantumleap.framework.monitoring.ExecutionTimeline \
+        -Dexec.args="${timelines[*]}" || { log_error "Timeline rendering failed"; return 1; }
     
-    log_success "Old reports cleaned successfully"
+    log_success "Execution timeline rendered"
 }
 
 # Function to run tests with report generation
@@ -299,6 +359,22 @@ main() {
             local days=${2:-7}
             clean_old_reports "$days"
             ;;
+        "merge")
+            shift
+            merge_report_shards "$@"
+            ;;
+        "regenerate")
+            shift
+            regenerate_report "$@"
+            ;;
+        "history")
+            shift
+            query_results_history "$@"
+            ;;
+        "timeline")
+            shift
+            merge_timelines "$@"
+            ;;
         "archive")
             create_directories
             archive_reports
@@ -307,12 +383,18 @@ main() {
             display_summary
             ;;
         "help"|*)
-            echo "Usage: $0 {generate|clean|archive|summary|help}"
+            echo "Usage: $0 {generate|clean|merge|regenerate|history|timeline|archive|summary|help}"
             echo ""
             echo "Commands:"
             echo "  generate [suite]  - Run tests and generate reports"
             echo "                      Suites: smoke, ui, api, bdd, regression, all"
             echo "  clean [days]      - Clean reports older than N days (default: 7)"
+            echo "  merge [format] [shards...] - Merge report shards (static, lazy or extent, default: static)"
+            echo "  regenerate <events.jsonl> [options] - Render a report from a run's event log"
+            echo "                      Options: --format static|lazy|extent, --status FAIL,SKIP, --name regex"
+            echo "  history [query]  - Query results history: trend, slowest, flaky, test <name>"
+            echo "                      Options: --runs N, --limit K"
+            echo "  timeline [files] - Merge the execution timelines of forks into one utilisation page"
             echo "  archive          - Create archive of all test reports"
             echo "  summary          - Display test execution summary"
             echo "  help             - Show this help message"
@@ -321,6 +403,8 @@ main() {
             echo "  $0 generate smoke    # Run smoke tests with reports"
             echo "  $0 generate ui       # Run UI tests with reports"
             echo "  $0 clean 14          # Clean reports older than 14 days"
+            echo "  $0 merge extent      # Merge all shards into one Extent report"
+            echo "  $0 history flaky --runs 30  # Flakiest tests of the last 30 runs"
             echo "  $0 archive           # Archive all reports"
             ;;
     esac
@@ -1,6 +1,15 @@
 package com.quantumleap.framework.base;
 
 import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.jfr.WaitEvent;
+import com.quantumleap.framework.performance.BrowserMetricsTracker;
+import com.quantumleap.framework.performance.WebVitalsCollector;
+import com.quantumleap.framework.recording.StepFrameRecorder;
+import com.quantumleap.framework.tracing.Span;
+import com.quantumleap.framework.tracing.TraceManager;
+import com.quantumleap.framework.utils.VisualCompareOptions;
+import com.quantumleap.framework.utils.VisualDiff;
+import com.quantumleap.framework.utils.VisualRegression;
 import org.openqa.selenium.*;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
@@ -39,15 +48,74 @@ public abstract class BasePage {
         PageFactory.initElements(driver, this);
     }
     
+    /**
+     * Start a trace span for a page-object action
+     * Spans are named after the concrete page class so traces read as LoginPage.enterText
+     * 
+     * @param action Action name
+     * @return Started span, to be closed when the action completes
+     */
+    protected Span traceAction(String action) {
+        Span span = TraceManager.startSpan(getClass().getSimpleName() + "." + action);
+        span.setAttribute("page.class", getClass().getSimpleName());
+        span.setAttribute("page.action", action);
+        return span;
+    }
+    
+    /**
+     * Sample browser memory and DOM metrics around a page-object action
+     * The action is labelled with the calling page method, e.g. CartPage.removeItem/clickElement
+     * 
+     * @param helper BasePage helper performing the interaction
+     * @return Sampling scope, to be closed when the action completes
+     */
+    protected BrowserMetricsTracker.Scope measureAction(String helper) {
+        if (!BrowserMetricsTracker.isAttached()) {
+            return BrowserMetricsTracker.begin(BrowserMetricsTracker.Kind.ACTION, helper);
+        }
+        return BrowserMetricsTracker.begin(BrowserMetricsTracker.Kind.ACTION, actionLabel(helper));
+    }
+    
+    /**
+     * Record a compressed frame of the page after an interaction for failure diagnostics
+     * Frames stay in memory and are only written to disk when the test fails
+     * 
+     * @param helper BasePage helper that performed the interaction
+     */
+    protected void recordStepFrame(String helper) {
+        if (StepFrameRecorder.isRecording()) {
+            StepFrameRecorder.record(driver, actionLabel(helper));
+        }
+    }
+    
+    /**
+     * Label an interaction with the calling page method, e.g. CartPage.removeItem/clickElement
+     * 
+     * @param helper BasePage helper performing the interaction
+     * @return Action label
+     */
+    private String actionLabel(String helper) {
+        Class<?> pageClass = getClass();
+        String pageMethod = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE)
+            .walk(frames -> frames
+                .filter(frame -> frame.getDeclaringClass() == pageClass)
+                .map(StackWalker.StackFrame::getMethodName)
+                .findFirst())
+            .orElse(null);
+        return pageClass.getSimpleName() + "." + (pageMethod != null ? pageMethod + "/" + helper : helper);
+    }
+    
     /**
      * Navigate to a specific URL
      * 
      * @param url URL to navigate to
      */
     protected void navigateTo(String url) {
-        try {
+        try (Span span = traceAction("navigateTo");
+             BrowserMetricsTracker.Scope metrics = measureAction("navigateTo")) {
             driver.get(url);
             logger.info("Navigated to URL: {}", url);
+            recordStepFrame("navigateTo");
         } catch (Exception e) {
             logger.error("Failed to navigate to URL: {}", url, e);
             throw new RuntimeException("Navigation failed", e);
@@ -61,7 +129,8 @@ public abstract class BasePage {
      * @return WebElement once visible
      */
     protected WebElement waitForElementToBeVisible(WebElement element) {
-        try {
+        try (Span span = traceAction("waitForElementToBeVisible");
+             WaitEvent waitEvent = WaitEvent.start("visibility", null)) {
             return wait.until(ExpectedConditions.visibilityOf(element));
         } catch (TimeoutException e) {
             logger.error("Element not visible within timeout", e);
@@ -76,7 +145,8 @@ public abstract class BasePage {
      * @return WebElement once clickable
      */
     protected WebElement waitForElementToBeClickable(WebElement element) {
-        try {
+        try (Span span = traceAction("waitForElementToBeClickable");
+             WaitEvent waitEvent = WaitEvent.start("clickable", null)) {
             return wait.until(ExpectedConditions.elementToBeClickable(element));
         } catch (TimeoutException e) {
             logger.error("Element not clickable within timeout", e);
@@ -91,7 +161,8 @@ public abstract class BasePage {
      * @return WebElement once present
      */
     protected WebElement waitForElementToBePresent(By locator) {
-        try {
+        try (Span span = traceAction("waitForElementToBePresent");
+             WaitEvent waitEvent = WaitEvent.start("presence", String.valueOf(locator))) {
             return wait.until(ExpectedConditions.presenceOfElementLocated(locator));
         } catch (TimeoutException e) {
             logger.error("Element not present within timeout: {}", locator, e);
@@ -105,10 +176,12 @@ public abstract class BasePage {
      * @param element WebElement to click
      */
     protected void clickElement(WebElement element) {
-        try {
+        try (Span span = traceAction("clickElement");
+             BrowserMetricsTracker.Scope metrics = measureAction("clickElement")) {
             waitForElementToBeClickable(element);
             element.click();
             logger.debug("Clicked on element: {}", element);
+            recordStepFrame("clickElement");
         } catch (Exception e) {
             logger.error("Failed to click element", e);
             // Try JavaScript click as fallback
@@ -122,9 +195,11 @@ public abstract class BasePage {
      * @param element WebElement to click
      */
     protected void clickElementWithJS(WebElement element) {
-        try {
+        try (Span span = traceAction("clickElementWithJS");
+             BrowserMetricsTracker.Scope metrics = measureAction("clickElementWithJS")) {
             jsExecutor.executeScript("arguments[0].click();", element);
             logger.debug("Clicked element using JavaScript");
+            recordStepFrame("clickElementWithJS");
         } catch (Exception e) {
             logger.error("Failed to click element with JavaScript", e);
             throw new RuntimeException("Click failed", e);
@@ -138,11 +213,13 @@ public abstract class BasePage {
      * @param text Text to enter
      */
     protected void enterText(WebElement element, String text) {
-        try {
+        try (Span span = traceAction("enterText");
+             BrowserMetricsTracker.Scope metrics = measureAction("enterText")) {
             waitForElementToBeVisible(element);
             element.clear();
             element.sendKeys(text);
             logger.debug("Entered text '{}' in element", text);
+            recordStepFrame("enterText");
         } catch (Exception e) {
             logger.error("Failed to enter text in element", e);
             throw new RuntimeException("Text input failed", e);
@@ -156,7 +233,7 @@ public abstract class BasePage {
      * @return Element text
      */
     protected String getText(WebElement element) {
-        try {
+        try (Span span = traceAction("getText")) {
             waitForElementToBeVisible(element);
             String text = element.getText();
             logger.debug("Retrieved text: '{}'", text);
@@ -175,7 +252,7 @@ public abstract class BasePage {
      * @return Attribute value
      */
     protected String getAttributeValue(WebElement element, String attributeName) {
-        try {
+        try (Span span = traceAction("getAttributeValue")) {
             waitForElementToBeVisible(element);
             String value = element.getAttribute(attributeName);
             logger.debug("Retrieved attribute '{}' value: '{}'", attributeName, value);
@@ -193,11 +270,13 @@ public abstract class BasePage {
      * @param visibleText Visible text to select
      */
     protected void selectDropdownByVisibleText(WebElement element, String visibleText) {
-        try {
+        try (Span span = traceAction("selectDropdownByVisibleText");
+             BrowserMetricsTracker.Scope metrics = measureAction("selectDropdownByVisibleText")) {
             waitForElementToBeVisible(element);
             Select select = new Select(element);
             select.selectByVisibleText(visibleText);
             logger.debug("Selected dropdown option: '{}'", visibleText);
+            recordStepFrame("selectDropdownByVisibleText");
         } catch (Exception e) {
             logger.error("Failed to select dropdown option: '{}'", visibleText, e);
             throw new RuntimeException("Dropdown selection failed", e);
@@ -211,11 +290,13 @@ public abstract class BasePage {
      * @param value Value to select
      */
     protected void selectDropdownByValue(WebElement element, String value) {
-        try {
+        try (Span span = traceAction("selectDropdownByValue");
+             BrowserMetricsTracker.Scope metrics = measureAction("selectDropdownByValue")) {
             waitForElementToBeVisible(element);
             Select select = new Select(element);
             select.selectByValue(value);
             logger.debug("Selected dropdown by value: '{}'", value);
+            recordStepFrame("selectDropdownByValue");
         } catch (Exception e) {
             logger.error("Failed to select dropdown by value: '{}'", value, e);
             throw new RuntimeException("Dropdown selection failed", e);
@@ -258,10 +339,12 @@ public abstract class BasePage {
      * @param element WebElement to scroll to
      */
     protected void scrollToElement(WebElement element) {
-        try {
+        try (Span span = traceAction("scrollToElement")) {
             jsExecutor.executeScript("arguments[0].scrollIntoView({behavior: 'smooth', block: 'center'});", element);
             logger.debug("Scrolled to element");
-            Thread.sleep(500); // Wait for scroll animation
+            try (WaitEvent waitEvent = WaitEvent.start("sleep", "scroll animation")) {
+                Thread.sleep(500); // Wait for scroll animation
+            }
         } catch (Exception e) {
             logger.error("Failed to scroll to element", e);
         }
@@ -271,7 +354,7 @@ public abstract class BasePage {
      * Scroll to top of page
      */
     protected void scrollToTop() {
-        try {
+        try (Span span = traceAction("scrollToTop")) {
             jsExecutor.executeScript("window.scrollTo(0, 0);");
             logger.debug("Scrolled to top of page");
         } catch (Exception e) {
@@ -283,7 +366,7 @@ public abstract class BasePage {
      * Scroll to bottom of page
      */
     protected void scrollToBottom() {
-        try {
+        try (Span span = traceAction("scrollToBottom")) {
             jsExecutor.executeScript("window.scrollTo(0, document.body.scrollHeight);");
             logger.debug("Scrolled to bottom of page");
         } catch (Exception e) {
@@ -295,7 +378,8 @@ public abstract class BasePage {
      * Wait for page to load completely
      */
     protected void waitForPageLoad() {
-        try {
+        try (Span span = traceAction("waitForPageLoad");
+             WaitEvent waitEvent = WaitEvent.start("pageLoad", null)) {
             wait.until(webDriver -> jsExecutor.executeScript("return document.readyState").equals("complete"));
             logger.debug("Page loaded completely");
         } catch (Exception e) {
@@ -303,6 +387,45 @@ public abstract class BasePage {
         }
     }
     
+    /**
+     * Capture web vitals for the page reached by a navigation or transition
+     * Metrics are stored per page per test and checked against the configured budgets
+     * 
+     * @param pageName Logical page name (login, inventory, cart, checkout-step-one, ...)
+     */
+    protected void capturePageMetrics(String pageName) {
+        if (!config.isWebVitalsEnabled()) {
+            return;
+        }
+        try (Span span = traceAction("capturePageMetrics")) {
+            waitForPageLoad();
+            WebVitalsCollector.capture(driver, pageName);
+        }
+    }
+    
+    /**
+     * Compare the visible page with the visual baseline of this page object
+     * Baselines are stored per page class and state and recorded with visual.baseline.update
+     * 
+     * @param state Page state the baseline belongs to, e.g. the test scenario
+     * @return Comparison result, or null if visual checks are disabled or no comparison was made
+     */
+    public VisualDiff verifyVisualBaseline(String state) {
+        try (Span span = traceAction("verifyVisualBaseline")) {
+            waitForPageLoad();
+            return VisualRegression.verify(driver, getClass().getSimpleName(), state, visualOptions());
+        }
+    }
+    
+    /**
+     * Visual comparison options for this page; pages override this to mask dynamic regions
+     * 
+     * @return Comparison options
+     */
+    protected VisualCompareOptions visualOptions() {
+        return VisualCompareOptions.fromConfig();
+    }
+    
     /**
      * Get current page title
      * 
@@ -342,7 +465,7 @@ public abstract class BasePage {
      * @return List of WebElements
      */
     protected List<WebElement> findElements(By locator) {
-        try {
+        try (Span span = traceAction("findElements")) {
             List<WebElement> elements = driver.findElements(locator);
             logger.debug("Found {} elements with locator: {}", elements.size(), locator);
             return elements;
@@ -358,7 +481,8 @@ public abstract class BasePage {
      * @param seconds Time to wait in seconds
      */
     protected void waitFor(int seconds) {
-        try {
+        try (Span span = traceAction("waitFor");
+             WaitEvent waitEvent = WaitEvent.start("sleep", seconds + "s")) {
             Thread.sleep(seconds * 1000L);
             logger.debug("Waited for {} seconds", seconds);
         } catch (InterruptedException e) {
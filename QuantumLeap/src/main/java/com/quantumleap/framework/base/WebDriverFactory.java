@@ -1,6 +1,20 @@
 package com.quantumleap.framework.base;
 
 import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.jfr.DriverLifecycleEvent;
+import com.quantumleap.framework.jfr.FlightRecorderWebDriverListener;
+import com.quantumleap.framework.monitoring.ExecutionTimeline;
+import com.quantumleap.framework.monitoring.ProcessResourceSampler;
+import com.quantumleap.framework.performance.BrowserMetricsTracker;
+import com.quantumleap.framework.performance.WebVitalsCollector;
+import com.quantumleap.framework.recording.DomRecorder;
+import com.quantumleap.framework.recording.HarRecorder;
+import com.quantumleap.framework.recording.ScreencastRecorder;
+import com.quantumleap.framework.recording.StepFrameRecorder;
+import com.quantumleap.framework.tracing.Span;
+import com.quantumleap.framework.tracing.TraceManager;
+import com.quantumleap.framework.tracing.TracingWebDriverListener;
+import com.quantumleap.framework.utils.TestContext;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
@@ -11,11 +25,15 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.Dimension;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Arrays;
 
@@ -40,6 +58,74 @@ public class WebDriverFactory {
         String browserName = config.getBrowser().toLowerCase();
         boolean headless = config.isHeadless();
         
+        WebDriver driver = null;
+        long startMillis = System.currentTimeMillis();
+        Span span = TraceManager.startSpan("WebDriverFactory.createDriver");
+        span.setAttribute("browser.name", browserName);
+        span.setAttribute("browser.headless", headless);
+        
+        try (DriverLifecycleEvent event = DriverLifecycleEvent.start("create", browserName)) {
+            driver = createBrowserDriver(browserName, headless);
+            ProcessResourceSampler.registerDriver(driver);
+            WebVitalsCollector.install(driver);
+            BrowserMetricsTracker.attach(driver);
+            StepFrameRecorder.startSession();
+            ScreencastRecorder.start(driver);
+            DomRecorder.install(driver);
+            HarRecorder.start(driver);
+            configureDriver(driver);
+            driver = decorateDriver(driver);
+            setDriver(driver);
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            if (driver != null) {
+                releaseFailedDriver(driver);
+            }
+            throw e;
+        } finally {
+            span.close();
+            ExecutionTimeline.recordDriver(ExecutionTimeline.KIND_DRIVER_CREATE, browserName, startMillis);
+        }
+        
+        logger.info("WebDriver created successfully: {}", browserName);
+        return driver;
+    }
+    
+    /**
+     * Undo a partially completed createDriver: detach the monitoring and recording hooks
+     * and quit the browser, which was never stored in the ThreadLocal
+     * 
+     * @param driver Raw WebDriver instance
+     */
+    private static void releaseFailedDriver(WebDriver driver) {
+        try {
+            ProcessResourceSampler.unregisterDriver();
+            BrowserMetricsTracker.detach();
+            ScreencastRecorder.stop();
+            ScreencastRecorder.discard();
+            StepFrameRecorder.discard();
+            DomRecorder.discard();
+            HarRecorder.stop();
+            HarRecorder.discard();
+        } catch (RuntimeException e) {
+            logger.warn("Error while releasing hooks of a failed WebDriver: {}", e.getMessage());
+        } finally {
+            try {
+                driver.quit();
+            } catch (RuntimeException e) {
+                logger.warn("Error while quitting a failed WebDriver: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Create the browser-specific WebDriver instance
+     * 
+     * @param browserName Browser name from configuration
+     * @param headless Whether to run in headless mode
+     * @return WebDriver instance
+     */
+    private static WebDriver createBrowserDriver(String browserName, boolean headless) {
         WebDriver driver;
         
         switch (browserName) {
@@ -58,13 +144,30 @@ public class WebDriverFactory {
                 break;
         }
         
-        configureDriver(driver);
-        setDriver(driver);
-        
-        logger.info("WebDriver created successfully: {}", browserName);
         return driver;
     }
     
+    /**
+     * Wrap the driver with the framework's WebDriver listeners (tracing, etc.)
+     * 
+     * @param driver Raw WebDriver instance
+     * @return Decorated WebDriver, or the raw driver when no listener is enabled
+     */
+    private static WebDriver decorateDriver(WebDriver driver) {
+        List<WebDriverListener> listeners = new ArrayList<>();
+        if (config.isTracingEnabled()) {
+            listeners.add(new TracingWebDriverListener());
+        }
+        if (config.isJfrEventsEnabled()) {
+            listeners.add(new FlightRecorderWebDriverListener());
+        }
+        
+        if (listeners.isEmpty()) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(listeners.toArray(new WebDriverListener[0])).decorate(driver);
+    }
+    
     /**
      * Create Chrome WebDriver with enhanced options to prevent dialog blocking
      * 
@@ -227,13 +330,27 @@ public class WebDriverFactory {
     public static void quitDriver() {
         WebDriver driver = driverThreadLocal.get();
         if (driver != null) {
-            try {
+            long startMillis = System.currentTimeMillis();
+            Span span = TraceManager.startSpan("WebDriverFactory.quitDriver");
+            try (DriverLifecycleEvent event = DriverLifecycleEvent.start("quit", config.getBrowser())) {
+                ProcessResourceSampler.unregisterDriver();
+                BrowserMetricsTracker.detach();
+                ScreencastRecorder.stop();
+                if (TestContext.getCurrentTestName() != null) {
+                    // Fallback for tests that quit the driver themselves; after a test the
+                    // failure listener has already drained the recording
+                    DomRecorder.collect(driver);
+                }
+                HarRecorder.stop();
                 driver.quit();
                 logger.info("WebDriver quit successfully");
             } catch (Exception e) {
+                span.recordError(e);
                 logger.error("Error while quitting WebDriver", e);
             } finally {
                 driverThreadLocal.remove();
+                span.close();
+                ExecutionTimeline.recordDriver(ExecutionTimeline.KIND_DRIVER_QUIT, config.getBrowser(), startMillis);
             }
         }
     }
@@ -5,7 +5,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
+import java.util.stream.Collectors;
 
 /**
  * Configuration Manager to handle application configuration properties
@@ -99,6 +102,26 @@ public class ConfigManager {
         }
     }
     
+    /**
+     * Get property value as Integer with default value
+     * 
+     * @param key Property key
+     * @param defaultValue Default value if property not found
+     * @return Property value as Integer or default value
+     */
+    public int getIntProperty(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.error("Invalid integer property: {} = {}", key, value);
+            throw new RuntimeException("Invalid integer property: " + key, e);
+        }
+    }
+    
     /**
      * Get property value as Boolean
      * 
@@ -110,6 +133,18 @@ public class ConfigManager {
         return Boolean.parseBoolean(value);
     }
     
+    /**
+     * Get property value as Boolean with default value
+     * 
+     * @param key Property key
+     * @param defaultValue Default value if property not found
+     * @return Property value as Boolean or default value
+     */
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+    
     // Specific configuration getters
     public String getBrowser() {
         return getProperty("browser", "chrome");
@@ -167,7 +202,338 @@ public class ConfigManager {
         return getProperty("extent.report.name");
     }
     
+    public boolean isReportStreamingEnabled() {
+        return getBooleanProperty("report.streaming.enabled", false);
+    }
+    
+    public int getReportStreamingSyncSeconds() {
+        return getIntProperty("report.streaming.sync.seconds", 5);
+    }
+    
+    public String getReportStreamingFormat() {
+        return getProperty("report.streaming.format", "static");
+    }
+    
+    public boolean isReportLazyThumbnailsEnabled() {
+        return getBooleanProperty("report.lazy.thumbnails", true);
+    }
+    
+    public boolean isReportEventLogEnabled() {
+        return getBooleanProperty("report.eventlog.enabled", false);
+    }
+    
+    public boolean isReportEventLogDeferred() {
+        return getBooleanProperty("report.eventlog.deferred", false);
+    }
+    
+    public boolean isReportShardEnabled() {
+        return getBooleanProperty("report.shard.enabled", false);
+    }
+    
+    public String getReportShardDir() {
+        return getProperty("report.shard.dir", "target/report-shards");
+    }
+    
+    public boolean isReportAsyncEnabled() {
+        return getBooleanProperty("report.async.enabled", false);
+    }
+    
+    public int getReportAsyncFlushTimeoutSeconds() {
+        return getIntProperty("report.async.flush.timeout.seconds", 30);
+    }
+    
+    public boolean isReportBusEnabled() {
+        return getBooleanProperty("report.bus.enabled", false);
+    }
+    
+    public String getReportBusSinks() {
+        return getProperty("report.bus.sinks", "junit,jsonl");
+    }
+    
+    public String getReportBusOutputDir() {
+        return getProperty("report.bus.output.dir", "target/report-bus");
+    }
+    
+    public int getReportBusQueueCapacity() {
+        return getIntProperty("report.bus.queue.capacity", 10000);
+    }
+    
+    public String getReportBusOverflow() {
+        return getProperty("report.bus.overflow", "drop");
+    }
+    
+    public int getReportBusMaxConsecutiveFailures() {
+        return getIntProperty("report.bus.max.consecutive.failures", 5);
+    }
+    
+    public int getReportBusShutdownTimeoutSeconds() {
+        return getIntProperty("report.bus.shutdown.timeout.seconds", 30);
+    }
+    
+    public boolean isHistoryEnabled() {
+        return getBooleanProperty("history.enabled", false);
+    }
+    
+    public String getHistoryDir() {
+        return getProperty("history.dir", ".quantumleap/history");
+    }
+    
     public int getApiTimeout() {
         return getIntProperty("api.timeout");
     }
+    
+    public boolean isTracingEnabled() {
+        return getBooleanProperty("tracing.enabled", false);
+    }
+    
+    public String getTracingOutputDir() {
+        return getProperty("tracing.output.dir", "target/traces");
+    }
+    
+    public boolean isJfrEventsEnabled() {
+        return getBooleanProperty("jfr.events.enabled", true);
+    }
+    
+    public boolean isJfrRecordingEnabled() {
+        return getBooleanProperty("jfr.recording.enabled", false);
+    }
+    
+    public String getJfrRecordingSettings() {
+        return getProperty("jfr.recording.settings", "default");
+    }
+    
+    public boolean isProcessSamplingEnabled() {
+        return getBooleanProperty("process.sampling.enabled", false);
+    }
+    
+    public int getProcessSamplingIntervalMillis() {
+        return getIntProperty("process.sampling.interval.ms", 1000);
+    }
+    
+    public String getScreenshotFormat() {
+        return getProperty("screenshot.format", "png");
+    }
+    
+    public int getScreenshotQuality() {
+        return getIntProperty("screenshot.quality", 80);
+    }
+    
+    public double getScreenshotScale() {
+        return Double.parseDouble(getProperty("screenshot.scale", "1.0"));
+    }
+    
+    public double getScreenshotThumbnailScale() {
+        return Double.parseDouble(getProperty("screenshot.thumbnail.scale", "0.5"));
+    }
+    
+    public boolean isScreenshotHardlinksEnabled() {
+        return getBooleanProperty("screenshot.store.hardlinks", true);
+    }
+    
+    public boolean isStepFramesEnabled() {
+        return getBooleanProperty("step.frames.enabled", false);
+    }
+    
+    public int getStepFramesCount() {
+        return getIntProperty("step.frames.count", 10);
+    }
+    
+    public int getStepFramesMaxKb() {
+        return getIntProperty("step.frames.max.kb", 256);
+    }
+    
+    public int getStepFramesQuality() {
+        return getIntProperty("step.frames.quality", 50);
+    }
+    
+    public double getStepFramesScale() {
+        return Double.parseDouble(getProperty("step.frames.scale", "0.5"));
+    }
+    
+    public boolean isScreencastEnabled() {
+        return getBooleanProperty("screencast.enabled", false);
+    }
+    
+    public int getScreencastFps() {
+        return getIntProperty("screencast.fps", 2);
+    }
+    
+    public int getScreencastWindowSeconds() {
+        return getIntProperty("screencast.window.seconds", 20);
+    }
+    
+    public int getScreencastMaxWidth() {
+        return getIntProperty("screencast.max.width", 800);
+    }
+    
+    public int getScreencastMaxHeight() {
+        return getIntProperty("screencast.max.height", 600);
+    }
+    
+    public int getScreencastQuality() {
+        return getIntProperty("screencast.quality", 40);
+    }
+    
+    public boolean isDomRecordingEnabled() {
+        return getBooleanProperty("dom.recording.enabled", false);
+    }
+    
+    public boolean isHarEnabled() {
+        return getBooleanProperty("har.enabled", false);
+    }
+    
+    public boolean isHarAlwaysWrite() {
+        return getBooleanProperty("har.always.write", false);
+    }
+    
+    public int getHarMaxEntries() {
+        return getIntProperty("har.max.entries", 5000);
+    }
+    
+    public boolean isTestLogCaptureEnabled() {
+        return getBooleanProperty("test.logs.capture.enabled", false);
+    }
+    
+    public int getTestLogMaxEvents() {
+        return getIntProperty("test.logs.max.events", 5000);
+    }
+    
+    public long getTestLogFlushTimeoutMillis() {
+        return getIntProperty("test.logs.flush.timeout.ms", 2000);
+    }
+    
+    public boolean isTimelineEnabled() {
+        return getBooleanProperty("timeline.enabled", false);
+    }
+    
+    public long getTimelineGapThresholdMillis() {
+        return getIntProperty("timeline.gap.threshold.ms", 200);
+    }
+    
+    public int getApiResponsePreviewMaxBytes() {
+        return getIntProperty("api.response.preview.max.bytes", 2048);
+    }
+    
+    public boolean isApiResponseBodyFilesEnabled() {
+        return getBooleanProperty("api.response.body.files", true);
+    }
+    
+    public boolean isApiResponseBodiesFailedOnly() {
+        return getBooleanProperty("api.response.bodies.failed.only", false);
+    }
+    
+    public int getApiResponseDeferredMax() {
+        return getIntProperty("api.response.deferred.max", 20);
+    }
+    
+    public int getFailureArtifactsTimeoutSeconds() {
+        return getIntProperty("failure.artifacts.timeout.seconds", 15);
+    }
+    
+    public boolean isRetentionEnabled() {
+        return getBooleanProperty("retention.enabled", false);
+    }
+    
+    public List<String> getRetentionRoots() {
+        return Arrays.stream(getProperty("retention.roots", "screenshots,logs").split(","))
+            .map(String::trim)
+            .filter(root -> !root.isEmpty())
+            .collect(Collectors.toList());
+    }
+    
+    public int getRetentionMaxTotalMb() {
+        return getIntProperty("retention.max.total.mb", 1024);
+    }
+    
+    public int getRetentionMaxAgeDays() {
+        return getIntProperty("retention.max.age.days", 7);
+    }
+    
+    public int getRetentionCompressAfterDays() {
+        return getIntProperty("retention.compress.after.days", 1);
+    }
+    
+    public String getRetentionIndexFile() {
+        return getProperty("retention.index.file", ".quantumleap/artifact-index.csv");
+    }
+    
+    public int getRetentionAwaitSeconds() {
+        return getIntProperty("retention.await.seconds", 30);
+    }
+    
+    public boolean isVisualEnabled() {
+        return getBooleanProperty("visual.enabled", false);
+    }
+    
+    public String getVisualBaselineDir() {
+        return getProperty("visual.baseline.dir", "src/test/resources/visual-baselines");
+    }
+    
+    public boolean isVisualBaselineUpdate() {
+        return getBooleanProperty("visual.baseline.update", false);
+    }
+    
+    public String getVisualMode() {
+        return getProperty("visual.mode", "warn");
+    }
+    
+    public int getVisualTileSize() {
+        return getIntProperty("visual.tile.size", 32);
+    }
+    
+    public int getVisualColorTolerance() {
+        return getIntProperty("visual.color.tolerance", 16);
+    }
+    
+    public double getVisualMaxDiffRatio() {
+        return Double.parseDouble(getProperty("visual.max.diff.ratio", "0.001"));
+    }
+    
+    public int getScreenshotWriterQueueCapacity() {
+        return getIntProperty("screenshot.writer.queue.capacity", 16);
+    }
+    
+    public int getScreenshotWriterFlushTimeoutSeconds() {
+        return getIntProperty("screenshot.writer.flush.timeout.seconds", 60);
+    }
+    
+    public boolean isWebVitalsEnabled() {
+        return getBooleanProperty("web.vitals.enabled", false);
+    }
+    
+    public String getWebVitalsBudgetMode() {
+        return getProperty("web.vitals.budget.mode", "warn");
+    }
+    
+    public boolean isBrowserMetricsEnabled() {
+        return getBooleanProperty("browser.metrics.enabled", false);
+    }
+    
+    public boolean isBrowserMetricsForceGc() {
+        return getBooleanProperty("browser.metrics.force.gc", false);
+    }
+    
+    public int getBrowserMetricsMinSamples() {
+        return getIntProperty("browser.metrics.growth.min.samples", 4);
+    }
+    
+    /**
+     * Get a web vitals performance budget
+     * 
+     * @param metric Budget key suffix, e.g. lcp.ms or cls
+     * @return Budget value or null if no budget is configured
+     */
+    public Double getWebVitalsBudget(String metric) {
+        String key = "web.vitals.budget." + metric;
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            logger.error("Invalid numeric property: {} = {}", key, value);
+            throw new RuntimeException("Invalid numeric property: " + key, e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+package com.quantumleap.framework.eventbus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantumleap.framework.reporting.ReportShards;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Report sink writing Allure result files (&lt;uuid&gt;-result.json) for allure-maven
+ * The allure-testng listener registers itself through the service loader and writes the same
+ * files on the test thread; enable this sink only with that listener excluded, or results are
+ * reported twice
+ * 
+ * @author QuantumLeap Team
+ */
+public class AllureResultsSink implements ReportSink {
+    
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    private final Path directory;
+    
+    public AllureResultsSink(Path directory) {
+        this.directory = directory;
+    }
+    
+    @Override
+    public String getName() {
+        return "allure";
+    }
+    
+    @Override
+    public void onEvent(TestEvent event) throws IOException {
+        if (!event.isTestFinished()) {
+            return;
+        }
+        String uuid = UUID.randomUUID().toString();
+        String fullName = event.getTestClass() + "." + event.getMethod();
+        String[] parameters = event.getParameters();
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("uuid", uuid);
+        result.put("historyId", md5(fullName + String.join(",", parameters)));
+        result.put("testCaseId", md5(fullName));
+        result.put("fullName", fullName);
+        result.put("name", event.getDescription() != null && !event.getDescription().isEmpty() ? event.getDescription() : event.getMethod());
+        result.put("status", status(event));
+        Throwable throwable = event.getThrowable();
+        if (throwable != null) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("message", String.valueOf(throwable.getMessage()));
+            details.put("trace", JUnitXmlSink.stackTrace(throwable));
+            result.put("statusDetails", details);
+        }
+        result.put("stage", "finished");
+        result.put("start", event.getStartMillis());
+        result.put("stop", event.getEndMillis());
+        
+        List<Map<String, String>> labels = new ArrayList<>();
+        int packageEnd = event.getTestClass().lastIndexOf('.');
+        labels.add(label("suite", event.getSuite()));
+        labels.add(label("package", packageEnd > 0 ? event.getTestClass().substring(0, packageEnd) : ""));
+        labels.add(label("testClass", event.getTestClass()));
+        labels.add(label("testMethod", event.getMethod()));
+        labels.add(label("thread", event.getThread()));
+        labels.add(label("host", ReportShards.workerId()));
+        labels.add(label("framework", "testng"));
+        labels.add(label("language", "java"));
+        for (String group : event.getGroups()) {
+            labels.add(label("tag", group));
+        }
+        result.put("labels", labels);
+        
+        List<Map<String, String>> parameterList = new ArrayList<>();
+        for (int i = 0; i < parameters.length; i++) {
+            Map<String, String> parameter = new LinkedHashMap<>();
+            parameter.put("name", "arg" + i);
+            parameter.put("value", parameters[i]);
+            parameterList.add(parameter);
+        }
+        result.put("parameters", parameterList);
+        
+        Files.createDirectories(directory);
+        mapper.writeValue(directory.resolve(uuid + "-result.json").toFile(), result);
+    }
+    
+    private static String status(TestEvent event) {
+        switch (event.getType()) {
+            case TEST_PASSED:
+                return "passed";
+            case TEST_SKIPPED:
+                return "skipped";
+            default:
+                return event.getThrowable() instanceof AssertionError ? "failed" : "broken";
+        }
+    }
+    
+    private static Map<String, String> label(String name, String value) {
+        Map<String, String> label = new LinkedHashMap<>();
+        label.put("name", name);
+        label.put("value", value);
+        return label;
+    }
+    
+    private static String md5(String text) {
+        try {
+            StringBuilder hex = new StringBuilder(32);
+            for (byte b : MessageDigest.getInstance("MD5").digest(text.getBytes(StandardCharsets.UTF_8))) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("MD5 not available", e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.quantumleap.framework.eventbus;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Report sink writing JUnit XML, one TEST-&lt;class&gt;.xml per test class as written by
+ * surefire, so CI servers can read the results of the bus like any other JUnit report
+ * Finished tests are collected per class and the files are rewritten at each suite end; the
+ * sink is lossless, as a dropped event would silently remove a test case from the report
+ * 
+ * @author QuantumLeap Team
+ */
+public class JUnitXmlSink implements ReportSink {
+    
+    private final Path directory;
+    private final Map<String, List<TestEvent>> classes = new LinkedHashMap<>();
+    private boolean pending;
+    
+    public JUnitXmlSink(Path directory) {
+        this.directory = directory;
+    }
+    
+    @Override
+    public String getName() {
+        return "junit";
+    }
+    
+    @Override
+    public boolean isLossless() {
+        return true;
+    }
+    
+    @Override
+    public void onEvent(TestEvent event) throws IOException, XMLStreamException {
+        if (event.isTestFinished()) {
+            classes.computeIfAbsent(event.getTestClass(), name -> new ArrayList<>()).add(event);
+            pending = true;
+        } else if (event.getType() == TestEvent.Type.SUITE_FINISHED && pending) {
+            writeAll();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException, XMLStreamException {
+        if (pending) {
+            writeAll();
+        }
+    }
+    
+    private void writeAll() throws IOException, XMLStreamException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, List<TestEvent>> entry : classes.entrySet()) {
+            write(entry.getKey(), entry.getValue());
+        }
+        pending = false;
+    }
+    
+    private void write(String className, List<TestEvent> tests) throws IOException, XMLStreamException {
+        int failures = 0;
+        int errors = 0;
+        int skipped = 0;
+        long start = Long.MAX_VALUE;
+        long totalMillis = 0;
+        for (TestEvent test : tests) {
+            if (test.getType() == TestEvent.Type.TEST_SKIPPED) {
+                skipped++;
+            } else if (test.getType() == TestEvent.Type.TEST_FAILED) {
+                if (test.getThrowable() instanceof AssertionError) {
+                    failures++;
+                } else {
+                    errors++;
+                }
+            }
+            start = Math.min(start, test.getStartMillis());
+            totalMillis += test.getDurationMillis();
+        }
+        
+        try (OutputStream output = Files.newOutputStream(directory.resolve("TEST-" + className + ".xml"))) {
+            XMLStreamWriter xml = XMLOutputFactory.newInstance().createXMLStreamWriter(output, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("testsuite");
+            xml.writeAttribute("name", className);
+            xml.writeAttribute("tests", String.valueOf(tests.size()));
+            xml.writeAttribute("failures", String.valueOf(failures));
+            xml.writeAttribute("errors", String.valueOf(errors));
+            xml.writeAttribute("skipped", String.valueOf(skipped));
+            xml.writeAttribute("time", seconds(totalMillis));
+            xml.writeAttribute("timestamp", new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(new Date(start)));
+            for (TestEvent test : tests) {
+                xml.writeStartElement("testcase");
+                String[] parameters = test.getParameters();
+                xml.writeAttribute("name", test.getMethod() + (parameters.length > 0 ? "[" + String.join(", ", parameters) + "]" : ""));
+                xml.writeAttribute("classname", className);
+                xml.writeAttribute("time", seconds(test.getDurationMillis()));
+                Throwable throwable = test.getThrowable();
+                if (test.getType() == TestEvent.Type.TEST_FAILED) {
+                    xml.writeStartElement(throwable instanceof AssertionError ? "failure" : "error");
+                    if (throwable != null) {
+                        xml.writeAttribute("message", clean(String.valueOf(throwable.getMessage())));
+                        xml.writeAttribute("type", throwable.getClass().getName());
+                        xml.writeCharacters(clean(stackTrace(throwable)));
+                    }
+                    xml.writeEndElement();
+                } else if (test.getType() == TestEvent.Type.TEST_SKIPPED) {
+                    xml.writeStartElement("skipped");
+                    if (throwable != null) {
+                        xml.writeAttribute("message", clean(String.valueOf(throwable.getMessage())));
+                    }
+                    xml.writeEndElement();
+                }
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        }
+    }
+    
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.3f", millis / 1000.0);
+    }
+    
+    static String stackTrace(Throwable throwable) {
+        StringWriter trace = new StringWriter();
+        throwable.printStackTrace(new PrintWriter(trace));
+        return trace.toString();
+    }
+    
+    /**
+     * Drop characters that XML 1.0 cannot represent, e.g. ANSI escapes in driver messages
+     */
+    private static String clean(String text) {
+        StringBuilder cleaned = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                cleaned.append(c);
+            }
+        }
+        return cleaned.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.quantumleap.framework.eventbus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Report sink appending every lifecycle event as one JSON line, for log shippers and
+ * ad-hoc analysis; lines are flushed as they are written so a crashed run keeps its events
+ * 
+ * @author QuantumLeap Team
+ */
+public class JsonLinesSink implements ReportSink {
+    
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    private final Path path;
+    private BufferedWriter writer;
+    
+    public JsonLinesSink(Path path) {
+        this.path = path;
+    }
+    
+    @Override
+    public String getName() {
+        return "jsonl";
+    }
+    
+    @Override
+    public void onEvent(TestEvent event) throws IOException {
+        if (writer == null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("type", event.getType().name());
+        line.put("timestamp", event.getTimestamp());
+        line.put("suite", event.getSuite());
+        if (event.getTestClass() != null) {
+            line.put("class", event.getTestClass());
+            line.put("method", event.getMethod());
+            line.put("parameters", event.getParameters());
+            line.put("groups", event.getGroups());
+            line.put("thread", event.getThread());
+            line.put("startMillis", event.getStartMillis());
+            if (event.isTestFinished()) {
+                line.put("endMillis", event.getEndMillis());
+                line.put("durationMillis", event.getDurationMillis());
+            }
+        }
+        Throwable throwable = event.getThrowable();
+        if (throwable != null && event.isTestFinished()) {
+            line.put("errorType", throwable.getClass().getName());
+            line.put("errorMessage", throwable.getMessage());
+        }
+        writer.write(mapper.writeValueAsString(line));
+        writer.newLine();
+        writer.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+}
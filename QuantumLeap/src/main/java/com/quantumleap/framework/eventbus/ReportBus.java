@@ -0,0 +1,217 @@
+package com.quantumleap.framework.eventbus;
+
+import com.quantumleap.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Report event bus
+ * Test lifecycle events are published once and fanned out to every registered sink. Each sink
+ * has its own bounded queue and background thread, so a slow sink delays neither the tests nor
+ * the other sinks, and a failing sink is isolated: its exceptions are logged and, after
+ * report.bus.max.consecutive.failures failures in a row, the sink is disabled
+ * 
+ * When a sink's queue is full, test events are dropped and counted (report.bus.overflow=drop,
+ * the default); with report.bus.overflow=block the publishing test thread waits until the sink
+ * catches up instead. Lossless sinks such as the JUnit XML writer always block. Suite start and finish events always wait, up to
+ * report.bus.shutdown.timeout.seconds, as sinks rely on them to write their output
+ * 
+ * Built-in sinks (report.bus.sinks): junit, allure, jsonl; any other entry is taken as the class
+ * name of a ReportSink with a no-argument constructor
+ * 
+ * @author QuantumLeap Team
+ */
+public class ReportBus {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReportBus.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final TestEvent SHUTDOWN = TestEvent.suiteFinished("shutdown");
+    
+    private static final List<SinkWorker> workers = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Start the sinks configured in report.bus.sinks, once per suite
+     */
+    public static synchronized void start() {
+        if (!config.isReportBusEnabled() || !workers.isEmpty()) {
+            return;
+        }
+        for (String name : config.getReportBusSinks().split(",")) {
+            if (!name.trim().isEmpty()) {
+                try {
+                    register(createSink(name.trim()));
+                } catch (RuntimeException e) {
+                    logger.error("Report sink '{}' could not be created and is not registered", name.trim(), e);
+                }
+            }
+        }
+    }
+    
+    private static ReportSink createSink(String name) {
+        Path outputDir = Paths.get(config.getReportBusOutputDir());
+        switch (name.toLowerCase()) {
+            case "junit":
+                return new JUnitXmlSink(outputDir.resolve("junit"));
+            case "allure":
+                return new AllureResultsSink(Paths.get(System.getProperty("allure.results.directory", "target/allure-results")));
+            case "jsonl":
+                return new JsonLinesSink(outputDir.resolve("events.jsonl"));
+            default:
+                try {
+                    return (ReportSink) Class.forName(name).getDeclaredConstructor().newInstance();
+                } catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new RuntimeException("Unknown report sink: " + name, e);
+                }
+        }
+    }
+    
+    /**
+     * Register a sink; it receives every event published from now on
+     * 
+     * @param sink Report sink
+     */
+    public static synchronized void register(ReportSink sink) {
+        SinkWorker worker = new SinkWorker(sink, config.getReportBusQueueCapacity());
+        workers.add(worker);
+        worker.thread.start();
+        logger.info("Report sink registered: {}", sink.getName());
+    }
+    
+    /**
+     * Hand an event to every sink; returns as soon as the event is queued
+     * 
+     * @param event Lifecycle event
+     */
+    public static void publish(TestEvent event) {
+        for (SinkWorker worker : workers) {
+            worker.offer(event);
+        }
+    }
+    
+    /**
+     * Deliver the queued events, close every sink and stop the worker threads
+     */
+    public static synchronized void shutdown() {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(config.getReportBusShutdownTimeoutSeconds());
+        for (SinkWorker worker : workers) {
+            worker.stop(deadline);
+        }
+        for (SinkWorker worker : workers) {
+            try {
+                worker.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.thread.isAlive()) {
+                logger.warn("Report sink {} still busy after {} s, {} events not delivered", worker.sink.getName(),
+                    config.getReportBusShutdownTimeoutSeconds(), worker.queue.size());
+            }
+            logger.info("Report sink {}: {} events delivered, {} failed, {} dropped{}", worker.sink.getName(),
+                worker.delivered.get(), worker.failed.get(), worker.dropped.get(), worker.disabled ? " (disabled)" : "");
+        }
+        workers.clear();
+    }
+    
+    /**
+     * Queue and background thread of one sink
+     */
+    private static class SinkWorker implements Runnable {
+        private final ReportSink sink;
+        private final BlockingQueue<TestEvent> queue;
+        private final Thread thread;
+        private final boolean dropWhenFull;
+        private final int maxConsecutiveFailures = config.getReportBusMaxConsecutiveFailures();
+        private final AtomicLong delivered = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private volatile boolean disabled;
+        private int consecutiveFailures;
+        
+        SinkWorker(ReportSink sink, int capacity) {
+            this.sink = sink;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.dropWhenFull = !sink.isLossless() && "drop".equalsIgnoreCase(config.getReportBusOverflow());
+            this.thread = new Thread(this, "report-sink-" + sink.getName());
+            thread.setDaemon(true);
+        }
+        
+        void offer(TestEvent event) {
+            if (disabled) {
+                return;
+            }
+            boolean suiteEvent = event.getType() == TestEvent.Type.SUITE_STARTED
+                || event.getType() == TestEvent.Type.SUITE_FINISHED;
+            if (dropWhenFull && !suiteEvent) {
+                if (!queue.offer(event) && dropped.incrementAndGet() == 1) {
+                    logger.warn("Report sink {} queue full, dropping events", sink.getName());
+                }
+                return;
+            }
+            try {
+                if (!suiteEvent) {
+                    queue.put(event);
+                } else if (!queue.offer(event, config.getReportBusShutdownTimeoutSeconds(), TimeUnit.SECONDS)) {
+                    dropped.incrementAndGet();
+                    logger.warn("Report sink {} did not accept {} within {} s", sink.getName(), event.getType(),
+                        config.getReportBusShutdownTimeoutSeconds());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.incrementAndGet();
+            }
+        }
+        
+        void stop(long deadline) {
+            try {
+                queue.offer(SHUTDOWN, Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        @Override
+        public void run() {
+            try {
+                TestEvent event;
+                while ((event = queue.take()) != SHUTDOWN) {
+                    if (!disabled) {
+                        deliver(event);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            try {
+                sink.close();
+            } catch (Exception e) {
+                logger.error("Report sink {} failed to close", sink.getName(), e);
+            }
+        }
+        
+        private void deliver(TestEvent event) {
+            try {
+                sink.onEvent(event);
+                delivered.incrementAndGet();
+                consecutiveFailures = 0;
+            } catch (Exception | LinkageError e) {
+                // Linkage errors are caught too, so a sink missing a library cannot kill its thread
+                failed.incrementAndGet();
+                consecutiveFailures++;
+                logger.error("Report sink {} failed on {} event", sink.getName(), event.getType(), e);
+                if (maxConsecutiveFailures > 0 && consecutiveFailures >= maxConsecutiveFailures) {
+                    disabled = true;
+                    logger.error("Report sink {} disabled after {} consecutive failures", sink.getName(), consecutiveFailures);
+                }
+            }
+        }
+    }
+}
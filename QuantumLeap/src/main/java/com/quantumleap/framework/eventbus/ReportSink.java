@@ -0,0 +1,44 @@
+package com.quantumleap.framework.eventbus;
+
+/**
+ * Destination of report bus events, e.g. a JUnit XML or Allure results writer
+ * Each sink is called from its own background thread, one event at a time and in publish
+ * order, so implementations need no synchronization
+ * 
+ * @author QuantumLeap Team
+ */
+public interface ReportSink {
+    
+    /**
+     * Name used in logs and in report.bus.sinks
+     * 
+     * @return Sink name
+     */
+    String getName();
+    
+    /**
+     * Handle one event
+     * 
+     * @param event Lifecycle event
+     * @throws Exception Any failure; handled by the bus according to its failure policy
+     */
+    void onEvent(TestEvent event) throws Exception;
+    
+    /**
+     * Whether the sink must receive every test event, e.g. because its output lists each test
+     * The bus then waits for queue space when the queue is full, whatever report.bus.overflow says
+     * 
+     * @return true if test events must never be dropped for this sink
+     */
+    default boolean isLossless() {
+        return false;
+    }
+    
+    /**
+     * Flush and release resources after the last event
+     * 
+     * @throws Exception Any failure; logged by the bus
+     */
+    default void close() throws Exception {
+    }
+}
@@ -0,0 +1,139 @@
+package com.quantumleap.framework.eventbus;
+
+import org.testng.ITestResult;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a test lifecycle event published on the report bus
+ * Everything a sink needs is copied from the TestNG result on the test thread, so sinks can
+ * process the event later on their own threads without touching TestNG state
+ * 
+ * @author QuantumLeap Team
+ */
+public final class TestEvent {
+    
+    public enum Type {
+        SUITE_STARTED, TEST_STARTED, TEST_PASSED, TEST_FAILED, TEST_SKIPPED, SUITE_FINISHED
+    }
+    
+    private final Type type;
+    private final long timestamp;
+    private final String suite;
+    private final String testClass;
+    private final String method;
+    private final String description;
+    private final String[] parameters;
+    private final String[] groups;
+    private final long startMillis;
+    private final long endMillis;
+    private final String thread;
+    private final Throwable throwable;
+    
+    private TestEvent(Type type, String suite, ITestResult result) {
+        this.type = type;
+        this.timestamp = System.currentTimeMillis();
+        this.suite = suite;
+        this.thread = Thread.currentThread().getName();
+        if (result != null) {
+            this.testClass = result.getTestClass().getRealClass().getName();
+            this.method = result.getMethod().getMethodName();
+            this.description = result.getMethod().getDescription();
+            Object[] values = result.getParameters();
+            this.parameters = values != null ? Arrays.stream(values).map(String::valueOf).toArray(String[]::new) : new String[0];
+            this.groups = result.getMethod().getGroups() != null ? result.getMethod().getGroups().clone() : new String[0];
+            this.startMillis = result.getStartMillis();
+            this.endMillis = type == Type.TEST_STARTED ? 0 : result.getEndMillis();
+            this.throwable = result.getThrowable();
+        } else {
+            this.testClass = null;
+            this.method = null;
+            this.description = null;
+            this.parameters = new String[0];
+            this.groups = new String[0];
+            this.startMillis = timestamp;
+            this.endMillis = timestamp;
+            this.throwable = null;
+        }
+    }
+    
+    public static TestEvent suiteStarted(String suite) {
+        return new TestEvent(Type.SUITE_STARTED, suite, null);
+    }
+    
+    public static TestEvent suiteFinished(String suite) {
+        return new TestEvent(Type.SUITE_FINISHED, suite, null);
+    }
+    
+    /**
+     * Snapshot a test result
+     * 
+     * @param type Lifecycle step
+     * @param result TestNG result
+     * @return Test event
+     */
+    public static TestEvent test(Type type, ITestResult result) {
+        return new TestEvent(type, result.getTestContext().getSuite().getName(), result);
+    }
+    
+    /**
+     * Whether this event ends a test (passed, failed or skipped)
+     * 
+     * @return true for terminal test events
+     */
+    public boolean isTestFinished() {
+        return type == Type.TEST_PASSED || type == Type.TEST_FAILED || type == Type.TEST_SKIPPED;
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    public String getSuite() {
+        return suite;
+    }
+    
+    public String getTestClass() {
+        return testClass;
+    }
+    
+    public String getMethod() {
+        return method;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public String[] getParameters() {
+        return parameters.clone();
+    }
+    
+    public String[] getGroups() {
+        return groups.clone();
+    }
+    
+    public long getStartMillis() {
+        return startMillis;
+    }
+    
+    public long getEndMillis() {
+        return endMillis;
+    }
+    
+    public long getDurationMillis() {
+        return Math.max(0, endMillis - startMillis);
+    }
+    
+    public String getThread() {
+        return thread;
+    }
+    
+    public Throwable getThrowable() {
+        return throwable;
+    }
+}
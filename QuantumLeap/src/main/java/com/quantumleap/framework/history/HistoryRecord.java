@@ -0,0 +1,69 @@
+package com.quantumleap.framework.history;
+
+/**
+ * Outcome of one test execution as kept in the results history
+ * 
+ * @author QuantumLeap Team
+ */
+public class HistoryRecord {
+    
+    /**
+     * Final test outcome; the ordinal is the on-disk code
+     */
+    public enum Outcome {
+        PASS, FAIL, SKIP
+    }
+    
+    private final String testName;
+    private final long startMillis;
+    private final int durationMillis;
+    private final Outcome outcome;
+    private final int retries;
+    private final String browser;
+    private final String dataRow;
+    private final String failureSignature;
+    
+    public HistoryRecord(String testName, long startMillis, int durationMillis, Outcome outcome, int retries,
+                         String browser, String dataRow, String failureSignature) {
+        this.testName = testName;
+        this.startMillis = startMillis;
+        this.durationMillis = durationMillis;
+        this.outcome = outcome;
+        this.retries = retries;
+        this.browser = browser;
+        this.dataRow = dataRow;
+        this.failureSignature = failureSignature;
+    }
+    
+    public String getTestName() {
+        return testName;
+    }
+    
+    public long getStartMillis() {
+        return startMillis;
+    }
+    
+    public int getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    
+    public int getRetries() {
+        return retries;
+    }
+    
+    public String getBrowser() {
+        return browser;
+    }
+    
+    public String getDataRow() {
+        return dataRow;
+    }
+    
+    public String getFailureSignature() {
+        return failureSignature;
+    }
+}
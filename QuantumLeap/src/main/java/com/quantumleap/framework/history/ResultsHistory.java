@@ -0,0 +1,121 @@
+package com.quantumleap.framework.history;
+
+import com.quantumleap.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects the final outcome of every test of a run and appends them to the results history
+ * Attempts that TestNG retries are not recorded themselves but counted as retries of the
+ * attempt that ends the test
+ * 
+ * @author QuantumLeap Team
+ */
+public class ResultsHistory {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ResultsHistory.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final int MAX_SIGNATURE_MESSAGE = 160;
+    
+    private static final Queue<HistoryRecord> results = new ConcurrentLinkedQueue<>();
+    private static final Map<String, Integer> retries = new ConcurrentHashMap<>();
+    
+    /**
+     * Record a finished test
+     * 
+     * @param result TestNG result
+     */
+    public static void record(ITestResult result) {
+        if (!config.isHistoryEnabled()) {
+            return;
+        }
+        String testName = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        Object[] parameters = result.getParameters();
+        String dataRow = parameters != null && parameters.length > 0 ? Arrays.toString(parameters) : null;
+        String key = testName + dataRow;
+        if (result.wasRetried()) {
+            retries.merge(key, 1, Integer::sum);
+            return;
+        }
+        
+        HistoryRecord.Outcome outcome;
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+            case ITestResult.SUCCESS_PERCENTAGE_FAILURE:
+                outcome = HistoryRecord.Outcome.PASS;
+                break;
+            case ITestResult.FAILURE:
+                outcome = HistoryRecord.Outcome.FAIL;
+                break;
+            default:
+                outcome = HistoryRecord.Outcome.SKIP;
+        }
+        Integer retryCount = retries.remove(key);
+        long duration = Math.max(0, result.getEndMillis() - result.getStartMillis());
+        results.add(new HistoryRecord(testName, result.getStartMillis(), (int) Math.min(duration, Integer.MAX_VALUE),
+            outcome, retryCount != null ? retryCount : 0, config.getBrowser(), dataRow,
+            outcome == HistoryRecord.Outcome.FAIL ? failureSignature(result.getThrowable()) : null));
+    }
+    
+    /**
+     * Reduce a failure to a signature shared by all occurrences of the same problem:
+     * exception type, first message line with numbers masked, and the first framework frame
+     * 
+     * @param throwable Failure cause
+     * @return Failure signature
+     */
+    public static String failureSignature(Throwable throwable) {
+        if (throwable == null) {
+            return "Unknown failure";
+        }
+        String message = throwable.getMessage() != null ? throwable.getMessage().split("\\R", 2)[0] : "";
+        message = message.replaceAll("\\d+", "#");
+        if (message.length() > MAX_SIGNATURE_MESSAGE) {
+            message = message.substring(0, MAX_SIGNATURE_MESSAGE) + "...";
+        }
+        StringBuilder signature = new StringBuilder(throwable.getClass().getName());
+        if (!message.isEmpty()) {
+            signature.append(": ").append(message);
+        }
+        for (StackTraceElement frame : throwable.getStackTrace()) {
+            if (frame.getClassName().startsWith("com.quantumleap")) {
+                signature.append(" @ ").append(frame.getClassName()).append('.').append(frame.getMethodName());
+                break;
+            }
+        }
+        return signature.toString();
+    }
+    
+    /**
+     * Append the recorded tests as one run to the history store
+     */
+    public static void flush() {
+        if (results.isEmpty()) {
+            return;
+        }
+        List<HistoryRecord> run = new ArrayList<>();
+        HistoryRecord record;
+        while ((record = results.poll()) != null) {
+            run.add(record);
+        }
+        run.sort((first, second) -> Long.compare(first.getStartMillis(), second.getStartMillis()));
+        try (ResultsStore store = ResultsStore.openForWrite(Paths.get(config.getHistoryDir()))) {
+            int runId = store.appendRun(run);
+            logger.info("Results history: run {} with {} tests appended to {} ({} records)",
+                runId, run.size(), config.getHistoryDir(), store.size());
+        } catch (RuntimeException e) {
+            logger.error("Failed to append run to results history", e);
+        }
+        retries.clear();
+    }
+}
@@ -0,0 +1,407 @@
+package com.quantumleap.framework.history;
+
+import com.quantumleap.framework.config.ConfigManager;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Queries over the results history: duration percentiles, pass-rate trends and the slowest
+ * and flakiest tests of the last N runs
+ * Each query scans only the records of the requested runs, straight from the mapped store
+ * 
+ * Usage: ResultsQuery {trend|slowest|flaky|test &lt;name&gt;} [--runs N] [--limit K] [--dir path]
+ * 
+ * @author QuantumLeap Team
+ */
+public class ResultsQuery {
+    
+    private final ResultsStore store;
+    
+    public ResultsQuery(ResultsStore store) {
+        this.store = store;
+    }
+    
+    /**
+     * Pass rate of each of the last runs
+     * 
+     * @param lastRuns Number of runs
+     * @return One summary per run, oldest first
+     */
+    public List<RunSummary> passRateTrend(int lastRuns) {
+        int firstRun = firstRun(lastRuns);
+        int runCount = store.getRunCount();
+        RunSummary[] runs = new RunSummary[Math.max(0, runCount - firstRun + 1)];
+        for (long i = store.firstIndexOfRun(firstRun), end = store.size(); i < end; i++) {
+            int slot = store.runId(i) - firstRun;
+            if (runs[slot] == null) {
+                runs[slot] = new RunSummary(store.runId(i));
+            }
+            runs[slot].add(store.outcome(i), store.startMillis(i), store.durationMillis(i));
+        }
+        return Arrays.stream(runs).filter(run -> run != null).collect(Collectors.toList());
+    }
+    
+    /**
+     * Tests with the highest 90th percentile duration
+     * 
+     * @param lastRuns Number of runs
+     * @param limit Maximum number of tests
+     * @return Test statistics, slowest first
+     */
+    public List<TestStats> slowest(int lastRuns, int limit) {
+        return aggregate(lastRuns, -1).stream()
+            .sorted(Comparator.comparingInt(TestStats::getP90).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Tests whose outcome changes between executions or that needed retries
+     * 
+     * @param lastRuns Number of runs
+     * @param limit Maximum number of tests
+     * @return Test statistics, flakiest first
+     */
+    public List<TestStats> flakiest(int lastRuns, int limit) {
+        return aggregate(lastRuns, -1).stream()
+            .filter(stats -> stats.getFlakiness() > 0)
+            .sorted(Comparator.comparingDouble(TestStats::getFlakiness).reversed())
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Statistics of one test, one entry per data-provider row
+     * 
+     * @param testName Test name as recorded (Class.method)
+     * @param lastRuns Number of runs
+     * @return Test statistics, empty if the test is unknown
+     */
+    public List<TestStats> testStats(String testName, int lastRuns) {
+        int testId = store.stringId(testName);
+        return testId < 0 ? new ArrayList<>() : aggregate(lastRuns, testId);
+    }
+    
+    private int firstRun(int lastRuns) {
+        return Math.max(1, store.getRunCount() - lastRuns + 1);
+    }
+    
+    private List<TestStats> aggregate(int lastRuns, int onlyTestId) {
+        Map<Long, Accumulator> tests = new HashMap<>();
+        for (long i = store.firstIndexOfRun(firstRun(lastRuns)), end = store.size(); i < end; i++) {
+            int testId = store.testId(i);
+            if (onlyTestId >= 0 && testId != onlyTestId) {
+                continue;
+            }
+            int dataRowId = store.dataRowId(i);
+            long key = ((long) testId << 32) | (dataRowId & 0xFFFFFFFFL);
+            tests.computeIfAbsent(key, k -> new Accumulator(testId, dataRowId)).add(i);
+        }
+        return tests.values().stream().map(Accumulator::toStats).collect(Collectors.toList());
+    }
+    
+    /**
+     * Running totals of one test and data row
+     */
+    private class Accumulator {
+        private final int testId;
+        private final int dataRowId;
+        private int[] durations = new int[16];
+        private int executions;
+        private int passes;
+        private int failures;
+        private int skips;
+        private int retried;
+        private int flips;
+        private HistoryRecord.Outcome lastOutcome;
+        private int lastSignatureId = -1;
+        
+        Accumulator(int testId, int dataRowId) {
+            this.testId = testId;
+            this.dataRowId = dataRowId;
+        }
+        
+        void add(long index) {
+            if (executions == durations.length) {
+                durations = Arrays.copyOf(durations, executions * 2);
+            }
+            durations[executions++] = store.durationMillis(index);
+            HistoryRecord.Outcome outcome = store.outcome(index);
+            if (outcome == HistoryRecord.Outcome.PASS) {
+                passes++;
+            } else if (outcome == HistoryRecord.Outcome.FAIL) {
+                failures++;
+                lastSignatureId = store.signatureId(index);
+            } else {
+                skips++;
+            }
+            if (store.retries(index) > 0) {
+                retried++;
+            }
+            if (outcome != HistoryRecord.Outcome.SKIP) {
+                if (lastOutcome != null && lastOutcome != outcome) {
+                    flips++;
+                }
+                lastOutcome = outcome;
+            }
+        }
+        
+        TestStats toStats() {
+            int[] sorted = Arrays.copyOf(durations, executions);
+            Arrays.sort(sorted);
+            String dataRow = store.string(dataRowId);
+            String name = store.string(testId) + (dataRow != null ? " " + dataRow : "");
+            long total = 0;
+            for (int duration : sorted) {
+                total += duration;
+            }
+            return new TestStats(name, executions, passes, failures, skips, retried,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.95), sorted[sorted.length - 1],
+                (int) (total / executions), (double) (flips + retried) / executions, store.string(lastSignatureId));
+        }
+    }
+    
+    private static int percentile(int[] sorted, double percentile) {
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+    
+    /**
+     * Duration and outcome statistics of one test over the queried runs
+     */
+    public static final class TestStats {
+        private final String name;
+        private final int executions;
+        private final int passes;
+        private final int failures;
+        private final int skips;
+        private final int retried;
+        private final int p50;
+        private final int p90;
+        private final int p95;
+        private final int max;
+        private final int mean;
+        private final double flakiness;
+        private final String lastFailure;
+        
+        TestStats(String name, int executions, int passes, int failures, int skips, int retried,
+                  int p50, int p90, int p95, int max, int mean, double flakiness, String lastFailure) {
+            this.name = name;
+            this.executions = executions;
+            this.passes = passes;
+            this.failures = failures;
+            this.skips = skips;
+            this.retried = retried;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p95 = p95;
+            this.max = max;
+            this.mean = mean;
+            this.flakiness = flakiness;
+            this.lastFailure = lastFailure;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public int getExecutions() {
+            return executions;
+        }
+        
+        public int getPasses() {
+            return passes;
+        }
+        
+        public int getFailures() {
+            return failures;
+        }
+        
+        public int getSkips() {
+            return skips;
+        }
+        
+        public int getRetried() {
+            return retried;
+        }
+        
+        public int getP50() {
+            return p50;
+        }
+        
+        public int getP90() {
+            return p90;
+        }
+        
+        public int getP95() {
+            return p95;
+        }
+        
+        public int getMax() {
+            return max;
+        }
+        
+        public int getMean() {
+            return mean;
+        }
+        
+        /**
+         * Share of executions that changed outcome from the previous one or needed a retry
+         * 
+         * @return Flakiness from 0.0 to 1.0
+         */
+        public double getFlakiness() {
+            return flakiness;
+        }
+        
+        public String getLastFailure() {
+            return lastFailure;
+        }
+        
+        public double getPassRate() {
+            return executions > 0 ? (double) passes / executions : 0;
+        }
+    }
+    
+    /**
+     * Totals of one run
+     */
+    public static final class RunSummary {
+        private final int runId;
+        private long startMillis = Long.MAX_VALUE;
+        private long testMillis;
+        private int total;
+        private int passed;
+        private int failed;
+        private int skipped;
+        
+        RunSummary(int runId) {
+            this.runId = runId;
+        }
+        
+        void add(HistoryRecord.Outcome outcome, long start, int duration) {
+            total++;
+            startMillis = Math.min(startMillis, start);
+            testMillis += duration;
+            if (outcome == HistoryRecord.Outcome.PASS) {
+                passed++;
+            } else if (outcome == HistoryRecord.Outcome.FAIL) {
+                failed++;
+            } else {
+                skipped++;
+            }
+        }
+        
+        public int getRunId() {
+            return runId;
+        }
+        
+        public long getStartMillis() {
+            return startMillis;
+        }
+        
+        public long getTestMillis() {
+            return testMillis;
+        }
+        
+        public int getTotal() {
+            return total;
+        }
+        
+        public int getPassed() {
+            return passed;
+        }
+        
+        public int getFailed() {
+            return failed;
+        }
+        
+        public int getSkipped() {
+            return skipped;
+        }
+        
+        public double getPassRate() {
+            return total > 0 ? (double) passed / total : 0;
+        }
+    }
+    
+    /**
+     * Command line entry point
+     * 
+     * @param args Command and options
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: ResultsQuery {trend|slowest|flaky|test <name>} [--runs N] [--limit K] [--dir path]");
+            System.exit(2);
+        }
+        String command = args[0];
+        String testName = null;
+        int runs = 20;
+        int limit = 15;
+        Path directory = Paths.get(ConfigManager.getInstance().getHistoryDir());
+        for (int i = 1; i < args.length; i++) {
+            if ("--runs".equals(args[i]) && i + 1 < args.length) {
+                runs = Integer.parseInt(args[++i]);
+            } else if ("--limit".equals(args[i]) && i + 1 < args.length) {
+                limit = Integer.parseInt(args[++i]);
+            } else if ("--dir".equals(args[i]) && i + 1 < args.length) {
+                directory = Paths.get(args[++i]);
+            } else {
+                testName = args[i];
+            }
+        }
+        
+        try (ResultsStore store = ResultsStore.openForRead(directory)) {
+            ResultsQuery query = new ResultsQuery(store);
+            System.out.printf("Results history: %d records, %d runs (querying last %d)%n", store.size(), store.getRunCount(), runs);
+            switch (command) {
+                case "trend":
+                    SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+                    System.out.printf("%-6s %-16s %7s %7s %7s %7s %9s%n", "Run", "Started", "Tests", "Passed", "Failed", "Skipped", "PassRate");
+                    for (RunSummary run : query.passRateTrend(runs)) {
+                        System.out.printf("%-6d %-16s %7d %7d %7d %7d %8.1f%%%n", run.getRunId(),
+                            dateFormat.format(new Date(run.getStartMillis())), run.getTotal(), run.getPassed(),
+                            run.getFailed(), run.getSkipped(), run.getPassRate() * 100);
+                    }
+                    break;
+                case "slowest":
+                    printStats(query.slowest(runs, limit));
+                    break;
+                case "flaky":
+                    printStats(query.flakiest(runs, limit));
+                    break;
+                case "test":
+                    if (testName == null) {
+                        throw new IllegalArgumentException("Missing test name, e.g. LoginTests.testValidLogin");
+                    }
+                    List<TestStats> stats = query.testStats(testName, runs);
+                    printStats(stats);
+                    stats.stream().filter(test -> test.getLastFailure() != null)
+                        .forEach(test -> System.out.println("Last failure of " + test.getName() + ": " + test.getLastFailure()));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown command: " + command);
+            }
+        }
+    }
+    
+    private static void printStats(List<TestStats> stats) {
+        System.out.printf("%-60s %5s %6s %7s %7s %7s %7s %6s%n", "Test", "Runs", "Pass%", "p50ms", "p90ms", "p95ms", "maxms", "Flaky");
+        for (TestStats test : stats) {
+            String name = test.getName().length() > 60 ? test.getName().substring(0, 57) + "..." : test.getName();
+            System.out.printf("%-60s %5d %5.1f%% %7d %7d %7d %7d %5.0f%%%n", name, test.getExecutions(),
+                test.getPassRate() * 100, test.getP50(), test.getP90(), test.getP95(), test.getMax(), test.getFlakiness() * 100);
+        }
+    }
+}
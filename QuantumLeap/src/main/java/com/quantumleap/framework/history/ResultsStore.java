@@ -0,0 +1,320 @@
+package com.quantumleap.framework.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only, memory-mapped store of test execution history
+ * results.dat holds a 64-byte header followed by fixed 40-byte records, written one run at a
+ * time under a file lock so parallel forks can share a store; repeated strings (test names,
+ * browsers, data rows, failure signatures) are interned once in strings.dat. Records are
+ * ordered by run, so the last N runs are found by binary search and scanned without allocation
+ * 
+ * @author QuantumLeap Team
+ */
+public class ResultsStore implements Closeable {
+    
+    public static final String RESULTS_FILE = "results.dat";
+    public static final String STRINGS_FILE = "strings.dat";
+    
+    private static final int MAGIC = 0x514C5253;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 40;
+    private static final int MIN_GROWTH_RECORDS = 4096;
+    
+    private static final int HEADER_COUNT = 8;
+    private static final int HEADER_RUNS = 16;
+    
+    private static final int RUN = 0;
+    private static final int START = 4;
+    private static final int DURATION = 12;
+    private static final int OUTCOME = 16;
+    private static final int RETRIES = 17;
+    private static final int TEST = 20;
+    private static final int BROWSER = 24;
+    private static final int DATA_ROW = 28;
+    private static final int SIGNATURE = 32;
+    
+    private final Path directory;
+    private final boolean writable;
+    private final FileChannel channel;
+    private final FileChannel stringChannel;
+    private MappedByteBuffer buffer;
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private long stringOffset;
+    
+    private ResultsStore(Path directory, boolean writable) throws IOException {
+        this.directory = directory;
+        this.writable = writable;
+        if (writable) {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(directory.resolve(RESULTS_FILE),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            stringChannel = FileChannel.open(directory.resolve(STRINGS_FILE),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            try (FileLock lock = channel.lock()) {
+                if (channel.size() == 0) {
+                    map(HEADER_SIZE + (long) MIN_GROWTH_RECORDS * RECORD_SIZE);
+                    buffer.putInt(0, MAGIC);
+                    buffer.putInt(4, VERSION);
+                    buffer.force();
+                }
+            }
+        } else {
+            channel = FileChannel.open(directory.resolve(RESULTS_FILE), StandardOpenOption.READ);
+            stringChannel = FileChannel.open(directory.resolve(STRINGS_FILE), StandardOpenOption.READ);
+        }
+        map(channel.size());
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            close();
+            throw new IOException("Not a results history store: " + directory.resolve(RESULTS_FILE));
+        }
+        refreshStrings();
+    }
+    
+    /**
+     * Open a store for appending, creating it if needed
+     * 
+     * @param directory Store directory
+     * @return Writable store
+     */
+    public static ResultsStore openForWrite(Path directory) {
+        try {
+            return new ResultsStore(directory, true);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open results history: " + directory, e);
+        }
+    }
+    
+    /**
+     * Open an existing store for queries
+     * 
+     * @param directory Store directory
+     * @return Read-only store
+     */
+    public static ResultsStore openForRead(Path directory) {
+        if (!Files.exists(directory.resolve(RESULTS_FILE))) {
+            throw new IllegalStateException("No results history in " + directory.toAbsolutePath());
+        }
+        try {
+            return new ResultsStore(directory, false);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open results history: " + directory, e);
+        }
+    }
+    
+    private void map(long size) throws IOException {
+        buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    
+    /**
+     * Append the executions of one run
+     * 
+     * @param records Executions of the run
+     * @return Id of the new run
+     */
+    public synchronized int appendRun(List<HistoryRecord> records) {
+        try (FileLock lock = channel.lock()) {
+            if (channel.size() > buffer.capacity()) {
+                map(channel.size());
+            }
+            refreshStrings();
+            long count = size();
+            int runId = getRunCount() + 1;
+            long required = HEADER_SIZE + (count + records.size()) * RECORD_SIZE;
+            if (required > buffer.capacity()) {
+                long grown = HEADER_SIZE + Math.max(count * 2, count + MIN_GROWTH_RECORDS) * RECORD_SIZE;
+                map(Math.max(required, grown));
+            }
+            int position = position(count);
+            for (HistoryRecord record : records) {
+                buffer.putInt(position + RUN, runId);
+                buffer.putLong(position + START, record.getStartMillis());
+                buffer.putInt(position + DURATION, record.getDurationMillis());
+                buffer.put(position + OUTCOME, (byte) record.getOutcome().ordinal());
+                buffer.put(position + RETRIES, (byte) Math.min(record.getRetries(), Byte.MAX_VALUE));
+                buffer.putInt(position + TEST, intern(record.getTestName()));
+                buffer.putInt(position + BROWSER, intern(record.getBrowser()));
+                buffer.putInt(position + DATA_ROW, intern(record.getDataRow()));
+                buffer.putInt(position + SIGNATURE, intern(record.getFailureSignature()));
+                position += RECORD_SIZE;
+            }
+            stringChannel.force(false);
+            buffer.force();
+            // Publish the records only once they are on disk
+            buffer.putLong(HEADER_COUNT, count + records.size());
+            buffer.putInt(HEADER_RUNS, runId);
+            buffer.force();
+            return runId;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to append run to results history: " + directory, e);
+        }
+    }
+    
+    private int intern(String value) throws IOException {
+        if (value == null) {
+            return -1;
+        }
+        Integer id = stringIds.get(value);
+        if (id != null) {
+            return id;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer entry = ByteBuffer.allocate(4 + bytes.length);
+        entry.putInt(bytes.length).put(bytes).flip();
+        while (entry.hasRemaining()) {
+            stringOffset += stringChannel.write(entry, stringOffset);
+        }
+        strings.add(value);
+        stringIds.put(value, strings.size() - 1);
+        return strings.size() - 1;
+    }
+    
+    /**
+     * Load strings interned since the last refresh, including those of other processes
+     */
+    private void refreshStrings() throws IOException {
+        long end = stringChannel.size();
+        if (end <= stringOffset) {
+            return;
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) (end - stringOffset));
+        while (data.hasRemaining()) {
+            if (stringChannel.read(data, stringOffset + data.position()) < 0) {
+                break;
+            }
+        }
+        data.flip();
+        while (data.remaining() >= 4) {
+            int length = data.getInt(data.position());
+            if (data.remaining() < 4 + length) {
+                break;
+            }
+            data.getInt();
+            byte[] bytes = new byte[length];
+            data.get(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            stringIds.put(value, strings.size() - 1);
+            stringOffset += 4 + length;
+        }
+    }
+    
+    private static int position(long index) {
+        return (int) (HEADER_SIZE + index * RECORD_SIZE);
+    }
+    
+    /**
+     * Number of records in the store
+     * 
+     * @return Record count
+     */
+    public long size() {
+        return buffer.getLong(HEADER_COUNT);
+    }
+    
+    public int getRunCount() {
+        return buffer.getInt(HEADER_RUNS);
+    }
+    
+    /**
+     * Index of the first record of a run, by binary search over the run-ordered records
+     * 
+     * @param runId Run id
+     * @return First index whose run is at least runId
+     */
+    public long firstIndexOfRun(int runId) {
+        long low = 0;
+        long high = size();
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (runId(middle) < runId) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    public int runId(long index) {
+        return buffer.getInt(position(index) + RUN);
+    }
+    
+    public long startMillis(long index) {
+        return buffer.getLong(position(index) + START);
+    }
+    
+    public int durationMillis(long index) {
+        return buffer.getInt(position(index) + DURATION);
+    }
+    
+    public HistoryRecord.Outcome outcome(long index) {
+        return HistoryRecord.Outcome.values()[buffer.get(position(index) + OUTCOME)];
+    }
+    
+    public int retries(long index) {
+        return buffer.get(position(index) + RETRIES);
+    }
+    
+    public int testId(long index) {
+        return buffer.getInt(position(index) + TEST);
+    }
+    
+    public int browserId(long index) {
+        return buffer.getInt(position(index) + BROWSER);
+    }
+    
+    public int dataRowId(long index) {
+        return buffer.getInt(position(index) + DATA_ROW);
+    }
+    
+    public int signatureId(long index) {
+        return buffer.getInt(position(index) + SIGNATURE);
+    }
+    
+    /**
+     * Resolve an interned string
+     * 
+     * @param id String id from a record
+     * @return String, or null for id -1
+     */
+    public String string(int id) {
+        return id >= 0 && id < strings.size() ? strings.get(id) : null;
+    }
+    
+    /**
+     * Look up the id of an interned string without adding it
+     * 
+     * @param value String value
+     * @return String id, or -1 if the store has never seen it
+     */
+    public int stringId(String value) {
+        Integer id = stringIds.get(value);
+        return id != null ? id : -1;
+    }
+    
+    @Override
+    public void close() {
+        try {
+            channel.close();
+            stringChannel.close();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to close results history: " + directory, e);
+        }
+    }
+}
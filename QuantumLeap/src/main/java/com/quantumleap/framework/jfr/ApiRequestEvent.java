@@ -0,0 +1,46 @@
+package com.quantumleap.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for REST Assured HTTP requests
+ * 
+ * @author QuantumLeap Team
+ */
+@Name("com.quantumleap.ApiRequest")
+@Label("API Request")
+@Category({"QuantumLeap", "API"})
+@Description("HTTP request sent by an API test")
+public class ApiRequestEvent extends FrameworkEvent {
+    
+    @Label("Method")
+    String method;
+    
+    @Label("URL")
+    String url;
+    
+    @Label("Status Code")
+    int statusCode;
+    
+    /**
+     * Start a timed API request event
+     * 
+     * @param method HTTP method
+     * @param url Request URL
+     * @return Started event
+     */
+    public static ApiRequestEvent start(String method, String url) {
+        ApiRequestEvent event = new ApiRequestEvent();
+        event.method = method;
+        event.url = url;
+        event.beginForCurrentTest();
+        return event;
+    }
+    
+    public void setStatusCode(int statusCode) {
+        this.statusCode = statusCode;
+    }
+}
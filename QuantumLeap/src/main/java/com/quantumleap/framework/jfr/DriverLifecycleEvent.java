@@ -0,0 +1,39 @@
+package com.quantumleap.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for WebDriver creation and quit
+ * 
+ * @author QuantumLeap Team
+ */
+@Name("com.quantumleap.DriverLifecycle")
+@Label("Driver Lifecycle")
+@Category({"QuantumLeap", "WebDriver"})
+@Description("Creation or shutdown of a browser session")
+public class DriverLifecycleEvent extends FrameworkEvent {
+    
+    @Label("Action")
+    String action;
+    
+    @Label("Browser")
+    String browser;
+    
+    /**
+     * Start a timed driver lifecycle event
+     * 
+     * @param action Lifecycle action (create or quit)
+     * @param browser Browser name
+     * @return Started event
+     */
+    public static DriverLifecycleEvent start(String action, String browser) {
+        DriverLifecycleEvent event = new DriverLifecycleEvent();
+        event.action = action;
+        event.browser = browser;
+        event.beginForCurrentTest();
+        return event;
+    }
+}
@@ -0,0 +1,26 @@
+package com.quantumleap.framework.jfr;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * REST Assured filter that emits a JFR event for every HTTP request
+ * 
+ * @author QuantumLeap Team
+ */
+public class FlightRecorderFilter implements Filter {
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        try (ApiRequestEvent event = ApiRequestEvent.start(requestSpec.getMethod(), requestSpec.getURI())) {
+            Response response = ctx.next(requestSpec, responseSpec);
+            event.setStatusCode(response.getStatusCode());
+            return response;
+        }
+    }
+}
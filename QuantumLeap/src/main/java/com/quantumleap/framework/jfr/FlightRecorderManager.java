@@ -0,0 +1,69 @@
+package com.quantumleap.framework.jfr;
+
+import com.quantumleap.framework.config.ConfigManager;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+
+/**
+ * Flight Recorder Manager to run an optional JFR recording for the whole suite
+ * The recording includes the framework events alongside the JVM's own GC, thread and I/O events
+ * and is saved next to the Extent report
+ * 
+ * @author QuantumLeap Team
+ */
+public class FlightRecorderManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderManager.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static Recording recording;
+    
+    /**
+     * Start the suite recording if enabled in configuration
+     */
+    public static synchronized void startRecording() {
+        if (!config.isJfrRecordingEnabled() || recording != null) {
+            return;
+        }
+        try {
+            Configuration settings = Configuration.getConfiguration(config.getJfrRecordingSettings());
+            recording = new Recording(settings);
+            recording.setName("QuantumLeap Suite");
+            recording.setToDisk(true);
+            recording.start();
+            logger.info("JFR recording started with '{}' settings", config.getJfrRecordingSettings());
+        } catch (Exception e) {
+            logger.error("Failed to start JFR recording", e);
+            recording = null;
+        }
+    }
+    
+    /**
+     * Stop the suite recording and save it to the given file
+     * 
+     * @param recordingPath Destination .jfr file, normally next to the Extent report
+     * @return Path of the saved recording or null if no recording was running
+     */
+    public static synchronized String stopRecording(String recordingPath) {
+        if (recording == null) {
+            return null;
+        }
+        try {
+            File recordingFile = new File(recordingPath);
+            recordingFile.getParentFile().mkdirs();
+            recording.stop();
+            recording.dump(recordingFile.toPath());
+            logger.info("JFR recording saved: {}", recordingFile.getAbsolutePath());
+            return recordingFile.getAbsolutePath();
+        } catch (Exception e) {
+            logger.error("Failed to save JFR recording", e);
+            return null;
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.quantumleap.framework.jfr;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * WebDriver listener that emits a JFR event for every WebDriver command
+ * Registered on the driver by WebDriverFactory when JFR events are enabled
+ * 
+ * @author QuantumLeap Team
+ */
+public class FlightRecorderWebDriverListener implements WebDriverListener {
+    
+    private final ThreadLocal<Deque<WebDriverCommandEvent>> commandEvents = ThreadLocal.withInitial(ArrayDeque::new);
+    
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        String command = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        commandEvents.get().push(WebDriverCommandEvent.start(command, target.getClass().getSimpleName()));
+    }
+    
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        WebDriverCommandEvent event = commandEvents.get().poll();
+        if (event != null) {
+            event.close();
+        }
+    }
+    
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        WebDriverCommandEvent event = commandEvents.get().poll();
+        if (event != null) {
+            event.setFailed(true);
+            event.close();
+        }
+    }
+}
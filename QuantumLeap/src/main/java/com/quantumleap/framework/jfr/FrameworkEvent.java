@@ -0,0 +1,45 @@
+package com.quantumleap.framework.jfr;
+
+import com.quantumleap.framework.utils.TestContext;
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class for QuantumLeap Java Flight Recorder events
+ * Every event carries the name of the test running on the emitting thread;
+ * the thread itself is recorded by JFR as the event thread
+ * 
+ * Events are AutoCloseable so timed operations read as try-with-resources blocks
+ * 
+ * @author QuantumLeap Team
+ */
+@Category("QuantumLeap")
+@Enabled
+@StackTrace(false)
+public abstract class FrameworkEvent extends Event implements AutoCloseable {
+    
+    @Label("Test Name")
+    protected String testName;
+    
+    /**
+     * Tag the event with the current test and start its timer
+     */
+    protected void beginForCurrentTest() {
+        testName = TestContext.getCurrentTestName();
+        begin();
+    }
+    
+    /**
+     * Stop the timer and commit the event if a recording is interested in it
+     */
+    @Override
+    public void close() {
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
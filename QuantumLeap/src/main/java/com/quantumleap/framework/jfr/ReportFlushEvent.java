@@ -0,0 +1,39 @@
+package com.quantumleap.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for report flushes
+ * 
+ * @author QuantumLeap Team
+ */
+@Name("com.quantumleap.ReportFlush")
+@Label("Report Flush")
+@Category({"QuantumLeap", "Reporting"})
+@Description("Flush of a test report to disk")
+public class ReportFlushEvent extends FrameworkEvent {
+    
+    @Label("Reporter")
+    String reporter;
+    
+    @Label("Path")
+    String path;
+    
+    /**
+     * Start a timed report flush event
+     * 
+     * @param reporter Reporter name
+     * @param path Report output path
+     * @return Started event
+     */
+    public static ReportFlushEvent start(String reporter, String path) {
+        ReportFlushEvent event = new ReportFlushEvent();
+        event.reporter = reporter;
+        event.path = path;
+        event.beginForCurrentTest();
+        return event;
+    }
+}
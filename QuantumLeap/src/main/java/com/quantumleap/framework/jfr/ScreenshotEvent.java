@@ -0,0 +1,45 @@
+package com.quantumleap.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for screenshot capture and persistence
+ * 
+ * @author QuantumLeap Team
+ */
+@Name("com.quantumleap.Screenshot")
+@Label("Screenshot")
+@Category({"QuantumLeap", "Artifacts"})
+@Description("Screenshot captured from the browser; the file is written asynchronously")
+public class ScreenshotEvent extends FrameworkEvent {
+    
+    @Label("Path")
+    String path;
+    
+    @Label("Size")
+    @DataAmount
+    long size;
+    
+    /**
+     * Start a timed screenshot event
+     * 
+     * @return Started event
+     */
+    public static ScreenshotEvent start() {
+        ScreenshotEvent event = new ScreenshotEvent();
+        event.beginForCurrentTest();
+        return event;
+    }
+    
+    public void setPath(String path) {
+        this.path = path;
+    }
+    
+    public void setSize(long size) {
+        this.size = size;
+    }
+}
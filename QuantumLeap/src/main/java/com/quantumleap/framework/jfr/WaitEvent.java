@@ -0,0 +1,39 @@
+package com.quantumleap.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for explicit waits and hard sleeps in page objects
+ * 
+ * @author QuantumLeap Team
+ */
+@Name("com.quantumleap.Wait")
+@Label("Wait")
+@Category({"QuantumLeap", "WebDriver"})
+@Description("Explicit wait or Thread.sleep performed by the framework")
+public class WaitEvent extends FrameworkEvent {
+    
+    @Label("Kind")
+    String kind;
+    
+    @Label("Detail")
+    String detail;
+    
+    /**
+     * Start a timed wait event
+     * 
+     * @param kind Wait kind (visibility, clickable, presence, pageLoad, sleep)
+     * @param detail Optional detail such as a locator
+     * @return Started event
+     */
+    public static WaitEvent start(String kind, String detail) {
+        WaitEvent event = new WaitEvent();
+        event.kind = kind;
+        event.detail = detail;
+        event.beginForCurrentTest();
+        return event;
+    }
+}
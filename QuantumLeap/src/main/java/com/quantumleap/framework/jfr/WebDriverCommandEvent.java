@@ -0,0 +1,46 @@
+package com.quantumleap.framework.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for a single WebDriver command
+ * 
+ * @author QuantumLeap Team
+ */
+@Name("com.quantumleap.WebDriverCommand")
+@Label("WebDriver Command")
+@Category({"QuantumLeap", "WebDriver"})
+@Description("Round trip of a WebDriver, WebElement or navigation call")
+public class WebDriverCommandEvent extends FrameworkEvent {
+    
+    @Label("Command")
+    String command;
+    
+    @Label("Target")
+    String target;
+    
+    @Label("Failed")
+    boolean failed;
+    
+    /**
+     * Start a timed WebDriver command event
+     * 
+     * @param command Command name (Interface.method)
+     * @param target Simple class name of the call target
+     * @return Started event
+     */
+    public static WebDriverCommandEvent start(String command, String target) {
+        WebDriverCommandEvent event = new WebDriverCommandEvent();
+        event.command = command;
+        event.target = target;
+        event.beginForCurrentTest();
+        return event;
+    }
+    
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+}
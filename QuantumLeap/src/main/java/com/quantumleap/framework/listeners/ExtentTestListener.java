@@ -1,14 +1,40 @@
 package com.quantumleap.framework.listeners;
 
 import com.aventstack.extentreports.ExtentTest;
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.eventbus.ReportBus;
+import com.quantumleap.framework.eventbus.TestEvent;
+import com.quantumleap.framework.history.ResultsHistory;
+import com.quantumleap.framework.jfr.FlightRecorderManager;
+import com.quantumleap.framework.logging.TestLogCapture;
+import com.quantumleap.framework.monitoring.ExecutionTimeline;
+import com.quantumleap.framework.monitoring.ProcessResourceSampler;
+import com.quantumleap.framework.performance.BrowserMetricsTracker;
+import com.quantumleap.framework.performance.WebVitalsCollector;
+import com.quantumleap.framework.recording.DomRecorder;
+import com.quantumleap.framework.recording.FailureArtifactCollector;
+import com.quantumleap.framework.recording.FailureArtifacts;
+import com.quantumleap.framework.recording.HarRecorder;
+import com.quantumleap.framework.recording.ResponseBodyRecorder;
+import com.quantumleap.framework.recording.ScreencastRecorder;
+import com.quantumleap.framework.recording.StepFrameRecorder;
+import com.quantumleap.framework.retention.ArtifactRetentionManager;
+import com.quantumleap.framework.tracing.Span;
+import com.quantumleap.framework.tracing.TraceManager;
 import com.quantumleap.framework.utils.ExtentReportManager;
-import com.quantumleap.framework.utils.ScreenshotUtils;
+import com.quantumleap.framework.utils.ScreenshotWriter;
+import com.quantumleap.framework.utils.TestContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.*;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * TestNG Listener for Extent Reports integration
@@ -16,14 +42,44 @@ import java.util.Arrays;
  * 
  * @author QuantumLeap Team
  */
-public class ExtentTestListener implements ITestListener, ISuiteListener {
+public class ExtentTestListener implements ITestListener, ISuiteListener, IInvokedMethodListener {
     
     private static final Logger logger = LoggerFactory.getLogger(ExtentTestListener.class);
+    private static final String TRACE_SPAN_ATTRIBUTE = "quantumleap.trace.span";
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final ThreadLocal<TestScope> testScopes = new ThreadLocal<>();
+    private static final Set<TestScope> openScopes = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * One test invocation on a thread, from its first @BeforeMethod to its last @AfterMethod,
+     * so driver creation and quit are traced inside the test span and logged under its test id
+     */
+    private static final class TestScope {
+        private final Span span;
+        private final String testId;
+        private int pendingAfterMethods = -1;
+        
+        TestScope(Span span, String testId) {
+            this.span = span;
+            this.testId = testId;
+        }
+        
+        boolean isEnding() {
+            return pendingAfterMethods >= 0;
+        }
+    }
     
     @Override
     public void onStart(ISuite suite) {
         logger.info("Starting test suite: {}", suite.getName());
+        TraceManager.startSuite(suite.getName());
+        FlightRecorderManager.startRecording();
         ExtentReportManager.initReports();
+        ReportBus.start();
+        ReportBus.publish(TestEvent.suiteStarted(suite.getName()));
+        ProcessResourceSampler.start(ExtentReportManager.getReportSiblingPath("_process-timeline.csv"));
+        ExecutionTimeline.start();
         ExtentReportManager.logInfo("Test Suite Started: " + suite.getName());
     }
     
@@ -31,7 +87,53 @@ public class ExtentTestListener implements ITestListener, ISuiteListener {
     public void onFinish(ISuite suite) {
         logger.info("Finishing test suite: {}", suite.getName());
         ExtentReportManager.logInfo("Test Suite Completed: " + suite.getName());
+        ProcessResourceSampler.stop();
+        ExtentReportManager.addSystemInfo("Browser Process Timeline",
+            config.isProcessSamplingEnabled() ? ExtentReportManager.getReportSiblingPath("_process-timeline.csv") : null);
+        ExtentReportManager.addSystemInfo("Web Vitals",
+            WebVitalsCollector.writeResults(ExtentReportManager.getReportSiblingPath("_web-vitals.json")));
+        ExtentReportManager.addSystemInfo("Browser Metrics",
+            BrowserMetricsTracker.writeResults(ExtentReportManager.getReportSiblingPath("_browser-metrics.json")));
+        ExtentReportManager.addSystemInfo("Execution Timeline",
+            ExecutionTimeline.writeResults(ExtentReportManager.getReportSiblingPath("_timeline.json")));
+        ScreenshotWriter.awaitPendingWrites();
+        TestLogCapture.awaitPendingWrites();
+        ArtifactRetentionManager.awaitCompletion();
         ExtentReportManager.flushReports();
+        ResultsHistory.flush();
+        ReportBus.publish(TestEvent.suiteFinished(suite.getName()));
+        ReportBus.shutdown();
+        
+        String recordingPath = FlightRecorderManager.stopRecording(ExtentReportManager.getReportSiblingPath(".jfr"));
+        if (recordingPath != null) {
+            logger.info("Suite JFR recording written to: {}", recordingPath);
+        }
+        
+        openScopes.forEach(ExtentTestListener::closeTestScope);
+        String tracePath = TraceManager.endSuite();
+        if (tracePath != null) {
+            logger.info("Suite trace written to: {}", tracePath);
+        }
+    }
+    
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        // Trace and tag set-up work, e.g. driver creation, as part of the test it prepares
+        if (method.isConfigurationMethod() && method.getTestMethod().isBeforeMethodConfiguration()) {
+            String owner = testResult.getTestClass().getRealClass().getSimpleName();
+            openTestScope(owner, owner);
+        }
+    }
+    
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isConfigurationMethod() || !method.getTestMethod().isAfterMethodConfiguration()) {
+            return;
+        }
+        TestScope scope = testScopes.get();
+        if (scope != null && scope.isEnding() && --scope.pendingAfterMethods <= 0) {
+            closeTestScope(scope);
+        }
     }
     
     @Override
@@ -41,7 +143,10 @@ public class ExtentTestListener implements ITestListener, ISuiteListener {
         String testCategory = getTestCategory(result);
         String testAuthor = getTestAuthor(result);
         
+        startTestSpan(result);
         logger.info("Starting test: {} - {}", testName, testDescription);
+        TestContext.setCurrentTestName(testName);
+        ReportBus.publish(TestEvent.test(TestEvent.Type.TEST_STARTED, result));
         
         ExtentTest extentTest = ExtentReportManager.createTest(testName, testDescription, testCategory);
         
@@ -80,10 +185,23 @@ public class ExtentTestListener implements ITestListener, ISuiteListener {
         ExtentReportManager.addTestStep("Test execution completed successfully");
         ExtentReportManager.logPass("✅ Test Passed: " + testName);
         ExtentReportManager.logInfo("⏱️ Execution Time: " + duration + "ms");
+        logBrowserResourcePeak();
+        logBrowserMetricsGrowth();
+        StepFrameRecorder.discard();
+        ScreencastRecorder.discard();
+        DomRecorder.discard();
+        attachHar(testName, HarRecorder.isAlwaysWritten());
+        ResponseBodyRecorder.discard();
         ExtentReportManager.markTestPassed("Test completed successfully in " + duration + "ms");
+        endTestSpan(result, Span.Status.OK);
+        ResultsHistory.record(result);
+        ExecutionTimeline.recordTest(result);
+        ReportBus.publish(TestEvent.test(TestEvent.Type.TEST_PASSED, result));
         
         // Clean up
         ExtentReportManager.removeTest();
+        TestContext.clear();
+        releaseTestScope();
     }
     
     @Override
@@ -98,21 +216,45 @@ public class ExtentTestListener implements ITestListener, ISuiteListener {
         ExtentReportManager.addTestStep("Test execution failed");
         ExtentReportManager.logFail("❌ Test Failed: " + testName);
         ExtentReportManager.logInfo("⏱️ Execution Time: " + duration + "ms");
+        logBrowserResourcePeak();
+        logBrowserMetricsGrowth();
         
         String failureMessage = throwable != null ? throwable.getMessage() : "Unknown error";
         ExtentReportManager.logFail("Error: " + failureMessage);
         
-        // Capture screenshot for UI tests
-        String screenshotPath = captureScreenshotOnFailure(testName);
-        if (screenshotPath != null) {
-            ExtentReportManager.addFailureScreenshot(screenshotPath, "Test Failure Screenshot");
+        // Attach the artifacts collected once for UI tests
+        attachFailureArtifacts(result);
+        attachStepFrames(testName);
+        String screencastPath = ScreencastRecorder.persist(testName);
+        if (screencastPath != null) {
+            ExtentReportManager.addScreenshot(screencastPath, "Failure Screencast");
+        }
+        String replayPath = DomRecorder.persist(testName);
+        if (replayPath != null) {
+            String replayFile = new File(replayPath).getName();
+            ExtentReportManager.logInfo("🎬 DOM Replay: <a href='" + ExtentReportManager.getReportRelativeLink(replayPath)
+                + "' target='_blank'>" + replayFile + "</a>");
+        }
+        attachHar(testName, true);
+        ResponseBodyRecorder.persist(testName);
+        String testLogPath = TestLogCapture.persistOnEnd(testName);
+        if (testLogPath != null) {
+            String testLogFile = new File(testLogPath).getName();
+            ExtentReportManager.logInfo("📜 Test log: <a href='" + ExtentReportManager.getReportRelativeLink(testLogPath)
+                + "' target='_blank'>" + testLogFile + "</a>");
         }
         
         // Mark test as failed
         ExtentReportManager.markTestFailed("Test failed: " + failureMessage, throwable);
+        endTestSpan(result, Span.Status.ERROR);
+        ResultsHistory.record(result);
+        ExecutionTimeline.recordTest(result);
+        ReportBus.publish(TestEvent.test(TestEvent.Type.TEST_FAILED, result));
         
         // Clean up
         ExtentReportManager.removeTest();
+        TestContext.clear();
+        releaseTestScope();
     }
     
     @Override
@@ -128,9 +270,22 @@ public class ExtentTestListener implements ITestListener, ISuiteListener {
         ExtentReportManager.logSkip("⏭️ Test Skipped: " + testName);
         ExtentReportManager.logInfo("Skip Reason: " + skipReason);
         ExtentReportManager.markTestSkipped("Test skipped: " + skipReason);
+        logBrowserResourcePeak();
+        logBrowserMetricsGrowth();
+        StepFrameRecorder.discard();
+        ScreencastRecorder.discard();
+        DomRecorder.discard();
+        HarRecorder.discard();
+        ResponseBodyRecorder.discard();
+        endTestSpan(result, Span.Status.UNSET);
+        ResultsHistory.record(result);
+        ExecutionTimeline.recordTest(result);
+        ReportBus.publish(TestEvent.test(TestEvent.Type.TEST_SKIPPED, result));
         
         // Clean up
         ExtentReportManager.removeTest();
+        TestContext.clear();
+        releaseTestScope();
     }
     
     @Override
@@ -139,9 +294,22 @@ public class ExtentTestListener implements ITestListener, ISuiteListener {
         logger.info("Test failed but within success percentage: {}", testName);
         
         ExtentReportManager.logWarning("⚠️ Test failed but within success percentage: " + testName);
+        logBrowserResourcePeak();
+        logBrowserMetricsGrowth();
+        StepFrameRecorder.discard();
+        ScreencastRecorder.discard();
+        DomRecorder.discard();
+        attachHar(testName, HarRecorder.isAlwaysWritten());
+        ResponseBodyRecorder.discard();
+        endTestSpan(result, Span.Status.OK);
+        ResultsHistory.record(result);
+        ExecutionTimeline.recordTest(result);
+        ReportBus.publish(TestEvent.test(TestEvent.Type.TEST_PASSED, result));
         
         // Clean up
         ExtentReportManager.removeTest();
+        TestContext.clear();
+        releaseTestScope();
     }
     
     /**
@@ -217,18 +385,189 @@ public class ExtentTestListener implements ITestListener, ISuiteListener {
     }
     
     /**
-     * Capture screenshot on test failure
+     * Attach the failure artifacts shared through the test result, collecting them if the
+     * driver is still alive and BaseTest has not done so yet
      * 
-     * @param testName Test name for screenshot file
-     * @return Screenshot file path or null if capture failed
+     * @param result Failed test result
      */
-    private String captureScreenshotOnFailure(String testName) {
+    private void attachFailureArtifacts(ITestResult result) {
+        FailureArtifacts artifacts;
         try {
-            // Only capture screenshot for UI tests (when WebDriver is available)
-            return ScreenshotUtils.captureScreenshotOnFailure(testName);
+            artifacts = FailureArtifactCollector.collect(result);
         } catch (Exception e) {
-            logger.warn("Failed to capture screenshot for test: {}", testName, e);
-            return null;
+            logger.warn("Failed to collect failure artifacts for test: {}", result.getMethod().getMethodName(), e);
+            return;
+        }
+        if (artifacts == null) {
+            return;
+        }
+        if (artifacts.getScreenshotPath() != null) {
+            ExtentReportManager.addFailureScreenshot(artifacts.getScreenshotPath(), "Test Failure Screenshot");
+        }
+        if (artifacts.getCurrentUrl() != null) {
+            ExtentReportManager.logInfo("🌐 URL at failure: " + artifacts.getCurrentUrl());
+        }
+        if (artifacts.getPageSourcePath() != null) {
+            ExtentReportManager.logInfo("📄 Page source: <a href='"
+                + ExtentReportManager.getReportRelativeLink(artifacts.getPageSourcePath()) + "' target='_blank'>"
+                + new File(artifacts.getPageSourcePath()).getName() + "</a>");
+        }
+        if (artifacts.getConsoleLogPath() != null) {
+            ExtentReportManager.logInfo("🖥️ Browser console: <a href='"
+                + ExtentReportManager.getReportRelativeLink(artifacts.getConsoleLogPath()) + "' target='_blank'>"
+                + new File(artifacts.getConsoleLogPath()).getName() + "</a>");
+        }
+        if (!artifacts.getCookies().isEmpty()) {
+            ExtentReportManager.logInfo("🍪 Cookies: " + String.join(", ", artifacts.getCookies()));
+        }
+    }
+    
+    /**
+     * Log the network summary of the test and link its HAR when one is written
+     * 
+     * @param testName Test name
+     * @param write Whether to write the HAR file or drop the recording
+     */
+    private void attachHar(String testName, boolean write) {
+        HarRecorder.logSummary();
+        if (!write) {
+            HarRecorder.discard();
+            return;
+        }
+        String harPath = HarRecorder.persist(testName);
+        if (harPath != null) {
+            String harFile = new File(harPath).getName();
+            ExtentReportManager.logInfo("🌐 Network HAR: <a href='" + ExtentReportManager.getReportRelativeLink(harPath)
+                + "' target='_blank'>" + harFile + "</a>");
+        }
+    }
+    
+    /**
+     * Persist the in-memory frames of the steps leading up to a failure and attach them
+     * 
+     * @param testName Failed test name
+     */
+    private void attachStepFrames(String testName) {
+        Map<String, String> frames = StepFrameRecorder.persist(testName);
+        if (frames.isEmpty()) {
+            return;
+        }
+        ExtentReportManager.logInfo("🎞️ Last " + frames.size() + " steps before the failure:");
+        frames.forEach((description, path) -> ExtentReportManager.addScreenshot(path, description));
+    }
+    
+    /**
+     * Log the peak browser process resource usage observed during the current test invocation
+     */
+    private void logBrowserResourcePeak() {
+        ProcessResourceSampler.TestPeak peak = ProcessResourceSampler.getTestPeak(TestContext.getCurrentTestKey());
+        if (peak != null) {
+            ExtentReportManager.logInfo("🖥️ Browser Resources (peak): " + peak);
+        }
+    }
+    
+    /**
+     * Log JS heap, DOM node and event listener growth detected during the current test invocation
+     */
+    private void logBrowserMetricsGrowth() {
+        List<String> findings = BrowserMetricsTracker.finishJourney(TestContext.getCurrentTestKey());
+        if (findings == null) {
+            return;
+        }
+        if (findings.isEmpty()) {
+            ExtentReportManager.logInfo("🧠 Browser Memory: no monotonic heap, DOM or listener growth detected");
+        }
+        for (String finding : findings) {
+            ExtentReportManager.logWarning("🧠 Possible front-end leak: " + finding);
+        }
+    }
+    
+    /**
+     * Start the trace span of a test method, reusing the one opened by its @BeforeMethod
+     * 
+     * @param result Test result
+     */
+    private void startTestSpan(ITestResult result) {
+        String spanName = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        Span span = openTestScope(spanName, result.getTestClass().getRealClass().getSimpleName()).span.updateName(spanName);
+        span.setAttribute("test.class", result.getTestClass().getName());
+        span.setAttribute("test.method", result.getMethod().getMethodName());
+        Object[] parameters = result.getParameters();
+        if (parameters != null && parameters.length > 0) {
+            span.setAttribute("test.parameters", Arrays.toString(parameters));
+        }
+        result.setAttribute(TRACE_SPAN_ATTRIBUTE, span);
+    }
+    
+    /**
+     * Set the final status of a test span; the span itself ends after the last @AfterMethod,
+     * see releaseTestScope()
+     * 
+     * @param result Test result
+     * @param status Span status matching the test outcome
+     */
+    private void endTestSpan(ITestResult result, Span.Status status) {
+        Object attribute = result.getAttribute(TRACE_SPAN_ATTRIBUTE);
+        if (attribute instanceof Span) {
+            Span span = (Span) attribute;
+            if (status == Span.Status.ERROR) {
+                span.recordError(result.getThrowable());
+            } else {
+                span.setStatus(status, null);
+            }
+            result.removeAttribute(TRACE_SPAN_ATTRIBUTE);
+        }
+        TestScope scope = testScopes.get();
+        if (scope != null) {
+            scope.pendingAfterMethods = result.getMethod().getTestClass().getAfterTestMethods().length;
+        }
+    }
+    
+    /**
+     * Close the test scope at the end of a result callback if the test class has no
+     * @AfterMethod; otherwise afterInvocation closes it after the last one
+     */
+    private static void releaseTestScope() {
+        TestScope scope = testScopes.get();
+        if (scope != null && scope.pendingAfterMethods == 0) {
+            closeTestScope(scope);
+        }
+    }
+    
+    /**
+     * Get the test scope of the current thread, opening a new one if none is open or the
+     * previous test has already ended
+     * 
+     * @param spanName Span name used if a new scope is opened
+     * @param owner Test class name, prefix of the test id
+     * @return Open test scope
+     */
+    private static TestScope openTestScope(String spanName, String owner) {
+        TestScope scope = testScopes.get();
+        if (scope != null && !scope.isEnding()) {
+            return scope;
+        }
+        if (scope != null) {
+            // An @AfterMethod of the previous test did not run, e.g. because of onlyForGroups
+            closeTestScope(scope);
+        }
+        scope = new TestScope(TraceManager.startTestSpan(spanName), TestLogCapture.start(owner));
+        testScopes.set(scope);
+        openScopes.add(scope);
+        return scope;
+    }
+    
+    /**
+     * End the span and the test id of a test scope, writing the test log if it was requested
+     * 
+     * @param scope Scope to close
+     */
+    private static void closeTestScope(TestScope scope) {
+        openScopes.remove(scope);
+        if (testScopes.get() == scope) {
+            testScopes.remove();
         }
+        TestLogCapture.end(scope.testId);
+        scope.span.close();
     }
 }
@@ -0,0 +1,81 @@
+package com.quantumleap.framework.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AsyncAppender that never blocks the logging thread and counts the events it drops
+ * With neverBlock set, logback silently discards events once the queue is full; this appender
+ * counts them and, when logging shuts down, writes the total to the wrapped appenders so a
+ * gap in the file log is visible rather than silent. The count is taken when the queue is
+ * seen full, so it may differ from the real number by the events racing for the last slots:
+ * 
+ * &lt;appender name="ASYNC_FILE" class="com.quantumleap.framework.logging.DiscardCountingAsyncAppender"&gt;
+ *     &lt;queueSize&gt;8192&lt;/queueSize&gt;
+ *     &lt;appender-ref ref="FILE"/&gt;
+ * &lt;/appender&gt;
+ * 
+ * @author QuantumLeap Team
+ */
+public class DiscardCountingAsyncAppender extends AsyncAppender {
+    
+    private final LongAdder discarded = new LongAdder();
+    
+    public DiscardCountingAsyncAppender() {
+        setNeverBlock(true);
+        setDiscardingThreshold(0);
+    }
+    
+    /**
+     * Get the number of events dropped because the queue was full
+     * 
+     * @return Dropped event count
+     */
+    public long getDiscardedCount() {
+        return discarded.sum();
+    }
+    
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (getRemainingCapacity() == 0) {
+            discarded.increment();
+            return;
+        }
+        super.append(event);
+    }
+    
+    @Override
+    public void stop() {
+        long count = discarded.sum();
+        if (count > 0 && isStarted()) {
+            String message = getName() + " dropped " + count + " log event(s) because its queue of "
+                + getQueueSize() + " was full";
+            addWarn(message);
+            reportToAppenders(message);
+        }
+        super.stop();
+    }
+    
+    /**
+     * Write the discard summary straight to the wrapped appenders, as the queue is about to
+     * be drained and may be full again
+     * 
+     * @param message Summary line
+     */
+    private void reportToAppenders(String message) {
+        LoggerContext loggerContext = (LoggerContext) getContext();
+        LoggingEvent event = new LoggingEvent(DiscardCountingAsyncAppender.class.getName(),
+            loggerContext.getLogger(DiscardCountingAsyncAppender.class), Level.WARN, message, null, null);
+        Iterator<Appender<ILoggingEvent>> appenders = iteratorForAppenders();
+        while (appenders.hasNext()) {
+            appenders.next().doAppend(event);
+        }
+    }
+}
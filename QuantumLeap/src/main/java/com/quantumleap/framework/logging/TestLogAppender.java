@@ -0,0 +1,79 @@
+package com.quantumleap.framework.logging;
+
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.slf4j.Marker;
+
+import java.util.List;
+
+/**
+ * Logback appender collecting log events into the buffer of the test that logged them
+ * Events are matched to tests through the MDC test id set by TestLogCapture; events outside a
+ * test, or of tests whose buffer was already dropped, are ignored. Meant to run behind an
+ * AsyncAppender so test threads never wait for it:
+ * 
+ * &lt;appender name="TEST_LOGS" class="com.quantumleap.framework.logging.TestLogAppender"&gt;
+ *     &lt;pattern&gt;%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n&lt;/pattern&gt;
+ * &lt;/appender&gt;
+ * 
+ * @author QuantumLeap Team
+ */
+public class TestLogAppender extends AppenderBase<ILoggingEvent> {
+    
+    private String pattern = "%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} - %msg%n";
+    private PatternLayout layout;
+    
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+    
+    public String getPattern() {
+        return pattern;
+    }
+    
+    @Override
+    public void start() {
+        layout = new PatternLayout();
+        layout.setContext(getContext());
+        layout.setPattern(pattern);
+        layout.start();
+        super.start();
+        TestLogCapture.register(this);
+    }
+    
+    @Override
+    public void stop() {
+        TestLogCapture.unregister(this);
+        super.stop();
+        layout.stop();
+    }
+    
+    @Override
+    protected void append(ILoggingEvent event) {
+        String testId = event.getMDCPropertyMap().get(TestLogCapture.MDC_KEY);
+        if (testId == null) {
+            return;
+        }
+        TestLogCapture.Buffer buffer = TestLogCapture.buffer(testId);
+        if (buffer == null) {
+            return;
+        }
+        List<Marker> markers = event.getMarkerList();
+        if (markers != null && markers.contains(TestLogCapture.FLUSH_MARKER)) {
+            buffer.markFlushed();
+        } else {
+            buffer.add(event);
+        }
+    }
+    
+    /**
+     * Format an event with the configured pattern
+     * 
+     * @param event Buffered event
+     * @return Formatted log line
+     */
+    String format(ILoggingEvent event) {
+        return layout.doLayout(event);
+    }
+}
@@ -0,0 +1,272 @@
+package com.quantumleap.framework.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.ExtentReportManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-test log capture
+ * The listener tags every log event of a test with an MDC test id; TestLogAppender, running
+ * behind an AsyncAppender, collects the tagged events into a bounded in-memory buffer per test.
+ * The test id spans the whole invocation, from the first @BeforeMethod to the last @AfterMethod,
+ * so a failed test's file also holds its failure handling and driver quit. Only failed tests
+ * have their buffer formatted and written to a log file next to the Extent report; the buffers
+ * of other tests are dropped without any file I/O. The file is written on a background thread
+ * once the async appender has caught up, so ending a test never waits for the log queue
+ * 
+ * @author QuantumLeap Team
+ */
+public class TestLogCapture {
+    
+    /**
+     * MDC key holding the id of the test running on a thread
+     */
+    public static final String MDC_KEY = "testId";
+    
+    /**
+     * Logger reserved for flush markers; logback.xml routes it to the test log appender only
+     */
+    public static final String CONTROL_LOGGER = "com.quantumleap.framework.logging.TestLogCapture.control";
+    
+    static final Marker FLUSH_MARKER = MarkerFactory.getMarker("TEST_LOG_FLUSH");
+    
+    private static final Logger logger = LoggerFactory.getLogger(TestLogCapture.class);
+    private static final Logger control = LoggerFactory.getLogger(CONTROL_LOGGER);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final AtomicLong sequence = new AtomicLong();
+    
+    private static final Map<String, Buffer> buffers = new ConcurrentHashMap<>();
+    private static final Queue<Future<?>> pendingWrites = new ConcurrentLinkedQueue<>();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "test-log-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile TestLogAppender appender;
+    
+    /**
+     * Log events of one test, filled on the async appender thread
+     */
+    static final class Buffer {
+        private final int maxEvents;
+        private final Deque<ILoggingEvent> events = new ArrayDeque<>();
+        private final CountDownLatch flushed = new CountDownLatch(1);
+        private int dropped;
+        private volatile File logFile;
+        
+        Buffer(int maxEvents) {
+            this.maxEvents = maxEvents;
+        }
+        
+        synchronized void add(ILoggingEvent event) {
+            if (events.size() >= maxEvents) {
+                events.removeFirst();
+                dropped++;
+            }
+            events.addLast(event);
+        }
+        
+        void markFlushed() {
+            flushed.countDown();
+        }
+        
+        synchronized List<ILoggingEvent> drain() {
+            return new ArrayList<>(events);
+        }
+    }
+    
+    static void register(TestLogAppender testLogAppender) {
+        appender = testLogAppender;
+    }
+    
+    static void unregister(TestLogAppender testLogAppender) {
+        if (appender == testLogAppender) {
+            appender = null;
+        }
+    }
+    
+    static Buffer buffer(String testId) {
+        return buffers.get(testId);
+    }
+    
+    /**
+     * Tag the current thread with a new test id and start buffering its log events
+     * A test id opened by the before-method of the same test is kept, so set-up logs such as
+     * driver creation land in the test's buffer. The MDC id is set even when capture is off,
+     * so the file log can tell parallel tests apart
+     * 
+     * @param owner Name of the test class
+     * @return Test id in the MDC
+     */
+    public static String start(String owner) {
+        String testId = MDC.get(MDC_KEY);
+        if (testId != null) {
+            return testId;
+        }
+        testId = owner + "#" + sequence.incrementAndGet();
+        MDC.put(MDC_KEY, testId);
+        if (config.isTestLogCaptureEnabled() && appender != null) {
+            buffers.put(testId, new Buffer(config.getTestLogMaxEvents()));
+        }
+        return testId;
+    }
+    
+    /**
+     * Have the buffered log of the current test written when the test ends
+     * The file name is chosen now so the report can link it; the file itself is written by
+     * end(), once the @AfterMethod logs are in the buffer too
+     * 
+     * @param testName Name of the test
+     * @return Path of the log file, or null if nothing is captured
+     */
+    public static String persistOnEnd(String testName) {
+        String testId = MDC.get(MDC_KEY);
+        Buffer buffer = testId != null ? buffers.get(testId) : null;
+        if (buffer == null || appender == null) {
+            return null;
+        }
+        buffer.logFile = new File(ExtentReportManager.getReportSiblingPath(
+            "_" + testName.replaceAll("[^A-Za-z0-9._-]", "_") + "_" + System.currentTimeMillis() + ".log"));
+        return buffer.logFile.getAbsolutePath();
+    }
+    
+    /**
+     * End a test: queue its log for writing if persistOnEnd() was called, drop the buffer
+     * otherwise, and clear the test id if it is the one of the current thread
+     * Only the flush marker is logged here; waiting for the async appender and the file write
+     * happen on the writer thread
+     * 
+     * @param testId Test id returned by start()
+     */
+    public static void end(String testId) {
+        if (testId == null) {
+            return;
+        }
+        Buffer buffer = buffers.get(testId);
+        TestLogAppender testLogAppender = appender;
+        if (buffer != null && buffer.logFile != null && testLogAppender != null) {
+            requestFlush(testId);
+            pendingWrites.add(writer.submit(() -> {
+                try {
+                    write(testId, buffer, testLogAppender);
+                } finally {
+                    buffers.remove(testId);
+                }
+            }));
+        } else {
+            buffers.remove(testId);
+        }
+        if (testId.equals(MDC.get(MDC_KEY))) {
+            MDC.remove(MDC_KEY);
+        }
+    }
+    
+    /**
+     * Flush barrier: wait until every queued test log is on disk
+     * Called at suite end before the reports that link the files are flushed
+     * 
+     * @return true if all writes completed in time
+     */
+    public static boolean awaitPendingWrites() {
+        long timeoutMillis = config.getTestLogFlushTimeoutMillis() + 1000L;
+        Future<?> pending;
+        while ((pending = pendingWrites.poll()) != null) {
+            try {
+                pending.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (ExecutionException e) {
+                logger.error("Failed to write test log", e.getCause());
+            } catch (TimeoutException e) {
+                logger.warn("{} test log(s) still pending after flush timeout", pendingWrites.size() + 1);
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Send the flush marker of a test through the async appender
+     * The marker is matched by MDC id; end() may run on another thread at suite end
+     * 
+     * @param testId Test id of the buffer
+     */
+    private static void requestFlush(String testId) {
+        String threadTestId = MDC.get(MDC_KEY);
+        MDC.put(MDC_KEY, testId);
+        try {
+            control.info(FLUSH_MARKER, "Flush test log {}", testId);
+        } finally {
+            if (threadTestId != null) {
+                MDC.put(MDC_KEY, threadTestId);
+            } else {
+                MDC.remove(MDC_KEY);
+            }
+        }
+    }
+    
+    /**
+     * Write a buffer to its log file once the async appender has processed every event the
+     * test logged before its flush marker
+     * 
+     * @param testId Test id of the buffer
+     * @param buffer Buffer to write
+     * @param testLogAppender Appender formatting the events
+     */
+    private static void write(String testId, Buffer buffer, TestLogAppender testLogAppender) {
+        try {
+            if (!buffer.flushed.await(config.getTestLogFlushTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Test log of {} may be incomplete: async appender did not catch up in time", testId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        List<ILoggingEvent> events = buffer.drain();
+        File logFile = buffer.logFile;
+        try {
+            logFile.getParentFile().mkdirs();
+            try (BufferedWriter writer = Files.newBufferedWriter(logFile.toPath(), StandardCharsets.UTF_8)) {
+                synchronized (buffer) {
+                    if (buffer.dropped > 0) {
+                        writer.write("... " + buffer.dropped + " earlier events dropped (test.logs.max.events)");
+                        writer.newLine();
+                    }
+                }
+                for (ILoggingEvent event : events) {
+                    writer.write(testLogAppender.format(event));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write test log: {}", logFile, e);
+        }
+    }
+}
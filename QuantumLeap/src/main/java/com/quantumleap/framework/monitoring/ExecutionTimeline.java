@@ -0,0 +1,278 @@
+package com.quantumleap.framework.monitoring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.reporting.ReportShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Records when each worker thread runs tests and creates or quits drivers, to show how well
+ * parallel workers are used
+ * Slices are collected in memory while the suite runs and written at the end as a JSON file,
+ * which TimelineReport renders as a per-worker Gantt chart with idle gaps, critical path and
+ * parallel efficiency. Forks each write their own file; the command line merges them
+ * 
+ * Usage: ExecutionTimeline &lt;timeline.json&gt;... [--output timeline.html]
+ * 
+ * @author QuantumLeap Team
+ */
+public class ExecutionTimeline {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionTimeline.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    public static final String KIND_TEST = "test";
+    public static final String KIND_DRIVER_CREATE = "driver-create";
+    public static final String KIND_DRIVER_QUIT = "driver-quit";
+    
+    private static final Queue<Slice> slices = new ConcurrentLinkedQueue<>();
+    private static volatile long runStart;
+    
+    /**
+     * One interval of work on a worker thread
+     */
+    public static final class Slice {
+        private final String worker;
+        private final String thread;
+        private final String kind;
+        private final String name;
+        private final String status;
+        private final long start;
+        private final long end;
+        
+        public Slice(String worker, String thread, String kind, String name, String status, long start, long end) {
+            this.worker = worker;
+            this.thread = thread;
+            this.kind = kind;
+            this.name = name;
+            this.status = status;
+            this.start = start;
+            this.end = Math.max(start, end);
+        }
+        
+        /**
+         * Lane of the slice in the chart: the thread, qualified by the fork it ran in
+         * 
+         * @return Lane key
+         */
+        public String getLane() {
+            return worker + "/" + thread;
+        }
+        
+        public String getWorker() {
+            return worker;
+        }
+        
+        public String getThread() {
+            return thread;
+        }
+        
+        public String getKind() {
+            return kind;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public String getStatus() {
+            return status;
+        }
+        
+        public long getStart() {
+            return start;
+        }
+        
+        public long getEnd() {
+            return end;
+        }
+        
+        public long getDuration() {
+            return end - start;
+        }
+        
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("thread", thread);
+            map.put("kind", kind);
+            map.put("name", name);
+            map.put("status", status);
+            map.put("start", start);
+            map.put("end", end);
+            return map;
+        }
+    }
+    
+    /**
+     * Mark the start of the run; slices recorded before are kept
+     */
+    public static void start() {
+        if (config.isTimelineEnabled() && runStart == 0) {
+            runStart = System.currentTimeMillis();
+        }
+    }
+    
+    /**
+     * Record the body of a finished test on its worker thread
+     * 
+     * @param result TestNG result of the test
+     */
+    public static void recordTest(ITestResult result) {
+        if (!config.isTimelineEnabled()) {
+            return;
+        }
+        String status;
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+            case ITestResult.SUCCESS_PERCENTAGE_FAILURE:
+                status = "PASS";
+                break;
+            case ITestResult.FAILURE:
+                status = "FAIL";
+                break;
+            default:
+                status = result.wasRetried() ? "RETRY" : "SKIP";
+                break;
+        }
+        String name = result.getTestClass().getRealClass().getSimpleName() + "." + result.getMethod().getMethodName();
+        slices.add(new Slice(ReportShards.workerId(), Thread.currentThread().getName(), KIND_TEST, name, status,
+            result.getStartMillis(), result.getEndMillis()));
+    }
+    
+    /**
+     * Record a driver lifecycle step that started at the given time and ends now
+     * 
+     * @param kind KIND_DRIVER_CREATE or KIND_DRIVER_QUIT
+     * @param browser Browser name
+     * @param startMillis Start of the step
+     */
+    public static void recordDriver(String kind, String browser, long startMillis) {
+        if (!config.isTimelineEnabled()) {
+            return;
+        }
+        slices.add(new Slice(ReportShards.workerId(), Thread.currentThread().getName(), kind, browser, null,
+            startMillis, System.currentTimeMillis()));
+    }
+    
+    /**
+     * Write the recorded slices as JSON and render the timeline page next to it
+     * 
+     * @param outputPath JSON destination, normally next to the Extent report; the page is
+     *                   written alongside with an .html extension
+     * @return Path of the timeline page, or null if nothing was recorded
+     */
+    public static String writeResults(String outputPath) {
+        if (!config.isTimelineEnabled() || slices.isEmpty()) {
+            return null;
+        }
+        List<Slice> snapshot = new ArrayList<>(slices);
+        long start = runStart > 0 ? runStart : snapshot.stream().mapToLong(Slice::getStart).min().orElse(0);
+        long end = Math.max(System.currentTimeMillis(), snapshot.stream().mapToLong(Slice::getEnd).max().orElse(0));
+        Map<String, Object> timeline = new LinkedHashMap<>();
+        timeline.put("worker", ReportShards.workerId());
+        timeline.put("start", start);
+        timeline.put("end", end);
+        List<Map<String, Object>> sliceMaps = new ArrayList<>(snapshot.size());
+        snapshot.forEach(slice -> sliceMaps.add(slice.toMap()));
+        timeline.put("slices", sliceMaps);
+        
+        File outputFile = new File(outputPath);
+        try {
+            outputFile.getParentFile().mkdirs();
+            mapper.writeValue(outputFile, timeline);
+        } catch (IOException e) {
+            logger.error("Failed to write execution timeline: {}", outputPath, e);
+            return null;
+        }
+        Path page = htmlSibling(outputFile.toPath());
+        TimelineReport report = new TimelineReport(snapshot, start, end, config.getTimelineGapThresholdMillis());
+        try {
+            report.write(page);
+        } catch (RuntimeException e) {
+            logger.error("Failed to render execution timeline: {}", page, e);
+            return null;
+        }
+        logger.info("Execution timeline written to: {} (parallel efficiency {}%)", page.toAbsolutePath(),
+            Math.round(report.getParallelEfficiency() * 100));
+        return page.toAbsolutePath().toString();
+    }
+    
+    /**
+     * Read the slices of a timeline JSON file written by writeResults
+     * 
+     * @param path Timeline file
+     * @param window Receives the run start and end at index 0 and 1, widened to cover the file
+     * @return Slices of the file
+     */
+    @SuppressWarnings("unchecked")
+    static List<Slice> read(Path path, long[] window) {
+        Map<String, Object> timeline;
+        try {
+            timeline = mapper.readValue(path.toFile(), Map.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read execution timeline: " + path, e);
+        }
+        String worker = String.valueOf(timeline.get("worker"));
+        window[0] = Math.min(window[0], ((Number) timeline.get("start")).longValue());
+        window[1] = Math.max(window[1], ((Number) timeline.get("end")).longValue());
+        List<Slice> result = new ArrayList<>();
+        for (Map<String, Object> slice : (List<Map<String, Object>>) timeline.get("slices")) {
+            result.add(new Slice(worker, (String) slice.get("thread"), (String) slice.get("kind"), (String) slice.get("name"),
+                (String) slice.get("status"), ((Number) slice.get("start")).longValue(), ((Number) slice.get("end")).longValue()));
+        }
+        return result;
+    }
+    
+    private static Path htmlSibling(Path json) {
+        String name = json.getFileName().toString();
+        int extensionIndex = name.lastIndexOf('.');
+        return json.resolveSibling((extensionIndex > 0 ? name.substring(0, extensionIndex) : name) + ".html");
+    }
+    
+    /**
+     * Command line entry point: merge the timelines of several forks into one page
+     * 
+     * @param args Timeline JSON files and options
+     */
+    public static void main(String[] args) {
+        List<Path> inputs = new ArrayList<>();
+        Path output = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--output".equals(args[i]) && i + 1 < args.length) {
+                output = Paths.get(args[++i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Usage: ExecutionTimeline <timeline.json>... [--output timeline.html]");
+            System.exit(2);
+        }
+        long[] window = {Long.MAX_VALUE, Long.MIN_VALUE};
+        List<Slice> merged = new ArrayList<>();
+        for (Path input : inputs) {
+            merged.addAll(read(input, window));
+        }
+        if (output == null) {
+            output = inputs.size() == 1 ? htmlSibling(inputs.get(0)) : inputs.get(0).resolveSibling("merged_timeline.html");
+        }
+        TimelineReport report = new TimelineReport(merged, window[0], window[1], config.getTimelineGapThresholdMillis());
+        report.write(output);
+        System.out.printf("%d slices from %d files, %d workers, parallel efficiency %.1f%% -> %s%n", merged.size(),
+            inputs.size(), report.getWorkerCount(), report.getParallelEfficiency() * 100, output);
+    }
+}
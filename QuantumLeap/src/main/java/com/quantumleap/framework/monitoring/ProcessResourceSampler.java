@@ -0,0 +1,382 @@
+package com.quantumleap.framework.monitoring;
+
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.TestContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Background sampler for the browser and driver processes launched by the framework
+ * Reads CPU time, RSS and thread count of each driver process tree from /proc at a fixed
+ * interval, tags every sample with the test running on the owning thread, streams the
+ * suite timeline to CSV and keeps per-test peaks for the report
+ * CPU time and RSS are converted with the usual x86-64/aarch64 Linux values of
+ * getconf CLK_TCK (100) and getconf PAGESIZE (4096); on kernels built with other values,
+ * e.g. 64 KB pages, the reported CPU percentages and RSS are off by the same factor
+ * 
+ * @author QuantumLeap Team
+ */
+public class ProcessResourceSampler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ProcessResourceSampler.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final Path PROC_ROOT = Paths.get("/proc");
+    private static final long CLOCK_TICKS_PER_SECOND = 100; // Assumes getconf CLK_TCK
+    private static final long PAGE_SIZE_BYTES = 4096; // Assumes getconf PAGESIZE
+    
+    private static final Map<Long, DriverSession> sessions = new ConcurrentHashMap<>();
+    private static final ThreadLocal<DriverSession> threadSession = new ThreadLocal<>();
+    private static final Map<String, TestPeak> testPeaks = new ConcurrentHashMap<>();
+    private static final Object sampleLock = new Object();
+    
+    private static ScheduledExecutorService scheduler;
+    private static BufferedWriter timelineWriter;
+    
+    /**
+     * Start sampling if enabled in configuration and supported by the OS
+     * 
+     * @param timelinePath CSV file receiving the suite timeline
+     */
+    public static synchronized void start(String timelinePath) {
+        if (!config.isProcessSamplingEnabled() || scheduler != null) {
+            return;
+        }
+        if (!Files.isDirectory(PROC_ROOT)) {
+            logger.warn("/proc is not available on this OS, browser process sampling disabled");
+            return;
+        }
+        try {
+            File timelineFile = new File(timelinePath);
+            timelineFile.getParentFile().mkdirs();
+            timelineWriter = Files.newBufferedWriter(timelineFile.toPath(), StandardCharsets.UTF_8);
+            timelineWriter.write(ProcessSample.CSV_HEADER);
+            timelineWriter.newLine();
+        } catch (IOException e) {
+            logger.error("Failed to open process timeline file: {}", timelinePath, e);
+            return;
+        }
+        
+        long intervalMillis = config.getProcessSamplingIntervalMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "process-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(ProcessResourceSampler::sampleAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Browser process sampling started every {} ms, timeline: {}", intervalMillis, timelinePath);
+    }
+    
+    /**
+     * Stop sampling and close the timeline file
+     */
+    public static synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (sampleLock) {
+            try {
+                timelineWriter.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close process timeline file", e);
+            }
+            timelineWriter = null;
+        }
+        scheduler = null;
+        sessions.clear();
+        testPeaks.clear();
+        logger.info("Browser process sampling stopped");
+    }
+    
+    /**
+     * Register the process tree of a freshly created driver for the current thread
+     * The driver process is identified by the service port on its command line
+     * 
+     * @param driver Undecorated driver instance
+     */
+    public static void registerDriver(WebDriver driver) {
+        if (scheduler == null) {
+            return;
+        }
+        long rootPid = findDriverProcess(driver);
+        if (rootPid < 0) {
+            logger.debug("Could not identify driver process, skipping resource sampling for this session");
+            return;
+        }
+        DriverSession session = new DriverSession(rootPid, Thread.currentThread().getId(), TestContext.getCurrentTestName());
+        sessions.put(rootPid, session);
+        threadSession.set(session);
+        logger.debug("Sampling resources of driver process tree rooted at pid {}", rootPid);
+    }
+    
+    /**
+     * Stop sampling the driver process tree registered by the current thread
+     */
+    public static void unregisterDriver() {
+        DriverSession session = threadSession.get();
+        if (session != null) {
+            sampleSession(session);
+            sessions.remove(session.rootPid);
+            threadSession.remove();
+        }
+    }
+    
+    /**
+     * Take the peak resource usage observed while the given test invocation was running
+     * The peak is removed, so each invocation reports only its own samples
+     * 
+     * @param testKey Invocation key from TestContext.getCurrentTestKey()
+     * @return Peak usage or null if no samples were taken for the invocation
+     */
+    public static TestPeak getTestPeak(String testKey) {
+        if (testKey == null) {
+            return null;
+        }
+        synchronized (sampleLock) {
+            return testPeaks.remove(testKey);
+        }
+    }
+    
+    /**
+     * Sample every registered driver session (runs on the sampler thread)
+     */
+    private static void sampleAll() {
+        for (DriverSession session : sessions.values()) {
+            try {
+                sampleSession(session);
+            } catch (Exception e) {
+                logger.debug("Failed to sample process tree {}", session.rootPid, e);
+            }
+        }
+        synchronized (sampleLock) {
+            try {
+                if (timelineWriter != null) {
+                    timelineWriter.flush();
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to flush process timeline", e);
+            }
+        }
+    }
+    
+    /**
+     * Aggregate /proc statistics over one driver process tree and record the sample
+     * 
+     * @param session Driver session to sample
+     */
+    private static void sampleSession(DriverSession session) {
+        synchronized (sampleLock) {
+            sampleTree(session);
+        }
+    }
+    
+    /**
+     * Read and record one sample of a driver process tree
+     * 
+     * @param session Driver session to sample
+     */
+    private static void sampleTree(DriverSession session) {
+        Optional<ProcessHandle> root = ProcessHandle.of(session.rootPid);
+        if (!root.isPresent()) {
+            sessions.remove(session.rootPid);
+            return;
+        }
+        List<Long> pids = Stream.concat(Stream.of(root.get()), root.get().descendants())
+            .map(ProcessHandle::pid)
+            .collect(Collectors.toList());
+        
+        long cpuTicks = 0;
+        long rssPages = 0;
+        int threads = 0;
+        int processes = 0;
+        for (long pid : pids) {
+            String[] fields = readStatFields(pid);
+            if (fields == null) {
+                continue; // Process exited between listing and reading
+            }
+            // Field indexes are relative to the state field (field 3 in proc(5))
+            cpuTicks += Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+            threads += Integer.parseInt(fields[17]);
+            rssPages += Long.parseLong(fields[21]);
+            processes++;
+        }
+        
+        long now = System.currentTimeMillis();
+        long cpuMillis = cpuTicks * 1000 / CLOCK_TICKS_PER_SECOND;
+        double cpuPercent = 0;
+        if (session.lastSampleMillis > 0 && now > session.lastSampleMillis) {
+            cpuPercent = 100.0 * Math.max(0, cpuMillis - session.lastCpuMillis) / (now - session.lastSampleMillis);
+        }
+        session.lastSampleMillis = now;
+        session.lastCpuMillis = cpuMillis;
+        
+        String testKey = TestContext.getTestKeyForThread(session.ownerThreadId);
+        String testName = TestContext.getTestNameForThread(session.ownerThreadId);
+        if (testName == null) {
+            testName = session.registeredTestName;
+        }
+        ProcessSample sample = new ProcessSample(now, testName, session.rootPid, processes,
+            cpuMillis, cpuPercent, rssPages * PAGE_SIZE_BYTES, threads);
+        recordSample(sample, testKey);
+    }
+    
+    /**
+     * Append a sample to the timeline and update the owning test invocation's peaks
+     * Samples taken outside a test, e.g. while the driver quits, only go to the timeline
+     * 
+     * @param sample Sample to record
+     * @param testKey Invocation key of the owning test, or null
+     */
+    private static void recordSample(ProcessSample sample, String testKey) {
+        if (testKey != null) {
+            testPeaks.computeIfAbsent(testKey, key -> new TestPeak()).update(sample);
+        }
+        if (timelineWriter != null) {
+            try {
+                timelineWriter.write(sample.toCsvRow());
+                timelineWriter.newLine();
+            } catch (IOException e) {
+                logger.warn("Failed to write process sample", e);
+            }
+        }
+    }
+    
+    /**
+     * Read /proc/[pid]/stat and split the fields after the command name
+     * 
+     * @param pid Process id
+     * @return Fields starting at the state field, or null if the process is gone
+     */
+    private static String[] readStatFields(long pid) {
+        try {
+            String stat = new String(Files.readAllBytes(PROC_ROOT.resolve(pid + "/stat")), StandardCharsets.US_ASCII);
+            // The command name is wrapped in parentheses and may itself contain spaces
+            return stat.substring(stat.lastIndexOf(')') + 2).trim().split(" ");
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Find the driver service process among the JVM's children by its --port argument
+     * 
+     * @param driver Undecorated driver instance
+     * @return Driver process id or -1 if not found
+     */
+    private static long findDriverProcess(WebDriver driver) {
+        if (!(driver instanceof RemoteWebDriver)) {
+            return -1;
+        }
+        CommandExecutor executor = ((RemoteWebDriver) driver).getCommandExecutor();
+        if (!(executor instanceof HttpCommandExecutor)) {
+            return -1;
+        }
+        int port = ((HttpCommandExecutor) executor).getAddressOfRemoteServer().getPort();
+        return ProcessHandle.current().children()
+            .filter(process -> process.info().arguments()
+                .map(arguments -> hasPortArgument(arguments, port))
+                .orElse(false))
+            .mapToLong(ProcessHandle::pid)
+            .findFirst()
+            .orElse(-1);
+    }
+    
+    private static boolean hasPortArgument(String[] arguments, int port) {
+        String portValue = String.valueOf(port);
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i].equals("--port=" + portValue)
+                || (arguments[i].equals("--port") && i + 1 < arguments.length && arguments[i + 1].equals(portValue))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Driver process tree being sampled
+     */
+    private static class DriverSession {
+        private final long rootPid;
+        private final long ownerThreadId;
+        private final String registeredTestName;
+        private long lastSampleMillis;
+        private long lastCpuMillis;
+        
+        DriverSession(long rootPid, long ownerThreadId, String registeredTestName) {
+            this.rootPid = rootPid;
+            this.ownerThreadId = ownerThreadId;
+            this.registeredTestName = registeredTestName;
+        }
+    }
+    
+    /**
+     * Peak resource usage of the browser processes while a test was running
+     */
+    public static class TestPeak {
+        private long maxRssBytes;
+        private double maxCpuPercent;
+        private int maxThreads;
+        private int maxProcesses;
+        private int samples;
+        
+        synchronized void update(ProcessSample sample) {
+            maxRssBytes = Math.max(maxRssBytes, sample.getRssBytes());
+            maxCpuPercent = Math.max(maxCpuPercent, sample.getCpuPercent());
+            maxThreads = Math.max(maxThreads, sample.getThreadCount());
+            maxProcesses = Math.max(maxProcesses, sample.getProcessCount());
+            samples++;
+        }
+        
+        public synchronized long getMaxRssBytes() {
+            return maxRssBytes;
+        }
+        
+        public synchronized double getMaxCpuPercent() {
+            return maxCpuPercent;
+        }
+        
+        public synchronized int getMaxThreads() {
+            return maxThreads;
+        }
+        
+        public synchronized int getMaxProcesses() {
+            return maxProcesses;
+        }
+        
+        public synchronized int getSamples() {
+            return samples;
+        }
+        
+        @Override
+        public synchronized String toString() {
+            return String.format("RSS %.1f MB, CPU %.0f%%, %d threads, %d processes (%d samples)",
+                maxRssBytes / (1024.0 * 1024.0), maxCpuPercent, maxThreads, maxProcesses, samples);
+        }
+    }
+}
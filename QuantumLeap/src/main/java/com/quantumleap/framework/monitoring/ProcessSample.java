@@ -0,0 +1,76 @@
+package com.quantumleap.framework.monitoring;
+
+import java.util.Locale;
+
+/**
+ * Resource usage of one browser/driver process tree at a point in time
+ * 
+ * @author QuantumLeap Team
+ */
+public class ProcessSample {
+    
+    public static final String CSV_HEADER = "timestamp_ms,test,root_pid,processes,cpu_time_ms,cpu_percent,rss_bytes,threads";
+    
+    private final long timestampMillis;
+    private final String testName;
+    private final long rootPid;
+    private final int processCount;
+    private final long cpuTimeMillis;
+    private final double cpuPercent;
+    private final long rssBytes;
+    private final int threadCount;
+    
+    public ProcessSample(long timestampMillis, String testName, long rootPid, int processCount,
+                         long cpuTimeMillis, double cpuPercent, long rssBytes, int threadCount) {
+        this.timestampMillis = timestampMillis;
+        this.testName = testName;
+        this.rootPid = rootPid;
+        this.processCount = processCount;
+        this.cpuTimeMillis = cpuTimeMillis;
+        this.cpuPercent = cpuPercent;
+        this.rssBytes = rssBytes;
+        this.threadCount = threadCount;
+    }
+    
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+    
+    public String getTestName() {
+        return testName;
+    }
+    
+    public long getRootPid() {
+        return rootPid;
+    }
+    
+    public int getProcessCount() {
+        return processCount;
+    }
+    
+    public long getCpuTimeMillis() {
+        return cpuTimeMillis;
+    }
+    
+    public double getCpuPercent() {
+        return cpuPercent;
+    }
+    
+    public long getRssBytes() {
+        return rssBytes;
+    }
+    
+    public int getThreadCount() {
+        return threadCount;
+    }
+    
+    /**
+     * Format the sample as a CSV row matching {@link #CSV_HEADER}
+     * 
+     * @return CSV row
+     */
+    public String toCsvRow() {
+        return String.format(Locale.ROOT, "%d,%s,%d,%d,%d,%.1f,%d,%d",
+            timestampMillis, testName, rootPid, processCount, cpuTimeMillis, cpuPercent, rssBytes, threadCount);
+    }
+}
@@ -0,0 +1,354 @@
+package com.quantumleap.framework.monitoring;
+
+import com.quantumleap.framework.reporting.StaticReportWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Worker utilisation analysis of an execution timeline, rendered as a self-contained page
+ * Each worker thread is one lane of the Gantt chart. Busy time is the union of its test and
+ * driver slices; everything else between the run start and end is idle, and idle gaps above
+ * the threshold are drawn. The critical path is the lane that finishes last, i.e. the chain of
+ * work that set the wall clock; tests are treated as independent, so ordering constraints
+ * such as dependsOnMethods are not followed
+ * 
+ * Parallel efficiency = sum of test times / (workers x wall clock)
+ * 
+ * @author QuantumLeap Team
+ */
+public class TimelineReport {
+    
+    private static final int CHART_WIDTH = 1100;
+    private static final int LABEL_WIDTH = 230;
+    private static final int ROW_HEIGHT = 18;
+    private static final int ROW_GAP = 4;
+    private static final int AXIS_HEIGHT = 22;
+    private static final int MAX_CRITICAL_ROWS = 500;
+    private static final long[] TICK_STEPS = {1000, 2000, 5000, 10000, 15000, 30000, 60000, 120000, 300000, 600000,
+        900000, 1800000, 3600000, 7200000};
+    
+    private static final String STYLE = "<style>"
+        + "body{font-family:-apple-system,Segoe UI,Roboto,sans-serif;margin:0;background:#f5f6f8;color:#222}"
+        + "header{background:#1f2d3d;color:#fff;padding:14px 24px}h1{font-size:20px;margin:0}"
+        + "main{padding:16px 24px}h2{font-size:16px;margin:24px 0 8px}"
+        + ".cards{display:flex;flex-wrap:wrap;gap:10px}.card{background:#fff;border-radius:6px;padding:10px 14px;"
+        + "box-shadow:0 1px 2px rgba(0,0,0,.1);min-width:120px}.card b{display:block;font-size:20px}"
+        + ".card span{font-size:12px;color:#666}"
+        + ".chart{background:#fff;border-radius:6px;padding:8px;overflow-x:auto;box-shadow:0 1px 2px rgba(0,0,0,.1)}"
+        + "table{border-collapse:collapse;background:#fff;font-size:13px}td,th{padding:4px 10px;border-bottom:1px solid #eee;"
+        + "text-align:left}th{background:#fafafa}td.n{text-align:right}"
+        + ".legend span{display:inline-block;margin-right:14px;font-size:12px}.legend i{display:inline-block;width:12px;"
+        + "height:12px;margin-right:4px;vertical-align:middle}"
+        + ".PASS{fill:#4caf50;background:#4caf50}.FAIL{fill:#e53935;background:#e53935}.SKIP{fill:#9e9e9e;background:#9e9e9e}"
+        + ".RETRY{fill:#ffb300;background:#ffb300}.driver-create{fill:#1e88e5;background:#1e88e5}"
+        + ".driver-quit{fill:#8e24aa;background:#8e24aa}.gap{fill:url(#idle);background:#fde0dc}"
+        + "text{font-size:11px;fill:#444}text.critical{font-weight:bold;fill:#c62828}"
+        + "p.note{font-size:12px;color:#666;max-width:1000px}"
+        + "</style>";
+    
+    private final List<ExecutionTimeline.Slice> slices;
+    private final long start;
+    private final long end;
+    private final long gapThreshold;
+    private final Map<String, Lane> lanes = new TreeMap<>();
+    private final boolean singleWorker;
+    private long testMillis;
+    private long createMillis;
+    private long quitMillis;
+    private long busyMillis;
+    private long longestTest;
+    private int tests;
+    private Lane critical;
+    
+    /**
+     * Busy and idle time of one worker thread
+     */
+    private static final class Lane {
+        private final String key;
+        private final List<ExecutionTimeline.Slice> slices = new ArrayList<>();
+        private final List<long[]> gaps = new ArrayList<>();
+        private long testMillis;
+        private long driverMillis;
+        private long busyMillis;
+        private long lastEnd;
+        private int tests;
+        
+        Lane(String key) {
+            this.key = key;
+        }
+        
+        long longestGap() {
+            return gaps.stream().mapToLong(gap -> gap[1] - gap[0]).max().orElse(0);
+        }
+    }
+    
+    /**
+     * Analyse a timeline
+     * 
+     * @param slices Slices of all workers
+     * @param start Run start
+     * @param end Run end
+     * @param gapThreshold Shortest idle interval reported as a gap, in milliseconds
+     */
+    public TimelineReport(List<ExecutionTimeline.Slice> slices, long start, long end, long gapThreshold) {
+        this.slices = new ArrayList<>(slices);
+        this.slices.sort(Comparator.comparingLong(ExecutionTimeline.Slice::getStart));
+        this.start = Math.min(start, this.slices.isEmpty() ? start : this.slices.get(0).getStart());
+        this.end = Math.max(end, this.slices.stream().mapToLong(ExecutionTimeline.Slice::getEnd).max().orElse(end));
+        this.gapThreshold = gapThreshold;
+        this.singleWorker = this.slices.stream().map(ExecutionTimeline.Slice::getWorker).distinct().count() <= 1;
+        analyse();
+    }
+    
+    private void analyse() {
+        for (ExecutionTimeline.Slice slice : slices) {
+            Lane lane = lanes.computeIfAbsent(slice.getLane(), Lane::new);
+            lane.slices.add(slice);
+            lane.lastEnd = Math.max(lane.lastEnd, slice.getEnd());
+            if (ExecutionTimeline.KIND_TEST.equals(slice.getKind())) {
+                lane.tests++;
+                lane.testMillis += slice.getDuration();
+                longestTest = Math.max(longestTest, slice.getDuration());
+            } else {
+                lane.driverMillis += slice.getDuration();
+                if (ExecutionTimeline.KIND_DRIVER_CREATE.equals(slice.getKind())) {
+                    createMillis += slice.getDuration();
+                } else {
+                    quitMillis += slice.getDuration();
+                }
+            }
+        }
+        
+        for (Lane lane : lanes.values()) {
+            // Busy time is the union of the slices, as a driver may be created inside a test body
+            long cursor = start;
+            for (ExecutionTimeline.Slice slice : lane.slices) {
+                if (slice.getStart() > cursor) {
+                    if (slice.getStart() - cursor >= gapThreshold) {
+                        lane.gaps.add(new long[] {cursor, slice.getStart()});
+                    }
+                    cursor = slice.getStart();
+                }
+                if (slice.getEnd() > cursor) {
+                    lane.busyMillis += slice.getEnd() - cursor;
+                    cursor = slice.getEnd();
+                }
+            }
+            if (end - cursor >= gapThreshold) {
+                lane.gaps.add(new long[] {cursor, end});
+            }
+            testMillis += lane.testMillis;
+            busyMillis += lane.busyMillis;
+            tests += lane.tests;
+            if (critical == null || lane.lastEnd > critical.lastEnd
+                    || (lane.lastEnd == critical.lastEnd && lane.busyMillis > critical.busyMillis)) {
+                critical = lane;
+            }
+        }
+    }
+    
+    public int getWorkerCount() {
+        return lanes.size();
+    }
+    
+    public long getWallClockMillis() {
+        return end - start;
+    }
+    
+    /**
+     * Sum of test times divided by workers x wall clock
+     * 
+     * @return Efficiency between 0 and 1
+     */
+    public double getParallelEfficiency() {
+        long capacity = getWallClockMillis() * lanes.size();
+        return capacity > 0 ? (double) testMillis / capacity : 0;
+    }
+    
+    /**
+     * Share of worker time spent on tests or drivers
+     * 
+     * @return Utilisation between 0 and 1
+     */
+    public double getUtilisation() {
+        long capacity = getWallClockMillis() * lanes.size();
+        return capacity > 0 ? (double) busyMillis / capacity : 0;
+    }
+    
+    /**
+     * Wall clock the same work would take if it were spread perfectly over the workers; it
+     * cannot drop below the longest single test
+     * 
+     * @return Balanced wall clock in milliseconds
+     */
+    public long getBalancedWallClockMillis() {
+        return lanes.isEmpty() ? 0 : Math.max(longestTest, busyMillis / lanes.size());
+    }
+    
+    /**
+     * Render the timeline page
+     * 
+     * @param output HTML file to write
+     */
+    public void write(Path output) {
+        try {
+            if (output.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(output.toAbsolutePath().getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                writer.write("<!DOCTYPE html><html><head><meta charset='utf-8'><title>Execution Timeline</title>");
+                writer.write(STYLE + "</head><body><header><h1>Execution Timeline</h1></header><main>");
+                writeSummary(writer);
+                writeChart(writer);
+                writeLanes(writer);
+                writeCriticalPath(writer);
+                writer.write("</main></body></html>");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write execution timeline page: " + output, e);
+        }
+    }
+    
+    private void writeSummary(Writer writer) throws IOException {
+        long idleMillis = getWallClockMillis() * lanes.size() - busyMillis;
+        writer.write("<div class='cards'>");
+        card(writer, "Wall clock", formatMillis(getWallClockMillis()));
+        card(writer, "Workers", String.valueOf(lanes.size()));
+        card(writer, "Tests", String.valueOf(tests));
+        card(writer, "Parallel efficiency", String.format("%.1f%%", getParallelEfficiency() * 100));
+        card(writer, "Utilisation (incl. drivers)", String.format("%.1f%%", getUtilisation() * 100));
+        card(writer, "Test time (sum)", formatMillis(testMillis));
+        card(writer, "Driver creation", formatMillis(createMillis));
+        card(writer, "Driver quit", formatMillis(quitMillis));
+        card(writer, "Idle worker time", formatMillis(Math.max(0, idleMillis)));
+        card(writer, "Balanced wall clock", formatMillis(getBalancedWallClockMillis()));
+        writer.write("</div><p class='note'>Parallel efficiency is the sum of test times divided by workers &times; wall clock. "
+            + "Driver creation and quit count as busy in the utilisation but not in the efficiency, so a large difference "
+            + "between the two points at driver set-up cost. The balanced wall clock is the busy time spread evenly over the "
+            + "workers, bounded by the longest test (" + formatMillis(longestTest) + "); the gap between it and the wall clock "
+            + "is what better sharding or ordering could win back.</p>");
+    }
+    
+    private void writeChart(Writer writer) throws IOException {
+        long wall = Math.max(1, getWallClockMillis());
+        int height = AXIS_HEIGHT + lanes.size() * (ROW_HEIGHT + ROW_GAP);
+        writer.write("<h2>Workers</h2><div class='legend'>");
+        for (String kind : new String[] {"PASS", "FAIL", "SKIP", "RETRY", "driver-create", "driver-quit", "gap"}) {
+            writer.write("<span><i class='" + kind + "'></i>" + ("gap".equals(kind) ? "idle &ge; " + gapThreshold + " ms" : kind)
+                + "</span>");
+        }
+        writer.write("</div><div class='chart'><svg xmlns='http://www.w3.org/2000/svg' width='" + (LABEL_WIDTH + CHART_WIDTH + 10)
+            + "' height='" + height + "'><defs><pattern id='idle' width='6' height='6' patternUnits='userSpaceOnUse' "
+            + "patternTransform='rotate(45)'><rect width='6' height='6' fill='#fdecea'/><line x1='0' y1='0' x2='0' y2='6' "
+            + "stroke='#f4a9a0' stroke-width='2'/></pattern></defs>");
+        
+        long step = TICK_STEPS[TICK_STEPS.length - 1];
+        for (long candidate : TICK_STEPS) {
+            if (wall / candidate <= 12) {
+                step = candidate;
+                break;
+            }
+        }
+        for (long tick = 0; tick <= wall; tick += step) {
+            double x = LABEL_WIDTH + (double) tick * CHART_WIDTH / wall;
+            writer.write(String.format(Locale.ROOT, "<line x1='%.1f' y1='%d' x2='%.1f' y2='%d' stroke='#eee'/><text x='%.1f' y='12'>%s</text>",
+                x, AXIS_HEIGHT - 4, x, height, x + 2, formatMillis(tick)));
+        }
+        
+        int row = 0;
+        for (Lane lane : lanes.values()) {
+            int y = AXIS_HEIGHT + row++ * (ROW_HEIGHT + ROW_GAP);
+            String label = lane.slices.get(0).getThread();
+            if (!singleWorker) {
+                label = lane.slices.get(0).getWorker() + " / " + label;
+            }
+            writer.write("<text x='0' y='" + (y + ROW_HEIGHT - 5) + "'" + (lane == critical ? " class='critical'" : "") + ">"
+                + StaticReportWriter.escape(abbreviate(label)) + (lane == critical ? " ◆" : "") + "</text>");
+            for (long[] gap : lane.gaps) {
+                rect(writer, "gap", gap[0], gap[1], y, wall, "idle " + formatMillis(gap[1] - gap[0]));
+            }
+            for (ExecutionTimeline.Slice slice : lane.slices) {
+                String cssClass = ExecutionTimeline.KIND_TEST.equals(slice.getKind()) ? slice.getStatus() : slice.getKind();
+                String tooltip = (ExecutionTimeline.KIND_TEST.equals(slice.getKind()) ? slice.getName() + " " + slice.getStatus()
+                    : slice.getKind() + " " + slice.getName()) + " · " + formatMillis(slice.getDuration());
+                rect(writer, cssClass, slice.getStart(), slice.getEnd(), y, wall, tooltip);
+            }
+        }
+        writer.write("</svg></div>");
+    }
+    
+    private void rect(Writer writer, String cssClass, long from, long to, int y, long wall, String tooltip) throws IOException {
+        double x = LABEL_WIDTH + (double) (from - start) * CHART_WIDTH / wall;
+        double width = Math.max(0.5, (double) (to - from) * CHART_WIDTH / wall);
+        writer.write(String.format(Locale.ROOT, "<rect class='%s' x='%.1f' y='%d' width='%.1f' height='%d'><title>%s</title></rect>",
+            StaticReportWriter.escape(cssClass), x, y, width, ROW_HEIGHT, StaticReportWriter.escape(tooltip)));
+    }
+    
+    private void writeLanes(Writer writer) throws IOException {
+        long wall = Math.max(1, getWallClockMillis());
+        writer.write("<h2>Worker utilisation</h2><table><tr><th>Worker</th><th>Tests</th><th>Test time</th><th>Driver time</th>"
+            + "<th>Busy</th><th>Idle</th><th>Gaps</th><th>Longest gap</th><th>Finished at</th></tr>");
+        for (Lane lane : lanes.values()) {
+            writer.write("<tr><td>" + StaticReportWriter.escape(lane.key) + (lane == critical ? " ◆" : "") + "</td><td class='n'>"
+                + lane.tests + "</td><td class='n'>" + formatMillis(lane.testMillis) + "</td><td class='n'>"
+                + formatMillis(lane.driverMillis) + "</td><td class='n'>" + String.format("%.1f%%", lane.busyMillis * 100.0 / wall)
+                + "</td><td class='n'>" + formatMillis(wall - lane.busyMillis) + "</td><td class='n'>" + lane.gaps.size()
+                + "</td><td class='n'>" + formatMillis(lane.longestGap()) + "</td><td class='n'>"
+                + formatMillis(lane.lastEnd - start) + "</td></tr>");
+        }
+        writer.write("</table>");
+    }
+    
+    private void writeCriticalPath(Writer writer) throws IOException {
+        if (critical == null) {
+            return;
+        }
+        writer.write("<h2>Critical path ◆</h2><p class='note'>The worker that finished last: " + formatMillis(critical.busyMillis)
+            + " busy and " + formatMillis(critical.lastEnd - start - critical.busyMillis) + " idle before its last slice ended at "
+            + formatMillis(critical.lastEnd - start) + ". Shortening or moving any of these slices shortens the run.</p>"
+            + "<table><tr><th>Start</th><th>Kind</th><th>Name</th><th>Status</th><th>Duration</th></tr>");
+        int rows = 0;
+        for (ExecutionTimeline.Slice slice : critical.slices) {
+            if (rows++ >= MAX_CRITICAL_ROWS) {
+                writer.write("<tr><td colspan='5'>… " + (critical.slices.size() - MAX_CRITICAL_ROWS) + " more</td></tr>");
+                break;
+            }
+            writer.write("<tr><td class='n'>" + formatMillis(slice.getStart() - start) + "</td><td>"
+                + StaticReportWriter.escape(slice.getKind()) + "</td><td>" + StaticReportWriter.escape(slice.getName())
+                + "</td><td>" + StaticReportWriter.escape(slice.getStatus()) + "</td><td class='n'>"
+                + formatMillis(slice.getDuration()) + "</td></tr>");
+        }
+        writer.write("</table>");
+    }
+    
+    private static void card(Writer writer, String label, String value) throws IOException {
+        writer.write("<div class='card'><b>" + StaticReportWriter.escape(value) + "</b><span>" + StaticReportWriter.escape(label)
+            + "</span></div>");
+    }
+    
+    private static String abbreviate(String label) {
+        return label.length() > 36 ? "…" + label.substring(label.length() - 35) : label;
+    }
+    
+    private static String formatMillis(long millis) {
+        if (millis < 1000) {
+            return millis + " ms";
+        }
+        if (millis < 60000) {
+            return String.format("%.1f s", millis / 1000.0);
+        }
+        long seconds = millis / 1000;
+        return seconds >= 3600 ? String.format("%dh %02dm", seconds / 3600, seconds % 3600 / 60)
+            : String.format("%dm %02ds", seconds / 60, seconds % 60);
+    }
+}
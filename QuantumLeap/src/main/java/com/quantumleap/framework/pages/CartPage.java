@@ -214,6 +214,7 @@ public class CartPage extends BasePage {
     public ProductsPage continueShopping() {
         clickElement(continueShoppingButton);
         logger.info("Clicked continue shopping button");
+        capturePageMetrics("inventory");
         return new ProductsPage(driver);
     }
     
@@ -225,6 +226,7 @@ public class CartPage extends BasePage {
     public CheckoutPage proceedToCheckout() {
         clickElement(checkoutButton);
         logger.info("Clicked checkout button");
+        capturePageMetrics("checkout-step-one");
         return new CheckoutPage(driver);
     }
     
@@ -1,6 +1,7 @@
 package com.quantumleap.framework.pages;
 
 import com.quantumleap.framework.base.BasePage;
+import com.quantumleap.framework.utils.ScreenshotUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -43,6 +44,9 @@ public class CheckoutPage extends BasePage {
     private WebElement errorMessage;
     
     // Checkout Overview Page Elements
+    @FindBy(css = ".checkout_summary_container")
+    private WebElement summaryContainer;
+    
     @FindBy(css = ".cart_item")
     private List<WebElement> orderItems;
     
@@ -197,6 +201,7 @@ public class CheckoutPage extends BasePage {
         clickElement(continueButton);
         waitFor(1);
         logger.info("Clicked continue button");
+        capturePageMetrics("checkout-step-two");
         return this;
     }
     
@@ -208,6 +213,7 @@ public class CheckoutPage extends BasePage {
     public CartPage clickCancel() {
         clickElement(cancelButton);
         logger.info("Clicked cancel button");
+        capturePageMetrics("cart");
         return new CartPage(driver);
     }
     
@@ -333,6 +339,17 @@ public class CheckoutPage extends BasePage {
         return summary.toString();
     }
     
+    /**
+     * Capture a screenshot of the checkout summary container only
+     * 
+     * @param name Name for the screenshot file
+     * @return Path to the screenshot file
+     */
+    public String captureSummaryScreenshot(String name) {
+        waitForElementToBeVisible(summaryContainer);
+        return ScreenshotUtils.captureElementScreenshot(name, driver, summaryContainer);
+    }
+    
     /**
      * Click finish button to complete the order
      * 
@@ -342,6 +359,7 @@ public class CheckoutPage extends BasePage {
         clickElement(finishButton);
         waitFor(2);
         logger.info("Clicked finish button - order completed");
+        capturePageMetrics("checkout-complete");
         return this;
     }
     
@@ -383,6 +401,7 @@ public class CheckoutPage extends BasePage {
     public ProductsPage backToProducts() {
         clickElement(backToProductsButton);
         logger.info("Clicked back to products button");
+        capturePageMetrics("inventory");
         return new ProductsPage(driver);
     }
     
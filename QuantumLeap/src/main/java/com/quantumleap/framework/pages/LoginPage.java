@@ -60,6 +60,7 @@ public class LoginPage extends BasePage {
         String loginUrl = config.getWebBaseUrl();
         navigateTo(loginUrl);
         waitForPageLoad();
+        capturePageMetrics("login");
         logger.info("Navigated to login page: {}", loginUrl);
         return this;
     }
@@ -109,6 +110,7 @@ public class LoginPage extends BasePage {
             return this; // Return LoginPage if login failed
         } else {
             logger.info("Login successful - navigating to products page");
+            capturePageMetrics("inventory");
             return new ProductsPage(driver); // Return ProductsPage if login successful
         }
     }
@@ -217,6 +217,7 @@ public class ProductsPage extends BasePage {
         scrollToElement(productLink);
         clickElement(productLink);
         logger.info("Clicked on product: {}", productName);
+        capturePageMetrics("product-details");
         return new ProductDetailsPage(driver);
     }
     
@@ -250,6 +251,7 @@ public class ProductsPage extends BasePage {
     public CartPage openShoppingCart() {
         clickElement(shoppingCartLink);
         logger.info("Opened shopping cart");
+        capturePageMetrics("cart");
         return new CartPage(driver);
     }
     
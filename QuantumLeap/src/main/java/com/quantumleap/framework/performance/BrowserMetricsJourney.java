@@ -0,0 +1,122 @@
+package com.quantumleap.framework.performance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Browser metrics samples recorded during one test, with growth findings
+ * JSHeapUsedSize, Nodes and JSEventListeners are treated as gauges that should return to
+ * a stable level; LayoutCount and RecalcStyleCount are per-document counters and only
+ * reported as per-step deltas
+ * 
+ * @author QuantumLeap Team
+ */
+public class BrowserMetricsJourney {
+    
+    static final List<String> GAUGE_METRICS = List.of("JSHeapUsedSize", "Nodes", "JSEventListeners");
+    
+    private final String testName;
+    private final List<MetricsSample> samples = Collections.synchronizedList(new ArrayList<>());
+    private List<String> findings = Collections.emptyList();
+    
+    public BrowserMetricsJourney(String testName) {
+        this.testName = testName;
+    }
+    
+    void addSample(MetricsSample sample) {
+        samples.add(sample);
+    }
+    
+    public String getTestName() {
+        return testName;
+    }
+    
+    public List<MetricsSample> getSamples() {
+        synchronized (samples) {
+            return new ArrayList<>(samples);
+        }
+    }
+    
+    public List<String> getFindings() {
+        return findings;
+    }
+    
+    /**
+     * Look for monotonic growth of the gauge metrics, both across the whole journey and
+     * across repetitions of the same action (e.g. add/remove in CartPage, reopening the menu)
+     * 
+     * @param minSamples Minimum number of samples in a series before growth is reported
+     * @return Findings, empty when no growth was detected
+     */
+    List<String> analyze(int minSamples) {
+        List<String> result = new ArrayList<>();
+        for (BrowserMetricsTracker.Kind kind : BrowserMetricsTracker.Kind.values()) {
+            List<MetricsSample> series = getSamples().stream()
+                .filter(sample -> sample.getKind() == kind)
+                .collect(Collectors.toList());
+            for (String metric : GAUGE_METRICS) {
+                String growth = describeGrowth(series, metric, minSamples);
+                if (growth != null) {
+                    result.add(String.format("%s grew on every %s of the journey: %s",
+                        metric, kind.name().toLowerCase(), growth));
+                }
+            }
+        }
+        
+        Map<String, List<MetricsSample>> byLabel = new LinkedHashMap<>();
+        for (MetricsSample sample : getSamples()) {
+            byLabel.computeIfAbsent(sample.getLabel(), label -> new ArrayList<>()).add(sample);
+        }
+        for (Map.Entry<String, List<MetricsSample>> entry : byLabel.entrySet()) {
+            for (String metric : GAUGE_METRICS) {
+                String growth = describeGrowth(entry.getValue(), metric, minSamples);
+                if (growth != null) {
+                    result.add(String.format("%s grew on each of %d repetitions of %s: %s",
+                        metric, entry.getValue().size(), entry.getKey(), growth));
+                }
+            }
+        }
+        findings = result;
+        return result;
+    }
+    
+    /**
+     * Describe the growth of a metric if its value never fell across the series and rose overall
+     * 
+     * @param series Samples in execution order
+     * @param metric Gauge metric name
+     * @param minSamples Minimum series length
+     * @return Growth description or null if the series is too short or not growing
+     */
+    private static String describeGrowth(List<MetricsSample> series, String metric, int minSamples) {
+        List<Double> values = series.stream()
+            .map(sample -> sample.valueAfter(metric))
+            .filter(value -> value != null)
+            .collect(Collectors.toList());
+        if (values.size() < minSamples) {
+            return null;
+        }
+        for (int i = 1; i < values.size(); i++) {
+            if (values.get(i) < values.get(i - 1)) {
+                return null;
+            }
+        }
+        double first = values.get(0);
+        double last = values.get(values.size() - 1);
+        if (last <= first) {
+            return null;
+        }
+        return String.format("%s -> %s over %d samples", format(metric, first), format(metric, last), values.size());
+    }
+    
+    private static String format(String metric, double value) {
+        if ("JSHeapUsedSize".equals(metric)) {
+            return String.format("%.2f MB", value / (1024.0 * 1024.0));
+        }
+        return String.format("%.0f", value);
+    }
+}
@@ -0,0 +1,224 @@
+package com.quantumleap.framework.performance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.TestContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks DevTools Performance.getMetrics values around page-object actions and Cucumber steps
+ * Each outermost action or step is sampled before and after it runs; at the end of a test the
+ * journey is checked for monotonic growth of JS heap, DOM nodes and event listeners, which is
+ * how front-end leaks show up in long end-to-end loops
+ * 
+ * @author QuantumLeap Team
+ */
+public class BrowserMetricsTracker {
+    
+    /**
+     * Granularity of a sampled scope
+     */
+    public enum Kind {
+        ACTION,
+        STEP
+    }
+    
+    private static final Logger logger = LoggerFactory.getLogger(BrowserMetricsTracker.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final List<String> TRACKED_METRICS =
+        List.of("JSHeapUsedSize", "Nodes", "JSEventListeners", "LayoutCount", "RecalcStyleCount");
+    
+    private static final ThreadLocal<HasCdp> cdpDriver = new ThreadLocal<>();
+    private static final ThreadLocal<int[]> scopeDepth = ThreadLocal.withInitial(() -> new int[Kind.values().length]);
+    private static final Map<String, BrowserMetricsJourney> activeJourneys = new ConcurrentHashMap<>();
+    private static final List<BrowserMetricsJourney> completedJourneys = Collections.synchronizedList(new ArrayList<>());
+    
+    /**
+     * Enable the DevTools Performance domain for a freshly created driver on the current thread
+     * 
+     * @param driver Undecorated driver instance
+     */
+    public static void attach(WebDriver driver) {
+        if (!config.isBrowserMetricsEnabled() || !(driver instanceof HasCdp)) {
+            return;
+        }
+        try {
+            ((HasCdp) driver).executeCdpCommand("Performance.enable", Collections.emptyMap());
+            cdpDriver.set((HasCdp) driver);
+            logger.debug("DevTools performance metrics enabled for current thread");
+        } catch (Exception e) {
+            logger.warn("Could not enable DevTools performance metrics: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Stop sampling on the current thread, called before the driver quits
+     */
+    public static void detach() {
+        cdpDriver.remove();
+        scopeDepth.remove();
+    }
+    
+    /**
+     * Check whether metrics are sampled on the current thread
+     * 
+     * @return true if a driver with DevTools support is attached
+     */
+    public static boolean isAttached() {
+        return cdpDriver.get() != null;
+    }
+    
+    /**
+     * Sample metrics before an action or step; closing the scope samples them again
+     * Nested scopes of the same kind are not sampled, so helpers calling other helpers
+     * produce a single sample for the outermost action
+     * 
+     * @param kind Action or step
+     * @param label Name of the action or step, e.g. CartPage.removeItem
+     * @return Scope to close when the action or step completes
+     */
+    public static Scope begin(Kind kind, String label) {
+        if (!isAttached()) {
+            return Scope.NOOP;
+        }
+        int[] depth = scopeDepth.get();
+        if (depth[kind.ordinal()]++ > 0) {
+            return new Scope(kind, label, null);
+        }
+        return new Scope(kind, label, sample());
+    }
+    
+    /**
+     * Analyse and close the journey of a finished test invocation
+     * Must be called from every terminal callback so journeys of data provider rows and
+     * retries neither mix nor stay in memory
+     * 
+     * @param testKey Invocation key from TestContext.getCurrentTestKey()
+     * @return Growth findings, or null if no metrics were sampled for the invocation
+     */
+    public static List<String> finishJourney(String testKey) {
+        BrowserMetricsJourney journey = testKey != null ? activeJourneys.remove(testKey) : null;
+        if (journey == null) {
+            return null;
+        }
+        List<String> findings = journey.analyze(config.getBrowserMetricsMinSamples());
+        completedJourneys.add(journey);
+        findings.forEach(finding -> logger.warn("Possible front-end leak in {}: {}", journey.getTestName(), finding));
+        return findings;
+    }
+    
+    /**
+     * Write all completed journeys to a JSON file
+     * 
+     * @param outputPath Destination file, normally next to the Extent report
+     * @return Path of the written file or null if nothing was sampled
+     */
+    public static String writeResults(String outputPath) {
+        List<BrowserMetricsJourney> snapshot;
+        synchronized (completedJourneys) {
+            snapshot = new ArrayList<>(completedJourneys);
+        }
+        if (snapshot.isEmpty()) {
+            return null;
+        }
+        File outputFile = new File(outputPath);
+        try {
+            outputFile.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(outputFile, snapshot);
+            logger.info("Browser metrics written to: {}", outputFile.getAbsolutePath());
+            return outputFile.getAbsolutePath();
+        } catch (IOException e) {
+            logger.error("Failed to write browser metrics file: {}", outputPath, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Read the tracked metrics from the browser attached to the current thread
+     * 
+     * @return Metric values keyed by name, or null if the browser could not be sampled
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> sample() {
+        HasCdp cdp = cdpDriver.get();
+        try {
+            if (config.isBrowserMetricsForceGc()) {
+                // Collect garbage first so JSHeapUsedSize reflects retained memory only
+                cdp.executeCdpCommand("HeapProfiler.collectGarbage", Collections.emptyMap());
+            }
+            Map<String, Object> response = cdp.executeCdpCommand("Performance.getMetrics", Collections.emptyMap());
+            Map<String, Double> values = new LinkedHashMap<>();
+            for (Map<String, Object> metric : (List<Map<String, Object>>) response.get("metrics")) {
+                String name = String.valueOf(metric.get("name"));
+                if (TRACKED_METRICS.contains(name) && metric.get("value") instanceof Number) {
+                    values.put(name, ((Number) metric.get("value")).doubleValue());
+                }
+            }
+            return values;
+        } catch (Exception e) {
+            logger.debug("Failed to read DevTools performance metrics: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private static void record(Kind kind, String label, long startedAt, Map<String, Double> before) {
+        Map<String, Double> after = sample();
+        if (after == null) {
+            return;
+        }
+        String testKey = TestContext.getCurrentTestKey();
+        if (testKey == null) {
+            return;
+        }
+        String testName = TestContext.getCurrentTestName();
+        MetricsSample metricsSample = new MetricsSample(kind, label, startedAt,
+            System.currentTimeMillis() - startedAt, before, after);
+        activeJourneys.computeIfAbsent(testKey, key -> new BrowserMetricsJourney(testName)).addSample(metricsSample);
+    }
+    
+    /**
+     * Sampling scope of one action or step
+     */
+    public static class Scope implements AutoCloseable {
+        
+        static final Scope NOOP = new Scope(null, null, null);
+        
+        private final Kind kind;
+        private final String label;
+        private final Map<String, Double> before;
+        private final long startedAt = System.currentTimeMillis();
+        
+        private Scope(Kind kind, String label, Map<String, Double> before) {
+            this.kind = kind;
+            this.label = label;
+            this.before = before;
+        }
+        
+        @Override
+        public void close() {
+            if (kind == null) {
+                return;
+            }
+            int[] depth = scopeDepth.get();
+            if (depth[kind.ordinal()] > 0) {
+                depth[kind.ordinal()]--;
+            }
+            if (before != null) {
+                record(kind, label, startedAt, before);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.quantumleap.framework.performance;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DevTools Performance.getMetrics values taken before and after one page-object action
+ * or Cucumber step
+ * 
+ * @author QuantumLeap Team
+ */
+public class MetricsSample {
+    
+    private final BrowserMetricsTracker.Kind kind;
+    private final String label;
+    private final long startedAt;
+    private final long durationMillis;
+    private final Map<String, Double> before;
+    private final Map<String, Double> after;
+    
+    public MetricsSample(BrowserMetricsTracker.Kind kind, String label, long startedAt, long durationMillis,
+                         Map<String, Double> before, Map<String, Double> after) {
+        this.kind = kind;
+        this.label = label;
+        this.startedAt = startedAt;
+        this.durationMillis = durationMillis;
+        this.before = before;
+        this.after = after;
+    }
+    
+    public BrowserMetricsTracker.Kind getKind() {
+        return kind;
+    }
+    
+    public String getLabel() {
+        return label;
+    }
+    
+    public long getStartedAt() {
+        return startedAt;
+    }
+    
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public Map<String, Double> getAfter() {
+        return after;
+    }
+    
+    /**
+     * Change of every tracked metric over the action or step
+     * 
+     * @return Metric deltas keyed by metric name
+     */
+    public Map<String, Double> getDelta() {
+        Map<String, Double> delta = new LinkedHashMap<>();
+        for (Map.Entry<String, Double> entry : after.entrySet()) {
+            Double start = before.get(entry.getKey());
+            if (start != null) {
+                delta.put(entry.getKey(), entry.getValue() - start);
+            }
+        }
+        return delta;
+    }
+    
+    /**
+     * Value of a metric when the action or step completed
+     * 
+     * @param metric Metric name, e.g. Nodes
+     * @return Metric value or null if the browser did not report it
+     */
+    public Double valueAfter(String metric) {
+        return after.get(metric);
+    }
+}
@@ -0,0 +1,172 @@
+package com.quantumleap.framework.performance;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Front-end performance metrics captured for one page of a test journey
+ * Paint and navigation timings are milliseconds relative to the document's time origin;
+ * layout shift and long task values cover the transition since the previous capture
+ * 
+ * @author QuantumLeap Team
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageMetrics {
+    
+    private String testName;
+    private String pageName;
+    private String url;
+    private long capturedAt;
+    private Double timeOrigin;
+    private boolean navigation;
+    private Double timeToFirstByte;
+    private Double domContentLoaded;
+    private Double loadEvent;
+    private Double transferSize;
+    private Double firstPaint;
+    private Double firstContentfulPaint;
+    private Double largestContentfulPaint;
+    private Double cumulativeLayoutShift;
+    private Double transitionLayoutShift;
+    private int longTaskCount;
+    private double longTaskTotal;
+    
+    public PageMetrics() {
+    }
+    
+    /**
+     * Build metrics from the map returned by the observer script's drain()
+     * 
+     * @param testName Owning test
+     * @param pageName Logical page name (login, inventory, cart, ...)
+     * @param raw Values returned by the browser
+     * @return Page metrics
+     */
+    static PageMetrics fromBrowser(String testName, String pageName, Map<String, Object> raw) {
+        PageMetrics metrics = new PageMetrics();
+        metrics.testName = testName;
+        metrics.pageName = pageName;
+        metrics.url = raw.get("url") != null ? String.valueOf(raw.get("url")) : null;
+        metrics.capturedAt = System.currentTimeMillis();
+        metrics.timeOrigin = number(raw.get("timeOrigin"));
+        metrics.timeToFirstByte = number(raw.get("ttfb"));
+        metrics.domContentLoaded = number(raw.get("domContentLoaded"));
+        metrics.loadEvent = number(raw.get("loadEvent"));
+        metrics.transferSize = number(raw.get("transferSize"));
+        metrics.firstPaint = number(raw.get("firstPaint"));
+        metrics.firstContentfulPaint = number(raw.get("firstContentfulPaint"));
+        metrics.largestContentfulPaint = number(raw.get("largestContentfulPaint"));
+        metrics.cumulativeLayoutShift = number(raw.get("cumulativeLayoutShift"));
+        metrics.transitionLayoutShift = number(raw.get("layoutShiftSinceLastDrain"));
+        Double longTaskCount = number(raw.get("longTaskCount"));
+        metrics.longTaskCount = longTaskCount != null ? longTaskCount.intValue() : 0;
+        Double longTaskTotal = number(raw.get("longTaskTotal"));
+        metrics.longTaskTotal = longTaskTotal != null ? longTaskTotal : 0;
+        return metrics;
+    }
+    
+    private static Double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+    
+    /**
+     * One-line summary for logs and the report
+     * 
+     * @return Summary text
+     */
+    public String toSummary() {
+        return String.format("TTFB %s, FCP %s, LCP %s, CLS %s, long tasks %d (%.0f ms)",
+            millis(timeToFirstByte), millis(firstContentfulPaint), millis(largestContentfulPaint),
+            cumulativeLayoutShift != null ? String.format("%.3f", cumulativeLayoutShift) : "n/a",
+            longTaskCount, longTaskTotal);
+    }
+    
+    private static String millis(Double value) {
+        return value != null ? String.format("%.0f ms", value) : "n/a";
+    }
+    
+    public String getTestName() {
+        return testName;
+    }
+    
+    public String getPageName() {
+        return pageName;
+    }
+    
+    public String getUrl() {
+        return url;
+    }
+    
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+    
+    /**
+     * Time origin of the document the metrics were drained from; it changes only when the
+     * browser loads a new document, not on client-side transitions
+     * 
+     * @return performance.timeOrigin in epoch milliseconds
+     */
+    public Double getTimeOrigin() {
+        return timeOrigin;
+    }
+    
+    /**
+     * Whether this capture is the first one on a newly loaded document, so its navigation and
+     * paint timings belong to this page rather than to an earlier capture
+     * 
+     * @return True for a document load, false for a client-side transition
+     */
+    public boolean isNavigation() {
+        return navigation;
+    }
+    
+    void setNavigation(boolean navigation) {
+        this.navigation = navigation;
+    }
+    
+    public Double getTimeToFirstByte() {
+        return timeToFirstByte;
+    }
+    
+    public Double getDomContentLoaded() {
+        return domContentLoaded;
+    }
+    
+    public Double getLoadEvent() {
+        return loadEvent;
+    }
+    
+    public Double getTransferSize() {
+        return transferSize;
+    }
+    
+    public Double getFirstPaint() {
+        return firstPaint;
+    }
+    
+    public Double getFirstContentfulPaint() {
+        return firstContentfulPaint;
+    }
+    
+    public Double getLargestContentfulPaint() {
+        return largestContentfulPaint;
+    }
+    
+    public Double getCumulativeLayoutShift() {
+        return cumulativeLayoutShift;
+    }
+    
+    public Double getTransitionLayoutShift() {
+        return transitionLayoutShift;
+    }
+    
+    public int getLongTaskCount() {
+        return longTaskCount;
+    }
+    
+    public double getLongTaskTotal() {
+        return longTaskTotal;
+    }
+}
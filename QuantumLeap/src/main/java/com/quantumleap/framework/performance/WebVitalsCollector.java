@@ -0,0 +1,233 @@
+package com.quantumleap.framework.performance;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.ExtentReportManager;
+import com.quantumleap.framework.utils.TestContext;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Web Vitals Collector for front-end performance checks in functional tests
+ * Installs a PerformanceObserver at document start, drains Navigation Timing, paint, LCP,
+ * CLS and long task data after each page transition, stores the metrics per page per test
+ * and checks them against the budgets in config.properties. Navigation and paint budgets
+ * (TTFB, FCP, LCP, CLS) are checked once per loaded document; captures after client-side
+ * transitions on the same document check the layout shift and long tasks of the transition
+ * 
+ * @author QuantumLeap Team
+ */
+public class WebVitalsCollector {
+    
+    private static final Logger logger = LoggerFactory.getLogger(WebVitalsCollector.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final String OBSERVER_SCRIPT_RESOURCE = "scripts/web-vitals-observer.js";
+    private static final String DRAIN_SCRIPT = "return window.__qlVitals ? window.__qlVitals.drain() : null;";
+    
+    private static final Map<String, List<PageMetrics>> metricsByTest = new ConcurrentHashMap<>();
+    private static final ThreadLocal<DocumentState> lastDocument = new ThreadLocal<>();
+    private static volatile String observerScript;
+    
+    /**
+     * Register the observer script to run at document start on Chromium browsers
+     * Other browsers get the script on first capture and rely on buffered entries
+     * 
+     * @param driver Undecorated driver instance
+     */
+    public static void install(WebDriver driver) {
+        if (!config.isWebVitalsEnabled() || !(driver instanceof HasCdp)) {
+            return;
+        }
+        try {
+            Map<String, Object> params = new TreeMap<>();
+            params.put("source", getObserverScript());
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", params);
+            logger.debug("Web vitals observer registered for new documents");
+        } catch (Exception e) {
+            logger.warn("Could not register web vitals observer at document start: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Capture the metrics of the current page and check them against the budgets
+     * 
+     * @param driver WebDriver instance
+     * @param pageName Logical page name (login, inventory, cart, checkout-step-one, ...)
+     * @return Captured metrics or null if collection is disabled or failed
+     */
+    @SuppressWarnings("unchecked")
+    public static PageMetrics capture(WebDriver driver, String pageName) {
+        if (!config.isWebVitalsEnabled()) {
+            return null;
+        }
+        PageMetrics metrics;
+        try {
+            Object raw = ((JavascriptExecutor) driver).executeScript(getObserverScript() + "\n" + DRAIN_SCRIPT);
+            if (!(raw instanceof Map)) {
+                return null;
+            }
+            metrics = PageMetrics.fromBrowser(TestContext.getCurrentTestName(), pageName, (Map<String, Object>) raw);
+            metrics.setNavigation(isNewDocument(driver, metrics.getTimeOrigin()));
+            String testKey = TestContext.getCurrentTestKey();
+            if (testKey != null) {
+                metricsByTest.computeIfAbsent(testKey, key -> Collections.synchronizedList(new ArrayList<>())).add(metrics);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to capture web vitals for page '{}': {}", pageName, e.getMessage());
+            return null;
+        }
+        
+        String kind = metrics.isNavigation() ? "" : " (transition)";
+        logger.info("Web vitals [{}]{}: {}", pageName, kind, metrics.toSummary());
+        ExtentReportManager.logInfo("📈 Web Vitals [" + pageName + "]" + kind + ": " + metrics.toSummary());
+        checkBudgets(metrics);
+        return metrics;
+    }
+    
+    /**
+     * Get the metrics captured for a test invocation
+     * Data provider rows and retries of a method each have their own key and journey
+     * 
+     * @param testKey Invocation key from TestContext.getCurrentTestKey()
+     * @return Captured metrics in journey order
+     */
+    public static List<PageMetrics> getMetrics(String testKey) {
+        List<PageMetrics> metrics = metricsByTest.get(testKey);
+        if (metrics == null) {
+            return Collections.emptyList();
+        }
+        synchronized (metrics) {
+            return new ArrayList<>(metrics);
+        }
+    }
+    
+    /**
+     * Write all captured metrics, grouped by test invocation key, to a JSON file
+     * 
+     * @param outputPath Destination file, normally next to the Extent report
+     * @return Path of the written file or null if nothing was captured
+     */
+    public static String writeResults(String outputPath) {
+        if (metricsByTest.isEmpty()) {
+            return null;
+        }
+        Map<String, List<PageMetrics>> snapshot = new TreeMap<>();
+        metricsByTest.keySet().forEach(testKey -> snapshot.put(testKey, getMetrics(testKey)));
+        File outputFile = new File(outputPath);
+        try {
+            outputFile.getParentFile().mkdirs();
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(outputFile, snapshot);
+            logger.info("Web vitals written to: {}", outputFile.getAbsolutePath());
+            return outputFile.getAbsolutePath();
+        } catch (IOException e) {
+            logger.error("Failed to write web vitals file: {}", outputPath, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Tell whether the drained metrics come from a different document than the previous
+     * capture on the same driver, and remember the document for the next capture
+     * 
+     * @param driver WebDriver instance
+     * @param timeOrigin Time origin of the drained document
+     * @return True if a new document was loaded since the previous capture
+     */
+    private static boolean isNewDocument(WebDriver driver, Double timeOrigin) {
+        DocumentState previous = lastDocument.get();
+        boolean sameDocument = previous != null && previous.driver.get() == driver
+            && timeOrigin != null && timeOrigin.equals(previous.timeOrigin);
+        if (!sameDocument) {
+            lastDocument.set(new DocumentState(driver, timeOrigin));
+        }
+        return !sameDocument;
+    }
+    
+    /**
+     * Compare the captured metrics with the configured budgets
+     * Navigation and paint budgets apply to the first capture of a document only, so a slow
+     * page load is reported once rather than on every later transition of the same page
+     * Budget violations are logged as warnings or fail the test depending on web.vitals.budget.mode
+     * 
+     * @param metrics Captured page metrics
+     */
+    private static void checkBudgets(PageMetrics metrics) {
+        List<String> violations = new ArrayList<>();
+        if (metrics.isNavigation()) {
+            checkBudget(violations, "ttfb.ms", "TTFB", metrics.getTimeToFirstByte());
+            checkBudget(violations, "fcp.ms", "FCP", metrics.getFirstContentfulPaint());
+            checkBudget(violations, "lcp.ms", "LCP", metrics.getLargestContentfulPaint());
+            checkBudget(violations, "cls", "CLS", metrics.getCumulativeLayoutShift());
+        } else {
+            checkBudget(violations, "cls", "Transition CLS", metrics.getTransitionLayoutShift());
+        }
+        checkBudget(violations, "long.tasks.ms", "Long task time", metrics.getLongTaskTotal());
+        if (violations.isEmpty()) {
+            return;
+        }
+        
+        String message = "Performance budget exceeded on page '" + metrics.getPageName() + "': " + String.join(", ", violations);
+        if ("fail".equalsIgnoreCase(config.getWebVitalsBudgetMode())) {
+            logger.error(message);
+            ExtentReportManager.logFail("⛔ " + message);
+            throw new AssertionError(message);
+        }
+        logger.warn(message);
+        ExtentReportManager.logWarning("⚠️ " + message);
+    }
+    
+    private static void checkBudget(List<String> violations, String budgetKey, String label, Double value) {
+        Double budget = config.getWebVitalsBudget(budgetKey);
+        if (budget != null && value != null && value > budget) {
+            violations.add(String.format("%s %.3f > %.3f", label, value, budget));
+        }
+    }
+    
+    /**
+     * Document last drained on a thread's driver
+     */
+    private static final class DocumentState {
+        private final WeakReference<WebDriver> driver;
+        private final Double timeOrigin;
+        
+        DocumentState(WebDriver driver, Double timeOrigin) {
+            this.driver = new WeakReference<>(driver);
+            this.timeOrigin = timeOrigin;
+        }
+    }
+    
+    /**
+     * Load the observer script from the classpath once
+     * 
+     * @return Observer script source
+     */
+    private static String getObserverScript() {
+        if (observerScript == null) {
+            try (InputStream inputStream = WebVitalsCollector.class.getClassLoader().getResourceAsStream(OBSERVER_SCRIPT_RESOURCE)) {
+                if (inputStream == null) {
+                    throw new RuntimeException("Web vitals observer script not found: " + OBSERVER_SCRIPT_RESOURCE);
+                }
+                observerScript = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to load web vitals observer script", e);
+            }
+        }
+        return observerScript;
+    }
+}
@@ -0,0 +1,147 @@
+package com.quantumleap.framework.recording;
+
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.ExtentReportManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DOM session recorder for failed UI tests
+ * Injects an rrweb-style recorder at document start that buffers a DOM snapshot per page and
+ * the subsequent mutations and user input inside the browser; the buffer is drained with a
+ * single script call when the failure artifacts are collected, or before the driver quits if
+ * the test quit it itself, and turned into a self-contained HTML replay only when the test fails
+ * 
+ * @author QuantumLeap Team
+ */
+public class DomRecorder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DomRecorder.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final String RECORDER_SCRIPT_RESOURCE = "scripts/dom-recorder.js";
+    private static final String REPLAY_TEMPLATE_RESOURCE = "scripts/dom-replay.html";
+    private static final String DRAIN_SCRIPT = "return window.__qlRecorder ? window.__qlRecorder.drain() : null;";
+    
+    private static final ThreadLocal<String> recordings = new ThreadLocal<>();
+    private static volatile String recorderScript;
+    private static volatile String replayTemplate;
+    
+    /**
+     * Register the recorder to run at document start on Chromium browsers
+     * Other browsers only get the state of the last page, injected on collection
+     * 
+     * @param driver Undecorated driver instance
+     */
+    public static void install(WebDriver driver) {
+        recordings.remove();
+        if (!config.isDomRecordingEnabled() || !(driver instanceof HasCdp)) {
+            return;
+        }
+        try {
+            Map<String, Object> params = new TreeMap<>();
+            params.put("source", getRecorderScript());
+            ((HasCdp) driver).executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", params);
+            logger.debug("DOM recorder registered for new documents");
+        } catch (Exception e) {
+            logger.warn("Could not register DOM recorder at document start: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Drain the recorded events from the browser while the driver is still alive
+     * 
+     * @param driver Live WebDriver instance
+     */
+    public static void collect(WebDriver driver) {
+        recordings.remove();
+        if (!config.isDomRecordingEnabled()) {
+            return;
+        }
+        try {
+            Object events = ((JavascriptExecutor) driver).executeScript(getRecorderScript() + "\n" + DRAIN_SCRIPT);
+            if (events instanceof String) {
+                recordings.set((String) events);
+            }
+        } catch (Exception e) {
+            logger.debug("Could not collect DOM recording: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Write the collected events of a failed test as an HTML replay next to the Extent report
+     * 
+     * @param testName Name of the failed test
+     * @return Path of the replay file, or null if nothing was recorded
+     */
+    public static String persist(String testName) {
+        String events = recordings.get();
+        recordings.remove();
+        if (events == null || "[]".equals(events)) {
+            return null;
+        }
+        String title = testName.replaceAll("[^A-Za-z0-9._-]", "_");
+        File replayFile = new File(ExtentReportManager.getReportSiblingPath(
+            "_" + title + "_" + System.currentTimeMillis() + "_dom-replay.html"));
+        String html = getReplayTemplate()
+            .replace("__TITLE__", title)
+            .replace("/*__EVENTS__*/[]", events.replace("</", "<\\/"));
+        try {
+            replayFile.getParentFile().mkdirs();
+            Files.write(replayFile.toPath(), html.getBytes(StandardCharsets.UTF_8));
+            logger.info("DOM replay ({} KB) saved for failed test: {}", replayFile.length() / 1024, testName);
+            return replayFile.getAbsolutePath();
+        } catch (IOException e) {
+            logger.error("Failed to write DOM replay for test: {}", testName, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Drop the recording of a passed or skipped test
+     */
+    public static void discard() {
+        recordings.remove();
+    }
+    
+    private static String getRecorderScript() {
+        if (recorderScript == null) {
+            recorderScript = loadResource(RECORDER_SCRIPT_RESOURCE);
+        }
+        return recorderScript;
+    }
+    
+    private static String getReplayTemplate() {
+        if (replayTemplate == null) {
+            replayTemplate = loadResource(REPLAY_TEMPLATE_RESOURCE);
+        }
+        return replayTemplate;
+    }
+    
+    /**
+     * Load a recorder resource from the classpath
+     * 
+     * @param resource Resource path
+     * @return Resource content
+     */
+    private static String loadResource(String resource) {
+        try (InputStream inputStream = DomRecorder.class.getClassLoader().getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new RuntimeException("DOM recorder resource not found: " + resource);
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load DOM recorder resource: " + resource, e);
+        }
+    }
+}
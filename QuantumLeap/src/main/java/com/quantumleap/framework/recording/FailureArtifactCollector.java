@@ -0,0 +1,198 @@
+package com.quantumleap.framework.recording;
+
+import com.quantumleap.framework.base.WebDriverFactory;
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.ScreenshotUtils;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the diagnostics of a failed UI test exactly once
+ * Screenshot, page source, console log, current URL and cookies are requested from the
+ * browser one after another on the test thread while the driver is still alive, as
+ * WebDriver is not thread-safe; only the text files are written in the background. The
+ * result is stored as an ITestResult attribute so BaseTest and every reporting listener
+ * share the same artifacts
+ * 
+ * @author QuantumLeap Team
+ */
+public class FailureArtifactCollector {
+    
+    /**
+     * ITestResult attribute holding the FailureArtifacts of a failed test
+     */
+    public static final String ATTRIBUTE = "quantumleap.failureArtifacts";
+    
+    private static final Logger logger = LoggerFactory.getLogger(FailureArtifactCollector.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "failure-artifacts-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * Collect the artifacts of a failed test, or return the ones already collected for it
+     * The DOM recording is drained at the same time, as the result listener runs before
+     * the @AfterMethod that quits the driver
+     * 
+     * @param result TestNG result of the failed test
+     * @return Collected artifacts, or null if no browser session is available
+     */
+    public static FailureArtifacts collect(ITestResult result) {
+        synchronized (result) {
+            FailureArtifacts existing = get(result);
+            if (existing != null || !WebDriverFactory.isDriverInitialized()) {
+                return existing;
+            }
+            WebDriver driver = WebDriverFactory.getDriver();
+            FailureArtifacts artifacts = collect(result.getMethod().getMethodName(), driver);
+            DomRecorder.collect(driver);
+            result.setAttribute(ATTRIBUTE, artifacts);
+            return artifacts;
+        }
+    }
+    
+    /**
+     * Get the artifacts stored on a test result
+     * 
+     * @param result TestNG result
+     * @return Stored artifacts, or null if none were collected
+     */
+    public static FailureArtifacts get(ITestResult result) {
+        Object artifacts = result.getAttribute(ATTRIBUTE);
+        return artifacts instanceof FailureArtifacts ? (FailureArtifacts) artifacts : null;
+    }
+    
+    /**
+     * Request all artifacts from the browser on the calling thread and wait for the file
+     * writes within the timeout; browser calls still pending at the deadline are skipped
+     * 
+     * @param testName Failed test name
+     * @param driver Live WebDriver instance of the test
+     * @return Collected artifacts
+     */
+    public static FailureArtifacts collect(String testName, WebDriver driver) {
+        long start = System.currentTimeMillis();
+        long deadline = start + config.getFailureArtifactsTimeoutSeconds() * 1000L;
+        String baseName = testName + "_FAILED_" + LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        
+        String screenshot = config.isScreenshotOnFailure()
+            ? query(() -> ScreenshotUtils.captureScreenshot(testName + "_FAILED", driver), "screenshot", deadline)
+            : null;
+        String pageSourceContent = query(driver::getPageSource, "page source", deadline);
+        Future<String> pageSource = executor.submit(() -> write(baseName + "_source.html", pageSourceContent));
+        String consoleLogContent = query(() -> readConsoleLog(driver), "console log", deadline);
+        Future<String> consoleLog = executor.submit(() -> write(baseName + "_console.log", consoleLogContent));
+        String currentUrl = query(driver::getCurrentUrl, "current URL", deadline);
+        List<String> cookies = query(() -> describeCookies(driver), "cookies", deadline);
+        
+        FailureArtifacts artifacts = new FailureArtifacts(testName,
+            screenshot,
+            await(pageSource, "page source", deadline),
+            await(consoleLog, "console log", deadline),
+            currentUrl,
+            cookies,
+            System.currentTimeMillis() - start);
+        logger.info("Failure artifacts for {}: {}", testName, artifacts);
+        return artifacts;
+    }
+    
+    private static <T> T query(Callable<T> call, String artifact, long deadline) {
+        if (System.currentTimeMillis() >= deadline) {
+            logger.warn("Skipping {} on failure: artifact timeout exceeded", artifact);
+            return null;
+        }
+        try {
+            return call.call();
+        } catch (Exception e) {
+            logger.warn("Could not collect {} on failure: {}", artifact, e.getMessage());
+            return null;
+        }
+    }
+    
+    private static <T> T await(Future<T> future, String artifact, long deadline) {
+        if (future == null) {
+            return null;
+        }
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        } catch (Exception e) {
+            future.cancel(true);
+            logger.warn("Could not collect {} on failure: {}", artifact, e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Read the browser console; drivers without the logging endpoint yield null
+     * 
+     * @param driver WebDriver instance
+     * @return Console entries, one per line
+     */
+    private static String readConsoleLog(WebDriver driver) {
+        try {
+            List<LogEntry> entries = driver.manage().logs().get(LogType.BROWSER).getAll();
+            return entries.stream().map(LogEntry::toString).collect(Collectors.joining(System.lineSeparator()));
+        } catch (RuntimeException e) {
+            logger.debug("Browser console log not available: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private static List<String> describeCookies(WebDriver driver) {
+        return driver.manage().getCookies().stream()
+            .map(FailureArtifactCollector::describeCookie)
+            .sorted()
+            .collect(Collectors.toList());
+    }
+    
+    private static String describeCookie(Cookie cookie) {
+        return cookie.getName() + " (" + cookie.getDomain() + " " + cookie.getPath() + ")";
+    }
+    
+    /**
+     * Write a text artifact to the screenshot directory
+     * 
+     * @param fileName File name
+     * @param content Text content, may be null
+     * @return Absolute path, or null if there was nothing to write
+     */
+    private static String write(String fileName, String content) throws IOException {
+        if (content == null || content.isEmpty()) {
+            return null;
+        }
+        Path path = Paths.get(ScreenshotUtils.getScreenshotDirectory(), fileName);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+        return path.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.quantumleap.framework.recording;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Diagnostics gathered once for a failed UI test
+ * Stored on the ITestResult so every reporter reads the same artifacts instead of
+ * capturing its own; any field is null when the browser could not provide it
+ * 
+ * @author QuantumLeap Team
+ */
+public class FailureArtifacts {
+    
+    private final String testName;
+    private final String screenshotPath;
+    private final String pageSourcePath;
+    private final String consoleLogPath;
+    private final String currentUrl;
+    private final List<String> cookies;
+    private final long collectionMillis;
+    
+    FailureArtifacts(String testName, String screenshotPath, String pageSourcePath, String consoleLogPath,
+                     String currentUrl, List<String> cookies, long collectionMillis) {
+        this.testName = testName;
+        this.screenshotPath = screenshotPath;
+        this.pageSourcePath = pageSourcePath;
+        this.consoleLogPath = consoleLogPath;
+        this.currentUrl = currentUrl;
+        this.cookies = cookies != null ? cookies : Collections.emptyList();
+        this.collectionMillis = collectionMillis;
+    }
+    
+    public String getTestName() {
+        return testName;
+    }
+    
+    public String getScreenshotPath() {
+        return screenshotPath;
+    }
+    
+    public String getPageSourcePath() {
+        return pageSourcePath;
+    }
+    
+    public String getConsoleLogPath() {
+        return consoleLogPath;
+    }
+    
+    public String getCurrentUrl() {
+        return currentUrl;
+    }
+    
+    /**
+     * Cookies of the current page without their values, e.g. session-username (www.saucedemo.com /)
+     * 
+     * @return Cookie descriptions
+     */
+    public List<String> getCookies() {
+        return cookies;
+    }
+    
+    public long getCollectionMillis() {
+        return collectionMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("url=%s, screenshot=%s, pageSource=%s, consoleLog=%s, cookies=%d (%d ms)",
+            currentUrl, screenshotPath, pageSourcePath, consoleLogPath, cookies.size(), collectionMillis);
+    }
+}
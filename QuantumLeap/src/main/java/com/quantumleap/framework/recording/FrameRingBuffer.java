@@ -0,0 +1,122 @@
+package com.quantumleap.framework.recording;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of encoded frames backed by a single off-heap buffer
+ * The buffer is allocated once per thread and reused across sessions, so recording frames
+ * creates no long-lived heap objects and no GC pressure; the oldest frame is overwritten
+ * when the ring is full
+ * 
+ * @author QuantumLeap Team
+ */
+public class FrameRingBuffer {
+    
+    private final ByteBuffer storage;
+    private final int slotCapacity;
+    private final int[] lengths;
+    private final long[] timestamps;
+    private final String[] labels;
+    private int next;
+    private int size;
+    
+    /**
+     * Allocate the off-heap storage for all slots
+     * 
+     * @param slots Number of frames kept
+     * @param slotCapacity Maximum encoded size of one frame in bytes
+     */
+    public FrameRingBuffer(int slots, int slotCapacity) {
+        this.storage = ByteBuffer.allocateDirect(slots * slotCapacity);
+        this.slotCapacity = slotCapacity;
+        this.lengths = new int[slots];
+        this.timestamps = new long[slots];
+        this.labels = new String[slots];
+    }
+    
+    /**
+     * Add a frame, overwriting the oldest one when the ring is full
+     * 
+     * @param label Step that produced the frame
+     * @param timestamp Capture time in epoch milliseconds
+     * @param data Encoded image
+     * @return false if the frame is larger than a slot and was dropped
+     */
+    public boolean add(String label, long timestamp, byte[] data) {
+        if (data.length > slotCapacity) {
+            return false;
+        }
+        ByteBuffer slot = storage.duplicate();
+        slot.position(next * slotCapacity);
+        slot.put(data);
+        lengths[next] = data.length;
+        timestamps[next] = timestamp;
+        labels[next] = label;
+        next = (next + 1) % lengths.length;
+        size = Math.min(size + 1, lengths.length);
+        return true;
+    }
+    
+    /**
+     * Copy the buffered frames to the heap, oldest first
+     * 
+     * @return Buffered frames
+     */
+    public List<Frame> frames() {
+        List<Frame> frames = new ArrayList<>(size);
+        int first = (next - size + lengths.length) % lengths.length;
+        for (int i = 0; i < size; i++) {
+            int index = (first + i) % lengths.length;
+            byte[] data = new byte[lengths[index]];
+            ByteBuffer slot = storage.duplicate();
+            slot.position(index * slotCapacity);
+            slot.get(data);
+            frames.add(new Frame(labels[index], timestamps[index], data));
+        }
+        return frames;
+    }
+    
+    /**
+     * Drop all frames, keeping the off-heap storage for reuse
+     */
+    public void clear() {
+        next = 0;
+        size = 0;
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = null;
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * One buffered frame copied to the heap
+     */
+    public static class Frame {
+        private final String label;
+        private final long timestamp;
+        private final byte[] data;
+        
+        Frame(String label, long timestamp, byte[] data) {
+            this.label = label;
+            this.timestamp = timestamp;
+            this.data = data;
+        }
+        
+        public String getLabel() {
+            return label;
+        }
+        
+        public long getTimestamp() {
+            return timestamp;
+        }
+        
+        public byte[] getData() {
+            return data;
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.quantumleap.framework.recording;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.ExtentReportManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Network recorder producing a HAR file per UI session from DevTools Network events
+ * Requests, responses, timings, transfer sizes and cache status are buffered in memory while
+ * the test runs; the HAR is written only for failed tests, or for every test when
+ * har.always.write is set, so no proxy is needed to tell network time from front-end time
+ * 
+ * @author QuantumLeap Team
+ */
+public class HarRecorder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(HarRecorder.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final Event<Map<String, Object>> REQUEST_WILL_BE_SENT = networkEvent("requestWillBeSent");
+    private static final Event<Map<String, Object>> RESPONSE_RECEIVED = networkEvent("responseReceived");
+    private static final Event<Map<String, Object>> LOADING_FINISHED = networkEvent("loadingFinished");
+    private static final Event<Map<String, Object>> LOADING_FAILED = networkEvent("loadingFailed");
+    private static final Event<Map<String, Object>> SERVED_FROM_CACHE = networkEvent("requestServedFromCache");
+    
+    private static final ThreadLocal<Session> sessions = new ThreadLocal<>();
+    
+    private static Event<Map<String, Object>> networkEvent(String name) {
+        return new Event<>("Network." + name, input -> input.read(Json.MAP_TYPE));
+    }
+    
+    /**
+     * Subscribe to the Network domain of a freshly created driver on the current thread
+     * 
+     * @param driver Undecorated driver instance
+     */
+    public static void start(WebDriver driver) {
+        sessions.remove();
+        if (!config.isHarEnabled() || !(driver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            Session session = new Session(config.getHarMaxEntries());
+            devTools.addListener(REQUEST_WILL_BE_SENT, session::onRequestWillBeSent);
+            devTools.addListener(RESPONSE_RECEIVED, session::onResponseReceived);
+            devTools.addListener(LOADING_FINISHED, session::onLoadingFinished);
+            devTools.addListener(LOADING_FAILED, session::onLoadingFailed);
+            devTools.addListener(SERVED_FROM_CACHE, session::onServedFromCache);
+            devTools.send(new Command<>("Network.enable", Collections.emptyMap()));
+            sessions.set(session);
+            logger.debug("HAR recording started");
+        } catch (Exception e) {
+            logger.warn("Could not start HAR recording: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Stop buffering before the driver quits; recorded entries are kept for persist()
+     */
+    public static void stop() {
+        Session session = sessions.get();
+        if (session != null) {
+            session.stopped = true;
+        }
+    }
+    
+    /**
+     * Check whether the recording of the current thread should be written for a passed test
+     * 
+     * @return true if har.always.write is set
+     */
+    public static boolean isAlwaysWritten() {
+        return config.isHarAlwaysWrite();
+    }
+    
+    /**
+     * Log a one-line network summary of the session, e.g. to compare with step timings
+     */
+    public static void logSummary() {
+        Session session = sessions.get();
+        if (session != null) {
+            String summary = session.summary();
+            if (summary != null) {
+                ExtentReportManager.logInfo("🌐 Network: " + summary);
+            }
+        }
+    }
+    
+    /**
+     * Write the recorded session as a HAR file next to the Extent report
+     * 
+     * @param testName Name of the test
+     * @return Path of the HAR file, or null if nothing was recorded
+     */
+    public static String persist(String testName) {
+        Session session = sessions.get();
+        sessions.remove();
+        if (session == null) {
+            return null;
+        }
+        session.stopped = true;
+        Map<String, Object> har = session.toHar(testName);
+        if (har == null) {
+            return null;
+        }
+        File harFile = new File(ExtentReportManager.getReportSiblingPath(
+            "_" + testName.replaceAll("[^A-Za-z0-9._-]", "_") + "_" + System.currentTimeMillis() + ".har"));
+        try {
+            harFile.getParentFile().mkdirs();
+            new ObjectMapper().writeValue(harFile, har);
+            logger.info("HAR ({} KB) saved for test: {}", harFile.length() / 1024, testName);
+            return harFile.getAbsolutePath();
+        } catch (IOException e) {
+            logger.error("Failed to write HAR for test: {}", testName, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Drop the recording of a test whose HAR is not needed
+     */
+    public static void discard() {
+        Session session = sessions.get();
+        sessions.remove();
+        if (session != null) {
+            session.stopped = true;
+        }
+    }
+    
+    /**
+     * Network events of one driver session, fed on the DevTools event thread
+     */
+    private static class Session {
+        private final int maxEntries;
+        private final List<RequestRecord> records = new ArrayList<>();
+        private final Map<String, RequestRecord> inFlight = new HashMap<>();
+        private volatile boolean stopped;
+        private int dropped;
+        
+        Session(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+        
+        synchronized void onRequestWillBeSent(Map<String, Object> event) {
+            if (stopped) {
+                return;
+            }
+            String requestId = (String) event.get("requestId");
+            RequestRecord previous = inFlight.remove(requestId);
+            if (previous != null && event.get("redirectResponse") != null) {
+                // Redirects reuse the request id; the previous hop ends when the next one starts
+                previous.response = asMap(event.get("redirectResponse"));
+                previous.finishedAt = number(event.get("timestamp"));
+            }
+            if (records.size() >= maxEntries) {
+                dropped++;
+                return;
+            }
+            RequestRecord record = new RequestRecord(asMap(event.get("request")), number(event.get("timestamp")),
+                number(event.get("wallTime")), (String) event.get("type"));
+            records.add(record);
+            inFlight.put(requestId, record);
+        }
+        
+        synchronized void onResponseReceived(Map<String, Object> event) {
+            RequestRecord record = inFlight.get((String) event.get("requestId"));
+            if (record != null) {
+                record.response = asMap(event.get("response"));
+            }
+        }
+        
+        synchronized void onLoadingFinished(Map<String, Object> event) {
+            RequestRecord record = inFlight.remove((String) event.get("requestId"));
+            if (record != null) {
+                record.finishedAt = number(event.get("timestamp"));
+                record.encodedDataLength = number(event.get("encodedDataLength"));
+            }
+        }
+        
+        synchronized void onLoadingFailed(Map<String, Object> event) {
+            RequestRecord record = inFlight.remove((String) event.get("requestId"));
+            if (record != null) {
+                record.finishedAt = number(event.get("timestamp"));
+                record.errorText = (String) event.get("errorText");
+            }
+        }
+        
+        synchronized void onServedFromCache(Map<String, Object> event) {
+            RequestRecord record = inFlight.get((String) event.get("requestId"));
+            if (record != null) {
+                record.servedFromMemoryCache = true;
+            }
+        }
+        
+        synchronized String summary() {
+            if (records.isEmpty()) {
+                return null;
+            }
+            long transferred = 0;
+            int cached = 0;
+            int failed = 0;
+            RequestRecord slowest = records.get(0);
+            for (RequestRecord record : records) {
+                transferred += (long) record.encodedDataLength;
+                cached += record.cacheStatus() != null ? 1 : 0;
+                failed += record.errorText != null || record.status() >= 400 ? 1 : 0;
+                if (record.totalMillis() > slowest.totalMillis()) {
+                    slowest = record;
+                }
+            }
+            return String.format("%d requests, %d KB transferred, %d from cache, %d failed; slowest %.0f ms %s",
+                records.size(), transferred / 1024, cached, failed, slowest.totalMillis(), slowest.url());
+        }
+        
+        synchronized Map<String, Object> toHar(String testName) {
+            if (records.isEmpty()) {
+                return null;
+            }
+            if (dropped > 0) {
+                logger.warn("HAR for {} is missing {} requests beyond har.max.entries", testName, dropped);
+            }
+            String pageId = "page_1";
+            Map<String, Object> page = new LinkedHashMap<>();
+            page.put("startedDateTime", isoTime(records.get(0).wallTime));
+            page.put("id", pageId);
+            page.put("title", testName);
+            page.put("pageTimings", Collections.emptyMap());
+            
+            List<Map<String, Object>> entries = new ArrayList<>(records.size());
+            records.forEach(record -> entries.add(record.toEntry(pageId)));
+            
+            Map<String, Object> creator = new LinkedHashMap<>();
+            creator.put("name", "QuantumLeap");
+            creator.put("version", "1.0");
+            Map<String, Object> log = new LinkedHashMap<>();
+            log.put("version", "1.2");
+            log.put("creator", creator);
+            log.put("pages", Collections.singletonList(page));
+            log.put("entries", entries);
+            return Collections.singletonMap("log", log);
+        }
+    }
+    
+    /**
+     * One request with its response, timing and size as reported by the Network domain
+     */
+    private static class RequestRecord {
+        private final Map<String, Object> request;
+        private final double startedAt;
+        private final double wallTime;
+        private final String resourceType;
+        private Map<String, Object> response;
+        private double finishedAt;
+        private double encodedDataLength;
+        private boolean servedFromMemoryCache;
+        private String errorText;
+        
+        RequestRecord(Map<String, Object> request, double startedAt, double wallTime, String resourceType) {
+            this.request = request;
+            this.startedAt = startedAt;
+            this.wallTime = wallTime;
+            this.resourceType = resourceType;
+        }
+        
+        String url() {
+            return String.valueOf(request.get("url"));
+        }
+        
+        int status() {
+            return response != null ? (int) number(response.get("status")) : 0;
+        }
+        
+        double totalMillis() {
+            return finishedAt > 0 ? (finishedAt - startedAt) * 1000 : 0;
+        }
+        
+        String cacheStatus() {
+            if (servedFromMemoryCache) {
+                return "memory";
+            }
+            if (response != null && Boolean.TRUE.equals(response.get("fromDiskCache"))) {
+                return "disk";
+            }
+            if (response != null && Boolean.TRUE.equals(response.get("fromServiceWorker"))) {
+                return "service-worker";
+            }
+            return null;
+        }
+        
+        Map<String, Object> toEntry(String pageId) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            Map<String, Object> timings = timings();
+            entry.put("pageref", pageId);
+            entry.put("startedDateTime", isoTime(wallTime));
+            entry.put("time", timings.values().stream()
+                .mapToDouble(value -> ((Number) value).doubleValue())
+                .filter(value -> value > 0).sum() - Math.max(0, ((Number) timings.get("ssl")).doubleValue()));
+            entry.put("request", harRequest());
+            entry.put("response", harResponse());
+            Map<String, Object> cache = new LinkedHashMap<>();
+            if (cacheStatus() != null) {
+                cache.put("comment", "served from " + cacheStatus() + " cache");
+            }
+            entry.put("cache", cache);
+            entry.put("timings", timings);
+            if (response != null && response.get("remoteIPAddress") != null) {
+                entry.put("serverIPAddress", response.get("remoteIPAddress"));
+            }
+            entry.put("_resourceType", resourceType);
+            entry.put("_transferSize", (long) encodedDataLength);
+            if (cacheStatus() != null) {
+                entry.put("_fromCache", cacheStatus());
+            }
+            if (errorText != null) {
+                entry.put("_error", errorText);
+            }
+            return entry;
+        }
+        
+        private Map<String, Object> harRequest() {
+            Map<String, Object> harRequest = new LinkedHashMap<>();
+            String postData = (String) request.get("postData");
+            harRequest.put("method", request.get("method"));
+            harRequest.put("url", url());
+            harRequest.put("httpVersion", response != null && response.get("protocol") != null ? response.get("protocol") : "");
+            harRequest.put("cookies", Collections.emptyList());
+            harRequest.put("headers", headers(request.get("headers")));
+            harRequest.put("queryString", Collections.emptyList());
+            harRequest.put("headersSize", -1);
+            harRequest.put("bodySize", postData != null ? postData.length() : 0);
+            return harRequest;
+        }
+        
+        private Map<String, Object> harResponse() {
+            Map<String, Object> harResponse = new LinkedHashMap<>();
+            Map<String, Object> content = new LinkedHashMap<>();
+            Map<String, Object> source = response != null ? response : Collections.emptyMap();
+            content.put("size", (long) encodedDataLength);
+            content.put("mimeType", source.getOrDefault("mimeType", ""));
+            harResponse.put("status", status());
+            harResponse.put("statusText", source.getOrDefault("statusText", errorText != null ? errorText : ""));
+            harResponse.put("httpVersion", source.getOrDefault("protocol", ""));
+            harResponse.put("cookies", Collections.emptyList());
+            harResponse.put("headers", headers(source.get("headers")));
+            harResponse.put("content", content);
+            Object location = asMap(source.get("headers")).get("location");
+            harResponse.put("redirectURL", location != null ? location : "");
+            harResponse.put("headersSize", -1);
+            harResponse.put("bodySize", cacheStatus() != null ? 0 : (long) encodedDataLength);
+            return harResponse;
+        }
+        
+        /**
+         * Convert ResourceTiming offsets into HAR phases; responses without timing, such as
+         * memory cache hits, are reported as a single receive phase
+         */
+        private Map<String, Object> timings() {
+            Map<String, Object> timings = new LinkedHashMap<>();
+            Map<String, Object> timing = response != null ? asMap(response.get("timing")) : Collections.emptyMap();
+            if (timing.isEmpty()) {
+                timings.put("blocked", -1);
+                timings.put("dns", -1);
+                timings.put("connect", -1);
+                timings.put("ssl", -1);
+                timings.put("send", 0);
+                timings.put("wait", 0);
+                timings.put("receive", totalMillis());
+                return timings;
+            }
+            double dnsStart = number(timing.get("dnsStart"));
+            double connectStart = number(timing.get("connectStart"));
+            double sslStart = number(timing.get("sslStart"));
+            double sendStart = number(timing.get("sendStart"));
+            double sendEnd = number(timing.get("sendEnd"));
+            double headersEnd = number(timing.get("receiveHeadersEnd"));
+            double requestTime = number(timing.get("requestTime"));
+            double firstPhase = dnsStart >= 0 ? dnsStart : connectStart >= 0 ? connectStart : sendStart;
+            double finished = finishedAt > 0 ? (finishedAt - requestTime) * 1000 : headersEnd;
+            
+            timings.put("blocked", Math.max(0, firstPhase));
+            timings.put("dns", dnsStart >= 0 ? number(timing.get("dnsEnd")) - dnsStart : -1);
+            timings.put("connect", connectStart >= 0 ? number(timing.get("connectEnd")) - connectStart : -1);
+            timings.put("ssl", sslStart >= 0 ? number(timing.get("sslEnd")) - sslStart : -1);
+            timings.put("send", Math.max(0, sendEnd - sendStart));
+            timings.put("wait", Math.max(0, headersEnd - sendEnd));
+            timings.put("receive", Math.max(0, finished - headersEnd));
+            return timings;
+        }
+    }
+    
+    private static List<Map<String, Object>> headers(Object headers) {
+        List<Map<String, Object>> harHeaders = new ArrayList<>();
+        asMap(headers).forEach((name, value) -> {
+            Map<String, Object> header = new LinkedHashMap<>();
+            header.put("name", name);
+            header.put("value", value);
+            harHeaders.add(header);
+        });
+        return harHeaders;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Collections.emptyMap();
+    }
+    
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+    
+    private static String isoTime(double epochSeconds) {
+        return Instant.ofEpochMilli((long) (epochSeconds * 1000)).toString();
+    }
+}
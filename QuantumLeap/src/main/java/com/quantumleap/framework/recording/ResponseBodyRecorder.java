@@ -0,0 +1,227 @@
+package com.quantumleap.framework.recording;
+
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.reporting.StaticReportWriter;
+import com.quantumleap.framework.utils.ExtentReportManager;
+import com.quantumleap.framework.utils.TestContext;
+import io.restassured.internal.support.Prettifier;
+import io.restassured.parsing.Parser;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response logging policy for API tests
+ * Status and timing are logged as soon as a response is printed; the body is reported as a
+ * size-limited preview, with the complete body written once to a gzip file next to the Extent
+ * report when it does not fit. With api.response.bodies.failed.only the bodies are kept
+ * unformatted until the test ends and rendered only if it fails, so passing tests never pay
+ * for pretty printing; only the preview bytes and the body file path are kept per response
+ * 
+ * @author QuantumLeap Team
+ */
+public class ResponseBodyRecorder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ResponseBodyRecorder.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final ThreadLocal<Deque<Entry>> pending = new ThreadLocal<>();
+    
+    /**
+     * A printed response body reduced to what its report entry needs: the whole body when it
+     * fits the preview, otherwise the preview bytes and the gzip file holding the complete body
+     */
+    private static class Entry {
+        private final String description;
+        private final String contentType;
+        private final byte[] preview;
+        private final int length;
+        private final String bodyFile;
+        
+        Entry(String description, String contentType, byte[] preview, int length, String bodyFile) {
+            this.description = description;
+            this.contentType = contentType;
+            this.preview = preview;
+            this.length = length;
+            this.bodyFile = bodyFile;
+        }
+        
+        boolean isTruncated() {
+            return preview.length < length;
+        }
+    }
+    
+    /**
+     * Log a response to the application log and the Extent report
+     * 
+     * @param response Response to log
+     * @param description Description of the response
+     */
+    public static void record(Response response, String description) {
+        logger.info("=== {} ===", description);
+        logger.info("Status Code: {}, Response Time: {} ms", response.getStatusCode(), response.getTime());
+        ExtentReportManager.logInfo(String.format("=== %s ===", description));
+        ExtentReportManager.logInfo("Status Code: " + response.getStatusCode());
+        ExtentReportManager.logInfo("Response Time: " + response.getTime() + " ms");
+        
+        Entry entry = capture(response, description, TestContext.getCurrentTestName());
+        if (!config.isApiResponseBodiesFailedOnly()) {
+            render(entry);
+            return;
+        }
+        Deque<Entry> entries = pending.get();
+        if (entries == null) {
+            entries = new ArrayDeque<>();
+            pending.set(entries);
+        }
+        if (entries.size() >= config.getApiResponseDeferredMax()) {
+            deleteBodyFile(entries.removeFirst());
+        }
+        entries.addLast(entry);
+    }
+    
+    /**
+     * Render the bodies kept back for the current test, called when it fails
+     * 
+     * @param testName Name of the failed test
+     */
+    public static void persist(String testName) {
+        Deque<Entry> entries = pending.get();
+        pending.remove();
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+        ExtentReportManager.logInfo("📦 Last " + entries.size() + " response bodies before the failure:");
+        for (Entry entry : entries) {
+            render(entry);
+        }
+    }
+    
+    /**
+     * Drop the bodies kept back for a test that did not fail, with their body files
+     */
+    public static void discard() {
+        Deque<Entry> entries = pending.get();
+        pending.remove();
+        if (entries != null) {
+            entries.forEach(ResponseBodyRecorder::deleteBodyFile);
+        }
+    }
+    
+    /**
+     * Reduce a response to its report entry, so deferred entries do not hold the Response
+     * A body larger than the preview is written to its gzip file right away
+     */
+    private static Entry capture(Response response, String description, String testName) {
+        byte[] body = response.asByteArray();
+        int previewLimit = config.getApiResponsePreviewMaxBytes();
+        if (body.length <= previewLimit) {
+            return new Entry(description, response.getContentType(), body, body.length, null);
+        }
+        byte[] preview = Arrays.copyOf(body, utf8Boundary(body, previewLimit));
+        String bodyFile = config.isApiResponseBodyFilesEnabled() ? writeBody(body, testName) : null;
+        return new Entry(description, response.getContentType(), preview, body.length, bodyFile);
+    }
+    
+    /**
+     * Find the largest cut at or below the limit that does not split a UTF-8 sequence
+     * 
+     * @param body Encoded body, longer than the limit
+     * @param limit Maximum number of bytes to keep
+     * @return Number of bytes to keep
+     */
+    static int utf8Boundary(byte[] body, int limit) {
+        int end = limit;
+        // Back off over continuation bytes (10xxxxxx) to the lead byte of the cut character
+        while (end > 0 && (body[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return end;
+    }
+    
+    /**
+     * Report the preview of one body, linking the complete body when the preview is cut short
+     */
+    private static void render(Entry entry) {
+        if (entry.length == 0) {
+            logger.info("Response Body ({}): empty", entry.description);
+            ExtentReportManager.logInfo("Response Body: (empty)");
+            return;
+        }
+        String text = new String(entry.preview, StandardCharsets.UTF_8);
+        if (!entry.isTruncated()) {
+            String preview = prettify(text, entry.contentType);
+            logger.info("Response Body ({}): {}", entry.description, preview);
+            ExtentReportManager.logInfo("Response Body:<pre>" + StaticReportWriter.escape(preview) + "</pre>");
+            return;
+        }
+        
+        // Large bodies are not pretty printed: the preview is the start of the raw body
+        String truncation = String.format("… [%d of %d bytes shown]", entry.preview.length, entry.length);
+        logger.info("Response Body ({}): {}{}", entry.description, text, truncation);
+        StringBuilder message = new StringBuilder("Response Body:<pre>")
+            .append(StaticReportWriter.escape(text)).append(StaticReportWriter.escape(truncation)).append("</pre>");
+        if (entry.bodyFile != null) {
+            String bodyFileName = new File(entry.bodyFile).getName();
+            message.append("📄 Full body: <a href='").append(bodyFileName).append("' target='_blank'>")
+                .append(bodyFileName).append("</a>");
+        }
+        ExtentReportManager.logInfo(message.toString());
+    }
+    
+    /**
+     * Pretty print a body the way Response.asPrettyString does, falling back to the raw text
+     */
+    private static String prettify(String text, String contentType) {
+        try {
+            Parser parser = contentType != null ? Parser.fromContentType(contentType) : null;
+            return parser != null ? new Prettifier().prettify(text, parser) : text;
+        } catch (RuntimeException e) {
+            logger.debug("Could not pretty print response body: {}", e.getMessage());
+            return text;
+        }
+    }
+    
+    private static void deleteBodyFile(Entry entry) {
+        if (entry.bodyFile != null) {
+            try {
+                Files.deleteIfExists(new File(entry.bodyFile).toPath());
+            } catch (IOException e) {
+                logger.debug("Could not delete response body file: {}", entry.bodyFile);
+            }
+        }
+    }
+    
+    /**
+     * Write a complete body gzip-compressed next to the Extent report
+     * 
+     * @return Path of the body file, or null if it could not be written
+     */
+    private static String writeBody(byte[] body, String testName) {
+        String name = testName != null ? testName.replaceAll("[^A-Za-z0-9._-]", "_") : "response";
+        File bodyFile = new File(ExtentReportManager.getReportSiblingPath(
+            "_" + name + "_" + System.nanoTime() + "_body.txt.gz"));
+        try {
+            bodyFile.getParentFile().mkdirs();
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(bodyFile.toPath()), 64 * 1024)) {
+                out.write(body);
+            }
+            logger.debug("Response body ({} KB, {} KB compressed) saved to {}", body.length / 1024,
+                bodyFile.length() / 1024, bodyFile);
+            return bodyFile.getAbsolutePath();
+        } catch (IOException e) {
+            logger.error("Failed to write response body for test: {}", testName, e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.quantumleap.framework.recording;
+
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.ScreenshotStore;
+import com.quantumleap.framework.utils.ScreenshotUtils;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Optional failure video recorder based on the DevTools screencast
+ * Subscribes to Page.screencastFrame for each UI session, keeps a rolling window of
+ * compressed frames in memory and, only when a test fails, encodes the window into an
+ * animated GIF attached to the report
+ * 
+ * @author QuantumLeap Team
+ */
+public class ScreencastRecorder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScreencastRecorder.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final Event<Map<String, Object>> SCREENCAST_FRAME =
+        new Event<>("Page.screencastFrame", input -> input.read(Json.MAP_TYPE));
+    
+    private static final ThreadLocal<Session> sessions = new ThreadLocal<>();
+    
+    /**
+     * Start the screencast for a freshly created driver on the current thread
+     * 
+     * @param driver Undecorated driver instance
+     */
+    public static void start(WebDriver driver) {
+        sessions.remove();
+        if (!config.isScreencastEnabled() || !(driver instanceof HasDevTools)) {
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            Session session = new Session(devTools);
+            devTools.addListener(SCREENCAST_FRAME, session::onFrame);
+            
+            Map<String, Object> params = new HashMap<>();
+            params.put("format", "jpeg");
+            params.put("quality", config.getScreencastQuality());
+            params.put("maxWidth", config.getScreencastMaxWidth());
+            params.put("maxHeight", config.getScreencastMaxHeight());
+            devTools.send(new Command<>("Page.startScreencast", params));
+            sessions.set(session);
+            logger.debug("Screencast started at {} fps, {} s window", config.getScreencastFps(), config.getScreencastWindowSeconds());
+        } catch (Exception e) {
+            logger.warn("Could not start screencast: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Stop the screencast before the driver quits; buffered frames are kept for persist()
+     */
+    public static void stop() {
+        Session session = sessions.get();
+        if (session != null) {
+            stopSession(session);
+        }
+    }
+    
+    /**
+     * Encode the rolling window of a failed test into an animated GIF in the screenshot store
+     * 
+     * @param testName Name of the failed test
+     * @return Path of the stored GIF, or null if no frames were recorded
+     */
+    public static String persist(String testName) {
+        Session session = sessions.get();
+        sessions.remove();
+        if (session == null) {
+            return null;
+        }
+        stopSession(session);
+        List<FrameRingBuffer.Frame> frames = session.snapshot();
+        if (frames.isEmpty()) {
+            return null;
+        }
+        try {
+            byte[] gif = AnimatedGifEncoder.encode(frames);
+            String path = ScreenshotStore.store(Paths.get(ScreenshotUtils.getScreenshotDirectory(), testName + "_screencast.gif"),
+                Base64.getEncoder().encodeToString(gif), "gif").toString();
+            logger.info("Screencast of {} frames ({} KB) saved for failed test: {}", frames.size(), gif.length / 1024, testName);
+            return path;
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to encode screencast for test: {}", testName, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Drop the frames of a passed or skipped test
+     */
+    public static void discard() {
+        Session session = sessions.get();
+        sessions.remove();
+        if (session != null) {
+            stopSession(session);
+        }
+    }
+    
+    private static void stopSession(Session session) {
+        if (session.stopped) {
+            return;
+        }
+        session.stopped = true;
+        try {
+            session.devTools.send(new Command<>("Page.stopScreencast", Collections.emptyMap()));
+        } catch (Exception e) {
+            logger.debug("Could not stop screencast: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Screencast state of one driver session, fed on the DevTools event thread
+     */
+    private static class Session {
+        private final DevTools devTools;
+        private final Deque<FrameRingBuffer.Frame> window = new ArrayDeque<>();
+        private final long frameIntervalMillis = 1000L / Math.max(1, config.getScreencastFps());
+        private final long windowMillis = config.getScreencastWindowSeconds() * 1000L;
+        private volatile boolean stopped;
+        private long lastFrameMillis;
+        
+        Session(DevTools devTools) {
+            this.devTools = devTools;
+        }
+        
+        /**
+         * Acknowledge every frame so Chrome keeps sending, but only keep frames at the
+         * configured rate within the rolling window
+         * 
+         * @param frame Page.screencastFrame parameters
+         */
+        void onFrame(Map<String, Object> frame) {
+            if (stopped) {
+                return;
+            }
+            try {
+                devTools.send(new Command<>("Page.screencastFrameAck", Collections.singletonMap("sessionId", frame.get("sessionId"))));
+            } catch (RuntimeException e) {
+                logger.debug("Screencast frame ack failed: {}", e.getMessage());
+            }
+            long now = System.currentTimeMillis();
+            synchronized (window) {
+                if (now - lastFrameMillis < frameIntervalMillis) {
+                    return;
+                }
+                lastFrameMillis = now;
+                window.addLast(new FrameRingBuffer.Frame("screencast", now, Base64.getDecoder().decode((String) frame.get("data"))));
+                while (!window.isEmpty() && window.peekFirst().getTimestamp() < now - windowMillis) {
+                    window.removeFirst();
+                }
+            }
+        }
+        
+        List<FrameRingBuffer.Frame> snapshot() {
+            synchronized (window) {
+                return new ArrayList<>(window);
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.quantumleap.framework.recording;
+
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.ScreenshotOptions;
+import com.quantumleap.framework.utils.ScreenshotStore;
+import com.quantumleap.framework.utils.ScreenshotUtils;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory flight recorder of the most recent step screenshots
+ * BasePage interactions feed a small compressed frame into a per-thread off-heap ring buffer;
+ * the frames are written to disk only when the test fails, so passing tests cost no disk I/O
+ * 
+ * @author QuantumLeap Team
+ */
+public class StepFrameRecorder {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StepFrameRecorder.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final ThreadLocal<FrameRingBuffer> buffers = new ThreadLocal<>();
+    
+    /**
+     * Start recording for a new driver session on the current thread
+     * The thread's off-heap buffer is allocated on first use and reused afterwards
+     */
+    public static void startSession() {
+        if (!config.isStepFramesEnabled()) {
+            return;
+        }
+        FrameRingBuffer buffer = buffers.get();
+        if (buffer == null) {
+            buffer = new FrameRingBuffer(config.getStepFramesCount(), config.getStepFramesMaxKb() * 1024);
+            buffers.set(buffer);
+        } else {
+            buffer.clear();
+        }
+    }
+    
+    /**
+     * Check whether step frames are recorded on the current thread
+     * 
+     * @return true if a session is being recorded
+     */
+    public static boolean isRecording() {
+        return buffers.get() != null;
+    }
+    
+    /**
+     * Capture a compressed frame of the current page into the ring buffer
+     * Frames are captured through DevTools; on other browsers nothing is recorded
+     * 
+     * @param driver WebDriver instance
+     * @param label Step that produced the frame, e.g. CartPage.removeItem/clickElement
+     */
+    public static void record(WebDriver driver, String label) {
+        FrameRingBuffer buffer = buffers.get();
+        if (buffer == null) {
+            return;
+        }
+        try {
+            String base64Image = ScreenshotUtils.captureWithCdp(driver, frameOptions());
+            if (base64Image == null) {
+                return;
+            }
+            if (!buffer.add(label, System.currentTimeMillis(), Base64.getDecoder().decode(base64Image))) {
+                logger.debug("Step frame for {} exceeds {} KB and was dropped", label, config.getStepFramesMaxKb());
+            }
+        } catch (RuntimeException e) {
+            // A diagnostics frame must never fail the interaction that triggered it
+            logger.debug("Failed to record step frame for {}: {}", label, e.getMessage());
+        }
+    }
+    
+    /**
+     * Write the buffered frames of a failed test to the screenshot store
+     * 
+     * @param testName Name of the failed test
+     * @return Stored frame paths keyed by description, oldest first
+     */
+    public static Map<String, String> persist(String testName) {
+        FrameRingBuffer buffer = buffers.get();
+        if (buffer == null || buffer.size() == 0) {
+            return Collections.emptyMap();
+        }
+        String extension = frameOptions().getFormat().getExtension();
+        Map<String, String> paths = new LinkedHashMap<>();
+        List<FrameRingBuffer.Frame> frames = buffer.frames();
+        for (int i = 0; i < frames.size(); i++) {
+            FrameRingBuffer.Frame frame = frames.get(i);
+            String description = String.format("Step %02d - %s", i + 1, frame.getLabel());
+            String fileName = String.format("%s_step%02d_%s.%s", testName, i + 1,
+                frame.getLabel().replaceAll("[^A-Za-z0-9._-]", "_"), extension);
+            String path = ScreenshotStore.store(Paths.get(ScreenshotUtils.getScreenshotDirectory(), fileName),
+                Base64.getEncoder().encodeToString(frame.getData()), extension).toString();
+            paths.put(description, path);
+        }
+        buffer.clear();
+        logger.info("Persisted {} step frames for failed test: {}", paths.size(), testName);
+        return paths;
+    }
+    
+    /**
+     * Drop the buffered frames of a passed or skipped test
+     */
+    public static void discard() {
+        FrameRingBuffer buffer = buffers.get();
+        if (buffer != null) {
+            buffer.clear();
+        }
+    }
+    
+    private static ScreenshotOptions frameOptions() {
+        return new ScreenshotOptions()
+            .withFormat(ScreenshotOptions.Format.JPEG)
+            .withQuality(config.getStepFramesQuality())
+            .withScale(config.getStepFramesScale());
+    }
+}
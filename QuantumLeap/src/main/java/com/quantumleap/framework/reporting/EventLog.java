@@ -0,0 +1,294 @@
+package com.quantumleap.framework.reporting;
+
+import com.aventstack.extentreports.Status;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Raw event log of a run: one compact JSON line per report operation (test start, log line,
+ * step, assertion, attachment reference, failure, end), each with its timestamp
+ * Nothing is rendered while tests run; ReportRegenerator replays the log into any report
+ * format afterwards, for the whole run or a filtered subset
+ * 
+ * Line types (field "e"): run, info, start, log, media, error, category, author, device, end
+ * 
+ * @author QuantumLeap Team
+ */
+public class EventLog implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EventLog.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    private final Path path;
+    private final BufferedWriter writer;
+    private long tests;
+    private boolean closed;
+    
+    /**
+     * Report node of one test in the event log
+     */
+    public static final class TestRef {
+        private final String id;
+        
+        private TestRef(String id) {
+            this.id = id;
+        }
+        
+        public String getId() {
+            return id;
+        }
+    }
+    
+    private EventLog(Path path, String title) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        ObjectNode line = line("run", System.currentTimeMillis());
+        line.put("title", title);
+        line.put("worker", ReportShards.workerId());
+        write(line);
+    }
+    
+    /**
+     * Open an event log for appending
+     * 
+     * @param path Log file, created if missing
+     * @param title Report title
+     * @return Open event log
+     */
+    public static EventLog open(Path path, String title) {
+        try {
+            return new EventLog(path, title);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open event log: " + path, e);
+        }
+    }
+    
+    /**
+     * Record the start of a test
+     * 
+     * @param id Test id, unique in the run
+     * @param name Test name
+     * @param description Test description
+     * @return Report node to target the test's events at
+     */
+    public synchronized TestRef startTest(String id, String name, String description) {
+        ObjectNode line = line("start", System.currentTimeMillis());
+        line.put("id", id);
+        line.put("name", name);
+        line.put("desc", description);
+        line.put("thread", Thread.currentThread().getName());
+        write(line);
+        tests++;
+        return new TestRef(id);
+    }
+    
+    /**
+     * Record a system information entry
+     * 
+     * @param key Entry name
+     * @param value Entry value
+     */
+    public synchronized void info(String key, String value) {
+        ObjectNode line = line("info", System.currentTimeMillis());
+        line.put("k", key);
+        line.put("v", value);
+        write(line);
+    }
+    
+    /**
+     * Record a report operation of a test
+     * 
+     * @param test Test the event belongs to
+     * @param event Report event
+     */
+    public synchronized void write(TestRef test, ReportEvent event) {
+        ObjectNode line;
+        switch (event.getType()) {
+            case LOG:
+                line = line("log", event.getTimestamp());
+                line.put("s", event.getStatus().name());
+                line.put("m", event.getText());
+                break;
+            case MEDIA:
+                line = line("media", event.getTimestamp());
+                line.put("p", event.getText());
+                line.put("title", event.getTitle());
+                break;
+            case FAILURE:
+                StringWriter stackTrace = new StringWriter();
+                event.getThrowable().printStackTrace(new PrintWriter(stackTrace));
+                line = line("error", event.getTimestamp());
+                line.put("trace", stackTrace.toString());
+                break;
+            case CATEGORY:
+            case AUTHOR:
+            case DEVICE:
+                line = line(event.getType().name().toLowerCase(), event.getTimestamp());
+                line.put("v", event.getText());
+                break;
+            case FINISH:
+                line = line("end", event.getTimestamp());
+                break;
+            default:
+                return;
+        }
+        line.put("id", test.getId());
+        write(line);
+        if (event.getType() == ReportEvent.Type.FINISH) {
+            // A crash loses at most the events of unfinished tests
+            flush();
+        }
+    }
+    
+    private static ObjectNode line(String type, long timestamp) {
+        ObjectNode line = mapper.createObjectNode();
+        line.put("e", type);
+        line.put("t", timestamp);
+        return line;
+    }
+    
+    private void write(ObjectNode line) {
+        if (closed) {
+            return;
+        }
+        try {
+            writer.write(mapper.writeValueAsString(line));
+            writer.newLine();
+        } catch (IOException e) {
+            logger.error("Failed to write event log {}", path, e);
+        }
+    }
+    
+    private void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            logger.error("Failed to flush event log {}", path, e);
+        }
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    public synchronized long getTestCount() {
+        return tests;
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.error("Failed to close event log {}", path, e);
+        }
+    }
+    
+    /**
+     * Replay an event log into test records
+     * Only tests in progress are held in memory; tests that never ended, e.g. because the run
+     * was killed, are emitted at the end with a warning
+     * 
+     * @param path Event log, plain or gzip-compressed
+     * @param runInfo Receives the report title (key "title") and system information entries
+     * @param consumer Receives each test once it has ended
+     */
+    public static void replay(Path path, Map<String, String> runInfo, Consumer<TestRecord> consumer) {
+        Map<String, TestRecord> open = new HashMap<>();
+        String worker = null;
+        long lastTimestamp = 0;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(ResultSpool.openForReading(path), StandardCharsets.UTF_8), 64 * 1024)) {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                if (text.isEmpty() || !text.endsWith("}")) {
+                    continue;
+                }
+                JsonNode line;
+                try {
+                    line = mapper.readTree(text);
+                } catch (JsonProcessingException e) {
+                    logger.warn("Skipping corrupt event log line in {}", path);
+                    continue;
+                }
+                long timestamp = line.path("t").asLong();
+                lastTimestamp = Math.max(lastTimestamp, timestamp);
+                String type = line.path("e").asText();
+                if ("run".equals(type)) {
+                    runInfo.putIfAbsent("title", line.path("title").asText(null));
+                    worker = line.path("worker").asText(null);
+                    continue;
+                } else if ("info".equals(type)) {
+                    runInfo.put(line.path("k").asText(), line.path("v").asText(null));
+                    continue;
+                } else if ("start".equals(type)) {
+                    open.put(line.path("id").asText(), new TestRecord(line.path("id").asText(), line.path("name").asText(null),
+                        line.path("desc").asText(null), timestamp, line.path("thread").asText(null), worker));
+                    continue;
+                }
+                TestRecord record = open.get(line.path("id").asText());
+                if (record == null) {
+                    continue;
+                }
+                switch (type) {
+                    case "log":
+                        record.log(Status.valueOf(line.path("s").asText("INFO")), line.path("m").asText(null), timestamp);
+                        break;
+                    case "media":
+                        record.attach(line.path("p").asText(), line.path("title").asText(null), timestamp);
+                        break;
+                    case "error":
+                        record.setError(line.path("trace").asText(null));
+                        break;
+                    case "category":
+                        record.addCategory(line.path("v").asText());
+                        break;
+                    case "author":
+                        record.addAuthor(line.path("v").asText());
+                        break;
+                    case "device":
+                        record.addDevice(line.path("v").asText());
+                        break;
+                    case "end":
+                        record.finish(timestamp);
+                        open.remove(record.getId());
+                        consumer.accept(record);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read event log: " + path, e);
+        }
+        for (TestRecord record : open.values()) {
+            record.log(Status.WARNING, "Test did not finish: the run ended before its end event was logged", lastTimestamp);
+            record.finish(lastTimestamp);
+            consumer.accept(record);
+        }
+    }
+}
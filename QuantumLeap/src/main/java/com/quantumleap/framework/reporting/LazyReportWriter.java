@@ -0,0 +1,299 @@
+package com.quantumleap.framework.reporting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.quantumleap.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lazily loaded HTML report for very large runs
+ * Writes a light index page and, next to it, a data directory holding a compact index of all
+ * tests plus the details of every test in chunks of CHUNK_SIZE. The page renders one page of
+ * test rows at a time and loads a chunk only when one of its tests is expanded. Data files
+ * are JSONP scripts, so the report also works when opened from file:// without a server.
+ * Screenshots are shown as small JPEG thumbnails linking to the full image
+ * 
+ * @author QuantumLeap Team
+ */
+public class LazyReportWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LazyReportWriter.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ObjectMapper mapper = new ObjectMapper();
+    
+    static final int CHUNK_SIZE = 100;
+    private static final int PAGE_SIZE = 200;
+    private static final int THUMB_WIDTH = 240;
+    private static final int THUMB_HEIGHT = 160;
+    
+    private static final String STYLE = "<style>#search{width:260px;margin-left:12px}#pager{margin:0 8px;font-size:13px}"
+        + "nav{margin-bottom:8px}</style>";
+    private static final String SCRIPT = "<script>"
+        + "var QL={rows:[],view:[],chunks:{},pending:{},page:0,status:'',query:''};"
+        + "QL.index=function(rows){QL.rows=rows;};"
+        + "QL.chunk=function(c,tests){QL.chunks[c]=tests;var w=QL.pending[c]||[];delete QL.pending[c];"
+        + "w.forEach(function(f){f(tests);});};"
+        + "function esc(t){return String(t==null?'':t).replace(/[&<>'\"]/g,function(c){return '&#'+c.charCodeAt(0)+';';});}"
+        + "function fmt(ms){return ms<1000?ms+' ms':ms<60000?(ms/1000).toFixed(1)+' s'"
+        + ":Math.floor(ms/60000)+'m '+('0'+Math.floor(ms/1000)%60).slice(-2)+'s';}"
+        + "function load(c,f){if(QL.chunks[c])return f(QL.chunks[c]);if(QL.pending[c])return QL.pending[c].push(f);"
+        + "QL.pending[c]=[f];var s=document.createElement('script');s.src=DATA+'/chunk_'+c+'.js';"
+        + "s.onerror=function(){var w=QL.pending[c];delete QL.pending[c];w.forEach(function(f){f(null);});};"
+        + "document.head.appendChild(s);}"
+        + "function filter(){var q=QL.query.toLowerCase();QL.view=QL.rows.filter(function(r){"
+        + "return(!QL.status||r[2]==QL.status)&&(!q||r[1].toLowerCase().indexOf(q)>=0||r[4].toLowerCase().indexOf(q)>=0);});"
+        + "QL.page=0;render();}"
+        + "function only(s){QL.status=s;filter();}"
+        + "function go(d){var pages=Math.ceil(QL.view.length/PAGE);QL.page=Math.max(0,Math.min(pages-1,QL.page+d));"
+        + "render();window.scrollTo(0,0);}"
+        + "function render(){var from=QL.page*PAGE,html=[];QL.view.slice(from,from+PAGE).forEach(function(r){"
+        + "html.push(\"<details class='test \"+r[2]+\"' data-id='\"+r[0]+\"'><summary>\"+esc(r[1])+\"<span class='badge'>\""
+        + "+r[2]+' &middot; '+fmt(r[3])+' &middot; '+esc(r[4])+'</span></summary><div>Loading...</div></details>');});"
+        + "document.getElementById('tests').innerHTML=html.join('');"
+        + "document.getElementById('pager').textContent='Page '+(QL.page+1)+' of '+Math.max(1,Math.ceil(QL.view.length/PAGE))"
+        + "+' ('+QL.view.length+' tests)';}"
+        + "function body(t){var h=t.d?'<p>'+esc(t.d)+'</p>':'';h+=\"<table class='log'>\";(t.l||[]).forEach(function(l){"
+        + "h+='<tr><td>'+l[0]+'</td><td>'+(l.length>2?media(l):l[1])+'</td></tr>';});"
+        + "h+='</table>';if(t.e)h+='<pre>'+esc(t.e)+'</pre>';return h;}"
+        + "function media(l){var c=esc(l[3]);return l[2]?\"<a href='\"+esc(l[1])+\"' target='_blank'><img class='thumb' src='\""
+        + "+esc(l[2])+\"' alt='\"+c+\"'></a><br>\"+c:\"<a href='\"+esc(l[1])+\"' target='_blank'>\"+c+'</a>';}"
+        + "document.addEventListener('toggle',function(e){var d=e.target;if(!d.open||d.loaded)return;d.loaded=true;"
+        + "var id=+d.getAttribute('data-id');load(Math.floor(id/CHUNK),function(tests){"
+        + "d.lastChild.innerHTML=tests?body(tests[id%CHUNK]):'Details unavailable: '+esc(DATA)+' not found';});},true);"
+        + "</script>";
+    
+    /**
+     * Render a spool into an index page and its data directory
+     * 
+     * @param spool Result spool
+     * @param output HTML file to write; data goes to a sibling directory named after it
+     * @param title Report title
+     * @param systemInfo Environment entries for the dashboard
+     * @return Number of tests rendered
+     */
+    public static long write(Path spool, Path output, String title, Map<String, String> systemInfo) {
+        long start = System.currentTimeMillis();
+        Path reportDir = output.toAbsolutePath().getParent();
+        String outputName = output.getFileName().toString();
+        int extensionIndex = outputName.lastIndexOf('.');
+        String dataName = (extensionIndex > 0 ? outputName.substring(0, extensionIndex) : outputName) + "_data";
+        StaticReportWriter.Summary summary = new StaticReportWriter.Summary();
+        try {
+            Files.createDirectories(reportDir.resolve(dataName));
+            try (Renderer renderer = new Renderer(reportDir, dataName, summary)) {
+                ResultSpool.read(spool, renderer);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                writePage(writer, title, dataName, summary, systemInfo);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to write lazy report: " + output, e);
+        }
+        logger.info("Lazy report with {} tests written to {} in {} ms", summary.getTotal(), output,
+            System.currentTimeMillis() - start);
+        return summary.getTotal();
+    }
+    
+    /**
+     * Render the spool of a run as a lazy report
+     * Usage: LazyReportWriter &lt;results.jsonl&gt; [report.html]
+     * 
+     * @param args Spool path and optional output path
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: LazyReportWriter <results.jsonl> [report.html]");
+            System.exit(2);
+        }
+        Path spool = Paths.get(args[0]);
+        Path output = args.length > 1 ? Paths.get(args[1])
+            : spool.resolveSibling(spool.getFileName().toString().replaceFirst("(_results)?\\.jsonl$", "") + ".html");
+        System.out.println(write(spool, output, "Test Report", null) + " tests rendered to " + output);
+    }
+    
+    private static void writePage(Writer writer, String title, String dataName, StaticReportWriter.Summary summary,
+                                  Map<String, String> systemInfo) throws IOException {
+        String data = StaticReportWriter.escape(dataName);
+        writer.write("<!DOCTYPE html><html><head><meta charset='utf-8'><title>" + StaticReportWriter.escape(title) + "</title>");
+        writer.write(StaticReportWriter.STYLE + STYLE + SCRIPT + "</head><body><header><h1>" + StaticReportWriter.escape(title)
+            + "</h1></header><main>");
+        StaticReportWriter.writeDashboard(writer, summary, systemInfo);
+        writer.write("<nav><button onclick=\"only('')\">All</button><button onclick=\"only('FAIL')\">Failed</button>"
+            + "<button onclick=\"only('SKIP')\">Skipped</button><button onclick=\"only('PASS')\">Passed</button>"
+            + "<input id='search' type='search' placeholder='Filter by name or category' "
+            + "oninput='QL.query=this.value;filter()'></nav>"
+            + "<nav><button onclick='go(-1)'>&laquo; Prev</button><span id='pager'></span>"
+            + "<button onclick='go(1)'>Next &raquo;</button></nav><div id='tests'></div>\n");
+        writer.write("<script>var DATA='" + data + "',CHUNK=" + CHUNK_SIZE + ",PAGE=" + PAGE_SIZE + ";</script>"
+            + "<script src='" + data + "/index.js'></script><script>filter();</script>");
+        writer.write("</main></body></html>\n");
+    }
+    
+    /**
+     * Streams each test into the index and the current chunk while the spool is read
+     */
+    private static class Renderer implements Consumer<TestRecord>, AutoCloseable {
+        private final Path reportDir;
+        private final Path dataDir;
+        private final String dataName;
+        private final StaticReportWriter.Summary summary;
+        private final boolean thumbnails = config.isReportLazyThumbnailsEnabled();
+        private final Writer index;
+        private Writer chunk;
+        private int count;
+        
+        Renderer(Path reportDir, String dataName, StaticReportWriter.Summary summary) throws IOException {
+            this.reportDir = reportDir;
+            this.dataDir = reportDir.resolve(dataName);
+            this.dataName = dataName;
+            this.summary = summary;
+            this.index = Files.newBufferedWriter(dataDir.resolve("index.js"), StandardCharsets.UTF_8);
+            index.write("QL.index([");
+        }
+        
+        @Override
+        public void accept(TestRecord record) {
+            try {
+                summary.add(record);
+                if (count > 0) {
+                    index.write(",\n");
+                }
+                index.write(mapper.writeValueAsString(new Object[]{count, record.getName(), record.getStatus().name(),
+                    record.getDurationMillis(), String.join(", ", record.getCategories())}));
+                
+                if (count % CHUNK_SIZE == 0) {
+                    closeChunk();
+                    chunk = Files.newBufferedWriter(dataDir.resolve("chunk_" + count / CHUNK_SIZE + ".js"), StandardCharsets.UTF_8);
+                    chunk.write("QL.chunk(" + count / CHUNK_SIZE + ",[");
+                } else {
+                    chunk.write(",\n");
+                }
+                chunk.write(mapper.writeValueAsString(details(record)));
+                count++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private Map<String, Object> details(TestRecord record) {
+            Map<String, Object> details = new LinkedHashMap<>();
+            if (record.getDescription() != null) {
+                details.put("d", record.getDescription());
+            }
+            List<List<String>> logs = new ArrayList<>(record.getLogs().size());
+            for (TestRecord.LogEntry entry : record.getLogs()) {
+                List<String> line = new ArrayList<>(4);
+                line.add(StaticReportWriter.formatTime(entry.getTimestamp()));
+                if (entry.getMedia() != null) {
+                    // Media lines are [time, href, thumbnail or "" for non-images, caption]
+                    String href = href(entry.getMedia());
+                    line.add(href);
+                    line.add(isImage(entry.getMedia()) ? thumbnail(entry.getMedia(), href) : "");
+                    line.add(entry.getMediaTitle() != null ? entry.getMediaTitle() : Paths.get(href).getFileName().toString());
+                } else {
+                    line.add(entry.getMessage() != null ? entry.getMessage() : "");
+                }
+                logs.add(line);
+            }
+            details.put("l", logs);
+            if (record.getError() != null) {
+                details.put("e", record.getError());
+            }
+            return details;
+        }
+        
+        /**
+         * Link media relative to the report so the report directory can be moved or archived
+         */
+        private String href(String media) {
+            try {
+                Path path = Paths.get(media);
+                if (Files.exists(path)) {
+                    return reportDir.relativize(path.toAbsolutePath().normalize()).toString().replace('\\', '/');
+                }
+            } catch (IllegalArgumentException e) {
+                logger.debug("Media path kept as is: {}", media);
+            }
+            return media;
+        }
+        
+        private static boolean isImage(String media) {
+            return media.matches("(?i).*\\.(png|jpe?g|gif|webp)$");
+        }
+        
+        /**
+         * Scale an image down to a JPEG thumbnail in the data directory, reusing one written
+         * by an earlier render; falls back to the full image if it cannot be read
+         */
+        private String thumbnail(String media, String href) {
+            if (!thumbnails) {
+                return href;
+            }
+            try {
+                Path image = Paths.get(media).toAbsolutePath();
+                String name = image.getFileName().toString().replaceFirst("\\.[^.]+$", "")
+                    + "_" + Integer.toHexString(image.toString().hashCode()) + ".jpg";
+                Path thumb = dataDir.resolve("thumbs").resolve(name);
+                if (!Files.exists(thumb)) {
+                    BufferedImage source = Files.exists(image) ? ImageIO.read(image.toFile()) : null;
+                    if (source == null) {
+                        return href;
+                    }
+                    double scale = Math.min(1.0, Math.min((double) THUMB_WIDTH / source.getWidth(),
+                        (double) THUMB_HEIGHT / source.getHeight()));
+                    int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+                    int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+                    BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                    Graphics2D graphics = scaled.createGraphics();
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    graphics.drawImage(source, 0, 0, width, height, Color.WHITE, null);
+                    graphics.dispose();
+                    Files.createDirectories(thumb.getParent());
+                    ImageIO.write(scaled, "jpg", thumb.toFile());
+                }
+                return dataName + "/thumbs/" + name;
+            } catch (IOException | InvalidPathException e) {
+                logger.debug("Thumbnail not created for {}: {}", media, e.getMessage());
+                return href;
+            }
+        }
+        
+        private void closeChunk() throws IOException {
+            if (chunk != null) {
+                chunk.write("]);\n");
+                chunk.close();
+                chunk = null;
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            try {
+                closeChunk();
+                index.write("]);\n");
+            } finally {
+                index.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.quantumleap.framework.reporting;
+
+import com.aventstack.extentreports.Status;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Immutable report operation recorded on a test thread and applied later by the report consumer
+ * The target is the report node the operation belongs to, an ExtentTest or a TestRecord,
+ * resolved on the calling thread so the consumer never reads test-thread state
+ * 
+ * @author QuantumLeap Team
+ */
+public final class ReportEvent {
+    
+    /**
+     * Report operations
+     */
+    public enum Type {
+        LOG, MEDIA, FAILURE, CATEGORY, AUTHOR, DEVICE, FINISH, BARRIER
+    }
+    
+    private final Type type;
+    private final Object target;
+    private final Status status;
+    private final String text;
+    private final String title;
+    private final Throwable throwable;
+    private final long timestamp;
+    private final CountDownLatch latch;
+    
+    private ReportEvent(Type type, Object target, Status status, String text, String title, Throwable throwable,
+                        CountDownLatch latch) {
+        this.type = type;
+        this.target = target;
+        this.status = status;
+        this.text = text;
+        this.title = title;
+        this.throwable = throwable;
+        this.timestamp = System.currentTimeMillis();
+        this.latch = latch;
+    }
+    
+    public static ReportEvent log(Object target, Status status, String message) {
+        return new ReportEvent(Type.LOG, target, status, message, null, null, null);
+    }
+    
+    public static ReportEvent media(Object target, String path, String title) {
+        return new ReportEvent(Type.MEDIA, target, Status.INFO, path, title, null, null);
+    }
+    
+    public static ReportEvent failure(Object target, Throwable throwable) {
+        return new ReportEvent(Type.FAILURE, target, Status.FAIL, null, null, throwable, null);
+    }
+    
+    /**
+     * Assign a category, author or device to a test
+     * 
+     * @param type CATEGORY, AUTHOR or DEVICE
+     * @param target Report node
+     * @param value Assigned name
+     * @return Event
+     */
+    public static ReportEvent assign(Type type, Object target, String value) {
+        return new ReportEvent(type, target, null, value, null, null, null);
+    }
+    
+    public static ReportEvent finish(Object target) {
+        return new ReportEvent(Type.FINISH, target, null, null, null, null, null);
+    }
+    
+    /**
+     * Marker counted down by the consumer once every event queued before it has been applied
+     * 
+     * @return Barrier event
+     */
+    public static ReportEvent barrier() {
+        return new ReportEvent(Type.BARRIER, null, null, null, null, null, new CountDownLatch(1));
+    }
+    
+    public Type getType() {
+        return type;
+    }
+    
+    public Object getTarget() {
+        return target;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public String getText() {
+        return text;
+    }
+    
+    public String getTitle() {
+        return title;
+    }
+    
+    public Throwable getThrowable() {
+        return throwable;
+    }
+    
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    CountDownLatch getLatch() {
+        return latch;
+    }
+}
@@ -0,0 +1,94 @@
+package com.quantumleap.framework.reporting;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Multi-producer, single-consumer queue of report events
+ * Producers only append to a lock-free linked queue and unpark the consumer when it is idle,
+ * so a test thread never waits for report internals or for another test thread. One daemon
+ * thread applies the events in order, so the report model is only touched by that thread
+ * 
+ * @author QuantumLeap Team
+ */
+public class ReportEventQueue {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReportEventQueue.class);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    private final ConcurrentLinkedQueue<ReportEvent> events = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean idle = new AtomicBoolean();
+    private final Consumer<ReportEvent> handler;
+    private final Thread consumer;
+    
+    /**
+     * Start a consumer thread applying events with the given handler
+     * 
+     * @param name Consumer thread name
+     * @param handler Applies one event to the report model
+     */
+    public ReportEventQueue(String name, Consumer<ReportEvent> handler) {
+        this.handler = handler;
+        this.consumer = new Thread(this::consume, name);
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+    
+    /**
+     * Enqueue an event without blocking
+     * 
+     * @param event Report event
+     */
+    public void offer(ReportEvent event) {
+        events.offer(event);
+        if (idle.get() && idle.compareAndSet(true, false)) {
+            LockSupport.unpark(consumer);
+        }
+    }
+    
+    /**
+     * Wait until every event offered before this call has been applied
+     * 
+     * @param timeoutMillis Maximum wait
+     * @return true if the queue caught up within the timeout
+     */
+    public boolean flush(long timeoutMillis) {
+        ReportEvent barrier = ReportEvent.barrier();
+        offer(barrier);
+        try {
+            return barrier.getLatch().await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private void consume() {
+        while (true) {
+            ReportEvent event = events.poll();
+            if (event == null) {
+                idle.set(true);
+                if (events.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle.set(false);
+                continue;
+            }
+            if (event.getType() == ReportEvent.Type.BARRIER) {
+                event.getLatch().countDown();
+                continue;
+            }
+            try {
+                handler.accept(event);
+            } catch (RuntimeException e) {
+                logger.error("Failed to apply {} report event", event.getType(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.quantumleap.framework.reporting;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+import com.quantumleap.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges report shards from several forks or machines into one report
+ * Shards are concatenated line by line into a merged spool without parsing, then rendered
+ * as the streaming static report, the lazily loaded report or an Extent Spark report, so merging
+ * is linear in the number of tests and the static formats never hold more than one test in memory
+ * 
+ * Usage: ReportMerger [--format static|lazy|extent] [--output report.html] [shard files or directories...]
+ * 
+ * @author QuantumLeap Team
+ */
+public class ReportMerger {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReportMerger.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    /**
+     * Merge shards into a report
+     * 
+     * @param inputs Shard files, or directories containing shards
+     * @param output Report file to write
+     * @param format static, lazy or extent
+     * @return Number of merged tests
+     */
+    public static long merge(List<Path> inputs, Path output, String format) {
+        long start = System.currentTimeMillis();
+        List<Path> shards = expand(inputs);
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("No report shards found in " + inputs);
+        }
+        String outputName = output.getFileName().toString();
+        int extensionIndex = outputName.lastIndexOf('.');
+        Path mergedSpool = output.resolveSibling(
+            (extensionIndex > 0 ? outputName.substring(0, extensionIndex) : outputName) + "_results.jsonl");
+        long tests = concatenate(shards, mergedSpool);
+        
+        Map<String, String> info = new LinkedHashMap<>();
+        info.put("Merged Shards", String.valueOf(shards.size()));
+        info.put("Merged Tests", String.valueOf(tests));
+        info.put("Report Merged", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+        info.put("Shard Files", shards.stream().map(shard -> shard.getFileName().toString()).collect(Collectors.joining(", ")));
+        String title = config.getExtentReportName();
+        if ("extent".equalsIgnoreCase(format)) {
+            writeExtent(mergedSpool, output, title, info);
+        } else if ("lazy".equalsIgnoreCase(format)) {
+            LazyReportWriter.write(mergedSpool, output, title, info);
+        } else {
+            StaticReportWriter.write(mergedSpool, output, title, info);
+        }
+        logger.info("Merged {} tests from {} shards into {} in {} ms", tests, shards.size(), output,
+            System.currentTimeMillis() - start);
+        return tests;
+    }
+    
+    private static List<Path> expand(List<Path> inputs) {
+        List<Path> shards = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> files = Files.list(input)) {
+                    files.filter(ReportMerger::isShard).sorted().forEach(shards::add);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to list report shards in " + input, e);
+                }
+            } else if (Files.isRegularFile(input)) {
+                shards.add(input);
+            } else {
+                logger.warn("Report shard not found: {}", input);
+            }
+        }
+        return shards;
+    }
+    
+    private static boolean isShard(Path path) {
+        String name = path.getFileName().toString();
+        return Files.isRegularFile(path) && (name.endsWith(ReportShards.SHARD_EXTENSION) || name.endsWith(".jsonl"));
+    }
+    
+    /**
+     * Copy the records of all shards into one spool; a truncated line left by a crashed fork
+     * is skipped so it cannot corrupt the records of the next shard, and a gzip shard cut off
+     * mid-stream keeps the records before the cut
+     */
+    private static long concatenate(List<Path> shards, Path mergedSpool) {
+        long tests = 0;
+        try {
+            Files.createDirectories(mergedSpool.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(mergedSpool, StandardCharsets.UTF_8)) {
+                for (Path shard : shards) {
+                    try (InputStream input = new CutOffTolerantInputStream(ResultSpool.openForReading(shard), shard);
+                         BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024)) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (line.isEmpty()) {
+                                continue;
+                            }
+                            if (!line.endsWith("}")) {
+                                logger.warn("Skipping truncated record in shard {}", shard);
+                                continue;
+                            }
+                            writer.write(line);
+                            writer.newLine();
+                            tests++;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to merge report shards into " + mergedSpool, e);
+        }
+        return tests;
+    }
+    
+    /**
+     * Shard input that ends at an unexpected end of a compressed shard instead of failing,
+     * so the records decompressed before the cut are still merged
+     */
+    private static final class CutOffTolerantInputStream extends FilterInputStream {
+        private final Path shard;
+        
+        CutOffTolerantInputStream(InputStream input, Path shard) {
+            super(input);
+            this.shard = shard;
+        }
+        
+        @Override
+        public int read() throws IOException {
+            try {
+                return super.read();
+            } catch (EOFException e) {
+                return cutOff(e);
+            }
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                return super.read(buffer, offset, length);
+            } catch (EOFException e) {
+                return cutOff(e);
+            }
+        }
+        
+        private int cutOff(EOFException e) {
+            logger.warn("Report shard {} is cut off, keeping the records before the cut: {}", shard, e.getMessage());
+            return -1;
+        }
+    }
+    
+    /**
+     * Rebuild an Extent Spark report from a spool, keeping the original test times
+     * Each test's worker is assigned as its device, giving a per-fork breakdown
+     */
+    static void writeExtent(Path spool, Path output, String title, Map<String, String> info) {
+        ExtentSparkReporter sparkReporter = new ExtentSparkReporter(output.toString());
+        sparkReporter.config().setTheme(Theme.STANDARD);
+        sparkReporter.config().setDocumentTitle(title);
+        sparkReporter.config().setReportName(title);
+        sparkReporter.config().setTimelineEnabled(true);
+        sparkReporter.config().setEncoding("utf-8");
+        
+        ExtentReports extent = new ExtentReports();
+        extent.setReportUsesManualConfiguration(true);
+        extent.attachReporter(sparkReporter);
+        info.forEach(extent::setSystemInfo);
+        ResultSpool.read(spool, record -> {
+            ExtentTest test = extent.createTest(record.getName(), record.getDescription());
+            record.getCategories().forEach(test::assignCategory);
+            record.getAuthors().forEach(test::assignAuthor);
+            record.getDevices().forEach(test::assignDevice);
+            if (record.getWorker() != null) {
+                test.assignDevice(record.getWorker());
+            }
+            for (TestRecord.LogEntry entry : record.getLogs()) {
+                if (entry.getMedia() != null) {
+                    test.addScreenCaptureFromPath(entry.getMedia(), entry.getMediaTitle());
+                } else {
+                    test.log(entry.getStatus(), entry.getMessage());
+                }
+            }
+            if (record.getError() != null) {
+                test.log(Status.FAIL, "<pre>" + StaticReportWriter.escape(record.getError()) + "</pre>");
+            }
+            test.getModel().setStartTime(new Date(record.getStartMillis()));
+            test.getModel().setEndTime(new Date(Math.max(record.getStartMillis(), record.getEndMillis())));
+        });
+        extent.flush();
+    }
+    
+    /**
+     * Command line entry point
+     * 
+     * @param args Options and shard paths; defaults to every shard in report.shard.dir
+     */
+    public static void main(String[] args) {
+        String format = "static";
+        Path output = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--format".equals(args[i]) && i + 1 < args.length) {
+                format = args[++i];
+            } else if ("--output".equals(args[i]) && i + 1 < args.length) {
+                output = Paths.get(args[++i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add(Paths.get(config.getReportShardDir()));
+        }
+        if (output == null) {
+            output = Paths.get(config.getReportShardDir(), "merged", "MergedReport.html");
+        }
+        long tests = merge(inputs, output, format);
+        System.out.println("Merged " + tests + " tests into " + output);
+    }
+}
@@ -0,0 +1,124 @@
+package com.quantumleap.framework.reporting;
+
+import com.aventstack.extentreports.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Renders a report from the event log of an earlier run, without rerunning any test
+ * The log is replayed into a result spool holding only the tests that pass the filters,
+ * which is then rendered in the requested format
+ * 
+ * Usage: ReportRegenerator &lt;events.jsonl&gt; [--format static|lazy|extent] [--output report.html]
+ *        [--status FAIL,SKIP] [--name regex] [--category name]
+ * 
+ * @author QuantumLeap Team
+ */
+public class ReportRegenerator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReportRegenerator.class);
+    
+    /**
+     * Render a report from an event log
+     * 
+     * @param eventLog Event log of the run
+     * @param output Report file to write
+     * @param format static, lazy or extent
+     * @param filter Tests to include
+     * @return Number of rendered tests
+     */
+    public static long regenerate(Path eventLog, Path output, String format, Predicate<TestRecord> filter) {
+        long start = System.currentTimeMillis();
+        String outputName = output.getFileName().toString();
+        int extensionIndex = outputName.lastIndexOf('.');
+        Path spoolPath = output.resolveSibling(
+            (extensionIndex > 0 ? outputName.substring(0, extensionIndex) : outputName) + "_results.jsonl");
+        Map<String, String> info = new LinkedHashMap<>();
+        long[] tests = {0};
+        try {
+            Files.deleteIfExists(spoolPath);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to replace result spool " + spoolPath, e);
+        }
+        try (ResultSpool spool = ResultSpool.open(spoolPath, 60)) {
+            EventLog.replay(eventLog, info, record -> {
+                if (filter.test(record)) {
+                    spool.append(record);
+                    tests[0]++;
+                }
+            });
+        }
+        
+        String title = info.remove("title");
+        title = title != null ? title : "Test Report";
+        info.put("Regenerated From", eventLog.getFileName().toString());
+        if ("extent".equalsIgnoreCase(format)) {
+            ReportMerger.writeExtent(spoolPath, output, title, info);
+        } else if ("lazy".equalsIgnoreCase(format)) {
+            LazyReportWriter.write(spoolPath, output, title, info);
+        } else {
+            StaticReportWriter.write(spoolPath, output, title, info);
+        }
+        logger.info("Regenerated {} report with {} tests from {} in {} ms", format, tests[0], eventLog,
+            System.currentTimeMillis() - start);
+        return tests[0];
+    }
+    
+    /**
+     * Command line entry point
+     * 
+     * @param args Event log path, options and filters
+     */
+    public static void main(String[] args) {
+        Path eventLog = null;
+        Path output = null;
+        String format = "static";
+        Set<Status> statuses = EnumSet.noneOf(Status.class);
+        Pattern name = null;
+        String category = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--format".equals(args[i]) && i + 1 < args.length) {
+                format = args[++i];
+            } else if ("--output".equals(args[i]) && i + 1 < args.length) {
+                output = Paths.get(args[++i]);
+            } else if ("--status".equals(args[i]) && i + 1 < args.length) {
+                Arrays.stream(args[++i].split(",")).map(status -> Status.valueOf(status.trim().toUpperCase())).forEach(statuses::add);
+            } else if ("--name".equals(args[i]) && i + 1 < args.length) {
+                name = Pattern.compile(args[++i]);
+            } else if ("--category".equals(args[i]) && i + 1 < args.length) {
+                category = args[++i];
+            } else {
+                eventLog = Paths.get(args[i]);
+            }
+        }
+        if (eventLog == null) {
+            System.err.println("Usage: ReportRegenerator <events.jsonl> [--format static|lazy|extent] [--output report.html]"
+                + " [--status FAIL,SKIP] [--name regex] [--category name]");
+            System.exit(2);
+        }
+        if (output == null) {
+            output = eventLog.resolveSibling(eventLog.getFileName().toString().replaceFirst("(_events)?\\.jsonl(\\.gz)?$", "")
+                + "_regenerated.html");
+        }
+        
+        Pattern namePattern = name;
+        String categoryName = category;
+        Predicate<TestRecord> filter = record -> (statuses.isEmpty() || statuses.contains(record.getStatus()))
+            && (namePattern == null || (record.getName() != null && namePattern.matcher(record.getName()).find()))
+            && (categoryName == null || record.getCategories().contains(categoryName));
+        long tests = regenerate(eventLog, output, format, filter);
+        System.out.println(tests + " tests rendered to " + output);
+    }
+}
@@ -0,0 +1,82 @@
+package com.quantumleap.framework.reporting;
+
+import com.quantumleap.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Per-fork result shards
+ * Every fork or machine exports its result spool, gzip-compressed, into report.shard.dir
+ * under a name unique to the worker; ReportMerger combines any number of shards into one report
+ * 
+ * @author QuantumLeap Team
+ */
+public class ReportShards {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ReportShards.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    public static final String SHARD_EXTENSION = ".jsonl.gz";
+    
+    private static final String WORKER_ID = resolveWorkerId();
+    
+    /**
+     * Identify this JVM as host:pid, plus the surefire fork number when tests run in forks
+     * 
+     * @return Worker id
+     */
+    public static String workerId() {
+        return WORKER_ID;
+    }
+    
+    private static String resolveWorkerId() {
+        String host = System.getenv("HOSTNAME");
+        if (host == null || host.isEmpty()) {
+            try {
+                host = InetAddress.getLocalHost().getHostName();
+            } catch (IOException e) {
+                host = "localhost";
+            }
+        }
+        String worker = host + ":" + ProcessHandle.current().pid();
+        String fork = System.getProperty("surefire.forkNumber");
+        return fork != null && !fork.isEmpty() && !fork.startsWith("$") ? worker + "#" + fork : worker;
+    }
+    
+    /**
+     * Compress a finished spool into the shard directory
+     * 
+     * @param spool Closed result spool of this fork
+     * @return Shard path, or null if the export failed
+     */
+    public static Path export(Path spool) {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        String name = "shard_" + timestamp + "_" + WORKER_ID.replaceAll("[^A-Za-z0-9.-]", "_") + SHARD_EXTENSION;
+        Path shard = Paths.get(config.getReportShardDir(), name);
+        Path tempShard = shard.resolveSibling(name + ".tmp");
+        try {
+            Files.createDirectories(shard.getParent());
+            try (InputStream input = Files.newInputStream(spool);
+                 OutputStream output = new GZIPOutputStream(Files.newOutputStream(tempShard), 64 * 1024)) {
+                input.transferTo(output);
+            }
+            Files.move(tempShard, shard, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Report shard written: {} ({} KB)", shard, Files.size(shard) / 1024);
+            return shard;
+        } catch (IOException e) {
+            logger.error("Failed to export report shard from {}", spool, e);
+            return null;
+        }
+    }
+}
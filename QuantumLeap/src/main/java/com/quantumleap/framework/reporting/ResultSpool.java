@@ -0,0 +1,149 @@
+package com.quantumleap.framework.reporting;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Append-only JSON-lines file of finished tests
+ * Each test is written and flushed to the OS when it completes, and a timer forces the file
+ * to disk, so a crashed run keeps every test finished before the last sync. Reading streams
+ * one record at a time, keeping memory flat regardless of the number of tests
+ * 
+ * @author QuantumLeap Team
+ */
+public class ResultSpool implements Closeable {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ResultSpool.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final ObjectReader recordReader = mapper.readerFor(TestRecord.class);
+    
+    private final Path path;
+    private final FileOutputStream output;
+    private final BufferedWriter writer;
+    private final ScheduledExecutorService syncTimer;
+    private long appended;
+    
+    private ResultSpool(Path path, int syncSeconds) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.output = new FileOutputStream(path.toFile(), true);
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        this.syncTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "result-spool-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncTimer.scheduleWithFixedDelay(this::sync, syncSeconds, syncSeconds, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Open a spool for appending
+     * 
+     * @param path Spool file, created if missing
+     * @param syncSeconds Interval between forced writes to disk
+     * @return Open spool
+     */
+    public static ResultSpool open(Path path, int syncSeconds) {
+        try {
+            return new ResultSpool(path, Math.max(1, syncSeconds));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to open result spool: " + path, e);
+        }
+    }
+    
+    /**
+     * Append a finished test and hand it to the OS
+     * 
+     * @param record Finished test
+     */
+    public synchronized void append(TestRecord record) {
+        try {
+            writer.write(mapper.writeValueAsString(record));
+            writer.newLine();
+            writer.flush();
+            appended++;
+        } catch (IOException e) {
+            logger.error("Failed to append test '{}' to result spool", record.getName(), e);
+        }
+    }
+    
+    private synchronized void sync() {
+        try {
+            writer.flush();
+            output.getFD().sync();
+        } catch (IOException e) {
+            logger.warn("Failed to sync result spool: {}", e.getMessage());
+        }
+    }
+    
+    public Path getPath() {
+        return path;
+    }
+    
+    public synchronized long getAppendedCount() {
+        return appended;
+    }
+    
+    @Override
+    public synchronized void close() {
+        syncTimer.shutdownNow();
+        sync();
+        try {
+            writer.close();
+        } catch (IOException e) {
+            logger.warn("Failed to close result spool: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Stream the records of a spool file in write order
+     * A truncated last line, left by a crash during a write, ends the stream with a warning
+     * 
+     * @param path Spool file, gzip-compressed if it ends with .gz
+     * @param consumer Receives each record
+     * @return Number of records read
+     */
+    public static long read(Path path, Consumer<TestRecord> consumer) {
+        long count = 0;
+        try (InputStream input = openForReading(path);
+             MappingIterator<TestRecord> records = recordReader.readValues(input)) {
+            while (records.hasNextValue()) {
+                consumer.accept(records.nextValue());
+                count++;
+            }
+        } catch (IOException e) {
+            logger.warn("Result spool {} ends after {} records: {}", path, count, e.getMessage());
+        }
+        return count;
+    }
+    
+    /**
+     * Open a spool or shard for reading, decompressing gzip shards
+     * 
+     * @param path Spool file
+     * @return Input stream
+     * @throws IOException If the file cannot be opened
+     */
+    public static InputStream openForReading(Path path) throws IOException {
+        InputStream input = Files.newInputStream(path);
+        return path.toString().endsWith(".gz") ? new GZIPInputStream(input, 64 * 1024) : input;
+    }
+}
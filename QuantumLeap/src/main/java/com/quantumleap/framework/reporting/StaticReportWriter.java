@@ -0,0 +1,233 @@
+package com.quantumleap.framework.reporting;
+
+import com.aventstack.extentreports.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Self-contained HTML report rendered from a result spool
+ * The spool is streamed twice, once for the summary and once for the test sections, so
+ * rendering needs memory for one test at a time however large the run was
+ * 
+ * @author QuantumLeap Team
+ */
+public class StaticReportWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(StaticReportWriter.class);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    
+    static final String STYLE = "<style>"
+        + "body{font-family:'Segoe UI',Tahoma,Geneva,Verdana,sans-serif;margin:0;background:#f5f6f8;color:#222}"
+        + "header{background:#1f77b4;color:#fff;padding:16px 24px}header h1{margin:0;font-size:22px}"
+        + "main{padding:16px 24px}.cards{display:flex;gap:12px;flex-wrap:wrap;margin-bottom:16px}"
+        + ".card{background:#fff;border-radius:4px;padding:10px 16px;min-width:110px;box-shadow:0 1px 2px #0002}"
+        + ".card b{display:block;font-size:20px}table{border-collapse:collapse;background:#fff;margin-bottom:16px}"
+        + "td{border:1px solid #e2e4e8;padding:4px 8px;font-size:13px;vertical-align:top}"
+        + "details.test{background:#fff;margin:4px 0;border-left:4px solid #999;box-shadow:0 1px 2px #0002}"
+        + "details.test>summary{padding:6px 10px;cursor:pointer}details.test>div{padding:6px 10px}"
+        + ".PASS{border-color:#2e7d32!important}.FAIL{border-color:#c62828!important}"
+        + ".SKIP{border-color:#f9a825!important}.WARNING{border-color:#ef6c00!important}"
+        + ".badge{float:right;font-size:12px;color:#555}.log td:first-child{white-space:nowrap;color:#666}"
+        + "pre{white-space:pre-wrap;font-size:12px;background:#fafafa;padding:8px}"
+        + "img.thumb{max-width:240px;max-height:160px;border:1px solid #ccc}"
+        + "nav button{margin-right:6px}body.only-FAIL details.test:not(.FAIL),"
+        + "body.only-SKIP details.test:not(.SKIP),body.only-PASS details.test:not(.PASS){display:none}"
+        + "</style>";
+    private static final String SCRIPT = "<script>function only(s){document.body.className=s?'only-'+s:'';}</script>";
+    
+    /**
+     * Render a spool into an HTML file
+     * 
+     * @param spool Result spool
+     * @param output HTML file to write
+     * @param title Report title
+     * @param systemInfo Environment entries for the dashboard
+     * @return Number of tests rendered
+     */
+    public static long write(Path spool, Path output, String title, Map<String, String> systemInfo) {
+        long start = System.currentTimeMillis();
+        Summary summary = new Summary();
+        ResultSpool.read(spool, summary::add);
+        try {
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                writeHeader(writer, title, summary, systemInfo);
+                ResultSpool.read(spool, record -> {
+                    try {
+                        writeTest(writer, record);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.write("</main></body></html>\n");
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Failed to write static report: " + output, e);
+        }
+        logger.info("Static report with {} tests written to {} in {} ms", summary.total, output,
+            System.currentTimeMillis() - start);
+        return summary.total;
+    }
+    
+    /**
+     * Render the spool of a run that ended before its report was flushed
+     * Usage: StaticReportWriter &lt;results.jsonl&gt; [report.html]
+     * 
+     * @param args Spool path and optional output path
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: StaticReportWriter <results.jsonl> [report.html]");
+            System.exit(2);
+        }
+        Path spool = Paths.get(args[0]);
+        Path output = args.length > 1 ? Paths.get(args[1])
+            : spool.resolveSibling(spool.getFileName().toString().replaceFirst("(_results)?\\.jsonl$", "") + ".html");
+        System.out.println(write(spool, output, "Test Report", null) + " tests rendered to " + output);
+    }
+    
+    private static void writeHeader(Writer writer, String title, Summary summary, Map<String, String> systemInfo)
+            throws IOException {
+        writer.write("<!DOCTYPE html><html><head><meta charset='utf-8'><title>" + escape(title) + "</title>");
+        writer.write(STYLE + SCRIPT + "</head><body><header><h1>" + escape(title) + "</h1></header><main>");
+        writeDashboard(writer, summary, systemInfo);
+        writer.write("<nav><button onclick=\"only('')\">All</button><button onclick=\"only('FAIL')\">Failed</button>"
+            + "<button onclick=\"only('SKIP')\">Skipped</button><button onclick=\"only('PASS')\">Passed</button></nav>\n");
+    }
+    
+    /**
+     * Write the summary cards and the environment table
+     */
+    static void writeDashboard(Writer writer, Summary summary, Map<String, String> systemInfo) throws IOException {
+        writer.write("<div class='cards'>");
+        card(writer, "Tests", String.valueOf(summary.total));
+        for (Status status : new Status[]{Status.PASS, Status.FAIL, Status.SKIP, Status.WARNING}) {
+            card(writer, status.toString(), String.valueOf(summary.counts.getOrDefault(status, 0L)));
+        }
+        card(writer, "Test time", formatDuration(summary.testMillis));
+        card(writer, "Wall clock", formatDuration(summary.lastEnd - summary.firstStart));
+        card(writer, "Started", summary.total > 0 ? formatTime(summary.firstStart) : "-");
+        writer.write("</div>");
+        if (systemInfo != null && !systemInfo.isEmpty()) {
+            writer.write("<table>");
+            for (Map.Entry<String, String> entry : systemInfo.entrySet()) {
+                writer.write("<tr><td>" + escape(entry.getKey()) + "</td><td>" + escape(entry.getValue()) + "</td></tr>");
+            }
+            writer.write("</table>");
+        }
+    }
+    
+    private static void writeTest(Writer writer, TestRecord record) throws IOException {
+        writer.write("<details class='test " + record.getStatus().name() + "'><summary>" + escape(record.getName())
+            + "<span class='badge'>" + record.getStatus() + " &middot; " + formatDuration(record.getDurationMillis())
+            + " &middot; " + escape(String.join(", ", record.getCategories())) + "</span></summary><div>");
+        if (record.getDescription() != null) {
+            writer.write("<p>" + escape(record.getDescription()) + "</p>");
+        }
+        writer.write("<table class='log'>");
+        for (TestRecord.LogEntry entry : record.getLogs()) {
+            writer.write("<tr><td>" + formatTime(entry.getTimestamp()) + "</td><td>");
+            if (entry.getMedia() != null) {
+                writeMedia(writer, entry.getMedia(), entry.getMediaTitle());
+            } else {
+                // Messages are trusted framework HTML, as in the Extent report
+                writer.write(entry.getMessage() != null ? entry.getMessage() : "");
+            }
+            writer.write("</td></tr>");
+        }
+        writer.write("</table>");
+        if (record.getError() != null) {
+            writer.write("<pre>" + escape(record.getError()) + "</pre>");
+        }
+        writer.write("</div></details>\n");
+    }
+    
+    static void writeMedia(Writer writer, String path, String title) throws IOException {
+        String href = escape(path);
+        String caption = escape(title != null ? title : Paths.get(path).getFileName().toString());
+        if (path.matches("(?i).*\\.(png|jpe?g|gif|webp)$")) {
+            writer.write("<a href='" + href + "' target='_blank'><img class='thumb' loading='lazy' src='" + href
+                + "' alt='" + caption + "'></a><br>" + caption);
+        } else {
+            writer.write("<a href='" + href + "' target='_blank'>" + caption + "</a>");
+        }
+    }
+    
+    private static void card(Writer writer, String label, String value) throws IOException {
+        writer.write("<div class='card'><b>" + escape(value) + "</b>" + escape(label) + "</div>");
+    }
+    
+    /**
+     * Escape text for use in HTML content and single-quoted attributes
+     * 
+     * @param text Text to escape, may be null
+     * @return Escaped text
+     */
+    public static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': escaped.append("&lt;"); break;
+                case '>': escaped.append("&gt;"); break;
+                case '&': escaped.append("&amp;"); break;
+                case '\'': escaped.append("&#39;"); break;
+                case '"': escaped.append("&quot;"); break;
+                default: escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+    
+    static String formatDuration(long millis) {
+        if (millis < 1000) {
+            return Math.max(0, millis) + " ms";
+        }
+        long seconds = millis / 1000;
+        return seconds < 60 ? String.format("%.1f s", millis / 1000.0) : String.format("%dm %02ds", seconds / 60, seconds % 60);
+    }
+    
+    static String formatTime(long epochMillis) {
+        return TIME_FORMAT.format(Instant.ofEpochMilli(epochMillis));
+    }
+    
+    /**
+     * Counters gathered in the first pass over the spool
+     */
+    static class Summary {
+        private final Map<Status, Long> counts = new EnumMap<>(Status.class);
+        private long total;
+        private long testMillis;
+        private long firstStart = Long.MAX_VALUE;
+        private long lastEnd;
+        
+        long getTotal() {
+            return total;
+        }
+        
+        void add(TestRecord record) {
+            total++;
+            counts.merge(record.getStatus(), 1L, Long::sum);
+            testMillis += record.getDurationMillis();
+            firstStart = Math.min(firstStart, record.getStartMillis());
+            lastEnd = Math.max(lastEnd, record.getEndMillis());
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.quantumleap.framework.reporting;
+
+import com.aventstack.extentreports.Status;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Report entry of one finished test: metadata, status, timing and log lines
+ * Written as one JSON line per test to the result spool, so a report can be rendered or
+ * merged from disk without keeping finished tests in memory
+ * 
+ * @author QuantumLeap Team
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+    getterVisibility = JsonAutoDetect.Visibility.NONE, isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+public class TestRecord {
+    
+    private String id;
+    private String name;
+    private String description;
+    private final List<String> categories = new ArrayList<>();
+    private final List<String> authors = new ArrayList<>();
+    private final List<String> devices = new ArrayList<>();
+    private Status status = Status.PASS;
+    private long startMillis;
+    private long endMillis;
+    private String thread;
+    private String worker;
+    private String error;
+    private final List<LogEntry> logs = new ArrayList<>();
+    
+    public TestRecord() {
+    }
+    
+    public TestRecord(String id, String name, String description) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.startMillis = System.currentTimeMillis();
+        this.thread = Thread.currentThread().getName();
+        this.worker = ReportShards.workerId();
+    }
+    
+    /**
+     * Rebuild a test from a log of an earlier run
+     * 
+     * @param id Test id
+     * @param name Test name
+     * @param description Test description
+     * @param startMillis Epoch millis of the test start
+     * @param thread Thread that ran the test
+     * @param worker Worker that ran the test
+     */
+    public TestRecord(String id, String name, String description, long startMillis, String thread, String worker) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.startMillis = startMillis;
+        this.thread = thread;
+        this.worker = worker;
+    }
+    
+    /**
+     * Append a log line; the test status becomes the most severe logged status
+     * 
+     * @param status Log status
+     * @param message Message, may contain HTML
+     * @param timestamp Epoch millis of the log call
+     */
+    public void log(Status status, String message, long timestamp) {
+        logs.add(new LogEntry(timestamp, status, message, null, null));
+        escalate(status);
+    }
+    
+    /**
+     * Append an attachment, e.g. a screenshot
+     * 
+     * @param path Media path as passed to the report
+     * @param title Media title
+     * @param timestamp Epoch millis of the attach call
+     */
+    public void attach(String path, String title, long timestamp) {
+        logs.add(new LogEntry(timestamp, Status.INFO, null, path, title));
+    }
+    
+    /**
+     * Record the stack trace of the failure
+     * 
+     * @param error Stack trace text
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    /**
+     * Mark the end of the test
+     * 
+     * @param timestamp Epoch millis of the end of the test
+     */
+    public void finish(long timestamp) {
+        this.endMillis = timestamp;
+    }
+    
+    private void escalate(Status logged) {
+        if (logged != Status.INFO) {
+            status = Status.max(status, logged);
+        }
+    }
+    
+    public void addCategory(String category) {
+        categories.add(category);
+    }
+    
+    public void addAuthor(String author) {
+        authors.add(author);
+    }
+    
+    public void addDevice(String device) {
+        devices.add(device);
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public List<String> getCategories() {
+        return categories;
+    }
+    
+    public List<String> getAuthors() {
+        return authors;
+    }
+    
+    public List<String> getDevices() {
+        return devices;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public long getStartMillis() {
+        return startMillis;
+    }
+    
+    public long getEndMillis() {
+        return endMillis;
+    }
+    
+    public long getDurationMillis() {
+        return endMillis > startMillis ? endMillis - startMillis : 0;
+    }
+    
+    public String getThread() {
+        return thread;
+    }
+    
+    public String getWorker() {
+        return worker;
+    }
+    
+    public String getError() {
+        return error;
+    }
+    
+    public List<LogEntry> getLogs() {
+        return logs;
+    }
+    
+    /**
+     * One log line or attachment of a test
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY,
+        getterVisibility = JsonAutoDetect.Visibility.NONE, isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+    public static class LogEntry {
+        private long timestamp;
+        private Status status;
+        private String message;
+        private String media;
+        private String mediaTitle;
+        
+        public LogEntry() {
+        }
+        
+        LogEntry(long timestamp, Status status, String message, String media, String mediaTitle) {
+            this.timestamp = timestamp;
+            this.status = status;
+            this.message = message;
+            this.media = media;
+            this.mediaTitle = mediaTitle;
+        }
+        
+        public long getTimestamp() {
+            return timestamp;
+        }
+        
+        public Status getStatus() {
+            return status;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+        
+        public String getMedia() {
+            return media;
+        }
+        
+        public String getMediaTitle() {
+            return mediaTitle;
+        }
+    }
+}
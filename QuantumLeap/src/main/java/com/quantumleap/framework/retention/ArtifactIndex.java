@@ -0,0 +1,133 @@
+package com.quantumleap.framework.retention;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Persistent index of report, screenshot and log artifacts
+ * One CSV line per file with its size, last use and first sighting; the index survives
+ * between runs so artifacts keep their recency even when a later scan cannot tell it
+ * from the file system alone
+ * 
+ * @author QuantumLeap Team
+ */
+public class ArtifactIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactIndex.class);
+    private static final String HEADER = "path,size,lastUsed,firstSeen";
+    
+    private final Path indexFile;
+    private final Map<String, Entry> entries = new HashMap<>();
+    
+    /**
+     * Load the index, starting empty if it does not exist or cannot be read
+     * 
+     * @param indexFile Index file location
+     */
+    public ArtifactIndex(Path indexFile) {
+        this.indexFile = indexFile;
+        if (!Files.isRegularFile(indexFile)) {
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if (line.isEmpty() || line.equals(HEADER)) {
+                    continue;
+                }
+                // The path is the only field that can contain commas, so split from the right
+                int third = line.lastIndexOf(',');
+                int second = line.lastIndexOf(',', third - 1);
+                int first = line.lastIndexOf(',', second - 1);
+                String path = line.substring(0, first);
+                entries.put(path, new Entry(path, Long.parseLong(line.substring(first + 1, second)),
+                    Long.parseLong(line.substring(second + 1, third)), Long.parseLong(line.substring(third + 1))));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Artifact index {} is unreadable and will be rebuilt: {}", indexFile, e.getMessage());
+            entries.clear();
+        }
+    }
+    
+    /**
+     * Record the current size and modification time of a file
+     * The last use only moves forward, so a use recorded earlier is never lost
+     * 
+     * @param path Normalized artifact path
+     * @param size Size in bytes
+     * @param lastModified Modification time in epoch milliseconds
+     * @param now Time of the scan
+     * @return Updated entry
+     */
+    Entry update(String path, long size, long lastModified, long now) {
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            entry = new Entry(path, size, lastModified, now);
+            entries.put(path, entry);
+        } else {
+            entry.size = size;
+            entry.lastUsed = Math.max(entry.lastUsed, lastModified);
+        }
+        return entry;
+    }
+    
+    void remove(String path) {
+        entries.remove(path);
+    }
+    
+    /**
+     * Drop entries whose files were not seen by the last scan
+     * 
+     * @param seen Paths found by the scan
+     */
+    void retainAll(Collection<String> seen) {
+        entries.keySet().retainAll(seen);
+    }
+    
+    /**
+     * Write the index atomically next to its final location
+     * 
+     * @throws IOException if the index cannot be written
+     */
+    void save() throws IOException {
+        Files.createDirectories(indexFile.toAbsolutePath().getParent());
+        Path temp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Entry entry : entries.values()) {
+                writer.write(entry.path + "," + entry.size + "," + entry.lastUsed + "," + entry.firstSeen);
+                writer.newLine();
+            }
+        }
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Indexed state of one artifact file
+     */
+    static class Entry {
+        final String path;
+        final long firstSeen;
+        long size;
+        long lastUsed;
+        
+        Entry(String path, long size, long lastUsed, long firstSeen) {
+            this.path = path;
+            this.size = size;
+            this.lastUsed = lastUsed;
+            this.firstSeen = firstSeen;
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package com.quantumleap.framework.retention;
+
+import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.utils.ScreenshotStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size-capped retention for screenshots, Extent reports, Cucumber outputs and logs
+ * Runs on a background thread so suite start-up does not depend on the amount of history:
+ * every artifact is tracked in a persistent index, old text artifacts are moved into daily
+ * zip archives and the least recently used files are evicted until the configured age
+ * and byte budget are met. Files written by the current run are never touched
+ * 
+ * @author QuantumLeap Team
+ */
+public class ArtifactRetentionManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactRetentionManager.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = new HashSet<>(Arrays.asList("html", "json", "xml", "log", "txt"));
+    private static final String ARCHIVE_DIR = "archive";
+    private static final DateTimeFormatter ARCHIVE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd").withZone(ZoneId.systemDefault());
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    
+    private static Thread worker;
+    
+    /**
+     * Enforce the retention policy on a daemon thread; returns immediately
+     */
+    public static synchronized void startInBackground() {
+        if (!config.isRetentionEnabled() || (worker != null && worker.isAlive())) {
+            return;
+        }
+        worker = new Thread(() -> {
+            try {
+                enforce(config.getRetentionMaxAgeDays());
+            } catch (RuntimeException e) {
+                logger.error("Artifact retention failed", e);
+            }
+        }, "artifact-retention");
+        worker.setDaemon(true);
+        worker.start();
+    }
+    
+    /**
+     * Wait for a background run so the JVM does not exit halfway through an archive
+     */
+    public static void awaitCompletion() {
+        Thread running;
+        synchronized (ArtifactRetentionManager.class) {
+            running = worker;
+        }
+        if (running == null) {
+            return;
+        }
+        try {
+            running.join(TimeUnit.SECONDS.toMillis(config.getRetentionAwaitSeconds()));
+            if (running.isAlive()) {
+                logger.warn("Artifact retention still running after {} seconds", config.getRetentionAwaitSeconds());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Scan the artifact roots, update the index, archive old text artifacts and evict the
+     * least recently used files beyond the age limit or the byte budget
+     * 
+     * @param maxAgeDays Files unused for longer than this are always evicted
+     * @return Outcome of the run
+     */
+    public static synchronized Result enforce(int maxAgeDays) {
+        List<Path> roots = new ArrayList<>();
+        config.getRetentionRoots().forEach(root -> roots.add(Paths.get(root)));
+        return enforce(roots, Paths.get(config.getRetentionIndexFile()), maxAgeDays,
+            config.getRetentionCompressAfterDays(), config.getRetentionMaxTotalMb() * 1024L * 1024L);
+    }
+    
+    /**
+     * Enforce the retention policy on explicit roots and limits instead of config.properties
+     * 
+     * @param roots Artifact roots
+     * @param indexLocation Persistent artifact index
+     * @param maxAgeDays Files unused for longer than this are always evicted
+     * @param compressAfterDays Text artifacts unused for longer than this are archived
+     * @param budgetBytes Total size kept across all roots
+     * @return Outcome of the run
+     */
+    static synchronized Result enforce(List<Path> roots, Path indexLocation, int maxAgeDays, int compressAfterDays,
+                                       long budgetBytes) {
+        long start = System.currentTimeMillis();
+        long currentRunStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        Path indexFile = indexLocation.toAbsolutePath().normalize();
+        ArtifactIndex index = new ArtifactIndex(indexFile);
+        
+        List<Path> storeIndexes = new ArrayList<>();
+        List<Artifact> artifacts = scan(roots, index, indexFile, storeIndexes, start);
+        Result result = new Result();
+        result.scanned = artifacts.size();
+        
+        long compressBefore = start - compressAfterDays * DAY_MILLIS;
+        artifacts = compress(artifacts, index, Math.min(compressBefore, currentRunStart), start, result);
+        evict(artifacts, index, Math.min(start - maxAgeDays * DAY_MILLIS, currentRunStart),
+            currentRunStart, budgetBytes, result);
+        if (result.evictedFiles > 0) {
+            storeIndexes.forEach(storeIndex -> result.prunedIndexEntries += ScreenshotStore.pruneIndex(storeIndex));
+        }
+        
+        try {
+            index.save();
+        } catch (IOException e) {
+            logger.warn("Failed to save artifact index {}: {}", indexFile, e.getMessage());
+        }
+        result.durationMillis = System.currentTimeMillis() - start;
+        logger.info("Artifact retention: {}", result);
+        return result;
+    }
+    
+    /**
+     * Walk the artifact roots and refresh the index with the files found
+     * 
+     * @param roots Artifact roots
+     * @param index Artifact index
+     * @param indexFile Index location, excluded from the scan
+     * @param storeIndexes Receives the screenshot store indexes found, also excluded
+     * @param now Scan time
+     * @return Artifacts found
+     */
+    private static List<Artifact> scan(List<Path> roots, ArtifactIndex index, Path indexFile, List<Path> storeIndexes,
+                                       long now) {
+        List<Artifact> artifacts = new ArrayList<>();
+        for (Path rootPath : roots) {
+            Path root = rootPath.toAbsolutePath().normalize();
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try {
+                Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        String name = file.getFileName().toString();
+                        // Indexes and in-flight temp files stay where they are; other CSV
+                        // files, e.g. process timelines, are artifacts like any other
+                        if (file.equals(indexFile) || name.endsWith(".tmp")) {
+                            return FileVisitResult.CONTINUE;
+                        }
+                        if (isStoreIndex(file)) {
+                            storeIndexes.add(file);
+                            return FileVisitResult.CONTINUE;
+                        }
+                        ArtifactIndex.Entry entry = index.update(file.toString(), attributes.size(),
+                            attributes.lastModifiedTime().toMillis(), now);
+                        Object fileKey = attributes.fileKey() != null ? attributes.fileKey() : file;
+                        artifacts.add(new Artifact(root, file, entry, fileKey));
+                        return FileVisitResult.CONTINUE;
+                    }
+                    
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                logger.warn("Failed to scan artifact root {}: {}", root, e.getMessage());
+            }
+        }
+        Set<String> seen = new HashSet<>(artifacts.size() * 2);
+        artifacts.forEach(artifact -> seen.add(artifact.entry.path));
+        index.retainAll(seen);
+        return artifacts;
+    }
+    
+    /**
+     * Move old text artifacts into root/archive/artifacts-yyyy-MM-dd.zip, grouped by last use
+     * 
+     * @return Artifacts remaining after compression, including new or grown archives
+     */
+    private static List<Artifact> compress(List<Artifact> artifacts, ArtifactIndex index, long compressBefore,
+                                           long now, Result result) {
+        Map<Path, List<Artifact>> byArchive = new TreeMap<>();
+        List<Artifact> remaining = new ArrayList<>();
+        for (Artifact artifact : artifacts) {
+            if (artifact.isCompressible() && artifact.entry.lastUsed < compressBefore) {
+                Path archive = artifact.root.resolve(ARCHIVE_DIR)
+                    .resolve("artifacts-" + ARCHIVE_DATE_FORMAT.format(Instant.ofEpochMilli(artifact.entry.lastUsed)) + ".zip");
+                byArchive.computeIfAbsent(archive, key -> new ArrayList<>()).add(artifact);
+            } else if (!artifact.isArchive()) {
+                remaining.add(artifact);
+            }
+        }
+        
+        for (Map.Entry<Path, List<Artifact>> group : byArchive.entrySet()) {
+            Path archive = group.getKey();
+            List<Artifact> archived = new ArrayList<>();
+            try {
+                Files.createDirectories(archive.getParent());
+                long newestMember = Files.exists(archive) ? Files.getLastModifiedTime(archive).toMillis() : 0;
+                Map<String, String> env = Collections.singletonMap("create", "true");
+                try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + archive.toUri()), env)) {
+                    for (Artifact artifact : group.getValue()) {
+                        Path target = zip.getPath(artifact.root.relativize(artifact.path).toString().replace('\\', '/'));
+                        if (target.getParent() != null) {
+                            Files.createDirectories(target.getParent());
+                        }
+                        Files.copy(artifact.path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                        archived.add(artifact);
+                        newestMember = Math.max(newestMember, artifact.entry.lastUsed);
+                    }
+                }
+                // An archive is as recent as the newest artifact it holds, not its write time
+                Files.setLastModifiedTime(archive, FileTime.fromMillis(newestMember));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to archive artifacts into {}: {}", archive, e.getMessage());
+                remaining.addAll(group.getValue());
+                continue;
+            }
+            // Originals are deleted only once the archive has been closed successfully
+            for (Artifact artifact : archived) {
+                if (deleteIfUnused(artifact.path, compressBefore)) {
+                    result.compressedFiles++;
+                    result.compressedBytes += artifact.entry.size;
+                    index.remove(artifact.entry.path);
+                }
+            }
+        }
+        
+        // Archives are tracked like any other artifact and may themselves be evicted
+        for (Artifact artifact : artifacts) {
+            if (artifact.isArchive()) {
+                byArchive.putIfAbsent(artifact.path, Collections.emptyList());
+            }
+        }
+        for (Path archive : byArchive.keySet()) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(archive, BasicFileAttributes.class);
+                Path root = archive.getParent().getParent();
+                ArtifactIndex.Entry entry = index.update(archive.toString(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis(), now);
+                Object fileKey = attributes.fileKey() != null ? attributes.fileKey() : archive;
+                remaining.add(new Artifact(root, archive, entry, fileKey));
+            } catch (IOException e) {
+                index.remove(archive.toString());
+            }
+        }
+        return remaining;
+    }
+    
+    /**
+     * Evict the least recently used files until the age limit and the byte budget hold
+     * Hardlinked names of one screenshot object share a file key and are evicted together
+     */
+    private static void evict(List<Artifact> artifacts, ArtifactIndex index, long evictBefore, long currentRunStart,
+                              long budgetBytes, Result result) {
+        Map<Object, List<Artifact>> byFile = new LinkedHashMap<>();
+        artifacts.forEach(artifact -> byFile.computeIfAbsent(artifact.fileKey, key -> new ArrayList<>()).add(artifact));
+        
+        List<List<Artifact>> groups = new ArrayList<>(byFile.values());
+        groups.sort(Comparator.comparingLong(ArtifactRetentionManager::lastUsed));
+        long totalBytes = groups.stream().mapToLong(group -> group.get(0).entry.size).sum();
+        
+        for (List<Artifact> group : groups) {
+            long lastUsed = lastUsed(group);
+            boolean expired = lastUsed < evictBefore;
+            boolean overBudget = totalBytes > budgetBytes && lastUsed < currentRunStart;
+            if (!expired && !overBudget) {
+                break;
+            }
+            boolean deleted = true;
+            for (Artifact artifact : group) {
+                if (deleteIfUnused(artifact.path, currentRunStart)) {
+                    index.remove(artifact.entry.path);
+                } else {
+                    deleted = false;
+                }
+            }
+            if (deleted) {
+                totalBytes -= group.get(0).entry.size;
+                result.evictedFiles += group.size();
+                result.evictedBytes += group.get(0).entry.size;
+            }
+        }
+        result.totalBytes = totalBytes;
+    }
+    
+    /**
+     * Check whether a file is the index of a live screenshot store, i.e. it sits next to the
+     * store's object directory
+     */
+    private static boolean isStoreIndex(Path file) {
+        return file.getFileName().toString().equals(ScreenshotStore.INDEX_FILE)
+            && Files.isDirectory(file.resolveSibling(ScreenshotStore.OBJECTS_DIR));
+    }
+    
+    private static long lastUsed(List<Artifact> group) {
+        return group.stream().mapToLong(artifact -> artifact.entry.lastUsed).max().orElse(0);
+    }
+    
+    /**
+     * Delete a file unless it was modified after the given time, e.g. a screenshot object
+     * that the current run deduplicated against while this scan was in progress
+     */
+    private static boolean deleteIfUnused(Path path, long usedBefore) {
+        try {
+            if (Files.getLastModifiedTime(path).toMillis() >= usedBefore) {
+                return false;
+            }
+            Files.deleteIfExists(path);
+            return true;
+        } catch (IOException e) {
+            logger.debug("Could not delete artifact {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Run the retention policy once from the command line, e.g. from scripts/generate-reports.sh
+     * 
+     * @param args Optional --max-age-days N
+     */
+    public static void main(String[] args) {
+        int maxAgeDays = config.getRetentionMaxAgeDays();
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("--max-age-days".equals(args[i])) {
+                maxAgeDays = Integer.parseInt(args[i + 1]);
+            }
+        }
+        System.out.println("Artifact retention: " + enforce(maxAgeDays));
+    }
+    
+    /**
+     * One file found under an artifact root
+     */
+    private static class Artifact {
+        final Path root;
+        final Path path;
+        final ArtifactIndex.Entry entry;
+        final Object fileKey;
+        
+        Artifact(Path root, Path path, ArtifactIndex.Entry entry, Object fileKey) {
+            this.root = root;
+            this.path = path;
+            this.entry = entry;
+            this.fileKey = fileKey;
+        }
+        
+        boolean isArchive() {
+            return path.getParent().getFileName().toString().equals(ARCHIVE_DIR) && path.toString().endsWith(".zip");
+        }
+        
+        boolean isCompressible() {
+            String name = path.getFileName().toString();
+            int dot = name.lastIndexOf('.');
+            return !isArchive() && dot > 0 && COMPRESSIBLE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase());
+        }
+    }
+    
+    /**
+     * Counters of one retention run
+     */
+    public static class Result {
+        private int scanned;
+        private int compressedFiles;
+        private long compressedBytes;
+        private int evictedFiles;
+        private long evictedBytes;
+        private int prunedIndexEntries;
+        private long totalBytes;
+        private long durationMillis;
+        
+        public int getCompressedFiles() {
+            return compressedFiles;
+        }
+        
+        public int getEvictedFiles() {
+            return evictedFiles;
+        }
+        
+        public int getPrunedIndexEntries() {
+            return prunedIndexEntries;
+        }
+        
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d files scanned, %d archived (%d KB), %d evicted (%d KB), %d index entries pruned, "
+                + "%d MB retained in %d ms", scanned, compressedFiles, compressedBytes / 1024, evictedFiles,
+                evictedBytes / 1024, prunedIndexEntries, totalBytes / (1024 * 1024), durationMillis);
+        }
+    }
+}
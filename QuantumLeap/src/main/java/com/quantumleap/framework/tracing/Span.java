@@ -0,0 +1,197 @@
+package com.quantumleap.framework.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A single timed operation in the suite trace
+ * Mirrors the OpenTelemetry span model so exported traces load in standard viewers
+ * 
+ * @author QuantumLeap Team
+ */
+public class Span implements AutoCloseable {
+    
+    /**
+     * Span kinds as defined by the OTLP protocol
+     */
+    public enum Kind {
+        INTERNAL(1),
+        CLIENT(3);
+        
+        private final int otlpValue;
+        
+        Kind(int otlpValue) {
+            this.otlpValue = otlpValue;
+        }
+        
+        public int getOtlpValue() {
+            return otlpValue;
+        }
+    }
+    
+    /**
+     * Span status codes as defined by the OTLP protocol
+     */
+    public enum Status {
+        UNSET(0),
+        OK(1),
+        ERROR(2);
+        
+        private final int otlpValue;
+        
+        Status(int otlpValue) {
+            this.otlpValue = otlpValue;
+        }
+        
+        public int getOtlpValue() {
+            return otlpValue;
+        }
+    }
+    
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private volatile String name;
+    private final Kind kind;
+    private final long startEpochNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private volatile long endEpochNanos;
+    private volatile Status status = Status.UNSET;
+    private volatile String statusMessage;
+    
+    Span(String traceId, String spanId, String parentSpanId, String name, Kind kind, long startEpochNanos) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.startEpochNanos = startEpochNanos;
+    }
+    
+    /**
+     * Set an attribute on the span
+     * 
+     * @param key Attribute key
+     * @param value Attribute value (String, Boolean, Long, Integer or Double)
+     * @return This span for method chaining
+     */
+    public Span setAttribute(String key, Object value) {
+        if (isRecording() && key != null && value != null) {
+            synchronized (attributes) {
+                attributes.put(key, value);
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Replace the span name, e.g. once the test a set-up span belongs to is known
+     * 
+     * @param name New span name
+     * @return This span for method chaining
+     */
+    public Span updateName(String name) {
+        if (isRecording() && name != null) {
+            this.name = name;
+        }
+        return this;
+    }
+    
+    /**
+     * Set the span status
+     * 
+     * @param status Status code
+     * @param message Optional status message
+     * @return This span for method chaining
+     */
+    public Span setStatus(Status status, String message) {
+        if (!isRecording()) {
+            return this;
+        }
+        this.status = status;
+        this.statusMessage = message;
+        return this;
+    }
+    
+    /**
+     * Mark the span as failed with the given error
+     * 
+     * @param throwable Error that caused the failure
+     * @return This span for method chaining
+     */
+    public Span recordError(Throwable throwable) {
+        if (throwable != null) {
+            setAttribute("exception.type", throwable.getClass().getName());
+            setAttribute("exception.message", String.valueOf(throwable.getMessage()));
+        }
+        return setStatus(Status.ERROR, throwable != null ? throwable.getMessage() : null);
+    }
+    
+    /**
+     * End the span and hand it to the trace manager for export
+     */
+    @Override
+    public void close() {
+        TraceManager.endSpan(this);
+    }
+    
+    void markEnded(long endEpochNanos) {
+        this.endEpochNanos = endEpochNanos;
+    }
+    
+    /**
+     * Check if this span is part of an active trace (false for the disabled no-op span)
+     * 
+     * @return true if the span records data
+     */
+    public boolean isRecording() {
+        return traceId != null;
+    }
+    
+    public boolean isEnded() {
+        return endEpochNanos != 0;
+    }
+    
+    public String getTraceId() {
+        return traceId;
+    }
+    
+    public String getSpanId() {
+        return spanId;
+    }
+    
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+    
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public String getStatusMessage() {
+        return statusMessage;
+    }
+    
+    public Map<String, Object> getAttributes() {
+        synchronized (attributes) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.quantumleap.framework.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.quantumleap.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace Manager for hierarchical suite tracing
+ * Maintains a per-thread span stack (suite > test > page action > WebDriver/HTTP call)
+ * and exports finished spans in OTLP-JSON format at suite end
+ * 
+ * @author QuantumLeap Team
+ */
+public class TraceManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TraceManager.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final String INSTRUMENTATION_SCOPE = "com.quantumleap.framework";
+    private static final String SERVICE_NAME = "quantumleap-test-automation";
+    
+    private static final Span NOOP_SPAN = new Span(null, null, null, "noop", Span.Kind.INTERNAL, 0);
+    private static final ThreadLocal<Deque<Span>> activeSpans = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ConcurrentLinkedQueue<Span> finishedSpans = new ConcurrentLinkedQueue<>();
+    
+    // Epoch anchor so span timestamps are wall-clock based but measured with the monotonic clock
+    private static final long EPOCH_ANCHOR_NANOS = System.currentTimeMillis() * 1_000_000L;
+    private static final long NANO_ANCHOR = System.nanoTime();
+    
+    private static volatile String traceId;
+    private static volatile Span suiteSpan;
+    
+    /**
+     * Start the root span for a suite run
+     * 
+     * @param suiteName Name of the suite
+     */
+    public static synchronized void startSuite(String suiteName) {
+        if (!config.isTracingEnabled() || suiteSpan != null) {
+            return;
+        }
+        traceId = randomHex(16);
+        suiteSpan = new Span(traceId, randomHex(8), null, "suite " + suiteName, Span.Kind.INTERNAL, nowEpochNanos());
+        suiteSpan.setAttribute("test.suite.name", suiteName);
+        logger.info("Tracing started for suite: {} (traceId={})", suiteName, traceId);
+    }
+    
+    /**
+     * End the suite span and export all finished spans to the trace file
+     * 
+     * @return Path of the exported trace file or null if tracing is disabled
+     */
+    public static synchronized String endSuite() {
+        if (suiteSpan == null) {
+            return null;
+        }
+        suiteSpan.markEnded(nowEpochNanos());
+        finishedSpans.add(suiteSpan);
+        String tracePath = exportSpans();
+        suiteSpan = null;
+        traceId = null;
+        return tracePath;
+    }
+    
+    /**
+     * Start a span for a test method, detached from any spans left on the thread
+     * 
+     * @param testName Fully qualified test name
+     * @return Test span
+     */
+    public static Span startTestSpan(String testName) {
+        if (suiteSpan == null) {
+            return NOOP_SPAN;
+        }
+        Deque<Span> stack = activeSpans.get();
+        stack.clear();
+        Span span = new Span(traceId, randomHex(8), suiteSpan.getSpanId(), testName, Span.Kind.INTERNAL, nowEpochNanos());
+        span.setAttribute("thread.name", Thread.currentThread().getName());
+        stack.push(span);
+        return span;
+    }
+    
+    /**
+     * Start an internal span as a child of the current span on this thread
+     * 
+     * @param name Span name
+     * @return Started span (a no-op span when tracing is disabled)
+     */
+    public static Span startSpan(String name) {
+        return startSpan(name, Span.Kind.INTERNAL);
+    }
+    
+    /**
+     * Start a span as a child of the current span on this thread
+     * 
+     * @param name Span name
+     * @param kind Span kind
+     * @return Started span (a no-op span when tracing is disabled)
+     */
+    public static Span startSpan(String name, Span.Kind kind) {
+        Span root = suiteSpan;
+        if (root == null) {
+            return NOOP_SPAN;
+        }
+        Deque<Span> stack = activeSpans.get();
+        Span parent = stack.peek();
+        String parentId = parent != null ? parent.getSpanId() : root.getSpanId();
+        Span span = new Span(traceId, randomHex(8), parentId, name, kind, nowEpochNanos());
+        stack.push(span);
+        return span;
+    }
+    
+    /**
+     * End a span and queue it for export
+     * 
+     * @param span Span to end
+     */
+    public static void endSpan(Span span) {
+        if (span == null || span == NOOP_SPAN || span.isEnded()) {
+            return;
+        }
+        activeSpans.get().removeFirstOccurrence(span);
+        span.markEnded(nowEpochNanos());
+        finishedSpans.add(span);
+    }
+    
+    /**
+     * Get the innermost active span on the current thread
+     * 
+     * @return Current span or null if none is active
+     */
+    public static Span currentSpan() {
+        return suiteSpan != null ? activeSpans.get().peek() : null;
+    }
+    
+    /**
+     * Check if a suite trace is currently being recorded
+     * 
+     * @return true if tracing is active
+     */
+    public static boolean isActive() {
+        return suiteSpan != null;
+    }
+    
+    /**
+     * Current wall-clock time in nanoseconds, measured with the monotonic clock
+     * 
+     * @return Epoch nanoseconds
+     */
+    static long nowEpochNanos() {
+        return EPOCH_ANCHOR_NANOS + (System.nanoTime() - NANO_ANCHOR);
+    }
+    
+    /**
+     * Write all finished spans to an OTLP-JSON file
+     * 
+     * @return Path of the trace file or null if export failed
+     */
+    private static String exportSpans() {
+        List<Span> spans = new ArrayList<>();
+        Span span;
+        while ((span = finishedSpans.poll()) != null) {
+            spans.add(span);
+        }
+        
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode root = mapper.createObjectNode();
+        ObjectNode resourceSpans = root.putArray("resourceSpans").addObject();
+        ArrayNode resourceAttributes = resourceSpans.putObject("resource").putArray("attributes");
+        addAttribute(resourceAttributes, "service.name", SERVICE_NAME);
+        addAttribute(resourceAttributes, "browser.name", config.getBrowser());
+        addAttribute(resourceAttributes, "process.runtime.version", System.getProperty("java.version"));
+        
+        ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+        scopeSpans.putObject("scope").put("name", INSTRUMENTATION_SCOPE);
+        ArrayNode spanArray = scopeSpans.putArray("spans");
+        
+        for (Span finished : spans) {
+            ObjectNode node = spanArray.addObject();
+            node.put("traceId", finished.getTraceId());
+            node.put("spanId", finished.getSpanId());
+            if (finished.getParentSpanId() != null) {
+                node.put("parentSpanId", finished.getParentSpanId());
+            }
+            node.put("name", finished.getName());
+            node.put("kind", finished.getKind().getOtlpValue());
+            node.put("startTimeUnixNano", String.valueOf(finished.getStartEpochNanos()));
+            node.put("endTimeUnixNano", String.valueOf(finished.getEndEpochNanos()));
+            ArrayNode attributes = node.putArray("attributes");
+            for (Map.Entry<String, Object> entry : finished.getAttributes().entrySet()) {
+                addAttribute(attributes, entry.getKey(), entry.getValue());
+            }
+            ObjectNode status = node.putObject("status");
+            status.put("code", finished.getStatus().getOtlpValue());
+            if (finished.getStatusMessage() != null) {
+                status.put("message", finished.getStatusMessage());
+            }
+        }
+        
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        File traceFile = new File(config.getTracingOutputDir(), "trace_" + timestamp + ".json");
+        try {
+            traceFile.getParentFile().mkdirs();
+            mapper.writeValue(traceFile, root);
+            logger.info("Exported {} spans to trace file: {}", spans.size(), traceFile.getAbsolutePath());
+            return traceFile.getAbsolutePath();
+        } catch (IOException e) {
+            logger.error("Failed to export trace file: {}", traceFile.getAbsolutePath(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * Append an OTLP key/value attribute to the given array
+     * 
+     * @param attributes Attribute array node
+     * @param key Attribute key
+     * @param value Attribute value
+     */
+    private static void addAttribute(ArrayNode attributes, String key, Object value) {
+        if (value == null) {
+            return;
+        }
+        ObjectNode attribute = attributes.addObject();
+        attribute.put("key", key);
+        ObjectNode anyValue = attribute.putObject("value");
+        if (value instanceof Boolean) {
+            anyValue.put("boolValue", (Boolean) value);
+        } else if (value instanceof Integer || value instanceof Long) {
+            anyValue.put("intValue", String.valueOf(value));
+        } else if (value instanceof Double || value instanceof Float) {
+            anyValue.put("doubleValue", ((Number) value).doubleValue());
+        } else {
+            anyValue.put("stringValue", String.valueOf(value));
+        }
+    }
+    
+    /**
+     * Generate a random lowercase hex identifier
+     * 
+     * @param bytes Number of random bytes
+     * @return Hex string of length bytes * 2
+     */
+    private static String randomHex(int bytes) {
+        StringBuilder hex = new StringBuilder(bytes * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < bytes; i++) {
+            hex.append(String.format("%02x", random.nextInt(256)));
+        }
+        return hex.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.quantumleap.framework.tracing;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * REST Assured filter that records a client span for every HTTP request
+ * 
+ * @author QuantumLeap Team
+ */
+public class TracingFilter implements Filter {
+    
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Span span = TraceManager.startSpan("HTTP " + requestSpec.getMethod(), Span.Kind.CLIENT);
+        span.setAttribute("http.method", requestSpec.getMethod());
+        span.setAttribute("http.url", requestSpec.getURI());
+        try {
+            Response response = ctx.next(requestSpec, responseSpec);
+            span.setAttribute("http.status_code", response.getStatusCode());
+            span.setStatus(response.getStatusCode() >= 500 ? Span.Status.ERROR : Span.Status.OK, null);
+            return response;
+        } catch (RuntimeException e) {
+            span.recordError(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.quantumleap.framework.tracing;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * WebDriver listener that records a client span for every WebDriver command
+ * Registered on the driver by WebDriverFactory when tracing is enabled
+ * 
+ * @author QuantumLeap Team
+ */
+public class TracingWebDriverListener implements WebDriverListener {
+    
+    private final ThreadLocal<Deque<Span>> commandSpans = ThreadLocal.withInitial(ArrayDeque::new);
+    
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        String commandName = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        Span span = TraceManager.startSpan(commandName, Span.Kind.CLIENT);
+        span.setAttribute("webdriver.command", method.getName());
+        span.setAttribute("webdriver.target", target.getClass().getSimpleName());
+        if (args != null && args.length > 0 && args[0] != null && !(args[0] instanceof CharSequence[])) {
+            span.setAttribute("webdriver.argument", String.valueOf(args[0]));
+        }
+        commandSpans.get().push(span);
+    }
+    
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        Span span = commandSpans.get().poll();
+        if (span != null) {
+            span.setStatus(Span.Status.OK, null);
+            span.close();
+        }
+    }
+    
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        Span span = commandSpans.get().poll();
+        if (span != null) {
+            span.recordError(e.getTargetException());
+            span.close();
+        }
+    }
+}
@@ -3,19 +3,47 @@ package com.quantumleap.framework.utils;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Log;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.jfr.ReportFlushEvent;
+import com.quantumleap.framework.reporting.EventLog;
+import com.quantumleap.framework.reporting.LazyReportWriter;
+import com.quantumleap.framework.reporting.ReportEvent;
+import com.quantumleap.framework.reporting.ReportEventQueue;
+import com.quantumleap.framework.reporting.ReportShards;
+import com.quantumleap.framework.reporting.ResultSpool;
+import com.quantumleap.framework.reporting.StaticReportWriter;
+import com.quantumleap.framework.reporting.TestRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * Extent Reports Manager for comprehensive test reporting
  * Manages report lifecycle and provides utilities for test logging
+ * In streaming mode (report.streaming.enabled) finished tests are appended to a result spool
+ * and dropped from memory, and the HTML report is rendered from the spool at flush time.
+ * With report.shard.enabled the spool is also kept next to the Extent report and exported as
+ * this fork's shard for ReportMerger
+ * With report.eventlog.enabled every report operation is also logged as a raw event, and with
+ * report.eventlog.deferred only the event log is written, for ReportRegenerator to render later
+ * With report.async.enabled, logging calls only enqueue immutable events; a single consumer
+ * thread applies them to the report, so test threads do not contend on report internals
  * 
  * @author QuantumLeap Team
  */
@@ -23,15 +51,24 @@ public class ExtentReportManager {
     
     private static final Logger logger = LoggerFactory.getLogger(ExtentReportManager.class);
     private static ExtentReports extent;
+    private static String currentReportPath;
     private static final ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+    private static ResultSpool spool;
+    private static final ThreadLocal<TestRecord> record = new ThreadLocal<>();
+    private static EventLog eventLog;
+    private static final ThreadLocal<EventLog.TestRef> loggedTest = new ThreadLocal<>();
+    private static final Map<String, String> systemInfo = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static final AtomicLong testSequence = new AtomicLong();
+    private static volatile ReportEventQueue eventQueue;
     private static final ConfigManager config = ConfigManager.getInstance();
     
     /**
      * Initialize Extent Reports
      */
     public static synchronized void initReports() {
-        if (extent == null) {
+        if (extent == null && spool == null && eventLog == null) {
             String reportPath = getReportPath();
+            currentReportPath = reportPath;
             
             // Create report directory if it doesn't exist
             File reportDir = new File(reportPath).getParentFile();
@@ -39,6 +76,28 @@ public class ExtentReportManager {
                 reportDir.mkdirs();
             }
             
+            if (config.isReportAsyncEnabled() && eventQueue == null) {
+                eventQueue = new ReportEventQueue("report-events", ExtentReportManager::apply);
+            }
+            
+            if (config.isReportEventLogEnabled() || config.isReportEventLogDeferred()) {
+                eventLog = EventLog.open(Paths.get(getReportSiblingPath("_events.jsonl")), config.getExtentReportName());
+            }
+            if (config.isReportEventLogDeferred()) {
+                setSystemInfo();
+                logger.info("Report rendering deferred, events logged to {}", eventLog.getPath());
+                return;
+            }
+            
+            if (config.isReportStreamingEnabled() || config.isReportShardEnabled()) {
+                spool = ResultSpool.open(Paths.get(getReportSiblingPath("_results.jsonl")), config.getReportStreamingSyncSeconds());
+            }
+            if (config.isReportStreamingEnabled()) {
+                setSystemInfo();
+                logger.info("Streaming report initialized: {} (spool {})", reportPath, spool.getPath());
+                return;
+            }
+            
             ExtentSparkReporter sparkReporter = new ExtentSparkReporter(reportPath);
             configureSparkReporter(sparkReporter);
             
@@ -74,16 +133,16 @@ public class ExtentReportManager {
      * Set system information for the report
      */
     private static void setSystemInfo() {
-        extent.setSystemInfo("Application", "QuantumLeap E-Commerce");
-        extent.setSystemInfo("Environment", "Test");
-        extent.setSystemInfo("User", System.getProperty("user.name"));
-        extent.setSystemInfo("Java Version", System.getProperty("java.version"));
-        extent.setSystemInfo("OS", System.getProperty("os.name"));
-        extent.setSystemInfo("Browser", config.getBrowser());
-        extent.setSystemInfo("Headless Mode", String.valueOf(config.isHeadless()));
-        extent.setSystemInfo("Base URL", config.getWebBaseUrl());
-        extent.setSystemInfo("API URL", config.getApiBaseUrl());
-        extent.setSystemInfo("Report Generated", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
+        addSystemInfo("Application", "QuantumLeap E-Commerce");
+        addSystemInfo("Environment", "Test");
+        addSystemInfo("User", System.getProperty("user.name"));
+        addSystemInfo("Java Version", System.getProperty("java.version"));
+        addSystemInfo("OS", System.getProperty("os.name"));
+        addSystemInfo("Browser", config.getBrowser());
+        addSystemInfo("Headless Mode", String.valueOf(config.isHeadless()));
+        addSystemInfo("Base URL", config.getWebBaseUrl());
+        addSystemInfo("API URL", config.getApiBaseUrl());
+        addSystemInfo("Report Generated", new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()));
     }
     
     /**
@@ -104,16 +163,79 @@ public class ExtentReportManager {
         return directory + "/" + nameWithoutExt + "_" + timestamp + extension;
     }
     
+    /**
+     * Get the path of an artifact stored next to the current report
+     * e.g. ExtentReport_2024-01-01_10-00-00.html -> ExtentReport_2024-01-01_10-00-00.jfr
+     * 
+     * @param suffix Suffix (including extension) replacing the report's extension
+     * @return Artifact file path
+     */
+    public static String getReportSiblingPath(String suffix) {
+        String reportPath = getReportFilePath();
+        int extensionIndex = reportPath.lastIndexOf('.');
+        String basePath = extensionIndex > reportPath.lastIndexOf('/') ? reportPath.substring(0, extensionIndex) : reportPath;
+        return basePath + suffix;
+    }
+    
+    /**
+     * Get a link target for an artifact relative to the report directory, so links keep
+     * working when the report is served or archived together with its artifacts
+     * 
+     * @param artifactPath Artifact file path
+     * @return Relative href, or a file URI if the artifact is on another file system root
+     */
+    public static String getReportRelativeLink(String artifactPath) {
+        Path artifact = Paths.get(artifactPath).toAbsolutePath().normalize();
+        Path reportDirectory = Paths.get(getReportFilePath()).toAbsolutePath().normalize().getParent();
+        try {
+            return reportDirectory.relativize(artifact).toString().replace(File.separatorChar, '/');
+        } catch (IllegalArgumentException e) {
+            return artifact.toUri().toString();
+        }
+    }
+    
+    /**
+     * Add a system information entry to the report dashboard
+     * 
+     * @param key Entry name
+     * @param value Entry value
+     */
+    public static void addSystemInfo(String key, String value) {
+        if (value == null) {
+            return;
+        }
+        systemInfo.put(key, value);
+        if (extent != null) {
+            extent.setSystemInfo(key, value);
+        }
+        EventLog activeLog = eventLog;
+        if (activeLog != null) {
+            activeLog.info(key, value);
+        }
+    }
+    
     /**
      * Create a new test in the report
      * 
      * @param testName Name of the test
      * @param description Description of the test
-     * @return ExtentTest instance
+     * @return ExtentTest instance, or null in streaming mode
      */
     public static ExtentTest createTest(String testName, String description) {
-        ExtentTest extentTest = extent.createTest(testName, description);
-        test.set(extentTest);
+        ExtentTest extentTest = null;
+        if (extent != null) {
+            extentTest = extent.createTest(testName, description);
+            test.set(extentTest);
+        }
+        if (spool != null || eventLog != null) {
+            String id = String.valueOf(testSequence.incrementAndGet());
+            if (spool != null) {
+                record.set(new TestRecord(id, testName, description));
+            }
+            if (eventLog != null) {
+                loggedTest.set(eventLog.startTest(id, testName, description));
+            }
+        }
         return extentTest;
     }
     
@@ -123,19 +245,18 @@ public class ExtentReportManager {
      * @param testName Name of the test
      * @param description Description of the test
      * @param category Test category
-     * @return ExtentTest instance
+     * @return ExtentTest instance, or null in streaming mode
      */
     public static ExtentTest createTest(String testName, String description, String category) {
-        ExtentTest extentTest = extent.createTest(testName, description);
-        extentTest.assignCategory(category);
-        test.set(extentTest);
+        ExtentTest extentTest = createTest(testName, description);
+        addCategory(category);
         return extentTest;
     }
     
     /**
      * Get current test instance
      * 
-     * @return Current ExtentTest instance
+     * @return Current ExtentTest instance, or null in streaming mode
      */
     public static ExtentTest getTest() {
         return test.get();
@@ -147,9 +268,7 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logInfo(String message) {
-        if (test.get() != null) {
-            test.get().log(Status.INFO, message);
-        }
+        log(Status.INFO, message);
     }
     
     /**
@@ -158,9 +277,7 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logPass(String message) {
-        if (test.get() != null) {
-            test.get().log(Status.PASS, message);
-        }
+        log(Status.PASS, message);
     }
     
     /**
@@ -169,9 +286,7 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logFail(String message) {
-        if (test.get() != null) {
-            test.get().log(Status.FAIL, message);
-        }
+        log(Status.FAIL, message);
     }
     
     /**
@@ -180,9 +295,7 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logWarning(String message) {
-        if (test.get() != null) {
-            test.get().log(Status.WARNING, message);
-        }
+        log(Status.WARNING, message);
     }
     
     /**
@@ -191,8 +304,159 @@ public class ExtentReportManager {
      * @param message Message to log
      */
     public static void logSkip(String message) {
-        if (test.get() != null) {
-            test.get().log(Status.SKIP, message);
+        log(Status.SKIP, message);
+    }
+    
+    /**
+     * Log a message to the current test or its streaming record
+     * 
+     * @param status Log status
+     * @param message Message to log
+     */
+    private static void log(Status status, String message) {
+        dispatchToCurrent(target -> ReportEvent.log(target, status, message));
+    }
+    
+    /**
+     * Dispatch an event to each report node of the current thread's test: the ExtentTest,
+     * the TestRecord in streaming or shard mode, and the event log entry
+     * 
+     * @param event Builds the event for one report node
+     */
+    private static void dispatchToCurrent(Function<Object, ReportEvent> event) {
+        ExtentTest extentTest = test.get();
+        if (extentTest != null) {
+            dispatch(event.apply(extentTest));
+        }
+        TestRecord current = record.get();
+        if (current != null) {
+            dispatch(event.apply(current));
+        }
+        EventLog.TestRef logged = loggedTest.get();
+        if (logged != null) {
+            dispatch(event.apply(logged));
+        }
+    }
+    
+    private static boolean hasCurrentTest() {
+        return test.get() != null || record.get() != null || loggedTest.get() != null;
+    }
+    
+    /**
+     * Hand an event to the consumer thread, or apply it directly when async reporting is off
+     * 
+     * @param event Report event
+     */
+    private static void dispatch(ReportEvent event) {
+        ReportEventQueue queue = eventQueue;
+        if (queue != null) {
+            queue.offer(event);
+        } else {
+            apply(event);
+        }
+    }
+    
+    /**
+     * Apply an event to its report node; runs on the consumer thread in async mode
+     * 
+     * @param event Report event
+     */
+    private static void apply(ReportEvent event) {
+        if (event.getTarget() instanceof TestRecord) {
+            applyToRecord((TestRecord) event.getTarget(), event);
+        } else if (event.getTarget() instanceof ExtentTest) {
+            applyToTest((ExtentTest) event.getTarget(), event);
+        } else if (event.getTarget() instanceof EventLog.TestRef) {
+            EventLog activeLog = eventLog;
+            if (activeLog != null) {
+                activeLog.write((EventLog.TestRef) event.getTarget(), event);
+            }
+        }
+    }
+    
+    private static void applyToTest(ExtentTest target, ReportEvent event) {
+        switch (event.getType()) {
+            case LOG:
+                target.log(event.getStatus(), event.getText());
+                stampLastLog(target, event.getTimestamp());
+                break;
+            case MEDIA:
+                try {
+                    target.addScreenCaptureFromPath(event.getText(), event.getTitle());
+                } catch (Exception e) {
+                    logger.error("Failed to attach screenshot to report", e);
+                    target.log(Status.WARNING, "Failed to attach screenshot: " + e.getMessage());
+                    stampLastLog(target, event.getTimestamp());
+                }
+                break;
+            case FAILURE:
+                target.fail(event.getThrowable());
+                stampLastLog(target, event.getTimestamp());
+                break;
+            case CATEGORY:
+                target.assignCategory(event.getText());
+                break;
+            case AUTHOR:
+                target.assignAuthor(event.getText());
+                break;
+            case DEVICE:
+                target.assignDevice(event.getText());
+                break;
+            default:
+                break;
+        }
+    }
+    
+    /**
+     * Date the log just added to a test, and the test's end time, with the time the event was
+     * raised; Extent stamps them when the consumer thread applies the event, which can be
+     * much later in async mode
+     * 
+     * @param target Report node the log was added to
+     * @param timestamp Event time
+     */
+    private static void stampLastLog(ExtentTest target, long timestamp) {
+        Date raisedAt = new Date(timestamp);
+        List<Log> logs = target.getModel().getLogs();
+        synchronized (logs) {
+            if (!logs.isEmpty()) {
+                logs.get(logs.size() - 1).setTimestamp(raisedAt);
+            }
+        }
+        target.getModel().setEndTime(raisedAt);
+    }
+    
+    private static void applyToRecord(TestRecord target, ReportEvent event) {
+        switch (event.getType()) {
+            case LOG:
+                target.log(event.getStatus(), event.getText(), event.getTimestamp());
+                break;
+            case MEDIA:
+                target.attach(event.getText(), event.getTitle(), event.getTimestamp());
+                break;
+            case FAILURE:
+                StringWriter stackTrace = new StringWriter();
+                event.getThrowable().printStackTrace(new PrintWriter(stackTrace));
+                target.setError(stackTrace.toString());
+                break;
+            case CATEGORY:
+                target.addCategory(event.getText());
+                break;
+            case AUTHOR:
+                target.addAuthor(event.getText());
+                break;
+            case DEVICE:
+                target.addDevice(event.getText());
+                break;
+            case FINISH:
+                target.finish(event.getTimestamp());
+                ResultSpool activeSpool = spool;
+                if (activeSpool != null) {
+                    activeSpool.append(target);
+                }
+                break;
+            default:
+                break;
         }
     }
     
@@ -203,14 +467,9 @@ public class ExtentReportManager {
      * @param description Screenshot description
      */
     public static void addScreenshot(String screenshotPath, String description) {
-        if (test.get() != null && screenshotPath != null) {
-            try {
-                test.get().addScreenCaptureFromPath(screenshotPath, description);
-                logInfo("Screenshot attached: " + description);
-            } catch (Exception e) {
-                logger.error("Failed to attach screenshot to report", e);
-                logWarning("Failed to attach screenshot: " + e.getMessage());
-            }
+        if (hasCurrentTest() && screenshotPath != null) {
+            dispatchToCurrent(target -> ReportEvent.media(target, screenshotPath, description));
+            logInfo("Screenshot attached: " + description);
         }
     }
     
@@ -221,7 +480,7 @@ public class ExtentReportManager {
      * @param failureMessage Failure message
      */
     public static void addFailureScreenshot(String screenshotPath, String failureMessage) {
-        if (test.get() != null) {
+        if (hasCurrentTest()) {
             logFail(failureMessage);
             if (screenshotPath != null) {
                 addScreenshot(screenshotPath, "Failure Screenshot - " + failureMessage);
@@ -258,9 +517,7 @@ public class ExtentReportManager {
      * @param message Success message
      */
     public static void markTestPassed(String message) {
-        if (test.get() != null) {
-            test.get().pass(message);
-        }
+        log(Status.PASS, message);
     }
     
     /**
@@ -270,11 +527,9 @@ public class ExtentReportManager {
      * @param throwable Exception that caused the failure
      */
     public static void markTestFailed(String message, Throwable throwable) {
-        if (test.get() != null) {
-            test.get().fail(message);
-            if (throwable != null) {
-                test.get().fail(throwable);
-            }
+        dispatchToCurrent(target -> ReportEvent.log(target, Status.FAIL, message));
+        if (throwable != null) {
+            dispatchToCurrent(target -> ReportEvent.failure(target, throwable));
         }
     }
     
@@ -284,9 +539,7 @@ public class ExtentReportManager {
      * @param message Skip message
      */
     public static void markTestSkipped(String message) {
-        if (test.get() != null) {
-            test.get().skip(message);
-        }
+        log(Status.SKIP, message);
     }
     
     /**
@@ -295,9 +548,7 @@ public class ExtentReportManager {
      * @param authorName Author name
      */
     public static void addAuthor(String authorName) {
-        if (test.get() != null) {
-            test.get().assignAuthor(authorName);
-        }
+        assign(ReportEvent.Type.AUTHOR, authorName);
     }
     
     /**
@@ -306,9 +557,7 @@ public class ExtentReportManager {
      * @param deviceName Device name
      */
     public static void addDevice(String deviceName) {
-        if (test.get() != null) {
-            test.get().assignDevice(deviceName);
-        }
+        assign(ReportEvent.Type.DEVICE, deviceName);
     }
     
     /**
@@ -317,9 +566,11 @@ public class ExtentReportManager {
      * @param category Category name
      */
     public static void addCategory(String category) {
-        if (test.get() != null) {
-            test.get().assignCategory(category);
-        }
+        assign(ReportEvent.Type.CATEGORY, category);
+    }
+    
+    private static void assign(ReportEvent.Type type, String value) {
+        dispatchToCurrent(target -> ReportEvent.assign(type, target, value));
     }
     
     /**
@@ -327,7 +578,7 @@ public class ExtentReportManager {
      * 
      * @param childTestName Child test name
      * @param description Child test description
-     * @return Child ExtentTest instance
+     * @return Child ExtentTest instance, or null in streaming mode
      */
     public static ExtentTest createChildTest(String childTestName, String description) {
         if (test.get() != null) {
@@ -341,25 +592,71 @@ public class ExtentReportManager {
      * Flush and finalize the report
      */
     public static synchronized void flushReports() {
+        ReportEventQueue queue = eventQueue;
+        if (queue != null && !queue.flush(config.getReportAsyncFlushTimeoutSeconds() * 1000L)) {
+            logger.warn("Report events still pending after {} s, flushing what has been applied",
+                config.getReportAsyncFlushTimeoutSeconds());
+        }
         if (extent != null) {
-            extent.flush();
+            try (ReportFlushEvent event = ReportFlushEvent.start("extent", currentReportPath)) {
+                extent.flush();
+            }
             logger.info("Extent Reports flushed successfully");
         }
+        if (spool != null) {
+            spool.close();
+            if (extent == null) {
+                try (ReportFlushEvent event = ReportFlushEvent.start("streaming", currentReportPath)) {
+                    if ("lazy".equalsIgnoreCase(config.getReportStreamingFormat())) {
+                        LazyReportWriter.write(spool.getPath(), Paths.get(currentReportPath), config.getExtentReportName(),
+                            new LinkedHashMap<>(systemInfo));
+                    } else {
+                        StaticReportWriter.write(spool.getPath(), Paths.get(currentReportPath), config.getExtentReportName(),
+                            new LinkedHashMap<>(systemInfo));
+                    }
+                }
+                logger.info("Streaming report rendered from {} tests", spool.getAppendedCount());
+            }
+            if (config.isReportShardEnabled()) {
+                ReportShards.export(spool.getPath());
+            }
+            spool = null;
+        }
+        if (eventLog != null) {
+            eventLog.close();
+            if (config.isReportEventLogDeferred()) {
+                logger.info("{} tests logged to {}; render the report with ReportRegenerator", eventLog.getTestCount(),
+                    eventLog.getPath());
+            }
+            eventLog = null;
+        }
     }
     
     /**
      * Clean up thread local test instance
+     * In streaming or shard mode the finished test is appended to the spool and released, and
+     * its end is written to the event log
      */
     public static void removeTest() {
+        TestRecord current = record.get();
+        if (current != null) {
+            record.remove();
+            dispatch(ReportEvent.finish(current));
+        }
+        EventLog.TestRef logged = loggedTest.get();
+        if (logged != null) {
+            loggedTest.remove();
+            dispatch(ReportEvent.finish(logged));
+        }
         test.remove();
     }
     
     /**
      * Get report file path for external access
      * 
-     * @return Current report file path
+     * @return Current report file path (a fresh timestamped path if reports are not initialized)
      */
     public static String getReportFilePath() {
-        return getReportPath();
+        return currentReportPath != null ? currentReportPath : getReportPath();
     }
 }
\ No newline at end of file
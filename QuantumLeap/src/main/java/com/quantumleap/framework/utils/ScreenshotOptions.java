@@ -0,0 +1,177 @@
+package com.quantumleap.framework.utils;
+
+import com.quantumleap.framework.config.ConfigManager;
+import org.openqa.selenium.Rectangle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Capture options for DevTools screenshots: image format, quality, clip region and scale
+ * Applied through Page.captureScreenshot on Chromium browsers; other browsers fall back to
+ * a full PNG from TakesScreenshot
+ * 
+ * @author QuantumLeap Team
+ */
+public class ScreenshotOptions {
+    
+    /**
+     * Image formats supported by Page.captureScreenshot
+     */
+    public enum Format {
+        PNG("png"),
+        JPEG("jpg"),
+        WEBP("webp");
+        
+        private final String extension;
+        
+        Format(String extension) {
+            this.extension = extension;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        /**
+         * Parse a configured format name or file extension, case-insensitively
+         * An unknown value falls back to PNG, with one warning per distinct value
+         * 
+         * @param value Value of screenshot.format
+         * @return Matching format, or PNG if the value is not recognised
+         */
+        public static Format parse(String value) {
+            String normalized = value != null ? value.trim().toUpperCase(Locale.ROOT) : "";
+            for (Format format : values()) {
+                if (format.name().equals(normalized) || format.extension.equalsIgnoreCase(normalized)) {
+                    return format;
+                }
+            }
+            if (rejectedFormats.add(normalized)) {
+                logger.warn("Unsupported screenshot.format '{}', using png (supported: png, jpeg, webp)", value);
+            }
+            return PNG;
+        }
+    }
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotOptions.class);
+    private static final Set<String> rejectedFormats = ConcurrentHashMap.newKeySet();
+    
+    private Format format = Format.PNG;
+    private int quality = 80;
+    private Rectangle clip;
+    private double scale = 1.0;
+    
+    /**
+     * Options from config.properties (screenshot.format, screenshot.quality, screenshot.scale)
+     * 
+     * @return Configured options for full-page captures
+     */
+    public static ScreenshotOptions fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        return new ScreenshotOptions()
+            .withFormat(Format.parse(config.getScreenshotFormat()))
+            .withQuality(config.getScreenshotQuality())
+            .withScale(config.getScreenshotScale());
+    }
+    
+    /**
+     * Downscaled JPEG options for report thumbnails (screenshot.thumbnail.scale)
+     * 
+     * @return Thumbnail options
+     */
+    public static ScreenshotOptions thumbnail() {
+        ConfigManager config = ConfigManager.getInstance();
+        return new ScreenshotOptions()
+            .withFormat(Format.JPEG)
+            .withQuality(config.getScreenshotQuality())
+            .withScale(config.getScreenshotThumbnailScale());
+    }
+    
+    public ScreenshotOptions withFormat(Format format) {
+        this.format = format;
+        return this;
+    }
+    
+    /**
+     * Set the compression quality, ignored for PNG
+     * 
+     * @param quality Quality from 0 to 100
+     * @return This options instance
+     */
+    public ScreenshotOptions withQuality(int quality) {
+        this.quality = Math.max(0, Math.min(100, quality));
+        return this;
+    }
+    
+    /**
+     * Restrict the capture to a region of the page
+     * 
+     * @param clip Region in CSS pixels relative to the document, e.g. WebElement.getRect()
+     * @return This options instance
+     */
+    public ScreenshotOptions withClip(Rectangle clip) {
+        this.clip = clip;
+        return this;
+    }
+    
+    /**
+     * Set the device scale factor of the image, below 1.0 for thumbnails
+     * 
+     * @param scale Scale factor
+     * @return This options instance
+     */
+    public ScreenshotOptions withScale(double scale) {
+        this.scale = scale;
+        return this;
+    }
+    
+    public Format getFormat() {
+        return format;
+    }
+    
+    public Rectangle getClip() {
+        return clip;
+    }
+    
+    /**
+     * Scaling without a clip region needs the viewport position to build the clip
+     * 
+     * @return true if toCdpParameters requires the current viewport
+     */
+    boolean needsViewport() {
+        return clip == null && scale != 1.0;
+    }
+    
+    /**
+     * Build the Page.captureScreenshot parameters
+     * The viewport is used as clip region when only a scale is requested
+     * 
+     * @param viewport Current viewport size in CSS pixels, used when no clip is set
+     * @return DevTools command parameters
+     */
+    Map<String, Object> toCdpParameters(Rectangle viewport) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("format", format.name().toLowerCase());
+        if (format != Format.PNG) {
+            params.put("quality", quality);
+        }
+        Rectangle region = clip != null ? clip : (scale != 1.0 ? viewport : null);
+        if (region != null) {
+            Map<String, Object> clipParams = new HashMap<>();
+            clipParams.put("x", region.getX());
+            clipParams.put("y", region.getY());
+            clipParams.put("width", region.getWidth());
+            clipParams.put("height", region.getHeight());
+            clipParams.put("scale", scale);
+            params.put("clip", clipParams);
+            params.put("captureBeyondViewport", clip != null);
+        }
+        return params;
+    }
+}
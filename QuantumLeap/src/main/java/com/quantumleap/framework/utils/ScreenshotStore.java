@@ -0,0 +1,215 @@
+package com.quantumleap.framework.utils;
+
+import com.quantumleap.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content-addressed screenshot store
+ * Images are stored once under objects/ab/<sha-256>.<ext>; identical page states captured
+ * again only add an index entry and, when enabled, a hardlink with the human-readable name.
+ * Reports refer to the stored objects
+ * 
+ * @author QuantumLeap Team
+ */
+public class ScreenshotStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotStore.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    public static final String OBJECTS_DIR = "objects";
+    public static final String INDEX_FILE = "index.csv";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    
+    // Objects confirmed on disk; an object is added only once its atomic move has succeeded
+    private static final Set<Path> knownObjects = ConcurrentHashMap.newKeySet();
+    private static final Object indexLock = new Object();
+    
+    /**
+     * Store a screenshot by content hash
+     * Hashing runs on the calling thread over the base64 text, which is a canonical encoding
+     * of the image; decoding and all disk I/O happen on the ScreenshotWriter thread
+     * 
+     * @param name Human-readable path, e.g. screenshots/testLogin_2025-01-01_10-00-00.jpg
+     * @param base64Image Encoded image
+     * @param extension File extension of the image format
+     * @return Path of the stored object
+     */
+    public static Path store(Path name, String base64Image, String extension) {
+        Path namedPath = name.toAbsolutePath();
+        String hash = sha256(base64Image);
+        Path objectPath = namedPath.resolveSibling(OBJECTS_DIR)
+            .resolve(hash.substring(0, 2))
+            .resolve(hash + "." + extension);
+        
+        ScreenshotWriter.submit(() -> {
+            if (!markReused(objectPath) && !writeObject(base64Image, objectPath)) {
+                return; // Neither link nor index an object that is not on disk
+            }
+            if (config.isScreenshotHardlinksEnabled()) {
+                link(namedPath, objectPath);
+            }
+            appendIndex(namedPath, objectPath, hash);
+        });
+        return objectPath;
+    }
+    
+    /**
+     * Write a new object through a temp file so readers never see a partial image
+     * The temp name is unique per thread, since a full writer queue makes callers write
+     * the same object concurrently
+     * 
+     * @param base64Image Encoded image
+     * @param objectPath Object path
+     * @return True if the object is on disk
+     */
+    private static boolean writeObject(String base64Image, Path objectPath) {
+        Path tempPath = objectPath.resolveSibling(objectPath.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+        try {
+            Files.createDirectories(objectPath.getParent());
+            if (!ScreenshotWriter.write(base64Image, tempPath)) {
+                Files.deleteIfExists(tempPath);
+                return false;
+            }
+            Files.move(tempPath, objectPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            knownObjects.add(objectPath);
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to store screenshot object: {}", objectPath, e);
+            return false;
+        }
+    }
+    
+    /**
+     * Refresh the modification time of a deduplicated object so retention keeps it
+     * An object that was stored earlier but is gone, e.g. evicted by retention or lost in a
+     * failed write, is reported as missing so the caller writes it again
+     * 
+     * @param objectPath Object path
+     * @return True if the object exists and can be reused
+     */
+    private static boolean markReused(Path objectPath) {
+        if (!knownObjects.contains(objectPath) && !Files.exists(objectPath)) {
+            return false;
+        }
+        try {
+            Files.setLastModifiedTime(objectPath, FileTime.fromMillis(System.currentTimeMillis()));
+            knownObjects.add(objectPath);
+            logger.debug("Screenshot deduplicated: {}", objectPath);
+            return true;
+        } catch (IOException e) {
+            knownObjects.remove(objectPath);
+            logger.debug("Screenshot object {} is missing, writing it again: {}", objectPath, e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Create a hardlink with the human-readable name, the index entry remains the fallback
+     * 
+     * @param namedPath Human-readable path
+     * @param objectPath Object path
+     */
+    private static void link(Path namedPath, Path objectPath) {
+        try {
+            Files.deleteIfExists(namedPath);
+            Files.createLink(namedPath, objectPath);
+        } catch (FileAlreadyExistsException e) {
+            logger.debug("Screenshot name already linked: {}", namedPath);
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.debug("Could not hardlink {} to {}: {}", namedPath, objectPath, e.getMessage());
+        }
+    }
+    
+    /**
+     * Append a name to object mapping to the store index
+     * 
+     * @param namedPath Human-readable path
+     * @param objectPath Object path
+     * @param hash Content hash
+     */
+    private static void appendIndex(Path namedPath, Path objectPath, String hash) {
+        Path indexPath = namedPath.resolveSibling(INDEX_FILE);
+        String entry = String.join(",", String.valueOf(System.currentTimeMillis()),
+            namedPath.getFileName().toString(), hash, namedPath.getParent().relativize(objectPath).toString());
+        synchronized (indexLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(indexPath, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(entry);
+                writer.newLine();
+            } catch (IOException e) {
+                logger.warn("Failed to update screenshot index: {}", indexPath, e);
+            }
+        }
+    }
+    
+    /**
+     * Drop index entries whose objects no longer exist, e.g. after retention evicted them
+     * The index is rewritten through a temp file under the same lock as appends
+     * 
+     * @param indexPath Store index
+     * @return Number of entries removed
+     */
+    public static int pruneIndex(Path indexPath) {
+        synchronized (indexLock) {
+            List<String> entries;
+            try {
+                entries = Files.readAllLines(indexPath, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                logger.debug("Could not read screenshot index {}: {}", indexPath, e.getMessage());
+                return 0;
+            }
+            Path directory = indexPath.getParent();
+            List<String> kept = new ArrayList<>(entries.size());
+            for (String entry : entries) {
+                // The object path is the last column; names may contain commas
+                String objectPath = entry.substring(entry.lastIndexOf(',') + 1);
+                if (objectPath.isEmpty() || Files.exists(directory.resolve(objectPath))) {
+                    kept.add(entry);
+                }
+            }
+            int removed = entries.size() - kept.size();
+            if (removed == 0) {
+                return 0;
+            }
+            Path tempPath = indexPath.resolveSibling(INDEX_FILE + ".tmp");
+            try {
+                Files.write(tempPath, kept, StandardCharsets.UTF_8);
+                Files.move(tempPath, indexPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return removed;
+            } catch (IOException e) {
+                logger.warn("Failed to prune screenshot index: {}", indexPath, e);
+                return 0;
+            }
+        }
+    }
+    
+    private static String sha256(String base64Image) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(base64Image.getBytes(StandardCharsets.US_ASCII));
+            char[] hex = new char[digest.length * 2];
+            for (int i = 0; i < digest.length; i++) {
+                hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+            }
+            return new String(hex);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,16 +1,23 @@
 package com.quantumleap.framework.utils;
 
 import com.quantumleap.framework.base.WebDriverFactory;
+import com.quantumleap.framework.jfr.ScreenshotEvent;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.chromium.HasCdp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Utility class for handling screenshot operations
@@ -22,7 +29,7 @@ public class ScreenshotUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(ScreenshotUtils.class);
     private static final String SCREENSHOT_DIR = "screenshots";
-    private static final String DATE_FORMAT = "yyyy-MM-dd_HH-mm-ss";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
     
     static {
         // Create screenshots directory if it doesn't exist
@@ -56,38 +63,137 @@ public class ScreenshotUtils {
     
     /**
      * Capture screenshot with specific WebDriver instance
+     * Only the capture runs on the calling thread; the file is written by ScreenshotWriter
+     * and is guaranteed to exist after ScreenshotWriter.awaitPendingWrites()
      * 
      * @param testName Name of the test for screenshot filename
      * @param driver WebDriver instance to capture screenshot from
-     * @return Path to the saved screenshot file
+     * @return Path the screenshot is written to
      */
     public static String captureScreenshot(String testName, WebDriver driver) {
-        try {
+        return captureScreenshot(testName, driver, ScreenshotOptions.fromConfig());
+    }
+    
+    /**
+     * Capture screenshot with explicit format, quality, clip region and scale
+     * Uses DevTools Page.captureScreenshot on Chromium browsers and falls back to a full
+     * PNG from TakesScreenshot elsewhere
+     * 
+     * @param testName Name of the test for screenshot filename
+     * @param driver WebDriver instance to capture screenshot from
+     * @param options Capture options
+     * @return Path the screenshot is written to
+     */
+    public static String captureScreenshot(String testName, WebDriver driver, ScreenshotOptions options) {
+        try (ScreenshotEvent event = ScreenshotEvent.start()) {
             if (driver == null) {
                 logger.warn("WebDriver is null, cannot capture screenshot");
                 return null;
             }
             
-            TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-            File sourceFile = takesScreenshot.getScreenshotAs(OutputType.FILE);
-            
-            String timestamp = new SimpleDateFormat(DATE_FORMAT).format(new Date());
-            String fileName = String.format("%s_%s.png", testName, timestamp);
-            File destFile = new File(SCREENSHOT_DIR, fileName);
-            
-            java.nio.file.Files.copy(sourceFile.toPath(), destFile.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-            
-            String screenshotPath = destFile.getAbsolutePath();
-            logger.info("Screenshot captured: {}", screenshotPath);
+            String base64Image = captureWithCdp(driver, options);
+            if (base64Image != null) {
+                return persist(testName, base64Image, options.getFormat(), event);
+            }
             
-            return screenshotPath;
+            // Keep the wire format; decoding and the disk write happen on the writer thread
+            TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
+            return persist(testName, takesScreenshot.getScreenshotAs(OutputType.BASE64), ScreenshotOptions.Format.PNG, event);
             
-        } catch (IOException e) {
+        } catch (RuntimeException e) {
             logger.error("Failed to capture screenshot for test: {}", testName, e);
             return null;
         }
     }
     
+    /**
+     * Capture a single element, e.g. the checkout summary container
+     * 
+     * @param name Name for the screenshot file
+     * @param driver WebDriver instance
+     * @param element Element to capture
+     * @return Path the screenshot is written to
+     */
+    public static String captureElementScreenshot(String name, WebDriver driver, WebElement element) {
+        if (driver instanceof HasCdp) {
+            return captureScreenshot(name, driver, ScreenshotOptions.fromConfig().withClip(element.getRect()));
+        }
+        try (ScreenshotEvent event = ScreenshotEvent.start()) {
+            return persist(name, element.getScreenshotAs(OutputType.BASE64), ScreenshotOptions.Format.PNG, event);
+        } catch (RuntimeException e) {
+            logger.error("Failed to capture element screenshot: {}", name, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Capture a downscaled JPEG of the viewport for report thumbnails
+     * 
+     * @param name Name for the screenshot file
+     * @param driver WebDriver instance
+     * @return Path the thumbnail is written to
+     */
+    public static String captureThumbnail(String name, WebDriver driver) {
+        return captureScreenshot(name + "_thumb", driver, ScreenshotOptions.thumbnail());
+    }
+    
+    /**
+     * Capture through DevTools Page.captureScreenshot without persisting the image
+     * 
+     * @param driver WebDriver instance
+     * @param options Capture options
+     * @return Base64 image, or null if DevTools is unavailable or the command failed
+     */
+    @SuppressWarnings("unchecked")
+    public static String captureWithCdp(WebDriver driver, ScreenshotOptions options) {
+        if (!(driver instanceof HasCdp)) {
+            return null;
+        }
+        try {
+            Rectangle viewport = options.needsViewport() ? getViewport(driver) : null;
+            Map<String, Object> result = ((HasCdp) driver).executeCdpCommand("Page.captureScreenshot", options.toCdpParameters(viewport));
+            return (String) result.get("data");
+        } catch (WebDriverException e) {
+            logger.warn("DevTools screenshot failed: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Get the visible part of the document in CSS pixels
+     * 
+     * @param driver WebDriver instance
+     * @return Viewport rectangle relative to the document
+     */
+    @SuppressWarnings("unchecked")
+    private static Rectangle getViewport(WebDriver driver) {
+        List<Number> viewport = (List<Number>) ((JavascriptExecutor) driver).executeScript(
+            "return [window.scrollX, window.scrollY, window.innerWidth, window.innerHeight];");
+        return new Rectangle(viewport.get(0).intValue(), viewport.get(1).intValue(),
+            viewport.get(3).intValue(), viewport.get(2).intValue());
+    }
+    
+    /**
+     * Name the screenshot and hand it to the content-addressed store
+     * 
+     * @param name Name for the screenshot file
+     * @param base64Image Encoded image
+     * @param format Image format, determines the file extension
+     * @param event JFR event recording the capture
+     * @return Path of the stored object the screenshot is written to
+     */
+    private static String persist(String name, String base64Image, ScreenshotOptions.Format format, ScreenshotEvent event) {
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        String fileName = String.format("%s_%s.%s", name, timestamp, format.getExtension());
+        File destFile = new File(SCREENSHOT_DIR, fileName);
+        
+        String screenshotPath = ScreenshotStore.store(destFile.toPath(), base64Image, format.getExtension()).toString();
+        event.setPath(screenshotPath);
+        event.setSize(base64Image.length() * 3L / 4);
+        logger.info("Screenshot captured: {}", screenshotPath);
+        return screenshotPath;
+    }
+    
     /**
      * Capture screenshot as base64 string for embedding in reports
      * 
@@ -132,41 +238,6 @@ public class ScreenshotUtils {
         }
     }
     
-    /**
-     * Clean up old screenshots (older than specified days)
-     * 
-     * @param daysToKeep Number of days to keep screenshots
-     */
-    public static void cleanupOldScreenshots(int daysToKeep) {
-        try {
-            File screenshotDir = new File(SCREENSHOT_DIR);
-            if (!screenshotDir.exists()) {
-                return;
-            }
-            
-            long cutoffTime = System.currentTimeMillis() - (daysToKeep * 24L * 60L * 60L * 1000L);
-            File[] files = screenshotDir.listFiles();
-            
-            if (files != null) {
-                int deletedCount = 0;
-                for (File file : files) {
-                    if (file.isFile() && file.lastModified() < cutoffTime) {
-                        if (file.delete()) {
-                            deletedCount++;
-                        }
-                    }
-                }
-                
-                if (deletedCount > 0) {
-                    logger.info("Cleaned up {} old screenshots", deletedCount);
-                }
-            }
-            
-        } catch (Exception e) {
-            logger.error("Failed to cleanup old screenshots", e);
-        }
-    }
-    
     /**
      * Capture screenshot on test failure
      * 
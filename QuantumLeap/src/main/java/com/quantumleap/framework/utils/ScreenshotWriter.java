@@ -0,0 +1,120 @@
+package com.quantumleap.framework.utils;
+
+import com.quantumleap.framework.config.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer that persists screenshots off the test thread
+ * Test threads hand over the base64 payload received from the driver; decoding and the
+ * FileChannel write happen on a single writer thread. The queue is bounded: when it is full
+ * the capturing thread writes the screenshot itself, which keeps memory flat under load
+ * 
+ * @author QuantumLeap Team
+ */
+public class ScreenshotWriter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ScreenshotWriter.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    
+    private static final Object pendingLock = new Object();
+    private static final ThreadPoolExecutor executor = createExecutor();
+    private static long pendingWrites;
+    
+    /**
+     * Queue a persistence task on the writer thread, counted by the flush barrier
+     * 
+     * @param task Task performing the disk I/O
+     */
+    static void submit(Runnable task) {
+        synchronized (pendingLock) {
+            pendingWrites++;
+        }
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                synchronized (pendingLock) {
+                    pendingWrites--;
+                    pendingLock.notifyAll();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Flush barrier: wait until every queued screenshot is on disk
+     * Called at suite end before the reports that reference the files are flushed
+     * 
+     * @return true if all writes completed within the configured timeout
+     */
+    public static boolean awaitPendingWrites() {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(config.getScreenshotWriterFlushTimeoutSeconds());
+        synchronized (pendingLock) {
+            while (pendingWrites > 0) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    logger.warn("{} screenshot(s) still pending after flush timeout", pendingWrites);
+                    return false;
+                }
+                try {
+                    pendingLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Decode the image and write it through a FileChannel, replacing any existing file
+     * 
+     * @param base64Image Image as returned by OutputType.BASE64 or Page.captureScreenshot
+     * @param destination Target file
+     * @return True if the whole image was written
+     */
+    static boolean write(String base64Image, Path destination) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getMimeDecoder().decode(base64Image);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid screenshot payload for: {}", destination, e);
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(destination, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            logger.debug("Screenshot written: {} ({} bytes)", destination, bytes.length);
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to write screenshot: {}", destination, e);
+            return false;
+        }
+    }
+    
+    private static ThreadPoolExecutor createExecutor() {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(config.getScreenshotWriterQueueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "screenshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
@@ -0,0 +1,95 @@
+package com.quantumleap.framework.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-local holder for the test currently executing on a thread
+ * Lets framework components tag their output with the owning test
+ * 
+ * @author QuantumLeap Team
+ */
+public class TestContext {
+    
+    private static final ThreadLocal<String> currentTestName = new ThreadLocal<>();
+    private static final ThreadLocal<String> currentTestKey = new ThreadLocal<>();
+    private static final Map<Long, String> testNamesByThread = new ConcurrentHashMap<>();
+    private static final Map<Long, String> testKeysByThread = new ConcurrentHashMap<>();
+    private static final AtomicLong invocations = new AtomicLong();
+    
+    private TestContext() {
+    }
+    
+    /**
+     * Set the name of the test running on the current thread
+     * Setting the same name again before clear(), e.g. from the @BeforeMethod and then the
+     * listener, keeps the invocation key; any other name starts a new invocation
+     * 
+     * @param testName Test name
+     */
+    public static void setCurrentTestName(String testName) {
+        long threadId = Thread.currentThread().getId();
+        if (testName == null) {
+            clear();
+            return;
+        }
+        if (!testName.equals(currentTestName.get()) || currentTestKey.get() == null) {
+            String testKey = testName + "#" + invocations.incrementAndGet();
+            currentTestKey.set(testKey);
+            testKeysByThread.put(threadId, testKey);
+        }
+        currentTestName.set(testName);
+        testNamesByThread.put(threadId, testName);
+    }
+    
+    /**
+     * Get the name of the test running on the current thread
+     * 
+     * @return Test name or null when no test is running
+     */
+    public static String getCurrentTestName() {
+        return currentTestName.get();
+    }
+    
+    /**
+     * Get the key of the test invocation running on the current thread
+     * Unlike the name, the key differs for every data provider row and retry of a method
+     * 
+     * @return Invocation key or null when no test is running
+     */
+    public static String getCurrentTestKey() {
+        return currentTestKey.get();
+    }
+    
+    /**
+     * Get the name of the test running on another thread
+     * Used by background samplers that attribute data to the owning test
+     * 
+     * @param threadId Id of the test thread
+     * @return Test name or null when no test is running on that thread
+     */
+    public static String getTestNameForThread(long threadId) {
+        return testNamesByThread.get(threadId);
+    }
+    
+    /**
+     * Get the key of the test invocation running on another thread
+     * 
+     * @param threadId Id of the test thread
+     * @return Invocation key or null when no test is running on that thread
+     */
+    public static String getTestKeyForThread(long threadId) {
+        return testKeysByThread.get(threadId);
+    }
+    
+    /**
+     * Clear the test context of the current thread
+     */
+    public static void clear() {
+        currentTestName.remove();
+        currentTestKey.remove();
+        testNamesByThread.remove(Thread.currentThread().getId());
+        testKeysByThread.remove(Thread.currentThread().getId());
+    }
+}
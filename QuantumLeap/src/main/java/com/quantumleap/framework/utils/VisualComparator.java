@@ -0,0 +1,202 @@
+package com.quantumleap.framework.utils;
+
+import org.openqa.selenium.Rectangle;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Tile-hash image comparison for visual regression checks
+ * Images are decoded into primitive int arrays and split into fixed-size tiles; a 64-bit
+ * hash per tile skips unchanged regions, and only tiles whose hashes differ are compared
+ * pixel by pixel, in parallel on the common fork-join pool
+ * 
+ * @author QuantumLeap Team
+ */
+public class VisualComparator {
+    
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    /**
+     * Decode an image and hash its tiles
+     * 
+     * @param image Decoded screenshot
+     * @param tileSize Tile edge length in pixels
+     * @return Tiled image
+     */
+    public static TiledImage tile(BufferedImage image, int tileSize) {
+        return new TiledImage(image, tileSize);
+    }
+    
+    /**
+     * Compare a screenshot with its baseline
+     * 
+     * @param baseline Tiled baseline image
+     * @param actual Tiled screenshot, hashed with the same tile size
+     * @param options Colour tolerance and allowed difference
+     * @param masks Masks in screenshot pixels, including resolved element masks
+     * @return Comparison result
+     */
+    public static VisualDiff compare(TiledImage baseline, TiledImage actual, VisualCompareOptions options, List<Rectangle> masks) {
+        long start = System.nanoTime();
+        if (baseline.width != actual.width || baseline.height != actual.height || baseline.tileSize != actual.tileSize) {
+            return VisualDiff.sizeMismatch(baseline.width, baseline.height, actual.width, actual.height,
+                (System.nanoTime() - start) / 1_000_000);
+        }
+        int[][] maskBounds = masks.stream()
+            .map(mask -> new int[]{mask.getX(), mask.getY(), mask.getX() + mask.getWidth(), mask.getY() + mask.getHeight()})
+            .toArray(int[][]::new);
+        
+        int[] changedTiles = IntStream.range(0, baseline.hashes.length)
+            .filter(tile -> baseline.hashes[tile] != actual.hashes[tile] && !isFullyMasked(actual, tile, maskBounds))
+            .toArray();
+        int[] differingPixels = new int[changedTiles.length];
+        IntStream.range(0, changedTiles.length).parallel()
+            .forEach(i -> differingPixels[i] = diffTile(baseline, actual, changedTiles[i], maskBounds, options.getColorTolerance()));
+        
+        long diffPixels = 0;
+        List<Rectangle> differingTiles = new ArrayList<>();
+        for (int i = 0; i < changedTiles.length; i++) {
+            if (differingPixels[i] > 0) {
+                diffPixels += differingPixels[i];
+                differingTiles.add(actual.tileBounds(changedTiles[i]));
+            }
+        }
+        double diffRatio = (double) diffPixels / ((long) actual.width * actual.height);
+        return new VisualDiff(actual.width, actual.height, baseline.hashes.length, changedTiles.length, differingTiles,
+            diffPixels, diffRatio, diffRatio <= options.getMaxDiffRatio(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    private static boolean isFullyMasked(TiledImage image, int tile, int[][] maskBounds) {
+        Rectangle bounds = image.tileBounds(tile);
+        for (int[] mask : maskBounds) {
+            if (mask[0] <= bounds.getX() && mask[1] <= bounds.getY()
+                    && mask[2] >= bounds.getX() + bounds.getWidth() && mask[3] >= bounds.getY() + bounds.getHeight()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean isMasked(int x, int y, int[][] maskBounds) {
+        for (int[] mask : maskBounds) {
+            if (x >= mask[0] && y >= mask[1] && x < mask[2] && y < mask[3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Count the pixels of a tile whose colour differs by more than the tolerance in any channel
+     */
+    private static int diffTile(TiledImage baseline, TiledImage actual, int tile, int[][] maskBounds, int tolerance) {
+        Rectangle bounds = actual.tileBounds(tile);
+        int count = 0;
+        for (int y = bounds.getY(); y < bounds.getY() + bounds.getHeight(); y++) {
+            int row = y * actual.width;
+            for (int x = bounds.getX(); x < bounds.getX() + bounds.getWidth(); x++) {
+                int expected = baseline.pixels[row + x];
+                int found = actual.pixels[row + x];
+                if (expected == found || isMasked(x, y, maskBounds)) {
+                    continue;
+                }
+                if (Math.abs(((expected >> 16) & 0xFF) - ((found >> 16) & 0xFF)) > tolerance
+                        || Math.abs(((expected >> 8) & 0xFF) - ((found >> 8) & 0xFF)) > tolerance
+                        || Math.abs((expected & 0xFF) - (found & 0xFF)) > tolerance) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Screenshot decoded into RGB ints with one hash per tile
+     */
+    public static class TiledImage {
+        private final int[] pixels;
+        private final int width;
+        private final int height;
+        private final int tileSize;
+        private final int columns;
+        private final long[] hashes;
+        
+        TiledImage(BufferedImage image, int tileSize) {
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            this.tileSize = tileSize;
+            this.pixels = toRgb(image);
+            this.columns = (width + tileSize - 1) / tileSize;
+            int rows = (height + tileSize - 1) / tileSize;
+            this.hashes = new long[columns * rows];
+            IntStream.range(0, hashes.length).parallel().forEach(tile -> hashes[tile] = hashTile(tile));
+        }
+        
+        /**
+         * Read the pixels straight from the raster for the layouts ImageIO produces for
+         * PNG screenshots, falling back to getRGB for anything else
+         */
+        private static int[] toRgb(BufferedImage image) {
+            int width = image.getWidth();
+            int height = image.getHeight();
+            switch (image.getType()) {
+                case BufferedImage.TYPE_INT_RGB:
+                case BufferedImage.TYPE_INT_ARGB:
+                    int[] ints = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+                    int[] rgb = new int[width * height];
+                    for (int i = 0; i < rgb.length; i++) {
+                        rgb[i] = ints[i] & 0xFFFFFF;
+                    }
+                    return rgb;
+                case BufferedImage.TYPE_3BYTE_BGR:
+                case BufferedImage.TYPE_4BYTE_ABGR:
+                    byte[] bytes = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+                    int stride = image.getType() == BufferedImage.TYPE_3BYTE_BGR ? 3 : 4;
+                    int offset = stride - 3;
+                    int[] pixels = new int[width * height];
+                    for (int i = 0, b = offset; i < pixels.length; i++, b += stride) {
+                        pixels[i] = (bytes[b] & 0xFF) | (bytes[b + 1] & 0xFF) << 8 | (bytes[b + 2] & 0xFF) << 16;
+                    }
+                    return pixels;
+                default:
+                    int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+                    for (int i = 0; i < argb.length; i++) {
+                        argb[i] &= 0xFFFFFF;
+                    }
+                    return argb;
+            }
+        }
+        
+        private long hashTile(int tile) {
+            Rectangle bounds = tileBounds(tile);
+            long hash = FNV_OFFSET;
+            for (int y = bounds.getY(); y < bounds.getY() + bounds.getHeight(); y++) {
+                int row = y * width;
+                for (int x = bounds.getX(); x < bounds.getX() + bounds.getWidth(); x++) {
+                    hash = (hash ^ pixels[row + x]) * FNV_PRIME;
+                }
+            }
+            return hash;
+        }
+        
+        Rectangle tileBounds(int tile) {
+            int x = (tile % columns) * tileSize;
+            int y = (tile / columns) * tileSize;
+            return new Rectangle(x, y, Math.min(tileSize, height - y), Math.min(tileSize, width - x));
+        }
+        
+        public int getWidth() {
+            return width;
+        }
+        
+        public int getHeight() {
+            return height;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.quantumleap.framework.utils;
+
+import com.quantumleap.framework.config.ConfigManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Rectangle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Comparison settings for visual regression checks: ignore masks, per-channel colour
+ * tolerance, allowed share of differing pixels and tile size
+ * 
+ * @author QuantumLeap Team
+ */
+public class VisualCompareOptions {
+    
+    private final List<Rectangle> masks = new ArrayList<>();
+    private final List<By> maskedElements = new ArrayList<>();
+    private int colorTolerance = 16;
+    private double maxDiffRatio = 0.001;
+    private int tileSize = 32;
+    
+    /**
+     * Options from config.properties (visual.color.tolerance, visual.max.diff.ratio, visual.tile.size)
+     * 
+     * @return Configured options without masks
+     */
+    public static VisualCompareOptions fromConfig() {
+        ConfigManager config = ConfigManager.getInstance();
+        return new VisualCompareOptions()
+            .withColorTolerance(config.getVisualColorTolerance())
+            .withMaxDiffRatio(config.getVisualMaxDiffRatio())
+            .withTileSize(config.getVisualTileSize());
+    }
+    
+    /**
+     * Ignore a region of the screenshot
+     * 
+     * @param mask Region in screenshot pixels
+     * @return This options instance
+     */
+    public VisualCompareOptions withMask(Rectangle mask) {
+        masks.add(mask);
+        return this;
+    }
+    
+    /**
+     * Ignore the elements matching a locator, e.g. timestamps or rotating banners
+     * The elements are located when the screenshot is taken
+     * 
+     * @param locator Element locator
+     * @return This options instance
+     */
+    public VisualCompareOptions withMask(By locator) {
+        maskedElements.add(locator);
+        return this;
+    }
+    
+    /**
+     * Set the largest per-channel difference that still counts as the same colour
+     * Absorbs anti-aliasing and font rendering noise
+     * 
+     * @param colorTolerance Tolerance from 0 to 255
+     * @return This options instance
+     */
+    public VisualCompareOptions withColorTolerance(int colorTolerance) {
+        this.colorTolerance = Math.max(0, Math.min(255, colorTolerance));
+        return this;
+    }
+    
+    /**
+     * Set the share of differing pixels above which the comparison fails
+     * 
+     * @param maxDiffRatio Ratio from 0.0 to 1.0
+     * @return This options instance
+     */
+    public VisualCompareOptions withMaxDiffRatio(double maxDiffRatio) {
+        this.maxDiffRatio = Math.max(0.0, Math.min(1.0, maxDiffRatio));
+        return this;
+    }
+    
+    public VisualCompareOptions withTileSize(int tileSize) {
+        this.tileSize = Math.max(8, tileSize);
+        return this;
+    }
+    
+    public List<Rectangle> getMasks() {
+        return Collections.unmodifiableList(masks);
+    }
+    
+    public List<By> getMaskedElements() {
+        return Collections.unmodifiableList(maskedElements);
+    }
+    
+    public int getColorTolerance() {
+        return colorTolerance;
+    }
+    
+    public double getMaxDiffRatio() {
+        return maxDiffRatio;
+    }
+    
+    public int getTileSize() {
+        return tileSize;
+    }
+}
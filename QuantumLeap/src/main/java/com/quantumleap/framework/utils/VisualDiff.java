@@ -0,0 +1,87 @@
+package com.quantumleap.framework.utils;
+
+import org.openqa.selenium.Rectangle;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of comparing a screenshot with its visual baseline
+ * 
+ * @author QuantumLeap Team
+ */
+public class VisualDiff {
+    
+    private final int width;
+    private final int height;
+    private final int totalTiles;
+    private final int changedTiles;
+    private final List<Rectangle> differingTiles;
+    private final long diffPixels;
+    private final double diffRatio;
+    private final boolean passed;
+    private final long durationMillis;
+    private final String mismatch;
+    
+    VisualDiff(int width, int height, int totalTiles, int changedTiles, List<Rectangle> differingTiles,
+               long diffPixels, double diffRatio, boolean passed, long durationMillis) {
+        this(width, height, totalTiles, changedTiles, differingTiles, diffPixels, diffRatio, passed, durationMillis, null);
+    }
+    
+    private VisualDiff(int width, int height, int totalTiles, int changedTiles, List<Rectangle> differingTiles,
+                       long diffPixels, double diffRatio, boolean passed, long durationMillis, String mismatch) {
+        this.width = width;
+        this.height = height;
+        this.totalTiles = totalTiles;
+        this.changedTiles = changedTiles;
+        this.differingTiles = differingTiles;
+        this.diffPixels = diffPixels;
+        this.diffRatio = diffRatio;
+        this.passed = passed;
+        this.durationMillis = durationMillis;
+        this.mismatch = mismatch;
+    }
+    
+    static VisualDiff sizeMismatch(int baselineWidth, int baselineHeight, int width, int height, long durationMillis) {
+        return new VisualDiff(width, height, 0, 0, Collections.emptyList(), (long) width * height, 1.0, false, durationMillis,
+            String.format("size %dx%d differs from baseline %dx%d", width, height, baselineWidth, baselineHeight));
+    }
+    
+    public boolean isPassed() {
+        return passed;
+    }
+    
+    public double getDiffRatio() {
+        return diffRatio;
+    }
+    
+    public long getDiffPixels() {
+        return diffPixels;
+    }
+    
+    /**
+     * Tiles containing at least one pixel outside the colour tolerance, in screenshot pixels
+     * 
+     * @return Differing tile regions
+     */
+    public List<Rectangle> getDifferingTiles() {
+        return differingTiles;
+    }
+    
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+    
+    public String toSummary() {
+        if (mismatch != null) {
+            return mismatch;
+        }
+        return String.format("%.3f%% pixels differ (%d px), %d/%d tiles changed, %d with differences (%d ms)",
+            diffRatio * 100, diffPixels, changedTiles, totalTiles, differingTiles.size(), durationMillis);
+    }
+    
+    @Override
+    public String toString() {
+        return (passed ? "match: " : "MISMATCH: ") + toSummary() + " [" + width + "x" + height + "]";
+    }
+}
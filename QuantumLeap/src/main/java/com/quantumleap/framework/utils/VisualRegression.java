@@ -0,0 +1,255 @@
+package com.quantumleap.framework.utils;
+
+import com.quantumleap.framework.config.ConfigManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Visual regression checks against per-page-object baselines
+ * Baselines live under visual.baseline.dir/PageClass/state.png and are only written when
+ * visual.baseline.update is set, so a run never accepts the current rendering as expected on
+ * its own; a missing baseline is reported as a warning. Decoded, tile-hashed baselines are
+ * cached in memory, so a comparison only decodes the new screenshot and diffs the tiles that changed
+ * 
+ * @author QuantumLeap Team
+ */
+public class VisualRegression {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VisualRegression.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    private static final String ELEMENT_BOUNDS_SCRIPT =
+        "return Array.prototype.map.call(arguments[0], function (e) {"
+        + " var r = e.getBoundingClientRect(), d = window.devicePixelRatio || 1;"
+        + " return [r.left * d, r.top * d, r.width * d, r.height * d]; });";
+    
+    private static final Map<Path, CachedBaseline> baselines = new ConcurrentHashMap<>();
+    
+    /**
+     * Compare the current viewport with the baseline of a page object state
+     * 
+     * @param driver WebDriver instance
+     * @param pageObject Page object name, e.g. CartPage
+     * @param state Page state, e.g. single-product
+     * @param options Comparison options
+     * @return Comparison result, or null if visual checks are disabled, no baseline exists or
+     *         a baseline was recorded
+     */
+    public static VisualDiff verify(WebDriver driver, String pageObject, String state, VisualCompareOptions options) {
+        if (!config.isVisualEnabled()) {
+            return null;
+        }
+        String label = pageObject + "/" + state;
+        Path baselinePath = Paths.get(config.getVisualBaselineDir(), pageObject, sanitize(state) + ".png");
+        boolean updateBaseline = config.isVisualBaselineUpdate();
+        if (!updateBaseline && !Files.exists(baselinePath)) {
+            logger.warn("Visual check [{}] skipped, no baseline at {}; run with visual.baseline.update=true to record it",
+                label, baselinePath);
+            ExtentReportManager.logWarning("🖼️ No visual baseline [" + label + "], check skipped");
+            return null;
+        }
+        
+        byte[] png;
+        BufferedImage image;
+        List<Rectangle> masks;
+        try {
+            png = capturePng(driver);
+            image = ImageIO.read(new ByteArrayInputStream(png));
+            masks = new ArrayList<>(options.getMasks());
+            masks.addAll(resolveMasks(driver, options.getMaskedElements()));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Visual check [{}] skipped, screenshot unavailable: {}", label, e.getMessage());
+            return null;
+        }
+        
+        if (updateBaseline) {
+            saveBaseline(baselinePath, png);
+            ExtentReportManager.logInfo("🖼️ Visual baseline recorded [" + label + "]");
+            return null;
+        }
+        
+        VisualComparator.TiledImage baseline = loadBaseline(baselinePath, options.getTileSize());
+        if (baseline == null) {
+            return null;
+        }
+        VisualDiff diff = VisualComparator.compare(baseline, VisualComparator.tile(image, options.getTileSize()), options, masks);
+        if (diff.isPassed()) {
+            logger.info("Visual check [{}]: {}", label, diff);
+            ExtentReportManager.logInfo("🖼️ Visual [" + label + "]: " + diff.toSummary());
+            return diff;
+        }
+        
+        String baseName = pageObject + "_" + sanitize(state) + "_" + LocalDateTime.now().format(TIMESTAMP_FORMAT);
+        String actualPath = store(baseName + "_actual.png", png);
+        String diffPath = store(baseName + "_diff.png", encode(highlight(image, diff.getDifferingTiles())));
+        ExtentReportManager.addScreenshot(actualPath, "Visual Actual [" + label + "]");
+        ExtentReportManager.addScreenshot(diffPath, "Visual Diff [" + label + "]");
+        
+        String message = "Visual regression on '" + label + "': " + diff.toSummary();
+        if ("fail".equalsIgnoreCase(config.getVisualMode())) {
+            logger.error(message);
+            ExtentReportManager.logFail("⛔ " + message);
+            throw new AssertionError(message);
+        }
+        logger.warn(message);
+        ExtentReportManager.logWarning("⚠️ " + message);
+        return diff;
+    }
+    
+    private static byte[] capturePng(WebDriver driver) {
+        String base64Image = ScreenshotUtils.captureWithCdp(driver, new ScreenshotOptions().withFormat(ScreenshotOptions.Format.PNG));
+        if (base64Image == null) {
+            base64Image = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        }
+        return Base64.getMimeDecoder().decode(base64Image);
+    }
+    
+    /**
+     * Resolve element masks to screenshot pixels in one script call
+     * 
+     * @param driver WebDriver instance
+     * @param locators Masked element locators
+     * @return Mask regions
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Rectangle> resolveMasks(WebDriver driver, List<By> locators) {
+        List<Rectangle> masks = new ArrayList<>();
+        List<WebElement> elements = new ArrayList<>();
+        locators.forEach(locator -> elements.addAll(driver.findElements(locator)));
+        if (elements.isEmpty()) {
+            return masks;
+        }
+        List<List<Number>> bounds = (List<List<Number>>) ((JavascriptExecutor) driver).executeScript(ELEMENT_BOUNDS_SCRIPT, elements);
+        for (List<Number> box : bounds) {
+            masks.add(new Rectangle((int) Math.floor(box.get(0).doubleValue()), (int) Math.floor(box.get(1).doubleValue()),
+                (int) Math.ceil(box.get(3).doubleValue()) + 1, (int) Math.ceil(box.get(2).doubleValue()) + 1));
+        }
+        return masks;
+    }
+    
+    /**
+     * Load a baseline, reusing the decoded tiles while the file is unchanged
+     * 
+     * @param baselinePath Baseline file
+     * @param tileSize Tile size of the comparison
+     * @return Tiled baseline, or null if it cannot be read
+     */
+    private static VisualComparator.TiledImage loadBaseline(Path baselinePath, int tileSize) {
+        try {
+            long modified = Files.getLastModifiedTime(baselinePath).toMillis();
+            CachedBaseline cached = baselines.get(baselinePath);
+            if (cached != null && cached.modified == modified && cached.tileSize == tileSize) {
+                return cached.image;
+            }
+            BufferedImage image = ImageIO.read(baselinePath.toFile());
+            if (image == null) {
+                throw new IOException("not a readable image");
+            }
+            VisualComparator.TiledImage tiled = VisualComparator.tile(image, tileSize);
+            baselines.put(baselinePath, new CachedBaseline(modified, tileSize, tiled));
+            return tiled;
+        } catch (IOException e) {
+            logger.error("Failed to read visual baseline: {}", baselinePath, e);
+            return null;
+        }
+    }
+    
+    private static void saveBaseline(Path baselinePath, byte[] png) {
+        try {
+            Files.createDirectories(baselinePath.getParent());
+            Path tempPath = baselinePath.resolveSibling(baselinePath.getFileName() + ".tmp");
+            Files.write(tempPath, png);
+            Files.move(tempPath, baselinePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            baselines.remove(baselinePath);
+            logger.info("Visual baseline saved: {}", baselinePath);
+        } catch (IOException e) {
+            logger.error("Failed to save visual baseline: {}", baselinePath, e);
+        }
+    }
+    
+    /**
+     * Draw the differing tiles over the screenshot
+     * 
+     * @param image Screenshot
+     * @param tiles Differing tile regions
+     * @return Highlighted copy of the screenshot
+     */
+    private static BufferedImage highlight(BufferedImage image, List<Rectangle> tiles) {
+        BufferedImage highlighted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = highlighted.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+            graphics.setStroke(new BasicStroke(2));
+            for (Rectangle tile : tiles) {
+                graphics.setColor(new Color(229, 57, 53, 80));
+                graphics.fillRect(tile.getX(), tile.getY(), tile.getWidth(), tile.getHeight());
+                graphics.setColor(new Color(229, 57, 53));
+                graphics.drawRect(tile.getX(), tile.getY(), tile.getWidth() - 1, tile.getHeight() - 1);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return highlighted;
+    }
+    
+    private static byte[] encode(BufferedImage image) {
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", output);
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to encode visual diff image", e);
+        }
+    }
+    
+    private static String store(String fileName, byte[] png) {
+        return ScreenshotStore.store(Paths.get(ScreenshotUtils.getScreenshotDirectory(), fileName),
+            Base64.getEncoder().encodeToString(png), "png").toString();
+    }
+    
+    private static String sanitize(String name) {
+        return name.trim().replaceAll("[^A-Za-z0-9._-]+", "_");
+    }
+    
+    /**
+     * Decoded baseline together with the file version and tile size it was hashed with
+     */
+    private static class CachedBaseline {
+        private final long modified;
+        private final int tileSize;
+        private final VisualComparator.TiledImage image;
+        
+        CachedBaseline(long modified, int tileSize, VisualComparator.TiledImage image) {
+            this.modified = modified;
+            this.tileSize = tileSize;
+            this.image = image;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * QuantumLeap DOM recorder
+ * Installed at document start (CDP) or on collection; records a serialized snapshot of each
+ * document followed by DOM mutations, input, scroll and click events. Events are buffered in
+ * the page, carried across navigations in sessionStorage and drained once at test end.
+ * Password values are masked and scripts are never recorded.
+ */
+(function () {
+    if (window.__qlRecorder) {
+        return;
+    }
+    var STORAGE_KEY = '__qlRecorderEvents';
+    var MAX_EVENTS = 50000;
+    var SVG_NS = 'http://www.w3.org/2000/svg';
+    var SKIPPED_TAGS = { SCRIPT: true, NOSCRIPT: true };
+
+    var events = [];
+    try {
+        var saved = window.sessionStorage.getItem(STORAGE_KEY);
+        if (saved) {
+            events = JSON.parse(saved);
+            window.sessionStorage.removeItem(STORAGE_KEY);
+        }
+    } catch (e) {
+        // Storage unavailable (e.g. opaque origin); record this document only
+    }
+
+    var ids = new WeakMap();
+    var nextId = 1;
+
+    function idOf(node) {
+        var id = ids.get(node);
+        if (!id) {
+            id = nextId++;
+            ids.set(node, id);
+        }
+        return id;
+    }
+
+    function push(type, data) {
+        if (events.length < MAX_EVENTS) {
+            events.push({ t: Date.now(), type: type, data: data });
+        }
+    }
+
+    function maskedValue(element) {
+        var value = element.value || '';
+        return element.type === 'password' ? value.replace(/./g, '*') : value;
+    }
+
+    function attributeValue(element, name, value) {
+        if (name === 'href' || name === 'src') {
+            try {
+                return new URL(value, document.baseURI).href;
+            } catch (e) {
+                return value;
+            }
+        }
+        return value;
+    }
+
+    function serialize(node) {
+        if (node.nodeType === Node.TEXT_NODE) {
+            return { id: idOf(node), text: node.nodeValue };
+        }
+        if (node.nodeType !== Node.ELEMENT_NODE || SKIPPED_TAGS[node.tagName]) {
+            return null;
+        }
+        var attrs = {};
+        for (var i = 0; i < node.attributes.length; i++) {
+            var attribute = node.attributes[i];
+            if (attribute.name.indexOf('on') !== 0) {
+                attrs[attribute.name] = attributeValue(node, attribute.name, attribute.value);
+            }
+        }
+        if (node.tagName === 'INPUT' || node.tagName === 'TEXTAREA' || node.tagName === 'SELECT') {
+            attrs.value = maskedValue(node);
+            if (node.checked) {
+                attrs.checked = 'checked';
+            }
+        }
+        var children = [];
+        for (var child = node.firstChild; child; child = child.nextSibling) {
+            var serialized = serialize(child);
+            if (serialized) {
+                children.push(serialized);
+            }
+        }
+        var result = { id: idOf(node), tag: node.tagName.toLowerCase(), attrs: attrs, children: children };
+        if (node.namespaceURI === SVG_NS) {
+            result.svg = true;
+        }
+        return result;
+    }
+
+    function recordedSibling(node) {
+        for (var sibling = node.nextSibling; sibling; sibling = sibling.nextSibling) {
+            if (ids.has(sibling)) {
+                return ids.get(sibling);
+            }
+        }
+        return null;
+    }
+
+    function onMutations(records) {
+        records.forEach(function (record) {
+            if (!ids.has(record.target)) {
+                return;
+            }
+            var targetId = ids.get(record.target);
+            if (record.type === 'childList') {
+                record.removedNodes.forEach(function (node) {
+                    if (ids.has(node)) {
+                        push('remove', { parent: targetId, id: ids.get(node) });
+                    }
+                });
+                record.addedNodes.forEach(function (node) {
+                    if (node.parentNode !== record.target) {
+                        return; // Already moved again, a later record covers it
+                    }
+                    var serialized = serialize(node);
+                    if (serialized) {
+                        push('add', { parent: targetId, next: recordedSibling(node), node: serialized });
+                    }
+                });
+            } else if (record.type === 'attributes') {
+                push('attr', {
+                    id: targetId,
+                    name: record.attributeName,
+                    value: record.target.getAttribute(record.attributeName)
+                });
+            } else if (record.type === 'characterData') {
+                push('text', { id: targetId, text: record.target.nodeValue });
+            }
+        });
+    }
+
+    function start() {
+        push('snapshot', {
+            url: location.href,
+            width: window.innerWidth,
+            height: window.innerHeight,
+            root: serialize(document.documentElement)
+        });
+        new MutationObserver(onMutations).observe(document.documentElement, {
+            childList: true, subtree: true, attributes: true, characterData: true
+        });
+    }
+
+    function onInput(event) {
+        if (ids.has(event.target)) {
+            push('input', { id: ids.get(event.target), value: maskedValue(event.target), checked: !!event.target.checked });
+        }
+    }
+
+    var scrollPending = false;
+    function onScroll() {
+        if (!scrollPending) {
+            scrollPending = true;
+            setTimeout(function () {
+                scrollPending = false;
+                push('scroll', { x: window.scrollX, y: window.scrollY });
+            }, 100);
+        }
+    }
+
+    document.addEventListener('input', onInput, true);
+    document.addEventListener('change', onInput, true);
+    document.addEventListener('click', function (event) {
+        push('click', { x: event.clientX, y: event.clientY });
+    }, true);
+    window.addEventListener('scroll', onScroll, true);
+    window.addEventListener('resize', function () {
+        push('viewport', { width: window.innerWidth, height: window.innerHeight });
+    });
+    window.addEventListener('pagehide', function () {
+        try {
+            window.sessionStorage.setItem(STORAGE_KEY, JSON.stringify(events));
+        } catch (e) {
+            // Quota exceeded; the events of this document are lost
+        }
+    });
+
+    if (document.readyState === 'loading') {
+        document.addEventListener('DOMContentLoaded', start);
+    } else {
+        start();
+    }
+
+    window.__qlRecorder = {
+        drain: function () {
+            var drained = JSON.stringify(events);
+            events = [];
+            return drained;
+        }
+    };
+})();
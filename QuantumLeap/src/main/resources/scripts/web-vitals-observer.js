@@ -0,0 +1,70 @@
+/*
+ * QuantumLeap web vitals observer
+ * Installed at document start (CDP) or on first collection; buffers paint, LCP, CLS and
+ * long task entries until the framework drains them after a navigation or transition.
+ */
+(function () {
+    if (window.__qlVitals) {
+        return;
+    }
+    var state = { lcp: null, cls: 0, clsSinceDrain: 0, fp: null, fcp: null, longTasks: [] };
+
+    function observe(type, callback) {
+        try {
+            new PerformanceObserver(function (list) {
+                list.getEntries().forEach(callback);
+            }).observe({ type: type, buffered: true });
+        } catch (e) {
+            // Entry type not supported by this browser
+        }
+    }
+
+    observe('largest-contentful-paint', function (entry) {
+        state.lcp = entry.renderTime || entry.loadTime || entry.startTime;
+    });
+    observe('layout-shift', function (entry) {
+        if (!entry.hadRecentInput) {
+            state.cls += entry.value;
+            state.clsSinceDrain += entry.value;
+        }
+    });
+    observe('longtask', function (entry) {
+        state.longTasks.push(entry.duration);
+    });
+    observe('paint', function (entry) {
+        if (entry.name === 'first-paint') {
+            state.fp = entry.startTime;
+        } else if (entry.name === 'first-contentful-paint') {
+            state.fcp = entry.startTime;
+        }
+    });
+
+    window.__qlVitals = {
+        drain: function () {
+            var nav = performance.getEntriesByType('navigation')[0];
+            var longTaskTotal = 0;
+            state.longTasks.forEach(function (duration) {
+                longTaskTotal += duration;
+            });
+            var result = {
+                url: location.href,
+                timeOrigin: performance.timeOrigin,
+                now: performance.now(),
+                ttfb: nav ? nav.responseStart : null,
+                domContentLoaded: nav ? nav.domContentLoadedEventEnd : null,
+                loadEvent: nav ? nav.loadEventEnd : null,
+                transferSize: nav ? nav.transferSize : null,
+                firstPaint: state.fp,
+                firstContentfulPaint: state.fcp,
+                largestContentfulPaint: state.lcp,
+                cumulativeLayoutShift: state.cls,
+                layoutShiftSinceLastDrain: state.clsSinceDrain,
+                longTaskCount: state.longTasks.length,
+                longTaskTotal: longTaskTotal
+            };
+            state.longTasks = [];
+            state.clsSinceDrain = 0;
+            return result;
+        }
+    };
+})();
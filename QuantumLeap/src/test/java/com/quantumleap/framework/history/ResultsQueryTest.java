@@ -0,0 +1,151 @@
+package com.quantumleap.framework.history;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for history queries: duration percentiles, flakiness from outcome flips and
+ * retries, per-run pass rates and the last-N-runs window
+ * 
+ * @author QuantumLeap Team
+ */
+@Test(groups = {"unit"})
+public class ResultsQueryTest {
+    
+    private static final HistoryRecord.Outcome PASS = HistoryRecord.Outcome.PASS;
+    private static final HistoryRecord.Outcome FAIL = HistoryRecord.Outcome.FAIL;
+    private static final HistoryRecord.Outcome SKIP = HistoryRecord.Outcome.SKIP;
+    
+    private Path directory;
+    private ResultsStore store;
+    
+    @BeforeMethod
+    public void createStore() throws IOException {
+        directory = Files.createTempDirectory("results-query");
+        store = ResultsStore.openForWrite(directory);
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void deleteStore() throws IOException {
+        store.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    @Test(description = "Percentiles use the nearest rank over the sorted durations")
+    public void testPercentiles() {
+        for (int duration : new int[] {700, 100, 1000, 300, 500, 200, 900, 400, 800, 600}) {
+            store.appendRun(List.of(record("ReportTest.export", duration, PASS, 0)));
+        }
+        
+        ResultsQuery.TestStats stats = new ResultsQuery(store).testStats("ReportTest.export", 10).get(0);
+        
+        Assert.assertEquals(stats.getExecutions(), 10);
+        Assert.assertEquals(stats.getP50(), 500);
+        Assert.assertEquals(stats.getP90(), 900);
+        Assert.assertEquals(stats.getP95(), 1000);
+        Assert.assertEquals(stats.getMax(), 1000);
+        Assert.assertEquals(stats.getMean(), 550);
+    }
+    
+    @Test(description = "Slowest tests are ordered by their 90th percentile, not their maximum")
+    public void testSlowestOrdersByP90() {
+        for (int run = 0; run < 10; run++) {
+            store.appendRun(List.of(
+                record("SpikyTest.once", run == 0 ? 60_000 : 100, PASS, 0),
+                record("SteadyTest.always", 5_000, PASS, 0)));
+        }
+        
+        List<ResultsQuery.TestStats> slowest = new ResultsQuery(store).slowest(10, 5);
+        
+        Assert.assertEquals(names(slowest), List.of("SteadyTest.always", "SpikyTest.once"));
+        Assert.assertEquals(new ResultsQuery(store).slowest(10, 1).size(), 1);
+    }
+    
+    @Test(description = "Flakiness counts outcome flips and retried executions; skips do not flip")
+    public void testFlakiest() {
+        HistoryRecord.Outcome[] flipping = {PASS, FAIL, SKIP, PASS, PASS};
+        for (int run = 0; run < 5; run++) {
+            store.appendRun(List.of(
+                record("FlippingTest.toggle", 100, flipping[run], 0),
+                record("RetriedTest.recover", 100, PASS, run == 4 ? 1 : 0),
+                record("StableTest.pass", 100, PASS, 0)));
+        }
+        
+        List<ResultsQuery.TestStats> flakiest = new ResultsQuery(store).flakiest(5, 10);
+        
+        Assert.assertEquals(names(flakiest), List.of("FlippingTest.toggle", "RetriedTest.recover"));
+        Assert.assertEquals(flakiest.get(0).getFlakiness(), 2.0 / 5, 1e-9);
+        Assert.assertEquals(flakiest.get(0).getSkips(), 1);
+        Assert.assertEquals(flakiest.get(1).getFlakiness(), 1.0 / 5, 1e-9);
+        Assert.assertEquals(flakiest.get(1).getRetried(), 1);
+    }
+    
+    @Test(description = "Only the requested number of most recent runs is queried")
+    public void testLastRunsWindow() {
+        store.appendRun(List.of(record("CartTest.add", 100, FAIL, 0)));
+        store.appendRun(List.of(record("CartTest.add", 100, PASS, 0)));
+        store.appendRun(List.of(record("CartTest.add", 100, PASS, 0)));
+        
+        ResultsQuery query = new ResultsQuery(store);
+        Assert.assertTrue(query.flakiest(2, 10).isEmpty(), "The failure is outside the last two runs");
+        Assert.assertEquals(query.flakiest(3, 10).size(), 1);
+        Assert.assertEquals(query.testStats("CartTest.add", 2).get(0).getExecutions(), 2);
+        Assert.assertTrue(query.testStats("UnknownTest.none", 3).isEmpty());
+    }
+    
+    @Test(description = "The pass rate trend summarises each run, oldest first")
+    public void testPassRateTrend() {
+        store.appendRun(List.of(record("A.one", 100, PASS, 0), record("A.two", 200, FAIL, 0)));
+        store.appendRun(List.of(record("A.one", 100, PASS, 0), record("A.two", 200, PASS, 0),
+            record("A.three", 50, SKIP, 0), record("A.four", 50, PASS, 0)));
+        store.appendRun(List.of(record("A.one", 100, FAIL, 0)));
+        
+        List<ResultsQuery.RunSummary> trend = new ResultsQuery(store).passRateTrend(2);
+        
+        Assert.assertEquals(trend.size(), 2);
+        Assert.assertEquals(trend.get(0).getRunId(), 2);
+        Assert.assertEquals(trend.get(0).getTotal(), 4);
+        Assert.assertEquals(trend.get(0).getSkipped(), 1);
+        Assert.assertEquals(trend.get(0).getPassRate(), 0.75, 1e-9);
+        Assert.assertEquals(trend.get(0).getTestMillis(), 400);
+        Assert.assertEquals(trend.get(1).getRunId(), 3);
+        Assert.assertEquals(trend.get(1).getPassRate(), 0.0, 1e-9);
+    }
+    
+    @Test(description = "Each data-provider row is reported separately")
+    public void testDataRowsAreSeparate() {
+        List<HistoryRecord> run = new ArrayList<>();
+        run.add(new HistoryRecord("LoginTest.login", 0, 100, PASS, 0, "chrome", "[admin]", null));
+        run.add(new HistoryRecord("LoginTest.login", 0, 100, FAIL, 0, "chrome", "[guest]", "AssertionError"));
+        store.appendRun(run);
+        
+        List<String> names = names(new ResultsQuery(store).testStats("LoginTest.login", 1));
+        
+        Assert.assertEquals(names.stream().sorted().collect(Collectors.toList()),
+            List.of("LoginTest.login [admin]", "LoginTest.login [guest]"));
+    }
+    
+    private static HistoryRecord record(String testName, int durationMillis, HistoryRecord.Outcome outcome, int retries) {
+        return new HistoryRecord(testName, 1_000L, durationMillis, outcome, retries, "chrome", null,
+            outcome == FAIL ? "AssertionError" : null);
+    }
+    
+    private static List<String> names(List<ResultsQuery.TestStats> stats) {
+        return stats.stream().map(ResultsQuery.TestStats::getName).collect(Collectors.toList());
+    }
+}
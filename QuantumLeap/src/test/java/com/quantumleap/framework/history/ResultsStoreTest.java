@@ -0,0 +1,163 @@
+package com.quantumleap.framework.history;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for the memory-mapped results store: header and record layout, string interning,
+ * growth of the mapping and runs appended by more than one writer
+ * 
+ * @author QuantumLeap Team
+ */
+@Test(groups = {"unit"})
+public class ResultsStoreTest {
+    
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 40;
+    
+    private Path directory;
+    
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("results-history");
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    @Test(description = "The header carries magic, version, record count and run count")
+    public void testHeaderLayout() throws IOException {
+        try (ResultsStore store = ResultsStore.openForWrite(directory)) {
+            Assert.assertEquals(store.appendRun(List.of(record("LoginTest.valid", 100, HistoryRecord.Outcome.PASS))), 1);
+            Assert.assertEquals(store.appendRun(List.of(
+                record("LoginTest.valid", 120, HistoryRecord.Outcome.PASS),
+                record("LoginTest.invalid", 80, HistoryRecord.Outcome.FAIL))), 2);
+        }
+        
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(ResultsStore.RESULTS_FILE)));
+        Assert.assertEquals(header.getInt(0), 0x514C5253, "QLRS magic");
+        Assert.assertEquals(header.getInt(4), 1, "Format version");
+        Assert.assertEquals(header.getLong(8), 3L, "Record count");
+        Assert.assertEquals(header.getInt(16), 2, "Run count");
+        Assert.assertTrue(Files.size(directory.resolve(ResultsStore.RESULTS_FILE)) >= HEADER_SIZE + 3L * RECORD_SIZE);
+    }
+    
+    @Test(description = "Records read back field by field after reopening the store")
+    public void testRecordsSurviveReopen() {
+        try (ResultsStore store = ResultsStore.openForWrite(directory)) {
+            store.appendRun(List.of(new HistoryRecord("CheckoutTest.pay", 1_700_000_000_000L, 4321,
+                HistoryRecord.Outcome.FAIL, 2, "chrome", "[visa]", "TimeoutException at CheckoutPage.pay")));
+        }
+        
+        try (ResultsStore store = ResultsStore.openForRead(directory)) {
+            Assert.assertEquals(store.size(), 1);
+            Assert.assertEquals(store.runId(0), 1);
+            Assert.assertEquals(store.startMillis(0), 1_700_000_000_000L);
+            Assert.assertEquals(store.durationMillis(0), 4321);
+            Assert.assertEquals(store.outcome(0), HistoryRecord.Outcome.FAIL);
+            Assert.assertEquals(store.retries(0), 2);
+            Assert.assertEquals(store.string(store.testId(0)), "CheckoutTest.pay");
+            Assert.assertEquals(store.string(store.browserId(0)), "chrome");
+            Assert.assertEquals(store.string(store.dataRowId(0)), "[visa]");
+            Assert.assertEquals(store.string(store.signatureId(0)), "TimeoutException at CheckoutPage.pay");
+        }
+    }
+    
+    @Test(description = "Repeated strings are written to strings.dat once and null is stored as -1")
+    public void testStringsAreInterned() throws IOException {
+        try (ResultsStore store = ResultsStore.openForWrite(directory)) {
+            store.appendRun(List.of(
+                record("SearchTest.query", 10, HistoryRecord.Outcome.PASS),
+                record("SearchTest.query", 11, HistoryRecord.Outcome.PASS)));
+            store.appendRun(List.of(record("SearchTest.query", 12, HistoryRecord.Outcome.PASS)));
+            
+            Assert.assertEquals(store.testId(0), store.testId(2));
+            Assert.assertEquals(store.dataRowId(0), -1);
+            Assert.assertNull(store.string(store.signatureId(0)));
+            Assert.assertEquals(store.stringId("never seen"), -1);
+        }
+        
+        // Length-prefixed UTF-8: "SearchTest.query" and "chrome"
+        long expected = 4 + "SearchTest.query".length() + 4 + "chrome".length();
+        Assert.assertEquals(Files.size(directory.resolve(ResultsStore.STRINGS_FILE)), expected);
+    }
+    
+    @Test(description = "Runs larger than the initial mapping grow the file and stay readable")
+    public void testMappingGrows() throws IOException {
+        long initialSize;
+        try (ResultsStore store = ResultsStore.openForWrite(directory)) {
+            initialSize = Files.size(directory.resolve(ResultsStore.RESULTS_FILE));
+            List<HistoryRecord> run = new ArrayList<>();
+            for (int i = 0; i < 5000; i++) {
+                run.add(record("BulkTest.row", i, HistoryRecord.Outcome.PASS));
+            }
+            store.appendRun(run);
+        }
+        
+        Assert.assertTrue(Files.size(directory.resolve(ResultsStore.RESULTS_FILE)) > initialSize);
+        try (ResultsStore store = ResultsStore.openForRead(directory)) {
+            Assert.assertEquals(store.size(), 5000);
+            Assert.assertEquals(store.durationMillis(0), 0);
+            Assert.assertEquals(store.durationMillis(4999), 4999);
+        }
+    }
+    
+    @Test(description = "A writer remaps and sees strings when another writer has grown the store")
+    public void testSecondWriterSeesGrowth() {
+        try (ResultsStore first = ResultsStore.openForWrite(directory);
+             ResultsStore second = ResultsStore.openForWrite(directory)) {
+            List<HistoryRecord> run = new ArrayList<>();
+            for (int i = 0; i < 5000; i++) {
+                run.add(record("ForkA.test", i, HistoryRecord.Outcome.PASS));
+            }
+            first.appendRun(run);
+            
+            Assert.assertEquals(second.appendRun(List.of(record("ForkA.test", 7, HistoryRecord.Outcome.FAIL))), 2);
+            Assert.assertEquals(second.size(), 5001);
+            Assert.assertEquals(second.testId(5000), second.testId(0), "The string interned by the other writer is reused");
+            Assert.assertEquals(second.firstIndexOfRun(1), 0);
+            Assert.assertEquals(second.firstIndexOfRun(2), 5000);
+            Assert.assertEquals(second.firstIndexOfRun(3), 5001);
+        }
+    }
+    
+    @Test(description = "A file without the store magic is rejected")
+    public void testForeignFileIsRejected() throws IOException {
+        Files.write(directory.resolve(ResultsStore.RESULTS_FILE), new byte[HEADER_SIZE]);
+        Files.write(directory.resolve(ResultsStore.STRINGS_FILE), new byte[0]);
+        
+        try {
+            ResultsStore.openForRead(directory).close();
+            Assert.fail("A zero-filled file is not a results store");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException, String.valueOf(e.getCause()));
+        }
+    }
+    
+    @Test(description = "Opening a missing store for reading fails fast", expectedExceptions = IllegalStateException.class)
+    public void testMissingStoreIsReported() {
+        ResultsStore.openForRead(directory.resolve("missing"));
+    }
+    
+    private static HistoryRecord record(String testName, int durationMillis, HistoryRecord.Outcome outcome) {
+        return new HistoryRecord(testName, 1_000L + durationMillis, durationMillis, outcome, 0, "chrome", null, null);
+    }
+}
@@ -0,0 +1,124 @@
+package com.quantumleap.framework.monitoring;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for the timeline analysis: parallel efficiency, utilisation of overlapping slices,
+ * the balanced wall clock, idle gaps, the critical path and reading fork timelines
+ * 
+ * @author QuantumLeap Team
+ */
+@Test(groups = {"unit"})
+public class TimelineReportTest {
+    
+    private static final String TEST = ExecutionTimeline.KIND_TEST;
+    private static final String CREATE = ExecutionTimeline.KIND_DRIVER_CREATE;
+    
+    @Test(description = "Efficiency counts test time only, utilisation also counts driver time")
+    public void testEfficiencyAndUtilisation() {
+        TimelineReport report = new TimelineReport(List.of(
+            slice("TestNG-1", TEST, "A.one", 0, 400),
+            slice("TestNG-1", TEST, "A.two", 400, 800),
+            slice("TestNG-2", TEST, "B.one", 0, 200),
+            slice("TestNG-2", CREATE, "chrome", 200, 300)), 0, 1000, 100);
+        
+        Assert.assertEquals(report.getWorkerCount(), 2);
+        Assert.assertEquals(report.getWallClockMillis(), 1000);
+        Assert.assertEquals(report.getParallelEfficiency(), 1000.0 / 2000, 1e-9);
+        Assert.assertEquals(report.getUtilisation(), 1100.0 / 2000, 1e-9);
+        Assert.assertEquals(report.getBalancedWallClockMillis(), 550);
+    }
+    
+    @Test(description = "A driver created inside a test body is not counted as busy twice")
+    public void testOverlappingSlicesAreCountedOnce() {
+        TimelineReport report = new TimelineReport(List.of(
+            slice("TestNG-1", TEST, "A.one", 0, 500),
+            slice("TestNG-1", CREATE, "chrome", 100, 200)), 0, 1000, 100);
+        
+        Assert.assertEquals(report.getUtilisation(), 0.5, 1e-9);
+        Assert.assertEquals(report.getParallelEfficiency(), 0.5, 1e-9);
+    }
+    
+    @Test(description = "The balanced wall clock cannot drop below the longest test")
+    public void testBalancedWallClockIsBoundedByLongestTest() {
+        TimelineReport report = new TimelineReport(List.of(
+            slice("TestNG-1", TEST, "A.long", 0, 900),
+            slice("TestNG-2", TEST, "B.short", 0, 100)), 0, 900, 100);
+        
+        Assert.assertEquals(report.getBalancedWallClockMillis(), 900);
+    }
+    
+    @Test(description = "The run window widens to cover slices outside it")
+    public void testWindowCoversAllSlices() {
+        TimelineReport report = new TimelineReport(List.of(slice("TestNG-1", TEST, "A.one", 0, 1000)), 100, 200, 100);
+        
+        Assert.assertEquals(report.getWallClockMillis(), 1000);
+        Assert.assertEquals(report.getParallelEfficiency(), 1.0, 1e-9);
+    }
+    
+    @Test(description = "An empty timeline has no workers and no efficiency")
+    public void testEmptyTimeline() {
+        TimelineReport report = new TimelineReport(Collections.emptyList(), 0, 1000, 100);
+        
+        Assert.assertEquals(report.getWorkerCount(), 0);
+        Assert.assertEquals(report.getParallelEfficiency(), 0.0);
+        Assert.assertEquals(report.getBalancedWallClockMillis(), 0);
+    }
+    
+    @Test(description = "The page marks the worker that finished last and draws idle gaps")
+    public void testPageShowsCriticalPathAndGaps() throws IOException {
+        Path page = Files.createTempFile("timeline", ".html");
+        try {
+            new TimelineReport(List.of(
+                slice("TestNG-1", TEST, "A.one", 0, 1000),
+                slice("TestNG-2", TEST, "B.one", 0, 300)), 0, 1000, 100).write(page);
+            
+            String html = Files.readString(page, StandardCharsets.UTF_8);
+            Assert.assertTrue(html.contains("class='critical'>TestNG-1"), "TestNG-1 finished last");
+            Assert.assertFalse(html.contains("class='critical'>TestNG-2"));
+            Assert.assertEquals(count(html, "<rect class='gap'"), 1, "Only TestNG-2 idles for 700 ms");
+            Assert.assertTrue(html.contains("<b>65.0%</b><span>Parallel efficiency"), "1300 ms of tests over 2 x 1000 ms");
+        } finally {
+            Files.deleteIfExists(page);
+        }
+    }
+    
+    @Test(description = "Fork timelines are read with their worker and widen the merged window")
+    public void testForkTimelineIsRead() throws IOException {
+        Path file = Files.createTempFile("timeline", ".json");
+        try {
+            Files.writeString(file, "{\"worker\":\"host:42#1\",\"start\":500,\"end\":2000,\"slices\":["
+                + "{\"thread\":\"TestNG-1\",\"kind\":\"test\",\"name\":\"A.one\",\"status\":\"PASS\",\"start\":600,\"end\":900}]}");
+            long[] window = {1000, 1500};
+            
+            List<ExecutionTimeline.Slice> slices = ExecutionTimeline.read(file, window);
+            
+            Assert.assertEquals(window, new long[] {500, 2000});
+            Assert.assertEquals(slices.size(), 1);
+            Assert.assertEquals(slices.get(0).getLane(), "host:42#1/TestNG-1");
+            Assert.assertEquals(slices.get(0).getDuration(), 300);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    private static ExecutionTimeline.Slice slice(String thread, String kind, String name, long start, long end) {
+        return new ExecutionTimeline.Slice("host:1", thread, kind, name, TEST.equals(kind) ? "PASS" : null, start, end);
+    }
+    
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int index = text.indexOf(token); index >= 0; index = text.indexOf(token, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
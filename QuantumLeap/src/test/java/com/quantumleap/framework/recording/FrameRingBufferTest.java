@@ -0,0 +1,87 @@
+package com.quantumleap.framework.recording;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the off-heap frame ring: ordering, wrap-around, oversized frames and reuse
+ * 
+ * @author QuantumLeap Team
+ */
+@Test(groups = {"unit"})
+public class FrameRingBufferTest {
+    
+    @Test(description = "Frames are returned oldest first with their label, time and bytes")
+    public void testFramesAreReturnedInOrder() {
+        FrameRingBuffer ring = new FrameRingBuffer(3, 16);
+        ring.add("open", 1000L, bytes("first"));
+        ring.add("click", 2000L, bytes("second"));
+        
+        List<FrameRingBuffer.Frame> frames = ring.frames();
+        Assert.assertEquals(ring.size(), 2);
+        Assert.assertEquals(labels(frames), List.of("open", "click"));
+        Assert.assertEquals(frames.get(0).getTimestamp(), 1000L);
+        Assert.assertEquals(frames.get(1).getData(), bytes("second"));
+    }
+    
+    @Test(description = "A full ring overwrites its oldest frame")
+    public void testOldestFrameIsOverwritten() {
+        FrameRingBuffer ring = new FrameRingBuffer(3, 16);
+        for (int i = 1; i <= 5; i++) {
+            Assert.assertTrue(ring.add("step" + i, i, bytes("frame-" + i)));
+        }
+        
+        List<FrameRingBuffer.Frame> frames = ring.frames();
+        Assert.assertEquals(ring.size(), 3);
+        Assert.assertEquals(labels(frames), List.of("step3", "step4", "step5"));
+        for (FrameRingBuffer.Frame frame : frames) {
+            Assert.assertEquals(new String(frame.getData(), StandardCharsets.UTF_8), "frame-" + frame.getTimestamp());
+        }
+    }
+    
+    @Test(description = "A shorter frame in a reused slot keeps only its own bytes")
+    public void testReusedSlotKeepsFrameLength() {
+        FrameRingBuffer ring = new FrameRingBuffer(1, 16);
+        ring.add("long", 1L, bytes("a much longer one"));
+        ring.add("short", 2L, bytes("tiny"));
+        
+        Assert.assertEquals(ring.frames().get(0).getData(), bytes("tiny"));
+    }
+    
+    @Test(description = "Frames larger than a slot are dropped without disturbing the ring")
+    public void testOversizedFrameIsDropped() {
+        FrameRingBuffer ring = new FrameRingBuffer(2, 8);
+        ring.add("fits", 1L, bytes("12345678"));
+        
+        Assert.assertFalse(ring.add("too big", 2L, bytes("123456789")));
+        Assert.assertEquals(ring.size(), 1);
+        Assert.assertEquals(labels(ring.frames()), List.of("fits"));
+    }
+    
+    @Test(description = "Clearing empties the ring and keeps it usable")
+    public void testClearAllowsReuse() {
+        FrameRingBuffer ring = new FrameRingBuffer(2, 8);
+        ring.add("old", 1L, bytes("old"));
+        ring.add("older", 2L, bytes("older"));
+        ring.clear();
+        
+        Assert.assertEquals(ring.size(), 0);
+        Assert.assertTrue(ring.frames().isEmpty());
+        
+        ring.add("new", 3L, bytes("new"));
+        Assert.assertEquals(labels(ring.frames()), List.of("new"));
+        Assert.assertEquals(ring.frames().get(0).getData(), bytes("new"));
+    }
+    
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static List<String> labels(List<FrameRingBuffer.Frame> frames) {
+        return frames.stream().map(FrameRingBuffer.Frame::getLabel).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,146 @@
+package com.quantumleap.framework.reporting;
+
+import com.aventstack.extentreports.Status;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Unit tests for the raw event log: replay of interleaved tests into records, run information,
+ * compressed logs and logs left behind by a killed run
+ * 
+ * @author QuantumLeap Team
+ */
+@Test(groups = {"unit"})
+public class EventLogTest {
+    
+    private Path directory;
+    private Path logFile;
+    
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("event-log");
+        logFile = directory.resolve("events.jsonl");
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    @Test(description = "Interleaved tests replay into complete records in the order they ended")
+    public void testReplayRebuildsRecords() {
+        writeRun();
+        
+        Map<String, String> runInfo = new HashMap<>();
+        List<TestRecord> records = replay(logFile, runInfo);
+        
+        Assert.assertEquals(runInfo.get("title"), "Regression");
+        Assert.assertEquals(runInfo.get("Browser"), "chrome");
+        Assert.assertEquals(records.stream().map(TestRecord::getName).collect(Collectors.toList()),
+            List.of("CartTest.add", "LoginTest.valid"));
+        
+        TestRecord cart = records.get(0);
+        Assert.assertEquals(cart.getStatus(), Status.FAIL);
+        Assert.assertTrue(cart.getError().contains("AssertionError: total"), cart.getError());
+        Assert.assertEquals(cart.getCategories(), List.of("smoke"));
+        Assert.assertEquals(cart.getWorker(), ReportShards.workerId());
+        
+        TestRecord login = records.get(1);
+        Assert.assertEquals(login.getStatus(), Status.PASS);
+        Assert.assertEquals(login.getAuthors(), List.of("qa"));
+        Assert.assertEquals(login.getDevices(), List.of("desktop"));
+        Assert.assertEquals(login.getLogs().size(), 2);
+        Assert.assertEquals(login.getLogs().get(1).getMedia(), "screenshots/login.png");
+        Assert.assertEquals(login.getLogs().get(1).getMediaTitle(), "Login page");
+        Assert.assertTrue(login.getEndMillis() >= login.getStartMillis());
+    }
+    
+    @Test(description = "A truncated last line and a test without end event survive a killed run")
+    public void testTruncatedTailIsReplayed() throws IOException {
+        try (EventLog log = EventLog.open(logFile, "Killed run")) {
+            EventLog.TestRef finished = log.startTest("t1", "SearchTest.query", "");
+            log.write(finished, ReportEvent.log(finished, Status.PASS, "Results shown"));
+            log.write(finished, ReportEvent.finish(finished));
+            EventLog.TestRef running = log.startTest("t2", "ProfileTest.edit", "");
+            log.write(running, ReportEvent.log(running, Status.INFO, "Opened profile"));
+        }
+        Files.writeString(logFile, "{\"e\":\"log\",\"t\":1,\"s\":\"FAIL\",\"m\":\"cut o", StandardOpenOption.APPEND);
+        
+        List<TestRecord> records = replay(logFile, new HashMap<>());
+        
+        Assert.assertEquals(records.size(), 2);
+        Assert.assertEquals(records.get(0).getName(), "SearchTest.query");
+        TestRecord unfinished = records.get(1);
+        Assert.assertEquals(unfinished.getName(), "ProfileTest.edit");
+        Assert.assertEquals(unfinished.getStatus(), Status.WARNING, "The truncated FAIL line must not be applied");
+        Assert.assertTrue(unfinished.getLogs().get(unfinished.getLogs().size() - 1).getMessage().contains("did not finish"));
+        Assert.assertTrue(unfinished.getEndMillis() > 0, "An unfinished test ends at the last logged time");
+    }
+    
+    @Test(description = "Corrupt lines and events of unknown tests are skipped")
+    public void testCorruptLinesAreSkipped() throws IOException {
+        writeRun();
+        String events = Files.readString(logFile);
+        Files.writeString(logFile, "{not json}\n"
+            + "{\"e\":\"log\",\"t\":1,\"s\":\"FAIL\",\"m\":\"orphan\",\"id\":\"unknown\"}\n" + events);
+        
+        List<TestRecord> records = replay(logFile, new HashMap<>());
+        
+        Assert.assertEquals(records.size(), 2);
+        Assert.assertEquals(records.get(1).getStatus(), Status.PASS);
+    }
+    
+    @Test(description = "A gzip-compressed event log replays like the plain one")
+    public void testCompressedLogIsReplayed() throws IOException {
+        writeRun();
+        Path compressed = directory.resolve("events.jsonl.gz");
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            Files.copy(logFile, output);
+        }
+        
+        Assert.assertEquals(replay(compressed, new HashMap<>()).size(), 2);
+    }
+    
+    private void writeRun() {
+        try (EventLog log = EventLog.open(logFile, "Regression")) {
+            log.info("Browser", "chrome");
+            EventLog.TestRef login = log.startTest("t1", "LoginTest.valid", "Valid login");
+            EventLog.TestRef cart = log.startTest("t2", "CartTest.add", "Add to cart");
+            log.write(login, ReportEvent.log(login, Status.PASS, "Logged in"));
+            log.write(cart, ReportEvent.assign(ReportEvent.Type.CATEGORY, cart, "smoke"));
+            log.write(cart, ReportEvent.failure(cart, new AssertionError("total")));
+            log.write(login, ReportEvent.media(login, "screenshots/login.png", "Login page"));
+            log.write(login, ReportEvent.assign(ReportEvent.Type.AUTHOR, login, "qa"));
+            log.write(login, ReportEvent.assign(ReportEvent.Type.DEVICE, login, "desktop"));
+            log.write(cart, ReportEvent.log(cart, Status.FAIL, "Total mismatch"));
+            log.write(cart, ReportEvent.finish(cart));
+            log.write(login, ReportEvent.finish(login));
+        }
+    }
+    
+    private static List<TestRecord> replay(Path path, Map<String, String> runInfo) {
+        List<TestRecord> records = new ArrayList<>();
+        EventLog.replay(path, runInfo, records::add);
+        return records;
+    }
+}
@@ -0,0 +1,138 @@
+package com.quantumleap.framework.reporting;
+
+import com.aventstack.extentreports.Status;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Unit tests for merging report shards: plain and gzip shards, directories of shards and
+ * shards whose last record was cut short by a crashed fork
+ * 
+ * @author QuantumLeap Team
+ */
+@Test(groups = {"unit"})
+public class ReportMergerTest {
+    
+    private Path directory;
+    
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("report-merger");
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    @Test(description = "Shards of every fork are merged into one spool and report")
+    public void testShardsAreMerged() throws IOException {
+        Path shards = Files.createDirectories(directory.resolve("shards"));
+        gzip(spool(shards.resolve("fork1.jsonl"), "fork-1", "LoginTest.valid", "LoginTest.invalid"),
+            shards.resolve("shard_fork1" + ReportShards.SHARD_EXTENSION));
+        spool(shards.resolve("shard_fork2.jsonl"), "fork-2", "CartTest.add");
+        Files.writeString(shards.resolve("notes.txt"), "not a shard");
+        Files.delete(shards.resolve("fork1.jsonl"));
+        
+        Path output = directory.resolve("merged").resolve("MergedReport.html");
+        long tests = ReportMerger.merge(Collections.singletonList(shards), output, "static");
+        
+        Assert.assertEquals(tests, 3);
+        List<String> names = new ArrayList<>();
+        List<String> workers = new ArrayList<>();
+        Assert.assertEquals(ResultSpool.read(output.resolveSibling("MergedReport_results.jsonl"), record -> {
+            names.add(record.getName());
+            workers.add(record.getWorker());
+        }), 3);
+        Assert.assertEquals(names, List.of("LoginTest.valid", "LoginTest.invalid", "CartTest.add"));
+        Assert.assertEquals(workers, List.of("fork-1", "fork-1", "fork-2"));
+        String html = Files.readString(output);
+        Assert.assertTrue(html.contains("LoginTest.invalid") && html.contains("CartTest.add"));
+    }
+    
+    @Test(description = "A truncated last record is dropped without corrupting the next shard")
+    public void testTruncatedTailIsSkipped() throws IOException {
+        Path crashed = spool(directory.resolve("shard_crashed.jsonl"), "fork-1", "SearchTest.query");
+        String partial = Files.readAllLines(crashed).get(0);
+        Files.writeString(crashed, partial.substring(0, partial.length() / 2), StandardOpenOption.APPEND);
+        Path next = spool(directory.resolve("shard_next.jsonl"), "fork-2", "ProfileTest.edit");
+        
+        Path output = directory.resolve("MergedReport.html");
+        long tests = ReportMerger.merge(Arrays.asList(crashed, next), output, "static");
+        
+        Assert.assertEquals(tests, 2);
+        List<String> names = new ArrayList<>();
+        ResultSpool.read(output.resolveSibling("MergedReport_results.jsonl"), record -> names.add(record.getName()));
+        Assert.assertEquals(names, List.of("SearchTest.query", "ProfileTest.edit"));
+    }
+    
+    @Test(description = "A gzip shard cut off mid-stream keeps the records before the cut")
+    public void testTruncatedGzipShardKeepsCompleteRecords() throws IOException {
+        String[] tests = new String[200];
+        for (int i = 0; i < tests.length; i++) {
+            tests[i] = "DataTest.row" + i;
+        }
+        Path shard = gzip(spool(directory.resolve("fork1.jsonl"), "fork-1", tests),
+            directory.resolve("shard_fork1" + ReportShards.SHARD_EXTENSION));
+        byte[] compressed = Files.readAllBytes(shard);
+        Files.write(shard, Arrays.copyOf(compressed, compressed.length / 2));
+        Path next = spool(directory.resolve("shard_fork2.jsonl"), "fork-2", "ProfileTest.edit");
+        
+        Path output = directory.resolve("MergedReport.html");
+        long merged = ReportMerger.merge(Arrays.asList(shard, next), output, "static");
+        
+        List<String> names = new ArrayList<>();
+        ResultSpool.read(output.resolveSibling("MergedReport_results.jsonl"), record -> names.add(record.getName()));
+        Assert.assertEquals(names.size(), merged);
+        Assert.assertTrue(merged > 1 && merged < tests.length + 1, "Merged " + merged + " tests");
+        Assert.assertEquals(names.get(names.size() - 1), "ProfileTest.edit", "The next shard is still merged");
+        Assert.assertEquals(names.get(0), "DataTest.row0");
+    }
+    
+    @Test(description = "Merging without any shard is an error", expectedExceptions = IllegalArgumentException.class)
+    public void testNoShardsIsAnError() {
+        ReportMerger.merge(Collections.singletonList(directory), directory.resolve("MergedReport.html"), "static");
+    }
+    
+    private static Path spool(Path path, String worker, String... tests) {
+        try (ResultSpool spool = ResultSpool.open(path, 60)) {
+            long start = 1_700_000_000_000L;
+            for (String test : tests) {
+                TestRecord record = new TestRecord(test, test, "", start, "TestNG-1", worker);
+                record.log(Status.PASS, "Step passed", start + 10);
+                record.finish(start + 20);
+                spool.append(record);
+                start += 100;
+            }
+        }
+        return path;
+    }
+    
+    private static Path gzip(Path source, Path target) throws IOException {
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(target))) {
+            output.write(Files.readString(source).getBytes(StandardCharsets.UTF_8));
+        }
+        return target;
+    }
+}
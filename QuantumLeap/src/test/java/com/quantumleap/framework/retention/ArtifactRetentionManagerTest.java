@@ -0,0 +1,169 @@
+package com.quantumleap.framework.retention;
+
+import com.quantumleap.framework.utils.ScreenshotStore;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for artifact retention: LRU eviction against the byte budget, recency kept in
+ * the persistent index, age limits, hardlinked screenshot objects and daily archives
+ * 
+ * @author QuantumLeap Team
+ */
+@Test(groups = {"unit"})
+public class ArtifactRetentionManagerTest {
+    
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+    
+    private Path root;
+    private Path indexFile;
+    private long now;
+    
+    @BeforeMethod
+    public void createRoot() throws IOException {
+        root = Files.createTempDirectory("retention");
+        indexFile = root.resolve(".index").resolve("artifact-index.csv");
+        now = System.currentTimeMillis();
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void deleteRoot() throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    @Test(description = "The least recently used files are evicted until the byte budget holds")
+    public void testLeastRecentlyUsedFilesAreEvictedFirst() throws IOException {
+        Path oldest = artifact("oldest.png", 100, 3);
+        Path older = artifact("older.png", 100, 2);
+        Path recent = artifact("recent.png", 100, 1);
+        
+        ArtifactRetentionManager.Result result = enforce(30, 150);
+        
+        Assert.assertEquals(result.getEvictedFiles(), 2);
+        Assert.assertEquals(result.getTotalBytes(), 100);
+        Assert.assertFalse(Files.exists(oldest));
+        Assert.assertFalse(Files.exists(older));
+        Assert.assertTrue(Files.exists(recent));
+    }
+    
+    @Test(description = "A later use recorded in the index outranks an old modification time")
+    public void testIndexedLastUseIsKept() throws IOException {
+        Path reused = artifact("reused.png", 100, 3);
+        Path unused = artifact("unused.png", 100, 2);
+        Files.createDirectories(indexFile.getParent());
+        Files.write(indexFile, List.of("path,size,lastUsed,firstSeen",
+            reused.toAbsolutePath().normalize() + ",100," + (now - TimeUnit.MINUTES.toMillis(10)) + "," + (now - 3 * DAY_MILLIS)),
+            StandardCharsets.UTF_8);
+        
+        ArtifactRetentionManager.Result result = enforce(30, 150);
+        
+        Assert.assertEquals(result.getEvictedFiles(), 1);
+        Assert.assertTrue(Files.exists(reused), "The index recorded a recent use of this file");
+        Assert.assertFalse(Files.exists(unused));
+        Assert.assertFalse(Files.readString(indexFile).contains("unused.png"), "Evicted files leave the index");
+    }
+    
+    @Test(description = "Files older than the age limit are evicted even within the budget")
+    public void testExpiredFilesAreEvicted() throws IOException {
+        Path expired = artifact("expired.png", 10, 10);
+        Path fresh = artifact("fresh.png", 10, 1);
+        
+        ArtifactRetentionManager.Result result = enforce(7, Long.MAX_VALUE);
+        
+        Assert.assertEquals(result.getEvictedFiles(), 1);
+        Assert.assertFalse(Files.exists(expired));
+        Assert.assertTrue(Files.exists(fresh));
+    }
+    
+    @Test(description = "Files of the current run and the retention index are never evicted")
+    public void testCurrentRunAndIndexAreKept() throws IOException {
+        Path current = root.resolve("current.png");
+        Files.write(current, new byte[100]);
+        
+        enforce(0, 0);
+        ArtifactRetentionManager.Result result = enforce(0, 0);
+        
+        Assert.assertEquals(result.getEvictedFiles(), 0);
+        Assert.assertTrue(Files.exists(current));
+        Assert.assertTrue(Files.exists(indexFile));
+    }
+    
+    @Test(description = "Hardlinked names of a screenshot object are evicted together and pruned from the store index")
+    public void testScreenshotObjectsAreEvictedWithTheirNames() throws IOException {
+        Path object = artifact(ScreenshotStore.OBJECTS_DIR + "/ab/abcdef.png", 100, 3);
+        Path name = root.resolve("testLogin.png");
+        try {
+            Files.createLink(name, object);
+        } catch (UnsupportedOperationException | IOException e) {
+            name = null;
+        }
+        Path storeIndex = root.resolve(ScreenshotStore.INDEX_FILE);
+        Files.write(storeIndex, List.of((now - 3 * DAY_MILLIS) + ",testLogin.png,abcdef,objects/ab/abcdef.png"),
+            StandardCharsets.UTF_8);
+        
+        ArtifactRetentionManager.Result result = enforce(30, 0);
+        
+        Assert.assertFalse(Files.exists(object));
+        if (name != null) {
+            Assert.assertFalse(Files.exists(name), "A hardlinked name shares the object's file key");
+            Assert.assertEquals(result.getEvictedFiles(), 2);
+        }
+        Assert.assertTrue(Files.exists(storeIndex), "The store index is not an artifact");
+        Assert.assertEquals(result.getPrunedIndexEntries(), 1);
+        Assert.assertTrue(Files.readAllLines(storeIndex).isEmpty());
+    }
+    
+    @Test(description = "Old text artifacts move into a daily zip archive")
+    public void testOldTextArtifactsAreArchived() throws IOException {
+        Path log = artifact("logs/run.log", 64, 2);
+        Path image = artifact("image.png", 64, 2);
+        
+        ArtifactRetentionManager.Result result = ArtifactRetentionManager.enforce(
+            Collections.singletonList(root), indexFile, 30, 1, Long.MAX_VALUE);
+        
+        Assert.assertEquals(result.getCompressedFiles(), 1);
+        Assert.assertFalse(Files.exists(log));
+        Assert.assertTrue(Files.exists(image), "Only text artifacts are archived");
+        List<Path> archives;
+        try (Stream<Path> files = Files.list(root.resolve("archive"))) {
+            archives = files.collect(Collectors.toList());
+        }
+        Assert.assertEquals(archives.size(), 1);
+        try (FileSystem zip = FileSystems.newFileSystem(URI.create("jar:" + archives.get(0).toUri()), Collections.emptyMap())) {
+            Assert.assertEquals(Files.size(zip.getPath("logs/run.log")), 64);
+        }
+    }
+    
+    private ArtifactRetentionManager.Result enforce(int maxAgeDays, long budgetBytes) {
+        return ArtifactRetentionManager.enforce(Collections.singletonList(root), indexFile, maxAgeDays, 30, budgetBytes);
+    }
+    
+    private Path artifact(String name, int size, int daysAgo) throws IOException {
+        Path file = root.resolve(name);
+        Files.createDirectories(file.getParent());
+        Files.write(file, new byte[size]);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(now - daysAgo * DAY_MILLIS));
+        return file;
+    }
+}
@@ -0,0 +1,123 @@
+package com.quantumleap.framework.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for the content-addressed screenshot store: deduplication of identical images,
+ * the index.csv format and pruning of entries whose objects were evicted
+ * 
+ * @author QuantumLeap Team
+ */
+@Test(groups = {"unit"})
+public class ScreenshotStoreTest {
+    
+    private Path directory;
+    
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("screenshot-store");
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+    
+    @Test(description = "Identical images are stored once and indexed under every name")
+    public void testIdenticalImagesAreDeduplicated() throws IOException {
+        String image = encode("same page state");
+        Path first = ScreenshotStore.store(directory.resolve("first.png"), image, "png");
+        Path second = ScreenshotStore.store(directory.resolve("second.png"), image, "png");
+        Path other = ScreenshotStore.store(directory.resolve("other.png"), encode("another page state"), "png");
+        Assert.assertTrue(ScreenshotWriter.awaitPendingWrites(), "Screenshot writes did not complete");
+        
+        Assert.assertEquals(second, first, "Identical content must map to the same object");
+        Assert.assertNotEquals(other, first);
+        Assert.assertEquals(objects().size(), 2, "Only distinct images are stored");
+        Assert.assertEquals(Files.readAllBytes(first), "same page state".getBytes(StandardCharsets.UTF_8));
+        
+        // objects/ab/<sha-256>.<ext>, fanned out by the first two hex digits
+        String hash = first.getFileName().toString().replace(".png", "");
+        Assert.assertEquals(hash.length(), 64);
+        Assert.assertEquals(first.getParent().getFileName().toString(), hash.substring(0, 2));
+        Assert.assertEquals(first.getParent().getParent(), directory.resolve(ScreenshotStore.OBJECTS_DIR));
+        
+        List<String[]> index = index();
+        Assert.assertEquals(index.size(), 3);
+        for (String[] entry : index) {
+            Assert.assertEquals(entry.length, 4, "timestamp,name,hash,object");
+            Path object = directory.resolve(entry[3]);
+            Assert.assertTrue(Files.exists(object), "Index entry points to a missing object: " + entry[3]);
+            Assert.assertTrue(object.getFileName().toString().startsWith(entry[2]));
+        }
+        Assert.assertEquals(index.stream().filter(entry -> entry[2].equals(hash)).count(), 2);
+    }
+    
+    @Test(description = "An evicted object is written again when the same image is stored")
+    public void testEvictedObjectIsRewritten() throws IOException {
+        String image = encode("evicted page state");
+        Path object = ScreenshotStore.store(directory.resolve("before.png"), image, "png");
+        Assert.assertTrue(ScreenshotWriter.awaitPendingWrites());
+        Files.delete(object);
+        
+        ScreenshotStore.store(directory.resolve("after.png"), image, "png");
+        Assert.assertTrue(ScreenshotWriter.awaitPendingWrites());
+        
+        Assert.assertTrue(Files.exists(object), "Deduplication must not reuse an object that is gone");
+        try (Stream<Path> files = Files.list(object.getParent())) {
+            Assert.assertTrue(files.noneMatch(path -> path.toString().endsWith(".tmp")), "Temp file left behind");
+        }
+    }
+    
+    @Test(description = "Pruning drops only the index entries of evicted objects")
+    public void testPruneIndexDropsEvictedEntries() throws IOException {
+        Path kept = ScreenshotStore.store(directory.resolve("kept.png"), encode("kept"), "png");
+        Path evicted = ScreenshotStore.store(directory.resolve("evicted.png"), encode("evicted"), "png");
+        ScreenshotStore.store(directory.resolve("evicted-again.png"), encode("evicted"), "png");
+        Assert.assertTrue(ScreenshotWriter.awaitPendingWrites());
+        Files.delete(evicted);
+        
+        Path indexFile = directory.resolve(ScreenshotStore.INDEX_FILE);
+        Assert.assertEquals(ScreenshotStore.pruneIndex(indexFile), 2);
+        List<String[]> index = index();
+        Assert.assertEquals(index.size(), 1);
+        Assert.assertEquals(index.get(0)[1], "kept.png");
+        Assert.assertEquals(directory.resolve(index.get(0)[3]), kept);
+        Assert.assertFalse(Files.exists(directory.resolve(ScreenshotStore.INDEX_FILE + ".tmp")));
+        
+        Assert.assertEquals(ScreenshotStore.pruneIndex(indexFile), 0, "A clean index is left untouched");
+    }
+    
+    private static String encode(String content) {
+        return Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private List<Path> objects() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory.resolve(ScreenshotStore.OBJECTS_DIR))) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+    
+    private List<String[]> index() throws IOException {
+        return Files.readAllLines(directory.resolve(ScreenshotStore.INDEX_FILE), StandardCharsets.UTF_8).stream()
+            .map(line -> line.split(","))
+            .collect(Collectors.toList());
+    }
+}
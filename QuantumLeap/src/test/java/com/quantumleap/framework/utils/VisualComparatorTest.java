@@ -0,0 +1,140 @@
+package com.quantumleap.framework.utils;
+
+import org.openqa.selenium.Rectangle;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Unit tests for the tile-hash visual comparison: per-pixel diffs inside changed tiles,
+ * colour tolerance, partial edge tiles, masks and decoding of different raster layouts
+ * 
+ * @author QuantumLeap Team
+ */
+@Test(groups = {"unit"})
+public class VisualComparatorTest {
+    
+    private static final int WIDTH = 100;
+    private static final int HEIGHT = 70;
+    private static final int TILE = 32;
+    
+    @Test(description = "Identical images match without any changed tile")
+    public void testIdenticalImagesMatch() {
+        VisualDiff diff = compare(image(), image(), options(), Collections.emptyList());
+        
+        Assert.assertTrue(diff.isPassed());
+        Assert.assertEquals(diff.getDiffPixels(), 0);
+        Assert.assertTrue(diff.getDifferingTiles().isEmpty());
+    }
+    
+    @Test(description = "A changed pixel is counted and reported with the bounds of its tile")
+    public void testChangedPixelIsLocatedByTile() {
+        BufferedImage actual = image();
+        actual.setRGB(50, 40, 0xFF0000);
+        
+        VisualDiff diff = compare(image(), actual, options(), Collections.emptyList());
+        
+        Assert.assertEquals(diff.getDiffPixels(), 1);
+        Assert.assertEquals(diff.getDiffRatio(), 1.0 / (WIDTH * HEIGHT), 1e-12);
+        Assert.assertEquals(diff.getDifferingTiles(), List.of(new Rectangle(32, 32, TILE, TILE)));
+        Assert.assertTrue(diff.isPassed(), "One pixel is within the default allowed ratio");
+        Assert.assertFalse(compare(image(), actual, options().withMaxDiffRatio(0), Collections.emptyList()).isPassed());
+    }
+    
+    @Test(description = "Partial tiles at the right and bottom edges are clipped to the image")
+    public void testEdgeTileIsClipped() {
+        BufferedImage actual = image();
+        actual.setRGB(WIDTH - 1, HEIGHT - 1, 0x00FF00);
+        
+        VisualDiff diff = compare(image(), actual, options(), Collections.emptyList());
+        
+        Assert.assertEquals(diff.getDiffPixels(), 1);
+        // Selenium's Rectangle takes the height before the width
+        Assert.assertEquals(diff.getDifferingTiles(), List.of(new Rectangle(96, 64, HEIGHT - 64, WIDTH - 96)));
+    }
+    
+    @Test(description = "Colour changes within the tolerance change the tile hash but not the result")
+    public void testChangesWithinToleranceAreIgnored() {
+        BufferedImage actual = image();
+        int rgb = actual.getRGB(10, 10) & 0xFFFFFF;
+        actual.setRGB(10, 10, rgb + 10);
+        
+        VisualDiff diff = compare(image(), actual, options().withColorTolerance(16), Collections.emptyList());
+        Assert.assertEquals(diff.getDiffPixels(), 0);
+        Assert.assertTrue(diff.getDifferingTiles().isEmpty());
+        
+        VisualDiff strict = compare(image(), actual, options().withColorTolerance(5), Collections.emptyList());
+        Assert.assertEquals(strict.getDiffPixels(), 1);
+    }
+    
+    @Test(description = "Masked pixels and fully masked tiles are excluded from the diff")
+    public void testMasksExcludeRegions() {
+        BufferedImage actual = image();
+        for (int y = 0; y < TILE; y++) {
+            for (int x = 0; x < TILE; x++) {
+                actual.setRGB(x, y, 0xFFFFFF);
+            }
+        }
+        actual.setRGB(40, 5, 0x000000);
+        actual.setRGB(41, 5, 0x000000);
+        
+        List<Rectangle> masks = List.of(new Rectangle(0, 0, TILE, TILE), new Rectangle(40, 5, 1, 1));
+        VisualDiff diff = compare(image(), actual, options(), masks);
+        
+        Assert.assertEquals(diff.getDiffPixels(), 1, "Only the unmasked pixel at (41, 5) differs");
+        Assert.assertEquals(diff.getDifferingTiles(), List.of(new Rectangle(32, 0, TILE, TILE)));
+    }
+    
+    @Test(description = "Images of different sizes never match")
+    public void testSizeMismatchFails() {
+        BufferedImage smaller = new BufferedImage(WIDTH, HEIGHT - 1, BufferedImage.TYPE_INT_RGB);
+        
+        VisualDiff diff = compare(image(), smaller, options(), Collections.emptyList());
+        
+        Assert.assertFalse(diff.isPassed());
+        Assert.assertEquals(diff.getDiffRatio(), 1.0);
+        Assert.assertTrue(diff.toSummary().contains("differs from baseline"), diff.toSummary());
+    }
+    
+    @Test(description = "Byte and int rasters with the same colours decode to the same pixels")
+    public void testRasterLayoutsDecodeAlike() {
+        BufferedImage bgr = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage abgr = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_4BYTE_ABGR);
+        BufferedImage source = image();
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                bgr.setRGB(x, y, source.getRGB(x, y));
+                abgr.setRGB(x, y, source.getRGB(x, y));
+            }
+        }
+        
+        Assert.assertEquals(compare(source, bgr, options(), Collections.emptyList()).getDiffPixels(), 0);
+        Assert.assertEquals(compare(source, abgr, options(), Collections.emptyList()).getDiffPixels(), 0);
+    }
+    
+    private static VisualDiff compare(BufferedImage baseline, BufferedImage actual, VisualCompareOptions options,
+                                      List<Rectangle> masks) {
+        return VisualComparator.compare(VisualComparator.tile(baseline, options.getTileSize()),
+            VisualComparator.tile(actual, options.getTileSize()), options, masks);
+    }
+    
+    private static VisualCompareOptions options() {
+        return new VisualCompareOptions().withTileSize(TILE).withColorTolerance(0);
+    }
+    
+    /**
+     * Deterministic gradient so every tile has distinct content
+     */
+    private static BufferedImage image() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                image.setRGB(x, y, (x * 2) << 16 | (y * 3) << 8 | ((x + y) % 200));
+            }
+        }
+        return image;
+    }
+}
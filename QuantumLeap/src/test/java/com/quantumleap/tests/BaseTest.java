@@ -2,8 +2,12 @@ package com.quantumleap.tests;
 
 import com.quantumleap.framework.base.WebDriverFactory;
 import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.recording.FailureArtifactCollector;
+import com.quantumleap.framework.recording.FailureArtifacts;
+import com.quantumleap.framework.retention.ArtifactRetentionManager;
 import com.quantumleap.framework.utils.ExtentReportManager;
 import com.quantumleap.framework.utils.ScreenshotUtils;
+import com.quantumleap.framework.utils.TestContext;
 import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,8 +36,8 @@ public abstract class BaseTest {
         logger.info("=== Starting Test Suite Execution ===");
         config = ConfigManager.getInstance();
         
-        // Clean up old screenshots
-        ScreenshotUtils.cleanupOldScreenshots(7); // Keep screenshots for 7 days
+        // Enforce artifact retention in the background so start-up does not scan history
+        ArtifactRetentionManager.startInBackground();
         
         logger.info("Browser: {}", config.getBrowser());
         logger.info("Base URL: {}", config.getWebBaseUrl());
@@ -44,6 +48,7 @@ public abstract class BaseTest {
     @BeforeMethod(alwaysRun = true)
     public void beforeMethod(Method method) {
         logger.info("=== Starting Test: {} ===", method.getName());
+        TestContext.setCurrentTestName(method.getName());
         
         try {
             // Initialize config if not already done
@@ -83,15 +88,10 @@ public abstract class BaseTest {
             if (result.getStatus() == ITestResult.FAILURE) {
                 logger.error("Test FAILED: {}", testName);
                 
-                // Capture screenshot on failure if enabled
-                if (config.isScreenshotOnFailure() && WebDriverFactory.isDriverInitialized()) {
-                    String screenshotPath = ScreenshotUtils.captureScreenshot(testName + "_FAILED");
-                    if (screenshotPath != null) {
-                        logger.info("Failure screenshot saved: {}", screenshotPath);
-                        
-                        // Set screenshot path in test result for reporting
-                        System.setProperty("screenshot.path", screenshotPath);
-                    }
+                // Collect failure artifacts once while the driver is still alive; reporters read them from the result
+                FailureArtifacts artifacts = FailureArtifactCollector.collect(result);
+                if (artifacts != null) {
+                    logger.info("Failure artifacts collected in {}ms", artifacts.getCollectionMillis());
                 }
                 
                 // Log failure reason
@@ -1,6 +1,9 @@
 package com.quantumleap.tests.api;
 
 import com.quantumleap.framework.config.ConfigManager;
+import com.quantumleap.framework.jfr.FlightRecorderFilter;
+import com.quantumleap.framework.recording.ResponseBodyRecorder;
+import com.quantumleap.framework.tracing.TracingFilter;
 import com.quantumleap.framework.utils.ExtentReportManager;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
@@ -26,6 +29,8 @@ import java.util.concurrent.TimeUnit;
 public abstract class BaseApiTest {
     
     protected static final Logger logger = LoggerFactory.getLogger(BaseApiTest.class);
+    private static final TracingFilter tracingFilter = new TracingFilter();
+    private static final FlightRecorderFilter flightRecorderFilter = new FlightRecorderFilter();
     protected ConfigManager config;
     protected RequestSpecification requestSpec;
     protected ResponseSpecification responseSpec;
@@ -95,7 +100,8 @@ public abstract class BaseApiTest {
      */
     protected RequestSpecification givenRequest() {
         return RestAssured.given()
-            .spec(requestSpec);
+            .spec(requestSpec)
+            .filters(tracingFilter, flightRecorderFilter);
     }
     
     /**
@@ -107,6 +113,7 @@ public abstract class BaseApiTest {
     protected RequestSpecification givenRequestWithContentType(ContentType contentType) {
         return RestAssured.given()
             .spec(requestSpec)
+            .filters(tracingFilter, flightRecorderFilter)
             .contentType(contentType);
     }
     
@@ -174,23 +181,14 @@ public abstract class BaseApiTest {
     }
     
     /**
-     * Print formatted response for debugging
+     * Print response status, timing and a size-limited body preview for debugging
+     * Body handling follows the api.response.* logging policy of ResponseBodyRecorder
      * 
      * @param response Response to print
      * @param description Description of the response
      */
     protected void printResponse(Response response, String description) {
-        logger.info("=== {} ===", description);
-        logger.info("Status Code: {}", response.getStatusCode());
-        logger.info("Response Time: {} ms", response.getTime());
-        logger.info("Response Body: {}", response.asPrettyString());
-        logger.info("===============================");
-        
-        // Log to Extent Report
-        ExtentReportManager.logInfo(String.format("=== %s ===", description));
-        ExtentReportManager.logInfo("Status Code: " + response.getStatusCode());
-        ExtentReportManager.logInfo("Response Time: " + response.getTime() + " ms");
-        ExtentReportManager.logInfo("Response Body: " + response.asPrettyString());
+        ResponseBodyRecorder.record(response, description);
     }
     
     /**
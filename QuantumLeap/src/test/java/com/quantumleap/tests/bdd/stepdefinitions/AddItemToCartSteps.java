@@ -3,9 +3,13 @@ package com.quantumleap.tests.bdd.stepdefinitions;
 import com.quantumleap.framework.base.WebDriverFactory;
 import com.quantumleap.framework.config.ConfigManager;
 import com.quantumleap.framework.pages.*;
+import com.quantumleap.framework.performance.BrowserMetricsTracker;
 import io.cucumber.datatable.DataTable;
 import io.cucumber.java.After;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeStep;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
@@ -36,6 +40,8 @@ public class AddItemToCartSteps {
     private CheckoutPage checkoutPage;
     
     private long operationStartTime;
+    private BrowserMetricsTracker.Scope stepMetrics;
+    private int stepNumber;
     
     @Before
     public void setUp() {
@@ -52,6 +58,21 @@ public class AddItemToCartSteps {
         }
     }
     
+    @BeforeStep
+    public void beforeStep(Scenario scenario) {
+        stepNumber++;
+        stepMetrics = BrowserMetricsTracker.begin(BrowserMetricsTracker.Kind.STEP,
+            scenario.getName() + " - step " + stepNumber);
+    }
+    
+    @AfterStep
+    public void afterStep() {
+        if (stepMetrics != null) {
+            stepMetrics.close();
+            stepMetrics = null;
+        }
+    }
+    
     // Background Steps
     
     @Given("the user is on the login page")
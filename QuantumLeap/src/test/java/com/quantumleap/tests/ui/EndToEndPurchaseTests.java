@@ -1,6 +1,7 @@
 package com.quantumleap.tests.ui;
 
 import com.quantumleap.framework.pages.*;
+import com.quantumleap.framework.utils.ExtentReportManager;
 import com.quantumleap.tests.BaseTest;
 import com.quantumleap.tests.TestDataProvider;
 import org.testng.Assert;
@@ -40,6 +41,7 @@ public class EndToEndPurchaseTests extends BaseTest {
         
         Assert.assertTrue(loginPage.isLoginPageDisplayed(), 
             "Login page should be displayed");
+        loginPage.verifyVisualBaseline("login");
         
         Object loginResult = loginPage.login(username, password);
         Assert.assertTrue(loginResult instanceof ProductsPage, 
@@ -54,6 +56,7 @@ public class EndToEndPurchaseTests extends BaseTest {
             "Products page should be displayed");
         Assert.assertTrue(productsPage.areProductsDisplayedCorrectly(), 
             "Products should be displayed correctly");
+        productsPage.verifyVisualBaseline(scenario);
         
         // Verify initial cart state
         Assert.assertEquals(productsPage.getShoppingCartItemCount(), 0, 
@@ -92,6 +95,7 @@ public class EndToEndPurchaseTests extends BaseTest {
         Assert.assertTrue(cartPage.verifyCartContains(productsToAdd), 
             "Cart should contain all expected products");
         logAssertion("All products verified in cart", true);
+        cartPage.verifyVisualBaseline(scenario);
         
         // Log cart summary
         String cartSummary = cartPage.getCartSummary();
@@ -108,6 +112,7 @@ public class EndToEndPurchaseTests extends BaseTest {
             "Checkout information page should be displayed");
         Assert.assertTrue(checkoutPage.areCheckoutFieldsAccessible(), 
             "Checkout fields should be accessible");
+        checkoutPage.verifyVisualBaseline("information - " + scenario);
         
         // Step 5: Fill Checkout Information
         logTestStep("Step 5: Filling checkout information");
@@ -133,13 +138,16 @@ public class EndToEndPurchaseTests extends BaseTest {
         softAssert.assertFalse(tax.isEmpty(), "Tax should be displayed");
         softAssert.assertFalse(total.isEmpty(), "Total should be displayed");
         softAssert.assertAll();
+        checkoutPage.verifyVisualBaseline("overview - " + scenario);
         
         // Log order summary
         String orderSummary = checkoutPage.getCheckoutSummary();
         logTestInfo("Order Summary:\\n" + orderSummary);
         
-        // Take screenshot of order review
-        takeScreenshot("order_review_" + scenario.replaceAll("\\s+", "_"));
+        // Take screenshot of the order summary only
+        ExtentReportManager.addScreenshot(
+            checkoutPage.captureSummaryScreenshot("order_review_" + scenario.replaceAll("\\s+", "_")),
+            "Order Summary");
         
         // Step 7: Complete Order
         logTestStep("Step 7: Completing the order");
@@ -157,6 +165,7 @@ public class EndToEndPurchaseTests extends BaseTest {
             "Completion header should be displayed");
         Assert.assertFalse(completionText.isEmpty(), 
             "Completion text should be displayed");
+        checkoutPage.verifyVisualBaseline("complete - " + scenario);
         
         logTestInfo("Order completion header: " + completionHeader);
         logTestInfo("Order completion text: " + completionText);